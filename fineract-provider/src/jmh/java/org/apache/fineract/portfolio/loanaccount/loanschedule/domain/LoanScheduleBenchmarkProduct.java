@@ -0,0 +1,198 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.loanschedule.domain;
+
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.apache.fineract.organisation.holiday.domain.Holiday;
+import org.apache.fineract.organisation.holiday.domain.HolidayStatusType;
+import org.apache.fineract.organisation.holiday.domain.RescheduleType;
+import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.workingdays.domain.RepaymentRescheduleType;
+import org.apache.fineract.organisation.workingdays.domain.WorkingDays;
+import org.apache.fineract.portfolio.common.domain.DaysInMonthType;
+import org.apache.fineract.portfolio.common.domain.DaysInYearType;
+import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
+import org.apache.fineract.portfolio.loanaccount.data.DisbursementData;
+import org.apache.fineract.portfolio.loanaccount.data.HolidayDetailDTO;
+import org.apache.fineract.portfolio.loanproduct.domain.AmortizationMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestCalculationPeriodMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestRecalculationCompoundingMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.LoanPreClosureInterestCalculationStrategy;
+import org.apache.fineract.portfolio.loanproduct.domain.RecalculationFrequencyType;
+
+/**
+ * Loan products the schedule benchmarks generate repayment schedules for, built without a database.
+ *
+ * Entities the schedule generator reads (currency, working days, holidays) only have constructors for the persistence
+ * layer, so they are created reflectively.
+ */
+public enum LoanScheduleBenchmarkProduct {
+
+    DAILY(PeriodFrequencyType.DAYS, 180, InterestMethod.DECLINING_BALANCE), //
+    WEEKLY(PeriodFrequencyType.WEEKS, 52, InterestMethod.DECLINING_BALANCE), //
+    MONTHLY(PeriodFrequencyType.MONTHS, 36, InterestMethod.DECLINING_BALANCE), //
+    MONTHLY_FLAT(PeriodFrequencyType.MONTHS, 36, InterestMethod.FLAT), //
+    INTEREST_RECALCULATION(PeriodFrequencyType.MONTHS, 36, InterestMethod.DECLINING_BALANCE) {
+
+        @Override
+        boolean isInterestRecalculationEnabled() {
+            return true;
+        }
+    }, //
+    MULTI_TRANCHE(PeriodFrequencyType.MONTHS, 36, InterestMethod.DECLINING_BALANCE) {
+
+        @Override
+        int tranches() {
+            return 3;
+        }
+    }, //
+    GRACE_PERIODS(PeriodFrequencyType.MONTHS, 36, InterestMethod.DECLINING_BALANCE) {
+
+        @Override
+        Integer principalGrace() {
+            return 6;
+        }
+
+        @Override
+        Integer interestPaymentGrace() {
+            return 3;
+        }
+    }, //
+    HOLIDAYS(PeriodFrequencyType.WEEKS, 52, InterestMethod.DECLINING_BALANCE) {
+
+        @Override
+        boolean hasHolidays() {
+            return true;
+        }
+    };
+
+    private static final LocalDate DISBURSEMENT_DATE = LocalDate.of(2021, 1, 4);
+    private static final BigDecimal PRINCIPAL = BigDecimal.valueOf(100000);
+    private static final BigDecimal ANNUAL_INTEREST_RATE = BigDecimal.valueOf(24);
+    private static final String FIVE_DAY_WEEK = "FREQ=WEEKLY;INTERVAL=1;BYDAY=MO,TU,WE,TH,FR";
+    private static final String SEVEN_DAY_WEEK = "FREQ=WEEKLY;INTERVAL=1;BYDAY=MO,TU,WE,TH,FR,SA,SU";
+
+    private final PeriodFrequencyType repaymentFrequency;
+    private final int numberOfRepayments;
+    private final InterestMethod interestMethod;
+
+    LoanScheduleBenchmarkProduct(final PeriodFrequencyType repaymentFrequency, final int numberOfRepayments,
+            final InterestMethod interestMethod) {
+        this.repaymentFrequency = repaymentFrequency;
+        this.numberOfRepayments = numberOfRepayments;
+        this.interestMethod = interestMethod;
+    }
+
+    InterestMethod interestMethod() {
+        return this.interestMethod;
+    }
+
+    boolean isInterestRecalculationEnabled() {
+        return false;
+    }
+
+    int tranches() {
+        return 1;
+    }
+
+    Integer principalGrace() {
+        return null;
+    }
+
+    Integer interestPaymentGrace() {
+        return null;
+    }
+
+    boolean hasHolidays() {
+        return false;
+    }
+
+    /**
+     * The application terms of a new loan of this product. Terms keep running totals while a schedule is generated, so
+     * each schedule needs its own.
+     */
+    LoanApplicationTerms terms(final ApplicationCurrency applicationCurrency, final HolidayDetailDTO holidayDetails) {
+        final MonetaryCurrency currency = new MonetaryCurrency(applicationCurrency.getCode(), applicationCurrency.getDecimalPlaces(),
+                applicationCurrency.getCurrencyInMultiplesOf());
+        final boolean multiDisburseLoan = tranches() > 1;
+        final List<DisbursementData> disbursements = new ArrayList<>();
+        if (multiDisburseLoan) {
+            final BigDecimal trancheAmount = PRINCIPAL.divide(BigDecimal.valueOf(tranches()), 2, RoundingMode.HALF_EVEN);
+            for (int tranche = 0; tranche < tranches(); tranche++) {
+                disbursements.add(new DisbursementData(null, DISBURSEMENT_DATE.plusMonths(3L * tranche), null, trancheAmount, null, null,
+                        null, null));
+            }
+        }
+        final boolean recalculation = isInterestRecalculationEnabled();
+        return LoanApplicationTerms.assembleFrom(applicationCurrency, this.numberOfRepayments, this.repaymentFrequency,
+                this.numberOfRepayments, 1, this.repaymentFrequency, null, null, AmortizationMethod.EQUAL_INSTALLMENTS, this.interestMethod,
+                ANNUAL_INTEREST_RATE, PeriodFrequencyType.YEARS, ANNUAL_INTEREST_RATE,
+                recalculation ? InterestCalculationPeriodMethod.DAILY : InterestCalculationPeriodMethod.SAME_AS_REPAYMENT_PERIOD, false,
+                Money.of(currency, PRINCIPAL), DISBURSEMENT_DATE, null, null, principalGrace(), null, interestPaymentGrace(), null, null,
+                Money.zero(currency), multiDisburseLoan, null, disbursements, multiDisburseLoan ? PRINCIPAL : null, null,
+                DaysInMonthType.ACTUAL, DaysInYearType.ACTUAL, recalculation,
+                recalculation ? RecalculationFrequencyType.SAME_AS_REPAYMENT_PERIOD : null, null,
+                InterestRecalculationCompoundingMethod.NONE, null, null, BigDecimal.valueOf(50), null,
+                LoanPreClosureInterestCalculationStrategy.TILL_PRE_CLOSURE_DATE, null,
+                BigDecimal.ZERO, new ArrayList<>(), false, 0, false, holidayDetails, false, false, null, null);
+    }
+
+    HolidayDetailDTO holidayDetails() throws ReflectiveOperationException {
+        final WorkingDays workingDays = construct(WorkingDays.class,
+                new Class<?>[] { String.class, Integer.class, Boolean.class, Boolean.class },
+                hasHolidays() ? FIVE_DAY_WEEK : SEVEN_DAY_WEEK, RepaymentRescheduleType.MOVE_TO_NEXT_WORKING_DAY.getValue(), Boolean.FALSE,
+                Boolean.FALSE);
+        if (!hasHolidays()) {
+            return new HolidayDetailDTO(false, Collections.emptyList(), workingDays);
+        }
+        final List<Holiday> holidays = new ArrayList<>();
+        for (int month = 0; month < 12; month++) {
+            final LocalDate fromDate = DISBURSEMENT_DATE.plusMonths(month).plusDays(10);
+            holidays.add(construct(Holiday.class,
+                    new Class<?>[] { String.class, LocalDate.class, LocalDate.class, LocalDate.class, Integer.class, boolean.class,
+                            String.class, Set.class, int.class },
+                    "Holiday " + month, fromDate, fromDate.plusDays(2), fromDate.plusDays(3), HolidayStatusType.ACTIVE.getValue(), true,
+                    null, Collections.emptySet(), RescheduleType.RESCHEDULETOSPECIFICDATE.getValue()));
+        }
+        return new HolidayDetailDTO(true, holidays, workingDays);
+    }
+
+    static ApplicationCurrency currency() throws ReflectiveOperationException {
+        return construct(ApplicationCurrency.class,
+                new Class<?>[] { String.class, String.class, int.class, Integer.class, String.class, String.class }, "USD", "US Dollar", 2,
+                null, "currency.USD", "$");
+    }
+
+    private static <T> T construct(final Class<T> type, final Class<?>[] parameterTypes, final Object... arguments)
+            throws ReflectiveOperationException {
+        final Constructor<T> constructor = type.getDeclaredConstructor(parameterTypes);
+        constructor.setAccessible(true);
+        return constructor.newInstance(arguments);
+    }
+}
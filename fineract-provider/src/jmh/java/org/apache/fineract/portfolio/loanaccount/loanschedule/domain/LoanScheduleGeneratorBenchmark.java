@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.loanschedule.domain;
+
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.loanaccount.data.HolidayDetailDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures generating the repayment schedule of a new loan, the work done for every loan calculation, submission and
+ * reschedule. Run with {@code ./gradlew :fineract-provider:jmh}; the gc profiler reports the allocation per schedule as
+ * {@code gc.alloc.rate.norm}.
+ *
+ * Loan application terms keep running totals while a schedule is generated, so fresh terms are assembled before every
+ * invocation, outside the measured time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoanScheduleGeneratorBenchmark {
+
+    private static final MathContext MATH_CONTEXT = new MathContext(8, RoundingMode.HALF_EVEN);
+
+    @Param
+    private LoanScheduleBenchmarkProduct product;
+
+    private LoanScheduleGenerator generator;
+    private ApplicationCurrency currency;
+    private HolidayDetailDTO holidayDetails;
+    private LoanApplicationTerms terms;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        MoneyHelper.initialize(RoundingMode.HALF_EVEN);
+        this.generator = new DefaultLoanScheduleGeneratorFactory().create(this.product.interestMethod());
+        this.currency = LoanScheduleBenchmarkProduct.currency();
+        this.holidayDetails = this.product.holidayDetails();
+    }
+
+    @Setup(Level.Invocation)
+    public void assembleTerms() {
+        this.terms = this.product.terms(this.currency, this.holidayDetails);
+    }
+
+    @Benchmark
+    public LoanScheduleModel generate() {
+        return this.generator.generate(MATH_CONTEXT, this.terms, new HashSet<>(), this.holidayDetails);
+    }
+}
@@ -48,7 +48,7 @@ public class LoanTransactionDTO {
     private final List<ChargePaymentDTO> penaltyPayments;
     private final List<ChargePaymentDTO> feePayments;
 
-    private final boolean isAccountTransfer;
+    private boolean isAccountTransfer;
 
     private boolean isLoanToLoanTransfer;
 
@@ -133,6 +133,10 @@ public class LoanTransactionDTO {
         return this.isAccountTransfer;
     }
 
+    public void setAccountTransfer(final boolean isAccountTransfer) {
+        this.isAccountTransfer = isAccountTransfer;
+    }
+
     public void setIsLoanToLoanTransfer(boolean isLoanToLoanTransfer) {
         this.isLoanToLoanTransfer = isLoanToLoanTransfer;
     }
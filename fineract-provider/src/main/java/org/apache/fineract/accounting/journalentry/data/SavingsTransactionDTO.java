@@ -42,7 +42,7 @@ public class SavingsTransactionDTO {
     private final List<ChargePaymentDTO> feePayments;
     private final List<TaxPaymentDTO> taxPayments;
 
-    private final boolean isAccountTransfer;
+    private boolean isAccountTransfer;
 
     public SavingsTransactionDTO(final Long officeId, final Long paymentTypeId, final String transactionId, final Date transactionDate,
             final SavingsAccountTransactionEnumData transactionType, final BigDecimal amount, final boolean reversed,
@@ -110,6 +110,10 @@ public class SavingsTransactionDTO {
         return this.isAccountTransfer;
     }
 
+    public void setAccountTransfer(final boolean isAccountTransfer) {
+        this.isAccountTransfer = isAccountTransfer;
+    }
+
     public List<TaxPaymentDTO> getTaxPayments() {
         return this.taxPayments;
     }
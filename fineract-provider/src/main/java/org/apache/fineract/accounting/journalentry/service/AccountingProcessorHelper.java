@@ -22,9 +22,11 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.accounting.closure.domain.GLClosure;
 import org.apache.fineract.accounting.closure.domain.GLClosureRepository;
@@ -66,11 +68,9 @@ import org.apache.fineract.portfolio.account.PortfolioAccountType;
 import org.apache.fineract.portfolio.account.service.AccountTransfersReadPlatformService;
 import org.apache.fineract.portfolio.client.domain.ClientTransaction;
 import org.apache.fineract.portfolio.client.domain.ClientTransactionRepositoryWrapper;
-import org.apache.fineract.portfolio.loanaccount.data.LoanTransactionEnumData;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanTransactionRepository;
 import org.apache.fineract.portfolio.paymentdetail.domain.PaymentDetail;
-import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionEnumData;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransactionRepository;
 import org.apache.fineract.portfolio.shareaccounts.data.ShareAccountTransactionEnumData;
@@ -117,145 +117,49 @@ public class AccountingProcessorHelper {
         this.clientTransactionRepository = clientTransactionRepositoryWrapper;
     }
 
-    public LoanDTO populateLoanDtoFromMap(final Map<String, Object> accountingBridgeData, final boolean cashBasedAccountingEnabled,
-            final boolean upfrontAccrualBasedAccountingEnabled, final boolean periodicAccrualBasedAccountingEnabled) {
-        final Long loanId = (Long) accountingBridgeData.get("loanId");
-        final Long loanProductId = (Long) accountingBridgeData.get("loanProductId");
-        final Long officeId = (Long) accountingBridgeData.get("officeId");
-        final CurrencyData currencyData = (CurrencyData) accountingBridgeData.get("currency");
-        final List<LoanTransactionDTO> newLoanTransactions = new ArrayList<>();
-        boolean isAccountTransfer = (Boolean) accountingBridgeData.get("isAccountTransfer");
-
-        @SuppressWarnings("unchecked")
-        final List<Map<String, Object>> newTransactionsMap = (List<Map<String, Object>>) accountingBridgeData.get("newLoanTransactions");
-
-        for (final Map<String, Object> map : newTransactionsMap) {
-            final Long transactionOfficeId = (Long) map.get("officeId");
-            final String transactionId = ((Long) map.get("id")).toString();
-            final Date transactionDate = Date
-                    .from(((LocalDate) map.get("date")).atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant());
-            final LoanTransactionEnumData transactionType = (LoanTransactionEnumData) map.get("type");
-            final BigDecimal amount = (BigDecimal) map.get("amount");
-            final BigDecimal principal = (BigDecimal) map.get("principalPortion");
-            final BigDecimal interest = (BigDecimal) map.get("interestPortion");
-            final BigDecimal fees = (BigDecimal) map.get("feeChargesPortion");
-            final BigDecimal penalties = (BigDecimal) map.get("penaltyChargesPortion");
-            final BigDecimal overPayments = (BigDecimal) map.get("overPaymentPortion");
-            final boolean reversed = (Boolean) map.get("reversed");
-            final Long paymentTypeId = (Long) map.get("paymentTypeId");
-
-            final List<ChargePaymentDTO> feePaymentDetails = new ArrayList<>();
-            final List<ChargePaymentDTO> penaltyPaymentDetails = new ArrayList<>();
-            // extract charge payment details (if exists)
-            if (map.containsKey("loanChargesPaid")) {
-                @SuppressWarnings("unchecked")
-                final List<Map<String, Object>> loanChargesPaidData = (List<Map<String, Object>>) map.get("loanChargesPaid");
-                for (final Map<String, Object> loanChargePaid : loanChargesPaidData) {
-                    final Long chargeId = (Long) loanChargePaid.get("chargeId");
-                    final Long loanChargeId = (Long) loanChargePaid.get("loanChargeId");
-                    final boolean isPenalty = (Boolean) loanChargePaid.get("isPenalty");
-                    final BigDecimal chargeAmountPaid = (BigDecimal) loanChargePaid.get("amount");
-                    final ChargePaymentDTO chargePaymentDTO = new ChargePaymentDTO(chargeId, loanChargeId, chargeAmountPaid);
-                    if (isPenalty) {
-                        penaltyPaymentDetails.add(chargePaymentDTO);
-                    } else {
-                        feePaymentDetails.add(chargePaymentDTO);
-                    }
-                }
-            }
-
-            if (!isAccountTransfer) {
-                isAccountTransfer = this.accountTransfersReadPlatformService.isAccountTransfer(Long.parseLong(transactionId),
-                        PortfolioAccountType.LOAN);
-            }
-            final LoanTransactionDTO transaction = new LoanTransactionDTO(transactionOfficeId, paymentTypeId, transactionId,
-                    transactionDate, transactionType, amount, principal, interest, fees, penalties, overPayments, reversed,
-                    feePaymentDetails, penaltyPaymentDetails, isAccountTransfer);
-            Boolean isLoanToLoanTransfer = (Boolean) accountingBridgeData.get("isLoanToLoanTransfer");
-            if (isLoanToLoanTransfer != null && isLoanToLoanTransfer) {
-                transaction.setIsLoanToLoanTransfer(true);
-            } else {
-                transaction.setIsLoanToLoanTransfer(false);
+    /**
+     * Flags the transactions of <code>loanDTO</code> that are part of an account transfer, with a single lookup for all
+     * of them. See {@link #identifyAccountTransfers(SavingsDTO)} for which transactions are flagged.
+     */
+    public void identifyAccountTransfers(final LoanDTO loanDTO) {
+        final Set<Long> transactionIds = new HashSet<>();
+        for (final LoanTransactionDTO transaction : loanDTO.getNewLoanTransactions()) {
+            if (transaction.isAccountTransfer()) {
+                break;
             }
-            newLoanTransactions.add(transaction);
-
+            transactionIds.add(Long.parseLong(transaction.getTransactionId()));
+        }
+        final Set<Long> accountTransferTransactionIds = this.accountTransfersReadPlatformService
+                .retrieveAccountTransferTransactionIds(transactionIds, PortfolioAccountType.LOAN);
+        boolean isAccountTransfer = false;
+        for (final LoanTransactionDTO transaction : loanDTO.getNewLoanTransactions()) {
+            isAccountTransfer = isAccountTransfer || transaction.isAccountTransfer()
+                    || accountTransferTransactionIds.contains(Long.parseLong(transaction.getTransactionId()));
+            transaction.setAccountTransfer(isAccountTransfer);
         }
-
-        return new LoanDTO(loanId, loanProductId, officeId, currencyData.code(), cashBasedAccountingEnabled,
-                upfrontAccrualBasedAccountingEnabled, periodicAccrualBasedAccountingEnabled, newLoanTransactions);
     }
 
-    public SavingsDTO populateSavingsDtoFromMap(final Map<String, Object> accountingBridgeData, final boolean cashBasedAccountingEnabled,
-            final boolean accrualBasedAccountingEnabled) {
-        final Long loanId = (Long) accountingBridgeData.get("savingsId");
-        final Long loanProductId = (Long) accountingBridgeData.get("savingsProductId");
-        final Long officeId = (Long) accountingBridgeData.get("officeId");
-        final CurrencyData currencyData = (CurrencyData) accountingBridgeData.get("currency");
-        final List<SavingsTransactionDTO> newSavingsTransactions = new ArrayList<>();
-        boolean isAccountTransfer = (Boolean) accountingBridgeData.get("isAccountTransfer");
-
-        @SuppressWarnings("unchecked")
-        final List<Map<String, Object>> newTransactionsMap = (List<Map<String, Object>>) accountingBridgeData.get("newSavingsTransactions");
-
-        for (final Map<String, Object> map : newTransactionsMap) {
-            final Long transactionOfficeId = (Long) map.get("officeId");
-            final String transactionId = ((Long) map.get("id")).toString();
-            final Date transactionDate = Date
-                    .from(((LocalDate) map.get("date")).atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant());
-            final SavingsAccountTransactionEnumData transactionType = (SavingsAccountTransactionEnumData) map.get("type");
-            final BigDecimal amount = (BigDecimal) map.get("amount");
-            final boolean reversed = (Boolean) map.get("reversed");
-            final Long paymentTypeId = (Long) map.get("paymentTypeId");
-            final BigDecimal overdraftAmount = (BigDecimal) map.get("overdraftAmount");
-
-            final List<ChargePaymentDTO> feePayments = new ArrayList<>();
-            final List<ChargePaymentDTO> penaltyPayments = new ArrayList<>();
-            // extract charge payment details (if exists)
-            if (map.containsKey("savingsChargesPaid")) {
-                @SuppressWarnings("unchecked")
-                final List<Map<String, Object>> savingsChargesPaidData = (List<Map<String, Object>>) map.get("savingsChargesPaid");
-                for (final Map<String, Object> loanChargePaid : savingsChargesPaidData) {
-                    final Long chargeId = (Long) loanChargePaid.get("chargeId");
-                    final Long loanChargeId = (Long) loanChargePaid.get("savingsChargeId");
-                    final boolean isPenalty = (Boolean) loanChargePaid.get("isPenalty");
-                    final BigDecimal chargeAmountPaid = (BigDecimal) loanChargePaid.get("amount");
-                    final ChargePaymentDTO chargePaymentDTO = new ChargePaymentDTO(chargeId, loanChargeId, chargeAmountPaid);
-                    if (isPenalty) {
-                        penaltyPayments.add(chargePaymentDTO);
-                    } else {
-                        feePayments.add(chargePaymentDTO);
-                    }
-                }
-            }
-
-            final List<TaxPaymentDTO> taxPayments = new ArrayList<>();
-            if (map.containsKey("taxDetails")) {
-                @SuppressWarnings("unchecked")
-                final List<Map<String, Object>> taxDatas = (List<Map<String, Object>>) map.get("taxDetails");
-                for (final Map<String, Object> taxData : taxDatas) {
-                    final BigDecimal taxAmount = (BigDecimal) taxData.get("amount");
-                    final Long creditAccountId = (Long) taxData.get("creditAccountId");
-                    final Long debitAccountId = (Long) taxData.get("debitAccountId");
-                    taxPayments.add(new TaxPaymentDTO(debitAccountId, creditAccountId, taxAmount));
-                }
-            }
-
-            if (!isAccountTransfer) {
-                isAccountTransfer = this.accountTransfersReadPlatformService.isAccountTransfer(Long.parseLong(transactionId),
-                        PortfolioAccountType.SAVINGS);
+    /**
+     * Flags the transactions of <code>savingsDTO</code> that are part of an account transfer, with a single lookup for
+     * all of them. Once a transaction is found to be part of a transfer, the transactions after it in the batch are
+     * flagged as well, as they were when each transaction was looked up on its own.
+     */
+    public void identifyAccountTransfers(final SavingsDTO savingsDTO) {
+        final Set<Long> transactionIds = new HashSet<>();
+        for (final SavingsTransactionDTO transaction : savingsDTO.getNewSavingsTransactions()) {
+            if (transaction.isAccountTransfer()) {
+                break;
             }
-            final SavingsTransactionDTO transaction = new SavingsTransactionDTO(transactionOfficeId, paymentTypeId, transactionId,
-                    transactionDate, transactionType, amount, reversed, feePayments, penaltyPayments, overdraftAmount, isAccountTransfer,
-                    taxPayments);
-
-            newSavingsTransactions.add(transaction);
-
+            transactionIds.add(Long.parseLong(transaction.getTransactionId()));
+        }
+        final Set<Long> accountTransferTransactionIds = this.accountTransfersReadPlatformService
+                .retrieveAccountTransferTransactionIds(transactionIds, PortfolioAccountType.SAVINGS);
+        boolean isAccountTransfer = false;
+        for (final SavingsTransactionDTO transaction : savingsDTO.getNewSavingsTransactions()) {
+            isAccountTransfer = isAccountTransfer || transaction.isAccountTransfer()
+                    || accountTransferTransactionIds.contains(Long.parseLong(transaction.getTransactionId()));
+            transaction.setAccountTransfer(isAccountTransfer);
         }
-
-        // some comment
-
-        return new SavingsDTO(loanId, loanProductId, officeId, currencyData.code(), cashBasedAccountingEnabled,
-                accrualBasedAccountingEnabled, newSavingsTransactions);
     }
 
     public SharesDTO populateSharesDtoFromMap(final Map<String, Object> accountingBridgeData, final boolean cashBasedAccountingEnabled,
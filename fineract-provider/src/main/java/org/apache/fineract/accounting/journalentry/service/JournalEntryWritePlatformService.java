@@ -21,6 +21,8 @@ package org.apache.fineract.accounting.journalentry.service;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.Map;
+import org.apache.fineract.accounting.journalentry.data.LoanDTO;
+import org.apache.fineract.accounting.journalentry.data.SavingsDTO;
 import org.apache.fineract.accounting.provisioning.domain.ProvisioningEntry;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
@@ -31,9 +33,9 @@ public interface JournalEntryWritePlatformService {
 
     CommandProcessingResult revertJournalEntry(JsonCommand command);
 
-    void createJournalEntriesForLoan(Map<String, Object> accountingBridgeData);
+    void createJournalEntriesForLoan(LoanDTO loanDTO);
 
-    void createJournalEntriesForSavings(Map<String, Object> accountingBridgeData);
+    void createJournalEntriesForSavings(SavingsDTO savingsDTO);
 
     void createJournalEntriesForClientTransactions(Map<String, Object> accountingBridgeData);
 
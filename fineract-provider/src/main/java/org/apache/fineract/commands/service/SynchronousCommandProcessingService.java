@@ -279,9 +279,9 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
 
                 reqmap.put("timestamp", Instant.now().toString());
 
-                final String serializedResult = this.toApiResultJsonSerializer.serialize(reqmap);
-
-                final HookEvent applicationEvent = new HookEvent(hookEventSource, serializedResult, tenantIdentifier, appUser, authToken);
+                // serialised only if a listener subscribed to the event asks for the payload
+                final HookEvent applicationEvent = new HookEvent(hookEventSource, () -> this.toApiResultJsonSerializer.serialize(reqmap),
+                        tenantIdentifier, appUser, authToken, result instanceof ErrorInfo);
 
                 applicationContext.publishEvent(applicationEvent);
             }
@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.infrastructure.bulkimport.data;
 
+import java.io.File;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.context.ApplicationEvent;
 
@@ -27,25 +28,31 @@ public final class BulkImportEvent extends ApplicationEvent {
 
     private final Workbook workbook;
 
+    private final File uploadedFile;
+
+    private final ImportFormatType format;
+
     private final Long importId;
 
     private final String locale;
 
     private final String dateFormat;
 
-    private BulkImportEvent(final String tenantIdentifier, final Workbook workbook, final Long importId, final String locale,
-            final String dateFormat) {
+    private BulkImportEvent(final String tenantIdentifier, final Workbook workbook, final File uploadedFile,
+            final ImportFormatType format, final Long importId, final String locale, final String dateFormat) {
         super(BulkImportEvent.class);
         this.tenantIdentifier = tenantIdentifier;
         this.workbook = workbook;
+        this.uploadedFile = uploadedFile;
+        this.format = format;
         this.importId = importId;
         this.locale = locale;
         this.dateFormat = dateFormat;
     }
 
-    public static BulkImportEvent instance(final String tenantIdentifier, final Workbook workbook, final Long importId, final String locale,
-            final String dateFormat) {
-        return new BulkImportEvent(tenantIdentifier, workbook, importId, locale, dateFormat);
+    public static BulkImportEvent instance(final String tenantIdentifier, final Workbook workbook, final File uploadedFile,
+            final ImportFormatType format, final Long importId, final String locale, final String dateFormat) {
+        return new BulkImportEvent(tenantIdentifier, workbook, uploadedFile, format, importId, locale, dateFormat);
     }
 
     public String getTenantIdentifier() {
@@ -56,6 +63,14 @@ public final class BulkImportEvent extends ApplicationEvent {
         return workbook;
     }
 
+    public File getUploadedFile() {
+        return uploadedFile;
+    }
+
+    public ImportFormatType getFormat() {
+        return format;
+    }
+
     public Long getImportId() {
         return importId;
     }
@@ -18,12 +18,13 @@
  */
 package org.apache.fineract.infrastructure.bulkimport.data;
 
+import java.util.Locale;
 import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
 
 public enum ImportFormatType {
 
     XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"), XLS("application/vnd.ms-excel"), ODS(
-            "application/vnd.oasis.opendocument.spreadsheet");
+            "application/vnd.oasis.opendocument.spreadsheet"), CSV("text/csv"), JSONL("application/x-ndjson");
 
     private final String format;
 
@@ -35,6 +36,33 @@ public enum ImportFormatType {
         return format;
     }
 
+    /**
+     * CSV and JSON-lines uploads carry one record per row and are fed to the import handlers in chunks rather than
+     * opened as a workbook.
+     */
+    public boolean isTabular() {
+        return this == CSV || this == JSONL;
+    }
+
+    public static ImportFormatType fromFileName(final String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        final String name = fileName.trim().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        } else if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return JSONL;
+        } else if (name.endsWith(".xlsx")) {
+            return XLSX;
+        } else if (name.endsWith(".xls")) {
+            return XLS;
+        } else if (name.endsWith(".ods")) {
+            return ODS;
+        }
+        return null;
+    }
+
     public static ImportFormatType of(String name) {
         for (ImportFormatType type : ImportFormatType.values()) {
             if (type.name().equalsIgnoreCase(name)) {
@@ -24,4 +24,8 @@ import org.apache.poi.ss.usermodel.Workbook;
 public interface ImportHandler {
 
     Count process(Workbook workbook, String locale, String dateFormat);
+
+    default Count process(Workbook workbook, String locale, String dateFormat, @SuppressWarnings("unused") ImportProgress progress) {
+        return process(workbook, locale, dateFormat);
+    }
 }
@@ -20,6 +20,8 @@ package org.apache.fineract.infrastructure.bulkimport.importhandler;
 
 import com.google.common.base.Splitter;
 import com.google.common.collect.Iterables;
+import java.io.File;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 import org.apache.fineract.infrastructure.bulkimport.constants.TemplatePopulateImportConstants;
@@ -40,13 +42,36 @@ import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.SheetVisibility;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public final class ImportHandlerUtils {
 
+    private static final Logger LOG = LoggerFactory.getLogger(ImportHandlerUtils.class);
+
     private ImportHandlerUtils() {
 
     }
 
+    /**
+     * Closes a workbook opened from an uploaded file without writing it back, and deletes the file.
+     */
+    public static void discardWorkbook(final Workbook workbook, final File uploadedFile) {
+        try {
+            if (workbook instanceof XSSFWorkbook) {
+                ((XSSFWorkbook) workbook).getPackage().revert();
+            } else if (workbook != null) {
+                workbook.close();
+            }
+        } catch (IOException e) {
+            LOG.warn("Problem occurred while closing an import workbook", e);
+        }
+        if (uploadedFile != null && !uploadedFile.delete()) {
+            LOG.warn("Uploaded import file {} could not be deleted", uploadedFile);
+        }
+    }
+
     public static Integer getNumberOfRows(Sheet sheet, int primaryColumn) {
         Integer noOfEntries = 0;
         // getLastRowNum and getPhysicalNumberOfRows showing false values
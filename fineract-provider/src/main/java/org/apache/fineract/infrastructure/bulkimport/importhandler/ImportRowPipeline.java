@@ -0,0 +1,223 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.apache.fineract.infrastructure.bulkimport.data.Count;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Imports the rows of a sheet on a bounded set of worker lanes.
+ *
+ * Rows sharing a lane key (for example all loans of one client) go to the same lane and are imported in file order,
+ * rows with different keys are imported concurrently. Only a bounded number of rows are in flight at any time. The
+ * outcome of each row is handed back to the calling thread, which is the only one touching the workbook, and is
+ * written as soon as it is available. A row whose import threw is handed to the failure writer so it is still
+ * annotated in the workbook.
+ *
+ * Every import gets its own lanes, named after the tenant it runs for, so a large upload of one tenant never queues
+ * behind the upload of another.
+ */
+@Component
+public class ImportRowPipeline {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImportRowPipeline.class);
+    private static final int LANES = 4;
+    private static final int MAX_ROWS_IN_FLIGHT = 64 * LANES;
+    private static final int PROGRESS_INTERVAL = 100;
+    private static final int LANE_SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    /**
+     * Imports a single row on a worker thread. Failures the row should report are expected to be part of the result.
+     */
+    @FunctionalInterface
+    public interface RowImporter<T, R> {
+
+        R importRow(T row);
+    }
+
+    /**
+     * Writes the outcome of a row back into the workbook, on the calling thread.
+     */
+    @FunctionalInterface
+    public interface RowResultWriter<T, R> {
+
+        /**
+         * @return whether the row was imported
+         */
+        boolean write(T row, R result);
+    }
+
+    /**
+     * Writes the error of a row whose import threw back into the workbook, on the calling thread. The row is counted
+     * as failed.
+     */
+    @FunctionalInterface
+    public interface RowFailureWriter<T> {
+
+        void writeFailure(T row, String errorMessage);
+    }
+
+    public <T, R> Count run(final List<T> rows, final Function<T, Object> laneKey, final RowImporter<T, R> importer,
+            final RowResultWriter<T, R> writer, final RowFailureWriter<T> failureWriter, final ImportProgress progress) {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+        final Semaphore rowsInFlight = new Semaphore(MAX_ROWS_IN_FLIGHT);
+        final BlockingQueue<RowOutcome<T, R>> outcomes = new LinkedBlockingQueue<>();
+        final Tally<T, R> tally = new Tally<>(writer, failureWriter, progress);
+        final ExecutorService[] lanes = startLanes(tenant);
+
+        int submitted = 0;
+        try {
+            for (final T row : rows) {
+                tally.drain(outcomes);
+                rowsInFlight.acquire();
+                final Object key = laneKey.apply(row);
+                final int lane = Math.floorMod(key == null ? submitted : Objects.hashCode(key), LANES);
+                lanes[lane].execute(() -> {
+                    ThreadLocalContextUtil.setTenant(tenant);
+                    SecurityContextHolder.setContext(securityContext);
+                    try {
+                        outcomes.add(RowOutcome.of(row, importer.importRow(row)));
+                    } catch (RuntimeException e) {
+                        LOG.error("Problem occurred while importing a row", e);
+                        outcomes.add(RowOutcome.failed(row, ImportHandlerUtils.getErrorMessage(e)));
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                        ThreadLocalContextUtil.clearTenant();
+                        rowsInFlight.release();
+                    }
+                });
+                submitted++;
+            }
+            while (tally.written < submitted) {
+                tally.write(outcomes.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Import interrupted after {} of {} rows", tally.written, rows.size());
+        } finally {
+            stopLanes(lanes);
+        }
+        progress.update(tally.successCount, tally.errorCount);
+        return Count.instance(tally.successCount, tally.errorCount);
+    }
+
+    private static ExecutorService[] startLanes(final FineractPlatformTenant tenant) {
+        final String prefix = "import-" + (tenant == null ? "none" : tenant.getTenantIdentifier()) + "-lane-";
+        final ExecutorService[] lanes = new ExecutorService[LANES];
+        for (int i = 0; i < LANES; i++) {
+            final String name = prefix + i;
+            lanes[i] = Executors.newSingleThreadExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return lanes;
+    }
+
+    private static void stopLanes(final ExecutorService[] lanes) {
+        for (final ExecutorService lane : lanes) {
+            lane.shutdownNow();
+        }
+        try {
+            for (final ExecutorService lane : lanes) {
+                lane.awaitTermination(LANE_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class RowOutcome<T, R> {
+
+        private final T row;
+        private final R result;
+        private final boolean failed;
+        private final String errorMessage;
+
+        private RowOutcome(final T row, final R result, final boolean failed, final String errorMessage) {
+            this.row = row;
+            this.result = result;
+            this.failed = failed;
+            this.errorMessage = errorMessage;
+        }
+
+        static <T, R> RowOutcome<T, R> of(final T row, final R result) {
+            return new RowOutcome<>(row, result, false, null);
+        }
+
+        static <T, R> RowOutcome<T, R> failed(final T row, final String errorMessage) {
+            return new RowOutcome<>(row, null, true, errorMessage);
+        }
+    }
+
+    private static final class Tally<T, R> {
+
+        private final RowResultWriter<T, R> writer;
+        private final RowFailureWriter<T> failureWriter;
+        private final ImportProgress progress;
+        private int written;
+        private int successCount;
+        private int errorCount;
+
+        Tally(final RowResultWriter<T, R> writer, final RowFailureWriter<T> failureWriter, final ImportProgress progress) {
+            this.writer = writer;
+            this.failureWriter = failureWriter;
+            this.progress = progress;
+        }
+
+        void drain(final BlockingQueue<RowOutcome<T, R>> outcomes) {
+            RowOutcome<T, R> outcome;
+            while ((outcome = outcomes.poll()) != null) {
+                write(outcome);
+            }
+        }
+
+        void write(final RowOutcome<T, R> outcome) {
+            if (outcome.failed) {
+                this.failureWriter.writeFailure(outcome.row, outcome.errorMessage);
+                this.errorCount++;
+            } else if (this.writer.write(outcome.row, outcome.result)) {
+                this.successCount++;
+            } else {
+                this.errorCount++;
+            }
+            this.written++;
+            if (this.written % PROGRESS_INTERVAL == 0) {
+                this.progress.update(this.successCount, this.errorCount);
+            }
+        }
+    }
+}
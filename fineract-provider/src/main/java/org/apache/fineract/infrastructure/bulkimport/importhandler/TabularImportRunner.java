@@ -0,0 +1,423 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParsePosition;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import org.apache.fineract.infrastructure.bulkimport.constants.ClientEntityConstants;
+import org.apache.fineract.infrastructure.bulkimport.constants.ClientPersonConstants;
+import org.apache.fineract.infrastructure.bulkimport.constants.JournalEntryConstants;
+import org.apache.fineract.infrastructure.bulkimport.constants.LoanConstants;
+import org.apache.fineract.infrastructure.bulkimport.constants.LoanRepaymentConstants;
+import org.apache.fineract.infrastructure.bulkimport.constants.SavingsConstants;
+import org.apache.fineract.infrastructure.bulkimport.constants.TemplatePopulateImportConstants;
+import org.apache.fineract.infrastructure.bulkimport.constants.TransactionConstants;
+import org.apache.fineract.infrastructure.bulkimport.data.Count;
+import org.apache.fineract.infrastructure.bulkimport.data.GlobalEntityType;
+import org.apache.fineract.infrastructure.bulkimport.data.ImportFormatType;
+import org.apache.fineract.infrastructure.core.serialization.JsonParserHelper;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.springframework.stereotype.Component;
+
+/**
+ * Imports CSV and JSON-lines uploads through the existing entity import handlers.
+ *
+ * The records are streamed from the upload and written, a chunk at a time, into the entity sheet of the populated
+ * template workbook, matching record keys to the template's column headers. The handler then imports the chunk exactly
+ * as it would an uploaded spreadsheet, and the status it leaves in each row is streamed to the result file next to the
+ * original record. Memory use is bounded by the chunk size, not by the size of the upload.
+ */
+@Component
+public class TabularImportRunner {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int FIRST_DATA_ROW = TemplatePopulateImportConstants.ROWHEADER_INDEX + 1;
+    private static final String STATUS_KEY = "status";
+    private static final String ERROR_KEY = "error";
+    private static final String STATUS_FAILED = "Failed";
+
+    private static final Map<GlobalEntityType, EntitySheet> ENTITY_SHEETS = new EnumMap<>(GlobalEntityType.class);
+
+    static {
+        ENTITY_SHEETS.put(GlobalEntityType.CLIENTS_PERSON,
+                new EntitySheet(TemplatePopulateImportConstants.CLIENT_PERSON_SHEET_NAME, ClientPersonConstants.STATUS_COL, -1));
+        ENTITY_SHEETS.put(GlobalEntityType.CLIENTS_ENTTTY,
+                new EntitySheet(TemplatePopulateImportConstants.CLIENT_ENTITY_SHEET_NAME, ClientEntityConstants.STATUS_COL, -1));
+        ENTITY_SHEETS.put(GlobalEntityType.LOANS,
+                new EntitySheet(TemplatePopulateImportConstants.LOANS_SHEET_NAME, LoanConstants.STATUS_COL, -1));
+        ENTITY_SHEETS.put(GlobalEntityType.LOAN_TRANSACTIONS,
+                new EntitySheet(TemplatePopulateImportConstants.LOAN_REPAYMENT_SHEET_NAME, LoanRepaymentConstants.STATUS_COL, -1));
+        ENTITY_SHEETS.put(GlobalEntityType.SAVINGS_ACCOUNT,
+                new EntitySheet(TemplatePopulateImportConstants.SAVINGS_ACCOUNTS_SHEET_NAME, SavingsConstants.STATUS_COL, -1));
+        ENTITY_SHEETS.put(GlobalEntityType.SAVINGS_TRANSACTIONS,
+                new EntitySheet(TemplatePopulateImportConstants.SAVINGS_TRANSACTION_SHEET_NAME, TransactionConstants.STATUS_COL, -1));
+        // the rows of one journal entry share a transaction id and must land in the same chunk
+        ENTITY_SHEETS.put(GlobalEntityType.GL_JOURNAL_ENTRIES, new EntitySheet(TemplatePopulateImportConstants.JOURNAL_ENTRY_SHEET_NAME,
+                JournalEntryConstants.STATUS_COL, JournalEntryConstants.TRANSACTION_ID_COL));
+    }
+
+    public static boolean supports(final GlobalEntityType entityType) {
+        return ENTITY_SHEETS.containsKey(entityType);
+    }
+
+    public Count process(final ImportHandler handler, final GlobalEntityType entityType, final Workbook workbook,
+            final ImportFormatType format, final Path input, final Path output, final String locale, final String dateFormat,
+            final ImportProgress progress) throws IOException {
+        final EntitySheet entitySheet = ENTITY_SHEETS.get(entityType);
+        final Sheet sheet = workbook.getSheet(entitySheet.sheetName);
+        final Map<String, Integer> columns = columnsByName(sheet);
+        final DateTimeFormatter dateFormatter = new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern(dateFormat)
+                .toFormatter(JsonParserHelper.localeFromString(locale));
+        final Tally tally = new Tally();
+
+        try (TabularRowReader reader = TabularRowReader.open(format, input);
+                BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            final ResultWriter resultWriter = format == ImportFormatType.CSV ? new CsvResultWriter(writer, reader.getHeader())
+                    : new JsonLinesResultWriter(writer);
+            final List<TabularRow> chunk = new ArrayList<>();
+            int pending = 0;
+            Object previousGroup = null;
+            TabularRow row = nextRow(reader, columns);
+            while (row != null) {
+                final Object group = row.cells.get(entitySheet.groupColumn);
+                if (pending >= CHUNK_SIZE && (entitySheet.groupColumn < 0 || !Objects.equals(group, previousGroup))) {
+                    importChunk(handler, workbook, sheet, entitySheet, chunk, dateFormatter, locale, dateFormat, tally, progress);
+                    for (TabularRow done : chunk) {
+                        resultWriter.write(done);
+                    }
+                    chunk.clear();
+                    pending = 0;
+                }
+                chunk.add(row);
+                if (row.status == null) {
+                    pending++;
+                    previousGroup = group;
+                }
+                row = nextRow(reader, columns);
+            }
+            importChunk(handler, workbook, sheet, entitySheet, chunk, dateFormatter, locale, dateFormat, tally, progress);
+            for (TabularRow done : chunk) {
+                resultWriter.write(done);
+            }
+        }
+        return Count.instance(tally.successCount, tally.errorCount);
+    }
+
+    private void importChunk(final ImportHandler handler, final Workbook workbook, final Sheet sheet, final EntitySheet entitySheet,
+            final List<TabularRow> chunk, final DateTimeFormatter dateFormatter, final String locale, final String dateFormat,
+            final Tally tally, final ImportProgress progress) {
+        clearDataRows(sheet);
+        int rowIndex = FIRST_DATA_ROW;
+        for (TabularRow row : chunk) {
+            if (row.status == null) {
+                row.sheetRow = rowIndex;
+                final Row sheetRow = sheet.createRow(rowIndex++);
+                row.cells.forEach((column, value) -> writeCell(sheetRow, column, value, dateFormatter));
+            } else if (STATUS_FAILED.equals(row.status)) {
+                tally.errorCount++;
+            }
+        }
+        if (rowIndex > FIRST_DATA_ROW) {
+            final int successBase = tally.successCount;
+            final int errorBase = tally.errorCount;
+            try {
+                final Count count = handler.process(workbook, locale, dateFormat,
+                        (successCount, errorCount) -> progress.update(successBase + successCount, errorBase + errorCount));
+                tally.successCount += count.getSuccessCount();
+                tally.errorCount += count.getErrorCount();
+                readStatuses(sheet, entitySheet, chunk);
+            } catch (RuntimeException e) {
+                final String errorMessage = ImportHandlerUtils.getErrorMessage(e);
+                for (TabularRow row : chunk) {
+                    if (row.status == null) {
+                        row.status = STATUS_FAILED;
+                        row.error = errorMessage;
+                        tally.errorCount++;
+                    }
+                }
+            }
+        }
+        progress.update(tally.successCount, tally.errorCount);
+    }
+
+    private void readStatuses(final Sheet sheet, final EntitySheet entitySheet, final List<TabularRow> chunk) {
+        String previousStatus = null;
+        Object previousGroup = null;
+        for (TabularRow row : chunk) {
+            if (row.status != null) {
+                continue;
+            }
+            final Object group = row.cells.get(entitySheet.groupColumn);
+            String status = ImportHandlerUtils.readAsString(entitySheet.statusColumn, sheet.getRow(row.sheetRow));
+            // only the first row of a grouped record (a journal entry) carries its status
+            if (status == null && entitySheet.groupColumn >= 0 && group != null && group.equals(previousGroup)) {
+                status = previousStatus;
+            }
+            if (TemplatePopulateImportConstants.STATUS_CELL_IMPORTED.equals(status)) {
+                row.status = TemplatePopulateImportConstants.STATUS_CELL_IMPORTED;
+            } else {
+                row.status = STATUS_FAILED;
+                row.error = status == null ? "Row was not processed" : status;
+            }
+            previousStatus = status;
+            previousGroup = group;
+        }
+    }
+
+    private static void clearDataRows(final Sheet sheet) {
+        for (int rowIndex = sheet.getLastRowNum(); rowIndex >= FIRST_DATA_ROW; rowIndex--) {
+            final Row row = sheet.getRow(rowIndex);
+            if (row != null) {
+                sheet.removeRow(row);
+            }
+        }
+    }
+
+    private static Map<String, Integer> columnsByName(final Sheet sheet) {
+        final Map<String, Integer> columns = new HashMap<>();
+        final Row header = sheet.getRow(TemplatePopulateImportConstants.ROWHEADER_INDEX);
+        for (Cell cell : header) {
+            if (cell.getCellType() == CellType.STRING) {
+                final String name = normalise(cell.getStringCellValue());
+                if (!name.isEmpty()) {
+                    columns.putIfAbsent(name, cell.getColumnIndex());
+                }
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Template headers read like "Office Name*", so "officeName", "office_name" and "Office Name" all match them.
+     */
+    private static String normalise(final String name) {
+        return name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+
+    private static TabularRow nextRow(final TabularRowReader reader, final Map<String, Integer> columns) throws IOException {
+        final TabularRow row = new TabularRow();
+        try {
+            row.values = reader.next();
+        } catch (JsonParseException e) {
+            row.values = new TreeMap<>();
+            row.status = STATUS_FAILED;
+            row.error = "Malformed record: " + e.getMessage();
+            return row;
+        }
+        if (row.values == null) {
+            return null;
+        }
+        final List<String> unknown = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : row.values.entrySet()) {
+            final String name = normalise(entry.getKey());
+            if (name.equals(STATUS_KEY)) {
+                // a result file can be corrected and uploaded again, rows it reports as imported are left alone
+                if (TemplatePopulateImportConstants.STATUS_CELL_IMPORTED.equals(entry.getValue())) {
+                    row.status = TemplatePopulateImportConstants.STATUS_CELL_IMPORTED;
+                }
+            } else if (!name.equals(ERROR_KEY) && entry.getValue() != null && !entry.getValue().toString().trim().isEmpty()) {
+                final Integer column = columns.get(name);
+                if (column == null) {
+                    unknown.add(entry.getKey());
+                } else {
+                    row.cells.put(column, entry.getValue());
+                }
+            }
+        }
+        if (row.status == null && !unknown.isEmpty()) {
+            row.status = STATUS_FAILED;
+            row.error = "Unknown column(s) " + String.join(", ", unknown);
+        }
+        return row;
+    }
+
+    private static void writeCell(final Row row, final int column, final Object value, final DateTimeFormatter dateFormatter) {
+        final Cell cell = row.createCell(column);
+        if (value instanceof Number) {
+            cell.setCellValue(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            cell.setCellValue((Boolean) value);
+        } else {
+            final String text = value.toString();
+            final LocalDate date = parseDate(text, dateFormatter);
+            if (date != null) {
+                // the handlers read dates as date cells, exactly as a spreadsheet upload provides them
+                cell.setCellValue(Date.from(date.atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant()));
+            } else {
+                cell.setCellValue(text);
+            }
+        }
+    }
+
+    private static LocalDate parseDate(final String text, final DateTimeFormatter dateFormatter) {
+        // parseUnresolved does not throw, which keeps the check cheap for the many values that are not dates
+        final ParsePosition position = new ParsePosition(0);
+        if (dateFormatter.parseUnresolved(text, position) == null || position.getErrorIndex() >= 0
+                || position.getIndex() != text.length()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(text, dateFormatter);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static final class EntitySheet {
+
+        private final String sheetName;
+        private final int statusColumn;
+        private final int groupColumn;
+
+        EntitySheet(final String sheetName, final int statusColumn, final int groupColumn) {
+            this.sheetName = sheetName;
+            this.statusColumn = statusColumn;
+            this.groupColumn = groupColumn;
+        }
+    }
+
+    private static final class TabularRow {
+
+        private Map<String, Object> values;
+        private final Map<Integer, Object> cells = new HashMap<>();
+        private int sheetRow;
+        private String status;
+        private String error;
+    }
+
+    private static final class Tally {
+
+        private int successCount;
+        private int errorCount;
+    }
+
+    private interface ResultWriter {
+
+        void write(TabularRow row) throws IOException;
+    }
+
+    /**
+     * Echoes each record with "Status" and "Error" columns appended.
+     */
+    private static final class CsvResultWriter implements ResultWriter {
+
+        private final BufferedWriter writer;
+        private final List<String> header;
+
+        CsvResultWriter(final BufferedWriter writer, final List<String> header) throws IOException {
+            this.writer = writer;
+            this.header = header;
+            final List<String> columns = new ArrayList<>();
+            for (String name : header) {
+                final String key = normalise(name);
+                if (!key.equals(STATUS_KEY) && !key.equals(ERROR_KEY)) {
+                    columns.add(name);
+                }
+            }
+            columns.add("Status");
+            columns.add("Error");
+            writeRecord(columns);
+        }
+
+        @Override
+        public void write(final TabularRow row) throws IOException {
+            final List<String> fields = new ArrayList<>();
+            for (String name : this.header) {
+                final String key = normalise(name);
+                if (!key.equals(STATUS_KEY) && !key.equals(ERROR_KEY)) {
+                    final Object value = row.values.get(name);
+                    fields.add(value == null ? "" : value.toString());
+                }
+            }
+            fields.add(row.status);
+            fields.add(row.error == null ? "" : row.error);
+            writeRecord(fields);
+        }
+
+        private void writeRecord(final List<String> fields) throws IOException {
+            for (int i = 0; i < fields.size(); i++) {
+                if (i > 0) {
+                    this.writer.write(',');
+                }
+                final String field = fields.get(i);
+                if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                    this.writer.write('"');
+                    this.writer.write(field.replace("\"", "\"\""));
+                    this.writer.write('"');
+                } else {
+                    this.writer.write(field);
+                }
+            }
+            this.writer.write("\r\n");
+        }
+    }
+
+    /**
+     * Echoes each record with "status" and "error" properties added.
+     */
+    private static final class JsonLinesResultWriter implements ResultWriter {
+
+        private final Gson gson = new Gson();
+        private final BufferedWriter writer;
+
+        JsonLinesResultWriter(final BufferedWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(final TabularRow row) throws IOException {
+            final JsonObject record = new JsonObject();
+            for (Map.Entry<String, Object> entry : row.values.entrySet()) {
+                final String key = normalise(entry.getKey());
+                if (!key.equals(STATUS_KEY) && !key.equals(ERROR_KEY)) {
+                    record.add(entry.getKey(), this.gson.toJsonTree(entry.getValue()));
+                }
+            }
+            record.addProperty(STATUS_KEY, row.status);
+            record.addProperty(ERROR_KEY, row.error);
+            this.writer.write(this.gson.toJson(record));
+            this.writer.write('\n');
+        }
+    }
+}
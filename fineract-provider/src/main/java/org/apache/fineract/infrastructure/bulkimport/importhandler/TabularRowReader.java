@@ -0,0 +1,205 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.infrastructure.bulkimport.data.ImportFormatType;
+
+/**
+ * Reads the records of a CSV (first record is the header) or JSON-lines (one object per line) upload one at a time, so
+ * that an import never holds more of the upload in memory than the chunk it is working on.
+ */
+public final class TabularRowReader implements Closeable {
+
+    private final ImportFormatType format;
+    private final BufferedReader reader;
+    private final List<String> header = new ArrayList<>();
+
+    private TabularRowReader(final ImportFormatType format, final InputStream inputStream) throws IOException {
+        this.format = format;
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        if (format == ImportFormatType.CSV) {
+            final List<String> fields = readCsvRecord();
+            if (fields != null) {
+                for (String field : fields) {
+                    // spreadsheet applications prefix UTF-8 exports with a byte order mark
+                    this.header.add(field.replace("\uFEFF", "").trim());
+                }
+            }
+        }
+    }
+
+    public static TabularRowReader open(final ImportFormatType format, final Path path) throws IOException {
+        return new TabularRowReader(format, Files.newInputStream(path));
+    }
+
+    public static int countRows(final ImportFormatType format, final Path path) throws IOException {
+        int rows = 0;
+        try (TabularRowReader rowReader = open(format, path)) {
+            while (rowReader.skip()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * The CSV header; JSON-lines records carry their own keys, so this is empty for them.
+     */
+    public List<String> getHeader() {
+        return this.header;
+    }
+
+    /**
+     * Returns the next record keyed by column name, or null once the upload is exhausted. A JSON-lines record that cannot
+     * be parsed is reported through a {@link JsonParseException} after its line has been consumed, so the caller can
+     * record the failure and carry on with the next one.
+     */
+    public Map<String, Object> next() throws IOException {
+        if (this.format == ImportFormatType.CSV) {
+            final List<String> fields = readCsvRecord();
+            if (fields == null) {
+                return null;
+            }
+            final Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                final String name = i < this.header.size() ? this.header.get(i) : "column" + (i + 1);
+                final String field = fields.get(i);
+                values.put(name, field == null || field.isEmpty() ? null : field);
+            }
+            return values;
+        }
+        final String line = nextJsonLine();
+        if (line == null) {
+            return null;
+        }
+        final JsonElement element = JsonParser.parseString(line);
+        if (!element.isJsonObject()) {
+            throw new JsonParseException("Expected a JSON object on each line");
+        }
+        final Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+            values.put(entry.getKey(), jsonValue(entry.getValue()));
+        }
+        return values;
+    }
+
+    private boolean skip() throws IOException {
+        if (this.format == ImportFormatType.CSV) {
+            return readCsvRecord() != null;
+        }
+        return nextJsonLine() != null;
+    }
+
+    private String nextJsonLine() throws IOException {
+        String line = this.reader.readLine();
+        while (line != null && line.trim().isEmpty()) {
+            line = this.reader.readLine();
+        }
+        return line;
+    }
+
+    private static Object jsonValue(final JsonElement value) {
+        if (value == null || value.isJsonNull()) {
+            return null;
+        }
+        if (value.isJsonPrimitive()) {
+            final JsonPrimitive primitive = value.getAsJsonPrimitive();
+            if (primitive.isNumber()) {
+                return primitive.getAsBigDecimal();
+            } else if (primitive.isBoolean()) {
+                return primitive.getAsBoolean();
+            }
+            return primitive.getAsString();
+        }
+        return value.toString();
+    }
+
+    /**
+     * Reads one RFC 4180 record: fields are comma separated, may be enclosed in double quotes and, when quoted, may
+     * contain commas, doubled quotes and line breaks. Blank lines between records are skipped.
+     */
+    private List<String> readCsvRecord() throws IOException {
+        int c = this.reader.read();
+        while (c == '\r' || c == '\n') {
+            c = this.reader.read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        final List<String> fields = new ArrayList<>();
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field in CSV upload");
+                } else if (c == '"') {
+                    this.reader.mark(1);
+                    final int following = this.reader.read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        this.reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    this.reader.mark(1);
+                    if (this.reader.read() != '\n') {
+                        this.reader.reset();
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = this.reader.read();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+}
@@ -35,6 +35,8 @@ import org.apache.fineract.infrastructure.bulkimport.constants.TemplatePopulateI
 import org.apache.fineract.infrastructure.bulkimport.data.Count;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandler;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandlerUtils;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportProgress;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportRowPipeline;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.helper.DateSerializer;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.helper.EnumOptionDataValueSerializer;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
@@ -59,49 +61,47 @@ import org.springframework.stereotype.Service;
 public class LoanImportHandler implements ImportHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(LoanImportHandler.class);
-    private Workbook workbook;
-    private List<LoanAccountData> loans;
-    private List<LoanApprovalData> approvalDates;
-    private List<LoanTransactionData> loanRepayments;
-    private List<DisbursementData> disbursalDates;
-    private List<String> statuses;
 
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
+    private final ImportRowPipeline importRowPipeline;
 
     @Autowired
-    public LoanImportHandler(final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService) {
+    public LoanImportHandler(final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
+            final ImportRowPipeline importRowPipeline) {
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
+        this.importRowPipeline = importRowPipeline;
     }
 
     @Override
     public Count process(Workbook workbook, String locale, String dateFormat) {
-        this.workbook = workbook;
-        this.loans = new ArrayList<>();
-        this.approvalDates = new ArrayList<>();
-        this.loanRepayments = new ArrayList<>();
-        this.disbursalDates = new ArrayList<>();
-        this.statuses = new ArrayList<>();
-        readExcelFile(locale, dateFormat);
-        return importEntity(dateFormat);
+        return process(workbook, locale, dateFormat, ImportProgress.NONE);
     }
 
-    public void readExcelFile(final String locale, final String dateFormat) {
-        Sheet loanSheet = workbook.getSheet(TemplatePopulateImportConstants.LOANS_SHEET_NAME);
+    @Override
+    public Count process(Workbook workbook, String locale, String dateFormat, ImportProgress progress) {
+        final LoanImport loanImport = new LoanImport(workbook);
+        readExcelFile(loanImport, locale, dateFormat);
+        return importEntity(loanImport, dateFormat, progress);
+    }
+
+    private void readExcelFile(final LoanImport loanImport, final String locale, final String dateFormat) {
+        Sheet loanSheet = loanImport.workbook.getSheet(TemplatePopulateImportConstants.LOANS_SHEET_NAME);
         Integer noOfEntries = ImportHandlerUtils.getNumberOfRows(loanSheet, TemplatePopulateImportConstants.FIRST_COLUMN_INDEX);
         for (int rowIndex = 1; rowIndex <= noOfEntries; rowIndex++) {
             Row row;
             row = loanSheet.getRow(rowIndex);
             if (ImportHandlerUtils.isNotImported(row, LoanConstants.STATUS_COL)) {
-                loans.add(readLoan(row, locale, dateFormat));
-                approvalDates.add(readLoanApproval(row, locale, dateFormat));
-                disbursalDates.add(readDisbursalData(row, locale, dateFormat));
-                loanRepayments.add(readLoanRepayment(row, locale, dateFormat));
+                loanImport.statuses.add(ImportHandlerUtils.readAsString(LoanConstants.STATUS_COL, row));
+                loanImport.loans.add(readLoan(loanImport.workbook, row, locale, dateFormat));
+                loanImport.approvalDates.add(readLoanApproval(row, locale, dateFormat));
+                loanImport.disbursalDates.add(readDisbursalData(row, locale, dateFormat));
+                loanImport.loanRepayments.add(readLoanRepayment(loanImport.workbook, row, locale, dateFormat));
             }
         }
 
     }
 
-    private LoanTransactionData readLoanRepayment(Row row, String locale, String dateFormat) {
+    private LoanTransactionData readLoanRepayment(Workbook workbook, Row row, String locale, String dateFormat) {
         BigDecimal repaymentAmount = null;
         if (ImportHandlerUtils.readAsDouble(LoanConstants.TOTAL_AMOUNT_REPAID_COL, row) != null) {
             repaymentAmount = BigDecimal.valueOf(ImportHandlerUtils.readAsDouble(LoanConstants.TOTAL_AMOUNT_REPAID_COL, row));
@@ -140,9 +140,8 @@ public class LoanImportHandler implements ImportHandler {
         return null;
     }
 
-    private LoanAccountData readLoan(Row row, String locale, String dateFormat) {
+    private LoanAccountData readLoan(Workbook workbook, Row row, String locale, String dateFormat) {
         String externalId = ImportHandlerUtils.readAsString(LoanConstants.EXTERNAL_ID_COL, row);
-        String status = ImportHandlerUtils.readAsString(LoanConstants.STATUS_COL, row);
         String productName = ImportHandlerUtils.readAsString(LoanConstants.PRODUCT_COL, row);
         Long productId = ImportHandlerUtils.getIdByName(workbook.getSheet(TemplatePopulateImportConstants.PRODUCT_SHEET_NAME), productName);
         String loanOfficerName = ImportHandlerUtils.readAsString(LoanConstants.LOAN_OFFICER_NAME_COL, row);
@@ -331,8 +330,6 @@ public class LoanImportHandler implements ImportHandler {
                 charges.add(new LoanChargeData(chargeTwoId, ImportHandlerUtils.readAsDate(LoanConstants.CHARGE_DUE_DATE_2, row), null));
             }
         }
-        statuses.add(status);
-
         if (loanType != null) {
             if (loanType.equals("individual")) {
                 Long clientId = ImportHandlerUtils.getIdByName(workbook.getSheet(TemplatePopulateImportConstants.CLIENT_SHEET_NAME),
@@ -367,60 +364,82 @@ public class LoanImportHandler implements ImportHandler {
         return null;
     }
 
-    public Count importEntity(String dateFormat) {
-        Sheet loanSheet = workbook.getSheet(TemplatePopulateImportConstants.LOANS_SHEET_NAME);
-        int successCount = 0;
-        int errorCount = 0;
-        int progressLevel = 0;
-        String loanId;
-        String errorMessage = "";
-        for (int i = 0; i < loans.size(); i++) {
-            Row row = loanSheet.getRow(loans.get(i).getRowIndex());
-            Cell errorReportCell = row.createCell(LoanConstants.FAILURE_REPORT_COL);
-            Cell statusCell = row.createCell(LoanConstants.STATUS_COL);
-            CommandProcessingResult result = null;
-            loanId = "";
-            try {
-                String status = statuses.get(i);
-                progressLevel = getProgressLevel(status);
-
-                if (progressLevel == 0 && loans.get(i) != null) {
-                    result = importLoan(i, dateFormat);
-                    loanId = result.getLoanId().toString();
-                    progressLevel = 1;
-                } else {
-                    loanId = ImportHandlerUtils.readAsString(LoanConstants.LOAN_ID_COL, loanSheet.getRow(loans.get(i).getRowIndex()));
-                }
+    private Count importEntity(final LoanImport loanImport, final String dateFormat, final ImportProgress progress) {
+        final Sheet loanSheet = loanImport.workbook.getSheet(TemplatePopulateImportConstants.LOANS_SHEET_NAME);
+        // the workbook is only read and written on this thread, the loans themselves are imported by the pipeline
+        final List<Integer> entries = new ArrayList<>();
+        final List<String> loanIds = new ArrayList<>();
+        for (int i = 0; i < loanImport.loans.size(); i++) {
+            entries.add(i);
+            final Row row = loanSheet.getRow(loanImport.loans.get(i).getRowIndex());
+            loanIds.add(ImportHandlerUtils.readAsString(LoanConstants.LOAN_ID_COL, row));
+        }
+        final Count count = this.importRowPipeline.run(entries, i -> loanOwner(loanImport, i),
+                i -> importLoanRow(loanImport, i, loanIds.get(i), dateFormat),
+                (i, result) -> writeLoanResult(loanImport.workbook, loanSheet.getRow(loanImport.loans.get(i).getRowIndex()), result),
+                (i, errorMessage) -> writeLoanResult(loanImport.workbook, loanSheet.getRow(loanImport.loans.get(i).getRowIndex()),
+                        new LoanRowResult(loanIds.get(i), getProgressLevel(loanImport.statuses.get(i)), errorMessage)),
+                progress);
+        setReportHeaders(loanSheet);
+        return count;
+    }
 
-                if (progressLevel <= 1 && approvalDates.get(i) != null) {
-                    progressLevel = importLoanApproval(result, i, dateFormat);
-                }
+    private Object loanOwner(final LoanImport loanImport, final Integer entry) {
+        final LoanAccountData loan = loanImport.loans.get(entry);
+        if (loan == null) {
+            return null;
+        }
+        return loan.getClientId() != null ? "client-" + loan.getClientId() : "group-" + loan.getGroupId();
+    }
 
-                if (progressLevel <= 2 && disbursalDates.get(i) != null) {
-                    progressLevel = importDisbursalData(result, i, dateFormat);
-                }
+    private LoanRowResult importLoanRow(final LoanImport loanImport, final int i, final String importedLoanId, final String dateFormat) {
+        CommandProcessingResult result = null;
+        String loanId = "";
+        int progressLevel = 0;
+        try {
+            String status = loanImport.statuses.get(i);
+            progressLevel = getProgressLevel(status);
+
+            if (progressLevel == 0 && loanImport.loans.get(i) != null) {
+                result = importLoan(loanImport, i, dateFormat);
+                loanId = result.getLoanId().toString();
+                progressLevel = 1;
+            } else {
+                loanId = importedLoanId;
+            }
 
-                if (loanRepayments.get(i) != null) {
-                    progressLevel = importLoanRepayment(result, i, dateFormat);
-                }
+            if (progressLevel <= 1 && loanImport.approvalDates.get(i) != null) {
+                progressLevel = importLoanApproval(loanImport, result, i, dateFormat);
+            }
+
+            if (progressLevel <= 2 && loanImport.disbursalDates.get(i) != null) {
+                progressLevel = importDisbursalData(loanImport, result, i, dateFormat);
+            }
 
-                successCount++;
-                statusCell.setCellValue(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED);
-                statusCell.setCellStyle(ImportHandlerUtils.getCellStyle(workbook, IndexedColors.LIGHT_GREEN));
-            } catch (RuntimeException ex) {
-                errorCount++;
-                LOG.error("Problem occurred in importEntity function", ex);
-                errorMessage = ImportHandlerUtils.getErrorMessage(ex);
-                writeLoanErrorMessage(loanId, errorMessage, progressLevel, statusCell, errorReportCell, row);
+            if (loanImport.loanRepayments.get(i) != null) {
+                progressLevel = importLoanRepayment(loanImport, result, i, dateFormat);
             }
+            return new LoanRowResult(loanId, progressLevel, null);
+        } catch (RuntimeException ex) {
+            LOG.error("Problem occurred in importEntity function", ex);
+            return new LoanRowResult(loanId, progressLevel, ImportHandlerUtils.getErrorMessage(ex));
+        }
+    }
 
+    private boolean writeLoanResult(final Workbook workbook, final Row row, final LoanRowResult result) {
+        Cell errorReportCell = row.createCell(LoanConstants.FAILURE_REPORT_COL);
+        Cell statusCell = row.createCell(LoanConstants.STATUS_COL);
+        if (result.errorMessage == null) {
+            statusCell.setCellValue(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED);
+            statusCell.setCellStyle(ImportHandlerUtils.getCellStyle(workbook, IndexedColors.LIGHT_GREEN));
+            return true;
         }
-        setReportHeaders(loanSheet);
-        return Count.instance(successCount, errorCount);
+        writeLoanErrorMessage(workbook, result.loanId, result.errorMessage, result.progressLevel, statusCell, errorReportCell, row);
+        return false;
     }
 
-    private void writeLoanErrorMessage(String loanId, String errorMessage, int progressLevel, Cell statusCell, Cell errorReportCell,
-            Row row) {
+    private void writeLoanErrorMessage(Workbook workbook, String loanId, String errorMessage, int progressLevel, Cell statusCell,
+            Cell errorReportCell, Row row) {
         String status = "";
         if (progressLevel == 0) {
             status = TemplatePopulateImportConstants.STATUS_CREATION_FAILED;
@@ -448,10 +467,10 @@ public class LoanImportHandler implements ImportHandler {
         ImportHandlerUtils.writeString(LoanConstants.FAILURE_REPORT_COL, rowHeader, "Report");
     }
 
-    private Integer importLoanRepayment(CommandProcessingResult result, int rowIndex, String dateFormat) {
+    private Integer importLoanRepayment(LoanImport loanImport, CommandProcessingResult result, int rowIndex, String dateFormat) {
         GsonBuilder gsonBuilder = new GsonBuilder();
         gsonBuilder.registerTypeAdapter(LocalDate.class, new DateSerializer(dateFormat));
-        JsonObject loanRepaymentJsonob = gsonBuilder.create().toJsonTree(loanRepayments.get(rowIndex)).getAsJsonObject();
+        JsonObject loanRepaymentJsonob = gsonBuilder.create().toJsonTree(loanImport.loanRepayments.get(rowIndex)).getAsJsonObject();
         loanRepaymentJsonob.remove("manuallyReversed");
         String payload = loanRepaymentJsonob.toString();
         final CommandWrapper commandRequest = new CommandWrapperBuilder() //
@@ -463,10 +482,10 @@ public class LoanImportHandler implements ImportHandler {
         return 4;
     }
 
-    private Integer importDisbursalData(CommandProcessingResult result, int rowIndex, String dateFormat) {
-        if (approvalDates.get(rowIndex) != null && disbursalDates.get(rowIndex) != null) {
+    private Integer importDisbursalData(LoanImport loanImport, CommandProcessingResult result, int rowIndex, String dateFormat) {
+        if (loanImport.approvalDates.get(rowIndex) != null && loanImport.disbursalDates.get(rowIndex) != null) {
 
-            DisbursementData disbusalData = disbursalDates.get(rowIndex);
+            DisbursementData disbusalData = loanImport.disbursalDates.get(rowIndex);
             String linkAccountId = disbusalData.getLinkAccountId();
             GsonBuilder gsonBuilder = new GsonBuilder();
             gsonBuilder.registerTypeAdapter(LocalDate.class, new DateSerializer(dateFormat));
@@ -490,11 +509,11 @@ public class LoanImportHandler implements ImportHandler {
         return 3;
     }
 
-    private Integer importLoanApproval(CommandProcessingResult result, int rowIndex, String dateFormat) {
-        if (approvalDates.get(rowIndex) != null) {
+    private Integer importLoanApproval(LoanImport loanImport, CommandProcessingResult result, int rowIndex, String dateFormat) {
+        if (loanImport.approvalDates.get(rowIndex) != null) {
             GsonBuilder gsonBuilder = new GsonBuilder();
             gsonBuilder.registerTypeAdapter(LocalDate.class, new DateSerializer(dateFormat));
-            String payload = gsonBuilder.create().toJson(approvalDates.get(rowIndex));
+            String payload = gsonBuilder.create().toJson(loanImport.approvalDates.get(rowIndex));
             final CommandWrapper commandRequest = new CommandWrapperBuilder() //
                     .approveLoanApplication(result.getLoanId()) //
                     .withJson(payload) //
@@ -505,11 +524,11 @@ public class LoanImportHandler implements ImportHandler {
         return 2;
     }
 
-    private CommandProcessingResult importLoan(int rowIndex, String dateFormat) {
+    private CommandProcessingResult importLoan(LoanImport loanImport, int rowIndex, String dateFormat) {
         GsonBuilder gsonBuilder = new GsonBuilder();
         gsonBuilder.registerTypeAdapter(LocalDate.class, new DateSerializer(dateFormat));
         gsonBuilder.registerTypeAdapter(EnumOptionData.class, new EnumOptionDataValueSerializer());
-        JsonObject loanJsonOb = gsonBuilder.create().toJsonTree(loans.get(rowIndex)).getAsJsonObject();
+        JsonObject loanJsonOb = gsonBuilder.create().toJsonTree(loanImport.loans.get(rowIndex)).getAsJsonObject();
         loanJsonOb.remove("isLoanProductLinkedToFloatingRate");
         loanJsonOb.remove("isInterestRecalculationEnabled");
         loanJsonOb.remove("isFloatingInterestRate");
@@ -548,4 +567,34 @@ public class LoanImportHandler implements ImportHandler {
         return 0;
     }
 
+    private static final class LoanRowResult {
+
+        private final String loanId;
+        private final int progressLevel;
+        private final String errorMessage;
+
+        LoanRowResult(final String loanId, final int progressLevel, final String errorMessage) {
+            this.loanId = loanId;
+            this.progressLevel = progressLevel;
+            this.errorMessage = errorMessage;
+        }
+    }
+
+    /**
+     * The rows of one uploaded workbook. The handler is shared by all imports, so everything read from a workbook is
+     * kept here rather than on the handler.
+     */
+    private static final class LoanImport {
+
+        private final Workbook workbook;
+        private final List<LoanAccountData> loans = new ArrayList<>();
+        private final List<LoanApprovalData> approvalDates = new ArrayList<>();
+        private final List<LoanTransactionData> loanRepayments = new ArrayList<>();
+        private final List<DisbursementData> disbursalDates = new ArrayList<>();
+        private final List<String> statuses = new ArrayList<>();
+
+        LoanImport(final Workbook workbook) {
+            this.workbook = workbook;
+        }
+    }
 }
@@ -24,7 +24,9 @@ import com.google.gson.JsonObject;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.service.CommandWrapperBuilder;
 import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
@@ -33,6 +35,8 @@ import org.apache.fineract.infrastructure.bulkimport.constants.TemplatePopulateI
 import org.apache.fineract.infrastructure.bulkimport.data.Count;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandler;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandlerUtils;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportProgress;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportRowPipeline;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.helper.DateSerializer;
 import org.apache.fineract.portfolio.loanaccount.data.LoanTransactionData;
 import org.apache.fineract.portfolio.loanaccount.service.LoanReadPlatformService;
@@ -50,45 +54,49 @@ import org.springframework.stereotype.Service;
 public class LoanRepaymentImportHandler implements ImportHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(LoanRepaymentImportHandler.class);
-    private Workbook workbook;
-    private List<LoanTransactionData> loanRepayments;
-    private Long loanAccountId;
     private final LoanReadPlatformService loanReadPlatformService;
 
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
+    private final ImportRowPipeline importRowPipeline;
 
     @Autowired
     public LoanRepaymentImportHandler(final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
-            final LoanReadPlatformService loanReadPlatformService) {
+            final LoanReadPlatformService loanReadPlatformService, final ImportRowPipeline importRowPipeline) {
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
         this.loanReadPlatformService = loanReadPlatformService;
+        this.importRowPipeline = importRowPipeline;
     }
 
     @Override
     public Count process(Workbook workbook, String locale, String dateFormat) {
-        this.workbook = workbook;
-        this.loanRepayments = new ArrayList<>();
-        readExcelFile(locale, dateFormat);
-        return importEntity(dateFormat);
+        return process(workbook, locale, dateFormat, ImportProgress.NONE);
     }
 
-    public void readExcelFile(String locale, String dateFormat) {
-        Sheet loanRepaymentSheet = workbook.getSheet(TemplatePopulateImportConstants.LOAN_REPAYMENT_SHEET_NAME);
+    @Override
+    public Count process(Workbook workbook, String locale, String dateFormat, ImportProgress progress) {
+        final LoanRepaymentImport repaymentImport = new LoanRepaymentImport(workbook);
+        readExcelFile(repaymentImport, locale, dateFormat);
+        return importEntity(repaymentImport, dateFormat, progress);
+    }
+
+    private void readExcelFile(LoanRepaymentImport repaymentImport, String locale, String dateFormat) {
+        Sheet loanRepaymentSheet = repaymentImport.workbook.getSheet(TemplatePopulateImportConstants.LOAN_REPAYMENT_SHEET_NAME);
         Integer noOfEntries = ImportHandlerUtils.getNumberOfRows(loanRepaymentSheet, LoanRepaymentConstants.AMOUNT_COL);
         for (int rowIndex = 1; rowIndex <= noOfEntries; rowIndex++) {
             Row row;
             row = loanRepaymentSheet.getRow(rowIndex);
             if (ImportHandlerUtils.isNotImported(row, LoanRepaymentConstants.STATUS_COL)) {
-                loanRepayments.add(readLoanRepayment(row, locale, dateFormat));
+                repaymentImport.loanRepayments.add(readLoanRepayment(repaymentImport, row, locale, dateFormat));
             }
         }
     }
 
-    private LoanTransactionData readLoanRepayment(Row row, String locale, String dateFormat) {
+    private LoanTransactionData readLoanRepayment(LoanRepaymentImport repaymentImport, Row row, String locale, String dateFormat) {
         String loanaccountInfo = ImportHandlerUtils.readAsString(LoanRepaymentConstants.LOAN_ACCOUNT_NO_COL, row);
         if (loanaccountInfo != null) {
             List<String> loanAccountAr = Splitter.on('-').splitToList(loanaccountInfo);
-            loanAccountId = this.loanReadPlatformService.retrieveLoanIdByAccountNumber(loanAccountAr.get(0));
+            repaymentImport.loanAccountId = repaymentImport.loanIdsByAccountNumber.computeIfAbsent(loanAccountAr.get(0),
+                    this.loanReadPlatformService::retrieveLoanIdByAccountNumber);
         }
         BigDecimal repaymentAmount = null;
         if (ImportHandlerUtils.readAsDouble(LoanRepaymentConstants.AMOUNT_COL, row) != null) {
@@ -96,54 +104,77 @@ public class LoanRepaymentImportHandler implements ImportHandler {
         }
         LocalDate repaymentDate = ImportHandlerUtils.readAsDate(LoanRepaymentConstants.REPAID_ON_DATE_COL, row);
         String repaymentType = ImportHandlerUtils.readAsString(LoanRepaymentConstants.REPAYMENT_TYPE_COL, row);
-        Long repaymentTypeId = ImportHandlerUtils.getIdByName(workbook.getSheet(TemplatePopulateImportConstants.EXTRAS_SHEET_NAME),
-                repaymentType);
+        Long repaymentTypeId = ImportHandlerUtils
+                .getIdByName(repaymentImport.workbook.getSheet(TemplatePopulateImportConstants.EXTRAS_SHEET_NAME), repaymentType);
         String accountNumber = ImportHandlerUtils.readAsString(LoanRepaymentConstants.ACCOUNT_NO_COL, row);
         Integer checkNumber = ImportHandlerUtils.readAsInt(LoanRepaymentConstants.CHECK_NO_COL, row);
         Integer routingCode = ImportHandlerUtils.readAsInt(LoanRepaymentConstants.ROUTING_CODE_COL, row);
         Integer receiptNumber = ImportHandlerUtils.readAsInt(LoanRepaymentConstants.RECEIPT_NO_COL, row);
         Integer bankNumber = ImportHandlerUtils.readAsInt(LoanRepaymentConstants.BANK_NO_COL, row);
         return LoanTransactionData.importInstance(repaymentAmount, repaymentDate, repaymentTypeId, accountNumber, checkNumber, routingCode,
-                receiptNumber, bankNumber, loanAccountId, "", row.getRowNum(), locale, dateFormat);
+                receiptNumber, bankNumber, repaymentImport.loanAccountId, "", row.getRowNum(), locale, dateFormat);
     }
 
-    public Count importEntity(String dateFormat) {
-        Sheet loanRepaymentSheet = workbook.getSheet(TemplatePopulateImportConstants.LOAN_REPAYMENT_SHEET_NAME);
-        int successCount = 0;
-        int errorCount = 0;
-        String errorMessage = "";
+    private Count importEntity(final LoanRepaymentImport repaymentImport, final String dateFormat, final ImportProgress progress) {
+        Sheet loanRepaymentSheet = repaymentImport.workbook.getSheet(TemplatePopulateImportConstants.LOAN_REPAYMENT_SHEET_NAME);
         GsonBuilder gsonBuilder = new GsonBuilder();
         gsonBuilder.registerTypeAdapter(LocalDate.class, new DateSerializer(dateFormat));
 
-        for (LoanTransactionData loanRepayment : loanRepayments) {
-            try {
-
-                JsonObject loanRepaymentJsonob = gsonBuilder.create().toJsonTree(loanRepayment).getAsJsonObject();
-                loanRepaymentJsonob.remove("manuallyReversed");
-                String payload = loanRepaymentJsonob.toString();
-                final CommandWrapper commandRequest = new CommandWrapperBuilder() //
-                        .loanRepaymentTransaction(loanRepayment.getAccountId()) //
-                        .withJson(payload) //
-                        .build(); //
-                commandsSourceWritePlatformService.logCommandSource(commandRequest);
-                successCount++;
-                Cell statusCell = loanRepaymentSheet.getRow(loanRepayment.getRowIndex()).createCell(LoanRepaymentConstants.STATUS_COL);
-                statusCell.setCellValue(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED);
-                statusCell.setCellStyle(ImportHandlerUtils.getCellStyle(workbook, IndexedColors.LIGHT_GREEN));
-            } catch (RuntimeException ex) {
-                errorCount++;
-                LOG.error("Problem occurred in importEntity function", ex);
-                errorMessage = ImportHandlerUtils.getErrorMessage(ex);
-                ImportHandlerUtils.writeErrorMessage(loanRepaymentSheet, loanRepayment.getRowIndex(), errorMessage,
-                        LoanRepaymentConstants.STATUS_COL);
-            }
-
-        }
+        // repayments of the same loan are posted in file order, repayments of different loans concurrently
+        final Count count = this.importRowPipeline.run(repaymentImport.loanRepayments, LoanTransactionData::getAccountId,
+                loanRepayment -> importLoanRepayment(gsonBuilder, loanRepayment), (loanRepayment, errorMessage) -> {
+                    if (errorMessage == null) {
+                        Cell statusCell = loanRepaymentSheet.getRow(loanRepayment.getRowIndex())
+                                .createCell(LoanRepaymentConstants.STATUS_COL);
+                        statusCell.setCellValue(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED);
+                        statusCell.setCellStyle(ImportHandlerUtils.getCellStyle(repaymentImport.workbook, IndexedColors.LIGHT_GREEN));
+                        return true;
+                    }
+                    ImportHandlerUtils.writeErrorMessage(loanRepaymentSheet, loanRepayment.getRowIndex(), errorMessage,
+                            LoanRepaymentConstants.STATUS_COL);
+                    return false;
+                }, (loanRepayment, errorMessage) -> ImportHandlerUtils.writeErrorMessage(loanRepaymentSheet, loanRepayment.getRowIndex(),
+                        errorMessage, LoanRepaymentConstants.STATUS_COL),
+                progress);
         loanRepaymentSheet.setColumnWidth(LoanRepaymentConstants.STATUS_COL, TemplatePopulateImportConstants.SMALL_COL_SIZE);
         ImportHandlerUtils.writeString(LoanRepaymentConstants.STATUS_COL,
                 loanRepaymentSheet.getRow(TemplatePopulateImportConstants.ROWHEADER_INDEX),
                 TemplatePopulateImportConstants.STATUS_COL_REPORT_HEADER);
-        return Count.instance(successCount, errorCount);
+        return count;
     }
 
+    /**
+     * @return the error message of the failed repayment, or null when it was posted
+     */
+    private String importLoanRepayment(final GsonBuilder gsonBuilder, final LoanTransactionData loanRepayment) {
+        try {
+            JsonObject loanRepaymentJsonob = gsonBuilder.create().toJsonTree(loanRepayment).getAsJsonObject();
+            loanRepaymentJsonob.remove("manuallyReversed");
+            String payload = loanRepaymentJsonob.toString();
+            final CommandWrapper commandRequest = new CommandWrapperBuilder() //
+                    .loanRepaymentTransaction(loanRepayment.getAccountId()) //
+                    .withJson(payload) //
+                    .build(); //
+            commandsSourceWritePlatformService.logCommandSource(commandRequest);
+            return null;
+        } catch (RuntimeException ex) {
+            LOG.error("Problem occurred in importEntity function", ex);
+            return ImportHandlerUtils.getErrorMessage(ex);
+        }
+    }
+
+    /**
+     * The repayments of one uploaded workbook, kept apart from the handler which is shared by all imports.
+     */
+    private static final class LoanRepaymentImport {
+
+        private final Workbook workbook;
+        private final List<LoanTransactionData> loanRepayments = new ArrayList<>();
+        private final Map<String, Long> loanIdsByAccountNumber = new HashMap<>();
+        private Long loanAccountId;
+
+        LoanRepaymentImport(final Workbook workbook) {
+            this.workbook = workbook;
+        }
+    }
 }
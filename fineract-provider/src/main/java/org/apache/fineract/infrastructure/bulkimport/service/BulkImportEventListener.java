@@ -18,21 +18,28 @@
  */
 package org.apache.fineract.infrastructure.bulkimport.service;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.Set;
 import org.apache.fineract.infrastructure.bulkimport.data.BulkImportEvent;
 import org.apache.fineract.infrastructure.bulkimport.data.Count;
 import org.apache.fineract.infrastructure.bulkimport.data.GlobalEntityType;
+import org.apache.fineract.infrastructure.bulkimport.data.ImportFormatType;
 import org.apache.fineract.infrastructure.bulkimport.domain.ImportDocument;
 import org.apache.fineract.infrastructure.bulkimport.domain.ImportDocumentRepository;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandler;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandlerUtils;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportProgress;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.TabularImportRunner;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.documentmanagement.command.DocumentCommand;
 import org.apache.fineract.infrastructure.documentmanagement.domain.Document;
@@ -44,6 +51,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationListener;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -54,14 +62,19 @@ public class BulkImportEventListener implements ApplicationListener<BulkImportEv
     private final ApplicationContext applicationContext;
     private final ImportDocumentRepository importRepository;
     private final DocumentWritePlatformService documentService;
+    private final TabularImportRunner tabularImportRunner;
+    private final JdbcTemplate jdbcTemplate;
 
     @Autowired
     public BulkImportEventListener(final TenantDetailsService tenantDetailsService, final ApplicationContext context,
-            final ImportDocumentRepository importRepository, final DocumentWritePlatformService documentService) {
+            final ImportDocumentRepository importRepository, final DocumentWritePlatformService documentService,
+            final TabularImportRunner tabularImportRunner, final RoutingDataSource dataSource) {
         this.tenantDetailsService = tenantDetailsService;
         this.applicationContext = context;
         this.importRepository = importRepository;
         this.documentService = documentService;
+        this.tabularImportRunner = tabularImportRunner;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
     }
 
     @Override
@@ -138,33 +151,54 @@ public class BulkImportEventListener implements ApplicationListener<BulkImportEv
         }
 
         final Workbook workbook = event.getWorkbook();
-        final Count count = importHandler.process(workbook, event.getLocale(), event.getDateFormat());
-        importDocument.update(DateUtils.getLocalDateTimeOfTenant(), count.getSuccessCount(), count.getErrorCount());
-        this.importRepository.save(importDocument);
+        Path output = null;
+        try {
+            final Long importDocumentId = importDocument.getId();
+            final ImportProgress progress = (successCount, errorCount) -> this.jdbcTemplate.update(
+                    "update m_import_document set success_count = ?, failure_count = ? where id = ?", successCount, errorCount,
+                    importDocumentId);
+            final ImportFormatType format = event.getFormat();
+            final boolean tabular = format != null && format.isTabular();
+            output = Files.createTempFile("fineract-import-", ".result");
+            final Count count;
+            if (tabular) {
+                count = this.tabularImportRunner.process(importHandler, entityType, workbook, format, event.getUploadedFile().toPath(),
+                        output, event.getLocale(), event.getDateFormat(), progress);
+            } else {
+                count = importHandler.process(workbook, event.getLocale(), event.getDateFormat(), progress);
+            }
+            importDocument.update(DateUtils.getLocalDateTimeOfTenant(), count.getSuccessCount(), count.getErrorCount());
+            this.importRepository.save(importDocument);
 
-        final Set<String> modifiedParams = new HashSet<>();
-        modifiedParams.add("fileName");
-        modifiedParams.add("size");
-        modifiedParams.add("type");
-        modifiedParams.add("location");
-        Document document = importDocument.getDocument();
+            final Set<String> modifiedParams = new HashSet<>();
+            modifiedParams.add("fileName");
+            modifiedParams.add("size");
+            modifiedParams.add("type");
+            modifiedParams.add("location");
+            Document document = importDocument.getDocument();
 
-        DocumentCommand documentCommand = new DocumentCommand(modifiedParams, document.getId(), entityType.name(), null, document.getName(),
-                document.getFileName(), document.getSize(), URLConnection.guessContentTypeFromName(document.getFileName()), null, null);
+            DocumentCommand documentCommand = new DocumentCommand(modifiedParams, document.getId(), entityType.name(), null,
+                    document.getName(), document.getFileName(), document.getSize(),
+                    tabular ? format.getFormat() : URLConnection.guessContentTypeFromName(document.getFileName()), null, null);
 
-        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        try {
-            try {
-                workbook.write(bos);
-            } finally {
-                bos.close();
+            // the annotated workbook goes through a temporary file rather than a couple of in memory copies, tabular
+            // imports have already streamed their per-row results into it
+            if (!tabular) {
+                try (OutputStream out = Files.newOutputStream(output)) {
+                    workbook.write(out);
+                }
+            }
+            try (InputStream in = Files.newInputStream(output)) {
+                this.documentService.updateDocument(documentCommand, in);
             }
         } catch (IOException io) {
             LOG.error("Problem occurred in onApplicationEvent function", io);
+        } finally {
+            ImportHandlerUtils.discardWorkbook(workbook, event.getUploadedFile());
+            if (output != null && !output.toFile().delete()) {
+                LOG.warn("Import result file {} could not be deleted", output);
+            }
         }
-        byte[] bytes = bos.toByteArray();
-        ByteArrayInputStream bis = new ByteArrayInputStream(bytes);
-        this.documentService.updateDocument(documentCommand, bis);
     }
 
 }
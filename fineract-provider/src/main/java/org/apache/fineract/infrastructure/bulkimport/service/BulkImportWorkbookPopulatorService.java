@@ -19,8 +19,11 @@
 package org.apache.fineract.infrastructure.bulkimport.service;
 
 import javax.ws.rs.core.Response;
+import org.apache.poi.ss.usermodel.Workbook;
 
 public interface BulkImportWorkbookPopulatorService {
 
     Response getTemplate(String entityType, Long officeId, Long staffId, String dateFormat);
+
+    Workbook populateTemplate(String entityType, Long officeId, Long staffId, String dateFormat);
 }
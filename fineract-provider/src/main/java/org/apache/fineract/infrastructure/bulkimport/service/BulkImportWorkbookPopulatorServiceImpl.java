@@ -175,6 +175,12 @@ public class BulkImportWorkbookPopulatorServiceImpl implements BulkImportWorkboo
 
     @Override
     public Response getTemplate(String entityType, Long officeId, Long staffId, final String dateFormat) {
+        final Workbook workbook = populateTemplate(entityType, officeId, staffId, dateFormat);
+        return buildResponse(workbook, entityType);
+    }
+
+    @Override
+    public Workbook populateTemplate(String entityType, Long officeId, Long staffId, final String dateFormat) {
         WorkbookPopulator populator = null;
         final Workbook workbook = new HSSFWorkbook();
         if (entityType != null) {
@@ -219,7 +225,7 @@ public class BulkImportWorkbookPopulatorServiceImpl implements BulkImportWorkboo
                 throw new GeneralPlatformDomainRuleException("error.msg.unable.to.find.resource", "Unable to find requested resource");
             }
             populator.populate(workbook, dateFormat);
-            return buildResponse(workbook, entityType);
+            return workbook;
         } else {
             throw new GeneralPlatformDomainRuleException("error.msg.given.entity.type.null", "Given Entity type is null");
         }
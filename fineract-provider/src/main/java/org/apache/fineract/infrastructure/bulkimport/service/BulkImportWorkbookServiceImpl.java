@@ -19,12 +19,12 @@
 package org.apache.fineract.infrastructure.bulkimport.service;
 
 import com.sun.jersey.core.header.FormDataContentDisposition;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
@@ -33,9 +33,12 @@ import javax.ws.rs.core.Response;
 import org.apache.fineract.infrastructure.bulkimport.data.BulkImportEvent;
 import org.apache.fineract.infrastructure.bulkimport.data.GlobalEntityType;
 import org.apache.fineract.infrastructure.bulkimport.data.ImportData;
+import org.apache.fineract.infrastructure.bulkimport.data.ImportFormatType;
 import org.apache.fineract.infrastructure.bulkimport.domain.ImportDocument;
 import org.apache.fineract.infrastructure.bulkimport.domain.ImportDocumentRepository;
 import org.apache.fineract.infrastructure.bulkimport.importhandler.ImportHandlerUtils;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.TabularImportRunner;
+import org.apache.fineract.infrastructure.bulkimport.importhandler.TabularRowReader;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
@@ -47,10 +50,9 @@ import org.apache.fineract.infrastructure.documentmanagement.domain.DocumentRepo
 import org.apache.fineract.infrastructure.documentmanagement.service.DocumentWritePlatformService;
 import org.apache.fineract.infrastructure.documentmanagement.service.DocumentWritePlatformServiceJpaRepositoryImpl;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.apache.tika.Tika;
-import org.apache.tika.io.IOUtils;
 import org.apache.tika.io.TikaInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,43 +71,53 @@ public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService
     private final DocumentWritePlatformService documentWritePlatformService;
     private final DocumentRepository documentRepository;
     private final ImportDocumentRepository importDocumentRepository;
+    private final BulkImportWorkbookPopulatorService bulkImportWorkbookPopulatorService;
     private final JdbcTemplate jdbcTemplate;
 
     @Autowired
     public BulkImportWorkbookServiceImpl(final ApplicationContext applicationContext, final PlatformSecurityContext securityContext,
             final DocumentWritePlatformService documentWritePlatformService, final DocumentRepository documentRepository,
-            final ImportDocumentRepository importDocumentRepository, final RoutingDataSource dataSource) {
+            final ImportDocumentRepository importDocumentRepository,
+            final BulkImportWorkbookPopulatorService bulkImportWorkbookPopulatorService, final RoutingDataSource dataSource) {
         this.applicationContext = applicationContext;
         this.securityContext = securityContext;
         this.documentWritePlatformService = documentWritePlatformService;
         this.documentRepository = documentRepository;
         this.importDocumentRepository = importDocumentRepository;
+        this.bulkImportWorkbookPopulatorService = bulkImportWorkbookPopulatorService;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
     }
 
     @Override
     public Long importWorkbook(String entity, InputStream inputStream, FormDataContentDisposition fileDetail, final String locale,
             final String dateFormat) {
+        File uploadedFile = null;
+        Workbook workbook = null;
         try {
             if (entity != null && inputStream != null && fileDetail != null && locale != null && dateFormat != null) {
 
-                final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                IOUtils.copy(inputStream, baos);
-                final byte[] bytes = baos.toByteArray();
-                InputStream clonedInputStream = new ByteArrayInputStream(bytes);
-                InputStream clonedInputStreamWorkbook = new ByteArrayInputStream(bytes);
-                final Tika tika = new Tika();
-                final TikaInputStream tikaInputStream = TikaInputStream.get(clonedInputStream);
-                final String fileType = tika.detect(tikaInputStream);
-                if (!fileType.contains("msoffice") && !fileType.contains("application/vnd.ms-excel")) {
-                    // We had a problem where we tried to upload the downloaded
-                    // file from the import options, it was somehow changed the
-                    // extension we use this fix.
-                    throw new GeneralPlatformDomainRuleException("error.msg.invalid.file.extension",
-                            "Uploaded file extension is not recognized.");
+                // the upload is spooled to disk once instead of being copied around in memory, and the workbook is
+                // opened from the file, which lets POI read it without buffering the whole upload again
+                uploadedFile = Files.createTempFile("fineract-import-", ".upload").toFile();
+                Files.copy(inputStream, uploadedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                final ImportFormatType format = ImportFormatType.fromFileName(fileDetail.getFileName());
+                final boolean tabular = format != null && format.isTabular();
+                if (!tabular) {
+                    final String fileType;
+                    try (TikaInputStream tikaInputStream = TikaInputStream.get(uploadedFile.toPath())) {
+                        fileType = new Tika().detect(tikaInputStream);
+                    }
+                    if (!fileType.contains("msoffice") && !fileType.contains("application/vnd.ms-excel") && !fileType.contains("ooxml")
+                            && !fileType.contains("openxmlformats")) {
+                        // We had a problem where we tried to upload the downloaded
+                        // file from the import options, it was somehow changed the
+                        // extension we use this fix.
+                        throw new GeneralPlatformDomainRuleException("error.msg.invalid.file.extension",
+                                "Uploaded file extension is not recognized.");
 
+                    }
+                    workbook = WorkbookFactory.create(uploadedFile);
                 }
-                Workbook workbook = new HSSFWorkbook(clonedInputStreamWorkbook);
                 GlobalEntityType entityType = null;
                 int primaryColumn = 0;
                 if (entity.trim().equalsIgnoreCase(GlobalEntityType.CLIENTS_PERSON.toString())) {
@@ -166,11 +178,24 @@ public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService
                     entityType = GlobalEntityType.USERS;
                     primaryColumn = 0;
                 } else {
-                    workbook.close();
                     throw new GeneralPlatformDomainRuleException("error.msg.unable.to.find.resource", "Unable to find requested resource");
 
                 }
-                return publishEvent(primaryColumn, fileDetail, clonedInputStreamWorkbook, entityType, workbook, locale, dateFormat);
+                if (tabular) {
+                    if (!TabularImportRunner.supports(entityType)) {
+                        throw new GeneralPlatformDomainRuleException("error.msg.import.format.not.supported",
+                                "CSV and JSON-lines uploads are not supported for " + entity, entity);
+                    }
+                    // the records are fed through the entity sheet of the regular template, whose lookup sheets
+                    // resolve names to ids the same way they do for a spreadsheet upload
+                    workbook = this.bulkImportWorkbookPopulatorService.populateTemplate(entity, null, null, dateFormat);
+                }
+                final Long importDocumentId = publishEvent(primaryColumn, fileDetail, uploadedFile, format, entityType, workbook,
+                        locale, dateFormat);
+                // the import now owns the workbook and the uploaded file
+                workbook = null;
+                uploadedFile = null;
+                return importDocumentId;
             }
             throw new GeneralPlatformDomainRuleException("error.msg.null", "One or more of the given parameters not found");
         } catch (IOException e) {
@@ -178,26 +203,34 @@ public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService
             throw new GeneralPlatformDomainRuleException("error.msg.io.exception",
                     "IO exception occured with " + fileDetail.getFileName() + " " + e.getMessage(), e);
 
+        } finally {
+            ImportHandlerUtils.discardWorkbook(workbook, uploadedFile);
         }
     }
 
-    private Long publishEvent(final Integer primaryColumn, final FormDataContentDisposition fileDetail,
-            final InputStream clonedInputStreamWorkbook, final GlobalEntityType entityType, final Workbook workbook, final String locale,
-            final String dateFormat) {
+    private Long publishEvent(final Integer primaryColumn, final FormDataContentDisposition fileDetail, final File uploadedFile,
+            final ImportFormatType format, final GlobalEntityType entityType, final Workbook workbook, final String locale,
+            final String dateFormat) throws IOException {
 
         final String fileName = fileDetail.getFileName();
+        final boolean tabular = format != null && format.isTabular();
 
-        final Long documentId = this.documentWritePlatformService.createInternalDocument(
-                DocumentWritePlatformServiceJpaRepositoryImpl.DocumentManagementEntity.IMPORT.name(),
-                this.securityContext.authenticatedUser().getId(), null, clonedInputStreamWorkbook,
-                URLConnection.guessContentTypeFromName(fileName), fileName, null, fileName);
+        final Long documentId;
+        try (InputStream uploadedInputStream = Files.newInputStream(uploadedFile.toPath())) {
+            documentId = this.documentWritePlatformService.createInternalDocument(
+                    DocumentWritePlatformServiceJpaRepositoryImpl.DocumentManagementEntity.IMPORT.name(),
+                    this.securityContext.authenticatedUser().getId(), null, uploadedInputStream,
+                    tabular ? format.getFormat() : URLConnection.guessContentTypeFromName(fileName), fileName, null, fileName);
+        }
         final Document document = this.documentRepository.findById(documentId).orElse(null);
 
+        final Integer totalRecords = tabular ? TabularRowReader.countRows(format, uploadedFile.toPath())
+                : ImportHandlerUtils.getNumberOfRows(workbook.getSheetAt(0), primaryColumn);
         final ImportDocument importDocument = ImportDocument.instance(document, DateUtils.getLocalDateTimeOfTenant(), entityType.getValue(),
-                this.securityContext.authenticatedUser(), ImportHandlerUtils.getNumberOfRows(workbook.getSheetAt(0), primaryColumn));
+                this.securityContext.authenticatedUser(), totalRecords);
         this.importDocumentRepository.saveAndFlush(importDocument);
         BulkImportEvent event = BulkImportEvent.instance(ThreadLocalContextUtil.getTenant().getTenantIdentifier(), workbook,
-                importDocument.getId(), locale, dateFormat);
+                uploadedFile, format, importDocument.getId(), locale, dateFormat);
         applicationContext.publishEvent(event);
         return importDocument.getId();
     }
@@ -266,7 +299,8 @@ public class BulkImportWorkbookServiceImpl implements BulkImportWorkbookService
         File file = new File(fileLocation);
         final Response.ResponseBuilder response = Response.ok(file);
         response.header("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
-        response.header("Content-Type", "application/vnd.ms-excel");
+        final ImportFormatType format = ImportFormatType.fromFileName(documentData.fileName());
+        response.header("Content-Type", format != null && format.isTabular() ? format.getFormat() : "application/vnd.ms-excel");
         return response.build();
     }
 
@@ -43,8 +43,6 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import javax.mail.internet.AddressException;
-import javax.mail.internet.InternetAddress;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.infrastructure.campaigns.email.data.EmailCampaignData;
 import org.apache.fineract.infrastructure.campaigns.email.data.EmailCampaignValidator;
@@ -59,6 +57,8 @@ import org.apache.fineract.infrastructure.campaigns.email.domain.ScheduledEmailA
 import org.apache.fineract.infrastructure.campaigns.email.exception.EmailCampaignMustBeClosedToBeDeletedException;
 import org.apache.fineract.infrastructure.campaigns.email.exception.EmailCampaignMustBeClosedToEditException;
 import org.apache.fineract.infrastructure.campaigns.email.exception.EmailCampaignNotFound;
+import org.apache.fineract.infrastructure.campaigns.helper.CampaignMessageMaterializer;
+import org.apache.fineract.infrastructure.campaigns.helper.EmailAddressUtils;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.api.JsonQuery;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
@@ -83,7 +83,6 @@ import org.apache.fineract.infrastructure.reportmailingjob.helper.IPv4Helper;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.portfolio.calendar.service.CalendarUtils;
 import org.apache.fineract.portfolio.client.domain.Client;
-import org.apache.fineract.portfolio.client.domain.ClientRepositoryWrapper;
 import org.apache.fineract.portfolio.loanaccount.domain.Loan;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanRepository;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
@@ -112,35 +111,36 @@ public class EmailCampaignWritePlatformCommandHandlerImpl implements EmailCampai
     private final EmailCampaignReadPlatformService emailCampaignReadPlatformService;
     private final ReportRepository reportRepository;
     private final EmailMessageRepository emailMessageRepository;
-    private final ClientRepositoryWrapper clientRepositoryWrapper;
     private final ReadReportingService readReportingService;
     private final GenericDataService genericDataService;
     private final FromJsonHelper fromJsonHelper;
     private final LoanRepository loanRepository;
     private final SavingsAccountRepository savingsAccountRepository;
     private final EmailMessageJobEmailService emailMessageJobEmailService;
+    private final CampaignMessageMaterializer campaignMessageMaterializer;
 
     @Autowired
     public EmailCampaignWritePlatformCommandHandlerImpl(final PlatformSecurityContext context,
             final EmailCampaignRepository emailCampaignRepository, final EmailCampaignValidator emailCampaignValidator,
             final EmailCampaignReadPlatformService emailCampaignReadPlatformService, final ReportRepository reportRepository,
-            final EmailMessageRepository emailMessageRepository, final ClientRepositoryWrapper clientRepositoryWrapper,
+            final EmailMessageRepository emailMessageRepository,
             final ReadReportingService readReportingService, final GenericDataService genericDataService,
             final FromJsonHelper fromJsonHelper, final LoanRepository loanRepository,
-            final SavingsAccountRepository savingsAccountRepository, final EmailMessageJobEmailService emailMessageJobEmailService) {
+            final SavingsAccountRepository savingsAccountRepository, final EmailMessageJobEmailService emailMessageJobEmailService,
+            final CampaignMessageMaterializer campaignMessageMaterializer) {
         this.context = context;
         this.emailCampaignRepository = emailCampaignRepository;
         this.emailCampaignValidator = emailCampaignValidator;
         this.emailCampaignReadPlatformService = emailCampaignReadPlatformService;
         this.reportRepository = reportRepository;
         this.emailMessageRepository = emailMessageRepository;
-        this.clientRepositoryWrapper = clientRepositoryWrapper;
         this.readReportingService = readReportingService;
         this.genericDataService = genericDataService;
         this.fromJsonHelper = fromJsonHelper;
         this.loanRepository = loanRepository;
         this.savingsAccountRepository = savingsAccountRepository;
         this.emailMessageJobEmailService = emailMessageJobEmailService;
+        this.campaignMessageMaterializer = campaignMessageMaterializer;
     }
 
     @Transactional
@@ -244,52 +244,14 @@ public class EmailCampaignWritePlatformCommandHandlerImpl implements EmailCampai
     private void insertDirectCampaignIntoEmailOutboundTable(final String emailParams, final String emailSubject,
             final String messageTemplate, final String campaignName, final Long campaignId) {
         try {
-            HashMap<String, String> campaignParams = new ObjectMapper().readValue(emailParams,
-                    new TypeReference<HashMap<String, String>>() {});
-
-            HashMap<String, String> queryParamForRunReport = new ObjectMapper().readValue(emailParams,
-                    new TypeReference<HashMap<String, String>>() {});
-
-            List<HashMap<String, Object>> runReportObject = this.getRunReportByServiceImpl(campaignParams.get("reportName"),
-                    queryParamForRunReport);
-
-            if (runReportObject != null) {
-                for (HashMap<String, Object> entry : runReportObject) {
-                    String message = this.compileEmailTemplate(messageTemplate, campaignName, entry);
-                    Integer clientId = (Integer) entry.get("id");
-                    EmailCampaign emailCampaign = this.emailCampaignRepository.findById(campaignId).orElse(null);
-                    Client client = this.clientRepositoryWrapper.findOneWithNotFoundDetection(clientId.longValue());
-                    String emailAddress = client.emailAddress();
-
-                    if (emailAddress != null && isValidEmail(emailAddress)) {
-                        EmailMessage emailMessage = EmailMessage.pendingEmail(null, client, null, emailCampaign, emailSubject, message,
-                                emailAddress, campaignName);
-                        this.emailMessageRepository.save(emailMessage);
-                    }
-                }
-            }
+            this.campaignMessageMaterializer.queueEmailCampaignMessages(campaignId, emailParams, emailSubject, messageTemplate,
+                    campaignName);
         } catch (final IOException e) {
             // TODO throw something here
         }
 
     }
 
-    public static boolean isValidEmail(String email) {
-
-        boolean isValid = true;
-
-        try {
-
-            InternetAddress emailO = new InternetAddress(email);
-            emailO.validate();
-
-        } catch (AddressException ex) {
-
-            isValid = false;
-        }
-        return isValid;
-    }
-
     @Override
     @CronTarget(jobName = JobName.UPDATE_EMAIL_OUTBOUND_WITH_CAMPAIGN_MESSAGE)
     public void storeTemplateMessageIntoEmailOutBoundTable() throws JobExecutionException {
@@ -584,7 +546,7 @@ public class EmailCampaignWritePlatformCommandHandlerImpl implements EmailCampai
 
             for (final EmailMessage emailMessage : emailMessages) {
 
-                if (isValidEmail(emailMessage.getEmailAddress())) {
+                if (EmailAddressUtils.isValidEmail(emailMessage.getEmailAddress())) {
 
                     final EmailCampaign emailCampaign = this.emailCampaignRepository.findById(emailMessage.getEmailCampaign().getId())
                             .orElse(null); //
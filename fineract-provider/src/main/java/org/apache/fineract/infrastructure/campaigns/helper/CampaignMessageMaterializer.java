@@ -0,0 +1,231 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.campaigns.helper;
+
+import com.github.mustachejava.DefaultMustacheFactory;
+import com.github.mustachejava.Mustache;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.apache.fineract.infrastructure.campaigns.email.domain.EmailMessageStatusType;
+import org.apache.fineract.infrastructure.campaigns.sms.domain.SmsCampaign;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.dataqueries.service.ReadReportingService;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessageStatusType;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.type.TypeReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Queues the messages of a campaign for its whole audience. The rows of the campaign report are streamed, the message
+ * template is compiled once and rendered per recipient, and the messages are inserted in JDBC batches.
+ */
+@Component
+public class CampaignMessageMaterializer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CampaignMessageMaterializer.class);
+    private static final int BATCH_SIZE = 1000;
+
+    // every column SmsMessage.pendingSms and EmailMessage.pendingEmail set for a campaign message, including the ones
+    // they leave empty
+    private static final String SMS_INSERT_SQL = "insert into sms_messages_outbound (external_id, group_id, client_id, staff_id,"
+            + " campaign_id, status_enum, mobile_no, message, submittedon_date, delivered_on_date, is_notification)"
+            + " values (null, null, ?, null, ?, ?, ?, ?, ?, null, ?)";
+    private static final String EMAIL_INSERT_SQL = "insert into scheduled_email_messages_outbound (group_id, client_id, staff_id,"
+            + " email_campaign_id, status_enum, email_address, email_subject, message, campaign_name, submittedon_date, error_message)"
+            + " values (null, ?, null, ?, ?, ?, ?, ?, ?, ?, null)";
+
+    private final ReadReportingService readReportingService;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    public CampaignMessageMaterializer(final ReadReportingService readReportingService, final RoutingDataSource dataSource) {
+        this(readReportingService, new NamedParameterJdbcTemplate(dataSource));
+    }
+
+    CampaignMessageMaterializer(final ReadReportingService readReportingService,
+            final NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.readReportingService = readReportingService;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    /**
+     * @return the number of SMS messages (or notifications) queued
+     */
+    public int queueSmsCampaignMessages(final SmsCampaign smsCampaign) throws IOException {
+        final Mustache template = new DefaultMustacheFactory().compile(new StringReader(smsCampaign.getMessage()),
+                smsCampaign.getCampaignName());
+        final Date submittedOnDate = Date.valueOf(DateUtils.getLocalDateOfTenant());
+        return queueMessages(smsCampaign.getParamValue(), SMS_INSERT_SQL, rows -> {
+            final Map<Long, AudienceClient> clients = retrieveClients(rows);
+            final List<Object[]> messages = new ArrayList<>();
+            for (final Map<String, Object> row : rows) {
+                final AudienceClient client = clients.get(clientId(row));
+                final Object mobileNo = row.get("mobileNo");
+                if (client == null || (smsCampaign.isNotification() ? !client.hasDeviceRegistration : mobileNo == null)) {
+                    continue;
+                }
+                messages.add(new Object[] { client.id, smsCampaign.getId(), SmsMessageStatusType.PENDING.getValue(),
+                        mobileNo == null ? null : mobileNo.toString(), render(template, row), submittedOnDate,
+                        smsCampaign.isNotification() });
+            }
+            return messages;
+        });
+    }
+
+    /**
+     * @return the number of emails queued
+     */
+    public int queueEmailCampaignMessages(final Long campaignId, final String paramValue, final String emailSubject,
+            final String messageTemplate, final String campaignName) throws IOException {
+        final Mustache template = new DefaultMustacheFactory().compile(new StringReader(messageTemplate), campaignName);
+        final Date submittedOnDate = Date.valueOf(DateUtils.getLocalDateOfTenant());
+        return queueMessages(paramValue, EMAIL_INSERT_SQL, rows -> {
+            final Map<Long, AudienceClient> clients = retrieveClients(rows);
+            final List<Object[]> messages = new ArrayList<>();
+            for (final Map<String, Object> row : rows) {
+                final AudienceClient client = clients.get(clientId(row));
+                if (client == null || !EmailAddressUtils.isValidEmail(client.emailAddress)) {
+                    continue;
+                }
+                messages.add(new Object[] { client.id, campaignId, EmailMessageStatusType.PENDING.getValue(), client.emailAddress,
+                        emailSubject, render(template, row), campaignName, submittedOnDate });
+            }
+            return messages;
+        });
+    }
+
+    private int queueMessages(final String paramValue, final String insertSql,
+            final Function<List<Map<String, Object>>, List<Object[]>> messageBuilder) throws IOException {
+        final Map<String, String> campaignParams = new ObjectMapper().readValue(paramValue,
+                new TypeReference<HashMap<String, String>>() {});
+        final MessageBatch batch = new MessageBatch(insertSql, messageBuilder);
+        this.readReportingService.streamGenericResultSetForSmsEmailCampaign(campaignParams.get("reportName"), "report", campaignParams,
+                batch);
+        batch.flush();
+        LOG.info("{} campaign message(s) queued for report {}", batch.queued, campaignParams.get("reportName"));
+        return batch.queued;
+    }
+
+    private Map<Long, AudienceClient> retrieveClients(final List<Map<String, Object>> rows) {
+        final Set<Long> clientIds = new HashSet<>();
+        for (final Map<String, Object> row : rows) {
+            final Long clientId = clientId(row);
+            if (clientId != null) {
+                clientIds.add(clientId);
+            }
+        }
+        final Map<Long, AudienceClient> clients = new HashMap<>();
+        if (clientIds.isEmpty()) {
+            return clients;
+        }
+        final RowCallbackHandler clientHandler = rs -> {
+            final AudienceClient client = AudienceClient.from(rs);
+            clients.put(client.id, client);
+        };
+        this.namedParameterJdbcTemplate.query("select c.id as id, c.email_address as emailAddress, cdr.id as deviceRegistrationId"
+                + " from m_client c left join client_device_registration cdr on cdr.client_id = c.id where c.id in (:clientIds)",
+                new MapSqlParameterSource("clientIds", clientIds), clientHandler);
+        if (clients.size() < clientIds.size()) {
+            LOG.warn("{} campaign recipient(s) do not match a client and are skipped", clientIds.size() - clients.size());
+        }
+        return clients;
+    }
+
+    private static Long clientId(final Map<String, Object> row) {
+        final Object id = row.get("id");
+        return id instanceof Number ? ((Number) id).longValue() : null;
+    }
+
+    private static String render(final Mustache template, final Map<String, Object> row) {
+        final StringWriter stringWriter = new StringWriter();
+        template.execute(stringWriter, row);
+        return stringWriter.toString();
+    }
+
+    private final class MessageBatch implements Consumer<Map<String, Object>> {
+
+        private final String insertSql;
+        private final Function<List<Map<String, Object>>, List<Object[]>> messageBuilder;
+        private final List<Map<String, Object>> rows = new ArrayList<>(BATCH_SIZE);
+        private int queued;
+
+        MessageBatch(final String insertSql, final Function<List<Map<String, Object>>, List<Object[]>> messageBuilder) {
+            this.insertSql = insertSql;
+            this.messageBuilder = messageBuilder;
+        }
+
+        @Override
+        public void accept(final Map<String, Object> row) {
+            this.rows.add(row);
+            if (this.rows.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (this.rows.isEmpty()) {
+                return;
+            }
+            final List<Object[]> messages = this.messageBuilder.apply(this.rows);
+            if (!messages.isEmpty()) {
+                CampaignMessageMaterializer.this.namedParameterJdbcTemplate.getJdbcTemplate().batchUpdate(this.insertSql, messages);
+                this.queued += messages.size();
+            }
+            this.rows.clear();
+        }
+    }
+
+    private static final class AudienceClient {
+
+        private final Long id;
+        private final String emailAddress;
+        private final boolean hasDeviceRegistration;
+
+        private AudienceClient(final Long id, final String emailAddress, final boolean hasDeviceRegistration) {
+            this.id = id;
+            this.emailAddress = emailAddress;
+            this.hasDeviceRegistration = hasDeviceRegistration;
+        }
+
+        static AudienceClient from(final ResultSet rs) throws SQLException {
+            return new AudienceClient(rs.getLong("id"), rs.getString("emailAddress"),
+                    JdbcSupport.getLong(rs, "deviceRegistrationId") != null);
+        }
+    }
+}
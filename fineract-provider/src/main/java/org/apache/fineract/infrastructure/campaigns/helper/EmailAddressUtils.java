@@ -16,33 +16,30 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.fineract.notification.cache;
+package org.apache.fineract.infrastructure.campaigns.helper;
 
-public class CacheNotificationResponseHeader {
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
 
-    private boolean hasNotifications;
-    private Long lastFetch;
-
-    public CacheNotificationResponseHeader() {}
-
-    public CacheNotificationResponseHeader(boolean hasNotifications, Long lastFetch) {
-        this.hasNotifications = hasNotifications;
-        this.lastFetch = lastFetch;
-    }
-
-    public boolean hasNotifications() {
-        return hasNotifications;
-    }
-
-    public void setHasNotifications(boolean hasNotifications) {
-        this.hasNotifications = hasNotifications;
-    }
-
-    public Long getLastFetch() {
-        return lastFetch;
-    }
-
-    public void setLastFetch(Long lastFetch) {
-        this.lastFetch = lastFetch;
+/**
+ * Checks the email addresses campaign messages are sent to.
+ */
+public final class EmailAddressUtils {
+
+    private EmailAddressUtils() {}
+
+    /**
+     * @return whether the address is a syntactically valid (RFC 822) email address
+     */
+    public static boolean isValidEmail(final String email) {
+        if (email == null) {
+            return false;
+        }
+        try {
+            new InternetAddress(email).validate();
+            return true;
+        } catch (final AddressException e) {
+            return false;
+        }
     }
 }
@@ -98,4 +98,8 @@ public interface ConfigurationDomainService {
     boolean isFirstRepaymentDateAfterRescheduleAllowedOnHoliday();
 
     boolean isInterestToBeAppropriatedEquallyWhenGreaterThanEMI();
+
+    boolean isSearchIndexEnabled();
+
+    boolean isCollectionSheetSnapshotEnabled();
 }
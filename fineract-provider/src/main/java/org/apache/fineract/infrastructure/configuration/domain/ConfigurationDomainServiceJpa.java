@@ -262,6 +262,16 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
         return getGlobalConfigurationPropertyData("is-interest-to-be-appropriated-equally-when-greater-than-emi").isEnabled();
     }
 
+    @Override
+    public boolean isSearchIndexEnabled() {
+        return getGlobalConfigurationPropertyData("enable-search-index").isEnabled();
+    }
+
+    @Override
+    public boolean isCollectionSheetSnapshotEnabled() {
+        return getGlobalConfigurationPropertyData("enable-collection-sheet-snapshot").isEnabled();
+    }
+
     @Override
     public Long retreivePeroidInNumberOfDaysForSkipMeetingDate() {
         final String propertyName = "skip-repayment-on-first-day-of-month";
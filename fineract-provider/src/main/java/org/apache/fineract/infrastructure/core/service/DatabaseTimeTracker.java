@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adds the time spent executing statements to a sink while a thread is tracked. Only connections checked out by a
+ * tracked thread are instrumented, all other connections are handed out untouched.
+ */
+public final class DatabaseTimeTracker {
+
+    private static final ThreadLocal<LongAdder> SINK = new ThreadLocal<>();
+
+    private DatabaseTimeTracker() {}
+
+    public static void track(final LongAdder nanos) {
+        SINK.set(nanos);
+    }
+
+    public static void stopTracking() {
+        SINK.remove();
+    }
+
+    static Connection instrument(final Connection connection) {
+        final LongAdder nanos = SINK.get();
+        if (nanos == null) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(DatabaseTimeTracker.class.getClassLoader(), new Class<?>[] { Connection.class },
+                new ConnectionHandler(connection, nanos));
+    }
+
+    private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+        private final LongAdder nanos;
+
+        ConnectionHandler(final Connection connection, final LongAdder nanos) {
+            this.connection = connection;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if ("equals".equals(method.getName())) {
+                return proxy == args[0];
+            } else if ("hashCode".equals(method.getName())) {
+                return System.identityHashCode(proxy);
+            }
+            final Object result = DatabaseTimeTracker.invoke(this.connection, method, args);
+            final Class<?> statementType;
+            if (result instanceof CallableStatement) {
+                statementType = CallableStatement.class;
+            } else if (result instanceof PreparedStatement) {
+                statementType = PreparedStatement.class;
+            } else if (result instanceof Statement) {
+                statementType = Statement.class;
+            } else {
+                return result;
+            }
+            return Proxy.newProxyInstance(DatabaseTimeTracker.class.getClassLoader(), new Class<?>[] { statementType },
+                    new StatementHandler((Statement) result, (Connection) proxy, this.nanos));
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final Connection connection;
+        private final LongAdder nanos;
+
+        StatementHandler(final Statement statement, final Connection connection, final LongAdder nanos) {
+            this.statement = statement;
+            this.connection = connection;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if ("equals".equals(method.getName())) {
+                return proxy == args[0];
+            } else if ("hashCode".equals(method.getName())) {
+                return System.identityHashCode(proxy);
+            } else if ("getConnection".equals(method.getName())) {
+                return this.connection;
+            } else if (!method.getName().startsWith("execute")) {
+                return DatabaseTimeTracker.invoke(this.statement, method, args);
+            }
+            final long startNanos = System.nanoTime();
+            try {
+                return DatabaseTimeTracker.invoke(this.statement, method, args);
+            } finally {
+                this.nanos.add(System.nanoTime() - startNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A Hikari connection pool used by one tenant, or shared by all tenants whose schemas live on the same database server
+ * with the same credentials and pool settings. Connections checked out of a shared pool must be switched to the schema
+ * of the tenant before use.
+ */
+final class TenantConnectionPool {
+
+    private final HikariDataSource dataSource;
+    private final boolean shared;
+    private volatile long lastUsedMillis;
+
+    TenantConnectionPool(final HikariDataSource dataSource, final boolean shared) {
+        this.dataSource = dataSource;
+        this.shared = shared;
+        touch();
+    }
+
+    Connection getConnection() throws SQLException {
+        return this.dataSource.getConnection();
+    }
+
+    boolean isShared() {
+        return this.shared;
+    }
+
+    String getPoolName() {
+        return this.dataSource.getPoolName();
+    }
+
+    void touch() {
+        this.lastUsedMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * A pool can be evicted once it has not been asked for a connection since the given time and none of its
+     * connections are in use.
+     */
+    boolean isIdleSince(final long idleSinceMillis) {
+        if (this.lastUsedMillis >= idleSinceMillis) {
+            return false;
+        }
+        final HikariPoolMXBean poolMXBean = this.dataSource.getHikariPoolMXBean();
+        return poolMXBean == null || poolMXBean.getActiveConnections() == 0;
+    }
+
+    void close() {
+        this.dataSource.close();
+    }
+}
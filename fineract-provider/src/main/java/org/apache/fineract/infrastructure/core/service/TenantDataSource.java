@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * {@link javax.sql.DataSource} of a single tenant connection. The underlying {@link TenantConnectionPool} is looked up
+ * on every checkout, so a pool that was evicted while idle is transparently created again.
+ *
+ * Records the time spent waiting for a connection and the number of checkouts that timed out, tagged with the tenant
+ * schema. Connections checked out by a thread tracked by {@link DatabaseTimeTracker} report their statement time.
+ */
+final class TenantDataSource extends AbstractDataSource {
+
+    private final FineractPlatformTenantConnection tenantConnection;
+    private final TomcatJdbcDataSourcePerTenantService poolManager;
+    private final Timer acquireTimer;
+    private final Counter timeoutCounter;
+
+    TenantDataSource(final FineractPlatformTenantConnection tenantConnection, final TomcatJdbcDataSourcePerTenantService poolManager,
+            final MeterRegistry meterRegistry) {
+        this.tenantConnection = tenantConnection;
+        this.poolManager = poolManager;
+        this.acquireTimer = Timer.builder("fineract.tenant.connections.acquire").description("Time spent waiting for a connection")
+                .tag("tenant", tenantConnection.getSchemaName()).register(meterRegistry);
+        this.timeoutCounter = Counter.builder("fineract.tenant.connections.timeout")
+                .description("Connection checkouts that timed out waiting for the pool").tag("tenant", tenantConnection.getSchemaName())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        final TenantConnectionPool pool = this.poolManager.retrievePool(this.tenantConnection);
+        final long startNanos = System.nanoTime();
+        final Connection connection;
+        try {
+            connection = pool.getConnection();
+        } catch (final SQLTransientConnectionException e) {
+            this.timeoutCounter.increment();
+            throw e;
+        } finally {
+            this.acquireTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        if (pool.isShared()) {
+            try {
+                connection.setCatalog(this.tenantConnection.getSchemaName());
+            } catch (final SQLException e) {
+                connection.close();
+                throw e;
+            }
+        }
+        return DatabaseTimeTracker.instrument(connection);
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException();
+    }
+}
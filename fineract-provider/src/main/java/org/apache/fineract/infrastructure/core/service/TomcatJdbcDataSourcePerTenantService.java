@@ -20,14 +20,27 @@ package org.apache.fineract.infrastructure.core.service;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
-import java.util.HashMap;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.sql.DataSource;
 import org.apache.fineract.infrastructure.core.boot.JDBCDriverConfig;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
 /**
@@ -35,19 +48,70 @@ import org.springframework.stereotype.Service;
  * {@link ThreadLocal} variable for this request.
  *
  * {@link ThreadLocalContextUtil} is used to retrieve the {@link FineractPlatformTenant} for the request.
+ *
+ * By default every tenant connection gets its own pool. When pool sharing is enabled, tenants whose schemas live on the
+ * same database server and use the same credentials and pool settings, pool size included, share a single pool, and
+ * each checked out connection is switched to the schema of the tenant. Pools are keyed by all the connection parameters they are created
+ * from, so tenants never end up on a pool configured for another tenant's settings. A background sweep closes pools
+ * that have not been used for the configured idle time; they are created again on the next request for one of their
+ * tenants.
  */
 @Service
 public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceService {
 
-    private final Map<Long, DataSource> tenantToDataSourceMap = new HashMap<>(1);
+    private static final Logger LOG = LoggerFactory.getLogger(TomcatJdbcDataSourcePerTenantService.class);
+    private static final String POOL_SHARING_PROPERTYNAME = "fineract_tenant_pool_sharing_enabled";
+    private static final String POOL_IDLE_EVICTION_PROPERTYNAME = "fineract_tenant_pool_idle_eviction_minutes";
+    private static final long DEFAULT_POOL_IDLE_EVICTION_MINUTES = 30;
+    private static final long EVICTION_SWEEP_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Map<Long, DataSource> tenantToDataSourceMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<PoolKey, TenantConnectionPool> connectionPools = new ConcurrentHashMap<>();
     private final DataSource tenantDataSource;
+    private final MeterRegistry meterRegistry;
+    private boolean poolSharingEnabled;
+    private long poolIdleEvictionMillis;
+    private ScheduledExecutorService evictionExecutorService;
 
     @Autowired
     private JDBCDriverConfig driverConfig;
 
     @Autowired
-    public TomcatJdbcDataSourcePerTenantService(final @Qualifier("hikariTenantDataSource") DataSource tenantDataSource) {
+    private ApplicationContext context;
+
+    @Autowired
+    public TomcatJdbcDataSourcePerTenantService(final @Qualifier("hikariTenantDataSource") DataSource tenantDataSource,
+            final MeterRegistry meterRegistry) {
         this.tenantDataSource = tenantDataSource;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    protected void init() {
+        final Environment environment = this.context.getEnvironment();
+        this.poolSharingEnabled = environment.getProperty(POOL_SHARING_PROPERTYNAME, Boolean.class, Boolean.FALSE);
+        this.poolIdleEvictionMillis = TimeUnit.MINUTES
+                .toMillis(environment.getProperty(POOL_IDLE_EVICTION_PROPERTYNAME, Long.class, DEFAULT_POOL_IDLE_EVICTION_MINUTES));
+        Gauge.builder("fineract.tenant.pools", this.connectionPools, Map::size).description("Open tenant connection pools")
+                .register(this.meterRegistry);
+        this.evictionExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "tenant-pool-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.evictionExecutorService.scheduleWithFixedDelay(this::evictIdlePools, EVICTION_SWEEP_INTERVAL_MILLIS,
+                EVICTION_SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    protected void closePools() {
+        this.evictionExecutorService.shutdownNow();
+        for (final PoolKey poolKey : this.connectionPools.keySet()) {
+            final TenantConnectionPool pool = this.connectionPools.remove(poolKey);
+            if (pool != null) {
+                pool.close();
+            }
+        }
     }
 
     @Override
@@ -57,33 +121,60 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
 
         final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
         if (tenant != null) {
+            // if tenantConnection information available switch to the
+            // appropriate datasource for that tenant.
             final FineractPlatformTenantConnection tenantConnection = tenant.getConnection();
+            tenantDataSource = this.tenantToDataSourceMap.computeIfAbsent(tenantConnection.getConnectionId(),
+                    connectionId -> new TenantDataSource(tenantConnection, this, this.meterRegistry));
+        }
+
+        return tenantDataSource;
+    }
+
+    /**
+     * Returns the pool serving the given tenant connection, creating it if it does not exist (yet or anymore). The pool
+     * is marked as used under the same map entry lock the eviction sweep takes, so a pool handed out here is never
+     * closed as idle.
+     */
+    TenantConnectionPool retrievePool(final FineractPlatformTenantConnection tenantConnection) {
+        final PoolKey poolKey = new PoolKey(tenantConnection, this.poolSharingEnabled);
+        return this.connectionPools.compute(poolKey, (key, existing) -> {
+            if (existing == null) {
+                return new TenantConnectionPool(createNewDataSourceFor(tenantConnection, key), this.poolSharingEnabled);
+            }
+            existing.touch();
+            return existing;
+        });
+    }
 
-            synchronized (this.tenantToDataSourceMap) {
-                // if tenantConnection information available switch to the
-                // appropriate datasource for that tenant.
-                DataSource possibleDS = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
-                if (possibleDS != null) {
-                    tenantDataSource = possibleDS;
-                } else {
-                    tenantDataSource = createNewDataSourceFor(tenantConnection);
-                    this.tenantToDataSourceMap.put(tenantConnection.getConnectionId(), tenantDataSource);
+    void evictIdlePools() {
+        final long idleSinceMillis = System.currentTimeMillis() - this.poolIdleEvictionMillis;
+        for (final PoolKey poolKey : this.connectionPools.keySet()) {
+            final TenantConnectionPool[] evicted = new TenantConnectionPool[1];
+            this.connectionPools.computeIfPresent(poolKey, (key, pool) -> {
+                if (!pool.isIdleSince(idleSinceMillis)) {
+                    return pool;
                 }
+                evicted[0] = pool;
+                return null;
+            });
+            if (evicted[0] != null) {
+                evicted[0].close();
+                LOG.info("Closed idle tenant connection pool {}", evicted[0].getPoolName());
             }
         }
-
-        return tenantDataSource;
     }
 
     // creates the tenant data source for the oltp and report database
-    private DataSource createNewDataSourceFor(final FineractPlatformTenantConnection tenantConnectionObj) {
+    private HikariDataSource createNewDataSourceFor(final FineractPlatformTenantConnection tenantConnectionObj, final PoolKey poolKey) {
+        // a shared pool is not bound to any tenant schema, each checkout selects the schema of its tenant
         String jdbcUrl = this.driverConfig.constructProtocol(tenantConnectionObj.getSchemaServer(),
-                tenantConnectionObj.getSchemaServerPort(), tenantConnectionObj.getSchemaName(),
+                tenantConnectionObj.getSchemaServerPort(), this.poolSharingEnabled ? "" : tenantConnectionObj.getSchemaName(),
                 tenantConnectionObj.getSchemaConnectionParameters());
 
         HikariConfig config = new HikariConfig();
         config.setDriverClassName(this.driverConfig.getDriverClassName());
-        config.setPoolName(tenantConnectionObj.getSchemaName() + "_pool");
+        config.setPoolName(poolKey.poolName());
         config.setJdbcUrl(jdbcUrl);
         config.setUsername(tenantConnectionObj.getSchemaUsername());
         config.setPassword(tenantConnectionObj.getSchemaPassword());
@@ -95,6 +186,8 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
 
         // https://github.com/brettwooldridge/HikariCP/wiki/MBean-(JMX)-Monitoring-and-Management
         config.setRegisterMbeans(true);
+        // exports the pool wait, usage and timeout metrics of the pool, tagged with the pool name
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(this.meterRegistry));
 
         // https://github.com/brettwooldridge/HikariCP/wiki/MySQL-Configuration
         // These are the properties for each Tenant DB; the same configuration
@@ -119,4 +212,69 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
 
         return new HikariDataSource(config);
     }
+
+    /**
+     * Identifies a connection pool by every parameter it is created from. The schema name is only part of the key when
+     * pools are not shared.
+     */
+    static final class PoolKey {
+
+        private final String schemaServer;
+        private final String schemaServerPort;
+        private final String schemaName;
+        private final String schemaUsername;
+        private final String schemaPassword;
+        private final String schemaConnectionParameters;
+        private final int initialSize;
+        private final int maxActive;
+        private final long validationInterval;
+
+        PoolKey(final FineractPlatformTenantConnection tenantConnection, final boolean shared) {
+            this.schemaServer = tenantConnection.getSchemaServer();
+            this.schemaServerPort = tenantConnection.getSchemaServerPort();
+            this.schemaName = shared ? null : tenantConnection.getSchemaName();
+            this.schemaUsername = tenantConnection.getSchemaUsername();
+            this.schemaPassword = tenantConnection.getSchemaPassword();
+            this.schemaConnectionParameters = tenantConnection.getSchemaConnectionParameters();
+            this.initialSize = tenantConnection.getInitialSize();
+            this.maxActive = tenantConnection.getMaxActive();
+            this.validationInterval = tenantConnection.getValidationInterval();
+        }
+
+        String poolName() {
+            if (this.schemaName != null) {
+                return this.schemaName + "_pool";
+            }
+            // pool names end up in JMX object names and metric tags; the hash tells apart shared pools of the same
+            // server and user that differ in their settings (the password is left out of names on purpose)
+            final int settingsHash = Objects.hash(this.schemaConnectionParameters, this.initialSize, this.maxActive,
+                    this.validationInterval);
+            return (this.schemaServer + "_" + this.schemaServerPort + "_" + this.schemaUsername).replaceAll("[^A-Za-z0-9_]", "_") + "_"
+                    + Integer.toHexString(settingsHash) + "_pool";
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof PoolKey)) {
+                return false;
+            }
+            final PoolKey other = (PoolKey) obj;
+            return this.initialSize == other.initialSize && this.maxActive == other.maxActive
+                    && this.validationInterval == other.validationInterval
+                    && Objects.equals(this.schemaServer, other.schemaServer)
+                    && Objects.equals(this.schemaServerPort, other.schemaServerPort) && Objects.equals(this.schemaName, other.schemaName)
+                    && Objects.equals(this.schemaUsername, other.schemaUsername)
+                    && Objects.equals(this.schemaPassword, other.schemaPassword)
+                    && Objects.equals(this.schemaConnectionParameters, other.schemaConnectionParameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.schemaServer, this.schemaServerPort, this.schemaName, this.schemaUsername, this.schemaPassword,
+                    this.schemaConnectionParameters, this.initialSize, this.maxActive, this.validationInterval);
+        }
+    }
 }
@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per tenant in-memory copy of data that rarely changes, kept in step across the nodes of a cluster by a version row
+ * (<code>id = 1</code>) in a table of the tenant database.
+ * <p>
+ * A change increments the version within its transaction through {@link #invalidate()}; the node making the change
+ * reloads on the next lookup once the change has committed. Other nodes read the version at most once per recheck
+ * interval, so lookups in between cost no database access and a change made elsewhere applies within that interval.
+ *
+ * @param <T>
+ *            the cached data, which must not be modified once loaded
+ */
+public final class VersionedTenantCache<T> {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String versionSql;
+    private final String incrementSql;
+    private final long recheckIntervalNanos;
+    private final Supplier<T> loader;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, Entry<T>> entries = new ConcurrentHashMap<>();
+
+    public VersionedTenantCache(final JdbcTemplate jdbcTemplate, final String versionTableName, final Duration recheckInterval,
+            final Supplier<T> loader) {
+        this(jdbcTemplate, versionTableName, recheckInterval, loader, System::nanoTime);
+    }
+
+    public VersionedTenantCache(final JdbcTemplate jdbcTemplate, final String versionTableName, final Duration recheckInterval,
+            final Supplier<T> loader, final LongSupplier nanoClock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.versionSql = "select v.version from " + versionTableName + " v where v.id = 1";
+        this.incrementSql = "update " + versionTableName + " set version = version + 1 where id = 1";
+        this.recheckIntervalNanos = recheckInterval.toNanos();
+        this.loader = loader;
+        this.nanoClock = nanoClock;
+    }
+
+    public T get() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final Entry<T> entry = this.entries.get(tenantIdentifier);
+        final long now = this.nanoClock.getAsLong();
+        if (entry != null && entry.value != null && now - entry.checkedAt < this.recheckIntervalNanos) {
+            return entry.value;
+        }
+        final long version = currentVersion();
+        if (entry != null && entry.value != null && entry.version >= version) {
+            entry.checkedAt = now;
+            return entry.value;
+        }
+        return reload(tenantIdentifier, version, now);
+    }
+
+    /**
+     * Increments the version in the running transaction. Once the transaction has committed, the next lookup on this
+     * node reloads, even if a lookup running concurrently with the commit published data loaded before it.
+     */
+    public void invalidate() {
+        this.jdbcTemplate.update(this.incrementSql);
+        final long version = currentVersion();
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    if (status == STATUS_COMMITTED) {
+                        requireVersion(tenantIdentifier, version);
+                    }
+                }
+            });
+        } else {
+            requireVersion(tenantIdentifier, version);
+        }
+    }
+
+    /**
+     * Loads the data and publishes it unless data of a later version was published meanwhile. The version is read
+     * before the data, so the stored stamp can only understate what the data contains, never overstate it.
+     */
+    private T reload(final String tenantIdentifier, final long version, final long now) {
+        final Entry<T> loaded = new Entry<>(this.loader.get(), version, now);
+        final Entry<T> published = this.entries.merge(tenantIdentifier, loaded,
+                (current, candidate) -> current.version > candidate.version ? current : candidate);
+        return published.value == null ? loaded.value : published.value;
+    }
+
+    /**
+     * Replaces the local copy by a marker without data, which makes the next lookup reload and which only data loaded
+     * at the given version or later can replace.
+     */
+    private void requireVersion(final String tenantIdentifier, final long version) {
+        this.entries.merge(tenantIdentifier, new Entry<>(null, version, Long.MIN_VALUE),
+                (current, marker) -> current.value != null && current.version >= marker.version ? current : marker);
+    }
+
+    private long currentVersion() {
+        final Long version = this.jdbcTemplate.queryForObject(this.versionSql, Long.class);
+        return version == null ? 0L : version;
+    }
+
+    private static final class Entry<T> {
+
+        private final T value;
+        private final long version;
+        private volatile long checkedAt;
+
+        Entry(final T value, final long version, final long checkedAt) {
+            this.value = value;
+            this.version = version;
+            this.checkedAt = checkedAt;
+        }
+    }
+}
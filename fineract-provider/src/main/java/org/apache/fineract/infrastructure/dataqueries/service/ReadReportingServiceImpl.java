@@ -28,14 +28,21 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import javax.sql.DataSource;
 import javax.ws.rs.core.StreamingOutput;
 import org.apache.commons.lang3.StringUtils;
@@ -57,8 +64,11 @@ import org.apache.fineract.useradministration.domain.AppUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Service;
 
@@ -492,6 +502,73 @@ public class ReadReportingServiceImpl implements ReadReportingService {
         return result;
     }
 
+    @Override
+    public void streamGenericResultSetForSmsEmailCampaign(final String name, final String type, final Map<String, String> queryParams,
+            final Consumer<Map<String, Object>> rowHandler) {
+        final long startTime = System.currentTimeMillis();
+        LOG.info("STARTING REPORT: {}   Type: {}", name, type);
+
+        final String sql = sqlToRunForSmsEmailCampaign(name, type, queryParams);
+
+        // MySQL drivers only stream a result set row by row with a fetch size of Integer.MIN_VALUE, any other value reads
+        // the whole audience into memory first. A connection cannot run other statements while it streams, so the report
+        // is read on a connection of its own rather than the one of the running transaction the messages are written to.
+        final RowCallbackHandler rowCallbackHandler = rs -> rowHandler.accept(campaignReportRow(rs));
+        try (Connection connection = this.dataSource.getConnection()) {
+            final JdbcTemplate streamingJdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+            streamingJdbcTemplate.query(sql, rowCallbackHandler);
+        } catch (SQLException | DataAccessException e) {
+            throw new PlatformDataIntegrityException("error.msg.report.unknown.data.integrity.issue", e.getClass().getName(), e);
+        }
+
+        final long elapsed = System.currentTimeMillis() - startTime;
+        LOG.info("FINISHING Report/Request Name: {} - {}     Elapsed Time: {}", name, type, elapsed);
+    }
+
+    /**
+     * Values are typed the way campaign templates have always seen them: whole numbers, decimals as doubles, dates as
+     * d-M-yyyy strings and everything else as strings.
+     */
+    private static Map<String, Object> campaignReportRow(final ResultSet rs) throws SQLException {
+        final ResultSetMetaData rsmd = rs.getMetaData();
+        final Map<String, Object> row = new HashMap<>();
+        for (int i = 1; i <= rsmd.getColumnCount(); i++) {
+            Object value;
+            switch (rsmd.getColumnType(i)) {
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                case Types.INTEGER:
+                case Types.BIGINT:
+                    value = JdbcSupport.getLong(rs, rsmd.getColumnLabel(i));
+                break;
+                case Types.DECIMAL:
+                case Types.NUMERIC:
+                case Types.DOUBLE:
+                case Types.FLOAT:
+                case Types.REAL:
+                    value = rs.getDouble(i);
+                    if (rs.wasNull()) {
+                        value = null;
+                    }
+                break;
+                case Types.DATE:
+                    final Date date = rs.getDate(i);
+                    value = date == null ? null : formatCampaignDate(date.toLocalDate());
+                break;
+                default:
+                    value = rs.getString(i);
+                break;
+            }
+            row.put(rsmd.getColumnLabel(i), value);
+        }
+        return row;
+    }
+
+    private static String formatCampaignDate(final LocalDate date) {
+        return date.getDayOfMonth() + "-" + date.getMonthValue() + "-" + date.getYear();
+    }
+
     private String sqlToRunForSmsEmailCampaign(final String name, final String type, final Map<String, String> queryParams) {
         String sql = getSql(name, type);
 
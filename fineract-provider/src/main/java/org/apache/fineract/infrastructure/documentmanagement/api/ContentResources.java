@@ -19,10 +19,20 @@
 package org.apache.fineract.infrastructure.documentmanagement.api;
 
 import com.google.common.io.ByteSource;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.StreamingOutput;
 import org.apache.fineract.infrastructure.documentmanagement.data.FileData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,32 +40,183 @@ import org.slf4j.LoggerFactory;
 /**
  * Utilities common to file upload/download resources.
  *
+ * Content kept on the local file system is validated with an ETag and Last-Modified (answering conditional requests
+ * with 304), can be fetched in a single byte range, and is copied to the response with {@link FileChannel#transferTo}
+ * instead of through a heap buffer. Other content is streamed as is.
+ *
  * @author Michael Vorburger.ch
  */
 final class ContentResources {
 
     private static final Logger LOG = LoggerFactory.getLogger(ContentResources.class);
+    private static final String RANGE_UNIT = "bytes";
+    // the content is only ever served to authenticated users, caches may keep it but have to revalidate it
+    private static final String CACHE_CONTROL = "private, no-cache";
 
     private ContentResources() {}
 
-    static Response fileDataToResponse(FileData fileData, String fileName, String dispositionType) {
+    static Response fileDataToResponse(FileData fileData, String fileName, String dispositionType, Request request,
+            HttpHeaders headers) {
+        // the content has to be there before a status is sent, a failure while writing the body cannot change it anymore
+        final File file = fileData.getFile();
+        if (file != null && !file.isFile()) {
+            LOG.error("Content file {} does not exist", file);
+            return Response.serverError().build();
+        }
+        final EntityTag entityTag = entityTag(fileData, null);
+        final ResponseBuilder notModified = evaluatePreconditions(request, fileData, entityTag);
+        if (notModified != null) {
+            return notModified.build();
+        }
         ResponseBuilder response;
-        try {
-            ByteSource byteSource = fileData.getByteSource();
-            // TODO Where is this InputStream closed?! It needs to be AFTER it's read by JAX-RS.. how to do that?
-            InputStream is = byteSource.openBufferedStream();
-            response = Response.ok(is);
-            response.header("Content-Disposition", dispositionType + "; filename=\"" + fileName + "\"");
-            response.header("Content-Length", byteSource.sizeIfKnown().or(-1L));
-            response.header("Content-Type", fileData.contentType());
-        } catch (IOException e) {
-            LOG.error("resizedImage.getByteSource().openBufferedStream() failed", e);
-            response = Response.serverError();
+        if (file != null) {
+            response = fileToResponse(file, entityTag, headers);
+        } else {
+            try {
+                response = byteSourceToResponse(fileData.getByteSource());
+            } catch (IOException e) {
+                LOG.error("Opening the content of {} failed", fileData.name(), e);
+                return Response.serverError().build();
+            }
         }
+        response.header("Content-Disposition", dispositionType + "; filename=\"" + fileName + "\"");
+        response.header("Content-Type", fileData.contentType());
+        cacheHeaders(response, fileData, entityTag);
         return response.build();
     }
 
-    static Response fileDataToResponse(FileData fileData, String dispositionType) {
-        return fileDataToResponse(fileData, fileData.name(), dispositionType);
+    static Response fileDataToResponse(FileData fileData, String dispositionType, Request request, HttpHeaders headers) {
+        return fileDataToResponse(fileData, fileData.name(), dispositionType, request, headers);
+    }
+
+    /**
+     * @param variant
+     *            distinguishes other representations of the same content (a Base64 text rendering, for example), may be
+     *            null
+     * @return the ETag of the content, or null when its version is not known
+     */
+    static EntityTag entityTag(FileData fileData, String variant) {
+        if (fileData.version() == null) {
+            return null;
+        }
+        return new EntityTag(variant == null ? fileData.version() : fileData.version() + "-" + variant);
+    }
+
+    /**
+     * @return a 304 (or 412) response when the request's validators match the content, null when it has to be sent
+     */
+    static ResponseBuilder evaluatePreconditions(Request request, FileData fileData, EntityTag entityTag) {
+        if (request == null || entityTag == null) {
+            return null;
+        }
+        final ResponseBuilder response = fileData.lastModified() == null ? request.evaluatePreconditions(entityTag)
+                : request.evaluatePreconditions(new Date(fileData.lastModified()), entityTag);
+        if (response != null) {
+            cacheHeaders(response, fileData, entityTag);
+        }
+        return response;
+    }
+
+    static void cacheHeaders(ResponseBuilder response, FileData fileData, EntityTag entityTag) {
+        if (entityTag != null) {
+            response.tag(entityTag);
+            response.header("Cache-Control", CACHE_CONTROL);
+        }
+        if (fileData.lastModified() != null) {
+            response.lastModified(new Date(fileData.lastModified()));
+        }
+    }
+
+    private static ResponseBuilder fileToResponse(File file, EntityTag entityTag, HttpHeaders headers) {
+        final long length = file.length();
+        long first = 0;
+        long last = length - 1;
+        final String rangeHeader = headers == null ? null : headers.getRequestHeaders().getFirst("Range");
+        final String ifRange = headers == null ? null : headers.getRequestHeaders().getFirst("If-Range");
+        // a stale If-Range asks for the whole current content instead of a piece of it
+        final boolean rangeApplies = rangeHeader != null && (ifRange == null || ifRange.equals(entityTag.toString()));
+        final long[] range = rangeApplies ? parseRange(rangeHeader, length) : null;
+        ResponseBuilder response;
+        if (range == null) {
+            response = Response.ok();
+        } else if (range.length == 0) {
+            return Response.status(416).header("Content-Range", RANGE_UNIT + " */" + length).header("Accept-Ranges", RANGE_UNIT);
+        } else {
+            first = range[0];
+            last = range[1];
+            response = Response.status(206).header("Content-Range", RANGE_UNIT + " " + first + "-" + last + "/" + length);
+        }
+        final long position = first;
+        final long count = last - first + 1;
+        response.entity((StreamingOutput) output -> {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                final WritableByteChannel target = Channels.newChannel(output);
+                long written = 0;
+                while (written < count) {
+                    final long transferred = channel.transferTo(position + written, count - written, target);
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    written += transferred;
+                }
+            }
+        });
+        response.header("Accept-Ranges", RANGE_UNIT);
+        response.header("Content-Length", count);
+        return response;
+    }
+
+    /**
+     * Parses a single "bytes=first-last", "bytes=first-" or "bytes=-suffixLength" range. Multiple ranges and ranges in
+     * other units are not supported and are answered with the whole content, as the specification allows.
+     *
+     * @return {first, last}, an empty array when the range cannot be satisfied, or null when the whole content is to be
+     *         sent
+     */
+    static long[] parseRange(String rangeHeader, long length) {
+        final String value = rangeHeader.trim();
+        if (!value.startsWith(RANGE_UNIT + "=") || value.indexOf(',') >= 0) {
+            return null;
+        }
+        final String spec = value.substring(RANGE_UNIT.length() + 1).trim();
+        final int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            final String firstPart = spec.substring(0, dash).trim();
+            final String lastPart = spec.substring(dash + 1).trim();
+            if (firstPart.isEmpty()) {
+                final long suffixLength = Long.parseLong(lastPart);
+                if (suffixLength <= 0 || length == 0) {
+                    return new long[0];
+                }
+                return new long[] { Math.max(0, length - suffixLength), length - 1 };
+            }
+            final long first = Long.parseLong(firstPart);
+            final long last = lastPart.isEmpty() ? length - 1 : Math.min(Long.parseLong(lastPart), length - 1);
+            if (first >= length || first > last) {
+                return new long[0];
+            }
+            return new long[] { first, last };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static ResponseBuilder byteSourceToResponse(ByteSource byteSource) throws IOException {
+        // the stream is opened up front so that a missing content is answered with an error, and closed once JAX-RS has
+        // written the response rather than being left for it to close
+        final InputStream content = byteSource.openBufferedStream();
+        final ResponseBuilder response = Response.ok((StreamingOutput) output -> {
+            try (InputStream is = content) {
+                is.transferTo(output);
+            }
+        });
+        final long size = byteSource.sizeIfKnown().or(-1L);
+        if (size >= 0) {
+            response.header("Content-Length", size);
+        }
+        return response;
     }
 }
@@ -34,8 +34,13 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.domain.Base64EncodedImage;
@@ -129,7 +134,8 @@ public class ImagesApiResource {
     // octet-stream)
     public Response retrieveImage(@PathParam("entity") final String entityName, @PathParam("entityId") final Long entityId,
             @QueryParam("maxWidth") final Integer maxWidth, @QueryParam("maxHeight") final Integer maxHeight,
-            @QueryParam("output") final String output, @HeaderParam("Accept") String acceptHeader) {
+            @QueryParam("output") final String output, @HeaderParam("Accept") String acceptHeader, @Context final Request request,
+            @Context final HttpHeaders headers) {
         validateEntityTypeforImage(entityName);
         if (EntityTypeForImages.CLIENTS.toString().equalsIgnoreCase(entityName)) {
             this.context.authenticatedUser().validateHasReadPermission("CLIENTIMAGE");
@@ -145,7 +151,14 @@ public class ImagesApiResource {
         if ("application/octet-stream".equalsIgnoreCase(acceptHeader)
                 || (output != null && (output.equals("octet") || output.equals("inline_octet")))) {
             return ContentResources.fileDataToResponse(resizedImage, resizedImage.name() + ImageFileExtension.JPEG,
-                    "inline_octet".equals(output) ? "inline" : "attachment");
+                    "inline_octet".equals(output) ? "inline" : "attachment", request, headers);
+        }
+
+        // the Base64 rendering is a representation of its own and gets its own ETag
+        final EntityTag entityTag = ContentResources.entityTag(resizedImage, "base64");
+        final ResponseBuilder notModified = ContentResources.evaluatePreconditions(request, resizedImage, entityTag);
+        if (notModified != null) {
+            return notModified.build();
         }
 
         // Else return response with Base64 encoded
@@ -160,7 +173,9 @@ public class ImagesApiResource {
         try {
             byte[] resizedImageBytes = resizedImage.getByteSource().read();
             final String clientImageAsBase64Text = imageDataURISuffix + Base64.getMimeEncoder().encodeToString(resizedImageBytes);
-            return Response.ok(clientImageAsBase64Text, MediaType.TEXT_PLAIN_TYPE).build();
+            final ResponseBuilder response = Response.ok(clientImageAsBase64Text, MediaType.TEXT_PLAIN_TYPE);
+            ContentResources.cacheHeaders(response, resizedImage, entityTag);
+            return response.build();
         } catch (IOException e) {
             throw new ContentManagementException(imageData.name(), e.getMessage(), e);
         }
@@ -19,17 +19,47 @@
 package org.apache.fineract.infrastructure.documentmanagement.data;
 
 import com.google.common.io.ByteSource;
+import com.google.common.io.Files;
+import java.io.File;
 
 public class FileData {
 
     private final String fileName;
     private final String contentType;
     private final ByteSource byteSource;
+    private final File file;
+    private final String version;
+    private final Long lastModified;
 
     public FileData(final ByteSource byteSource, final String fileName, final String contentType) {
+        this(byteSource, fileName, contentType, null, null, null);
+    }
+
+    /**
+     * Content kept on the local file system, which can be served in ranges and validated against its size and
+     * modification time.
+     */
+    public FileData(final File file, final String fileName, final String contentType) {
+        this(Files.asByteSource(file), fileName, contentType, file,
+                Long.toHexString(file.length()) + "-" + Long.toHexString(file.lastModified()), file.lastModified());
+    }
+
+    /**
+     * Content derived from another file (a resized image, for example), identified by the given version.
+     */
+    public FileData(final ByteSource byteSource, final String fileName, final String contentType, final String version,
+            final Long lastModified) {
+        this(byteSource, fileName, contentType, null, version, lastModified);
+    }
+
+    private FileData(final ByteSource byteSource, final String fileName, final String contentType, final File file, final String version,
+            final Long lastModified) {
         this.fileName = fileName;
         this.contentType = contentType;
         this.byteSource = byteSource;
+        this.file = file;
+        this.version = version;
+        this.lastModified = lastModified;
     }
 
     public String contentType() {
@@ -43,4 +73,22 @@ public class FileData {
     public ByteSource getByteSource() {
         return this.byteSource;
     }
+
+    /**
+     * @return the local file holding the content, or null when it is not stored on the local file system
+     */
+    public File getFile() {
+        return this.file;
+    }
+
+    /**
+     * @return a value that changes whenever the content does, or null when that is not known
+     */
+    public String version() {
+        return this.version;
+    }
+
+    public Long lastModified() {
+        return this.lastModified;
+    }
 }
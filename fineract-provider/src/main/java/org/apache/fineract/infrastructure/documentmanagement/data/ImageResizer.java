@@ -18,53 +18,84 @@
  */
 package org.apache.fineract.infrastructure.documentmanagement.data;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.io.ByteSource;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 import javax.imageio.ImageIO;
 import org.apache.fineract.infrastructure.documentmanagement.contentrepository.ContentRepositoryUtils;
 import org.apache.fineract.infrastructure.documentmanagement.contentrepository.ContentRepositoryUtils.ImageFileExtension;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
+/**
+ * Resizes images for display. Resized copies of images kept on the local file system are cached, bounded by
+ * {@value #CACHE_SIZE_PROPERTYNAME} megabytes (0 disables the cache), so client screens showing the same thumbnails
+ * over and over do not decode and scale the original every time.
+ */
 @Service
 public class ImageResizer {
 
     private static final Logger LOG = LoggerFactory.getLogger(ImageResizer.class);
+    private static final String CACHE_SIZE_PROPERTYNAME = "fineract_image_resize_cache_mb";
+
+    private final Cache<String, Optional<byte[]>> resizedImages;
+
+    @Autowired
+    public ImageResizer(final Environment environment) {
+        final long cacheSizeInMb = environment.getProperty(CACHE_SIZE_PROPERTYNAME, Long.class, 16L);
+        // images that need no resizing are remembered as well, as an empty entry
+        this.resizedImages = cacheSizeInMb > 0 ? CacheBuilder.newBuilder().maximumWeight(cacheSizeInMb * 1024 * 1024)
+                .weigher((String key, Optional<byte[]> value) -> key.length() + value.map(bytes -> bytes.length).orElse(0)).build()
+                : null;
+    }
 
     public FileData resize(FileData fileData, Integer maxWidth, Integer maxHeight) {
-        if (maxWidth == null && maxHeight != null) {
+        if (maxWidth == null) {
             return fileData;
         }
-        try (InputStream is = fileData.getByteSource().openBufferedStream()) {
-            Optional<InputStream> optResizedIS = resizeImage(ContentRepositoryUtils.imageExtensionFromFileName(fileData.name()), is,
-                    maxWidth != null ? maxWidth : Integer.MAX_VALUE, maxHeight != null ? maxHeight : Integer.MAX_VALUE);
-            if (optResizedIS.isPresent()) {
-                FileData resizedImage = new FileData(new ByteSource() {
-
-                    @Override
-                    public InputStream openStream() throws IOException {
-                        return optResizedIS.get();
-                    }
-                }, fileData.name(), fileData.contentType());
-                return resizedImage;
+        try {
+            final String cacheKey = cacheKey(fileData, maxWidth, maxHeight);
+            final Optional<byte[]> resized = cacheKey == null ? resizeImage(fileData, maxWidth, maxHeight)
+                    : this.resizedImages.get(cacheKey, () -> resizeImage(fileData, maxWidth, maxHeight));
+            if (resized.isPresent()) {
+                final String version = fileData.version() == null ? null : fileData.version() + "-" + maxWidth + "x" + maxHeight;
+                return new FileData(ByteSource.wrap(resized.get()), fileData.name(), fileData.contentType(), version,
+                        fileData.lastModified());
             }
             return fileData;
-        } catch (IOException e) {
+        } catch (IOException | ExecutionException e) {
             LOG.warn("resize() failed, returning original image: {}", e.getMessage(), e);
             return fileData;
         }
     }
 
-    private Optional<InputStream> resizeImage(ImageFileExtension fileExtension, InputStream in, int maxWidth, int maxHeight)
+    private String cacheKey(FileData fileData, Integer maxWidth, Integer maxHeight) {
+        if (this.resizedImages == null || fileData.getFile() == null || fileData.version() == null) {
+            return null;
+        }
+        return fileData.getFile().getPath() + "@" + fileData.version() + ":" + maxWidth + "x" + maxHeight;
+    }
+
+    private Optional<byte[]> resizeImage(FileData fileData, Integer maxWidth, Integer maxHeight) throws IOException {
+        try (InputStream is = fileData.getByteSource().openBufferedStream()) {
+            return resizeImage(ContentRepositoryUtils.imageExtensionFromFileName(fileData.name()), is,
+                    maxWidth != null ? maxWidth : Integer.MAX_VALUE, maxHeight != null ? maxHeight : Integer.MAX_VALUE);
+        }
+    }
+
+    private Optional<byte[]> resizeImage(ImageFileExtension fileExtension, InputStream in, int maxWidth, int maxHeight)
             throws IOException {
         BufferedImage src = ImageIO.read(in);
         if (src.getWidth() <= maxWidth && src.getHeight() <= maxHeight) {
@@ -88,6 +119,6 @@ public class ImageResizer {
 
         ByteArrayOutputStream os = new ByteArrayOutputStream();
         ImageIO.write(target, fileExtension != null ? fileExtension.getValueWithoutDot() : "jpeg", os);
-        return Optional.of(new ByteArrayInputStream(os.toByteArray()));
+        return Optional.of(os.toByteArray());
     }
 }
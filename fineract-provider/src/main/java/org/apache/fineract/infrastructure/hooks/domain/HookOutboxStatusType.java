@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.domain;
+
+/**
+ * Status of an event waiting in the hook outbox. Delivered events are removed from the outbox.
+ */
+public enum HookOutboxStatusType {
+
+    INVALID(0, "hookOutboxStatusType.invalid"), //
+    PENDING(100, "hookOutboxStatusType.pending"), //
+    DEAD_LETTER(300, "hookOutboxStatusType.deadLetter");
+
+    private final Integer value;
+    private final String code;
+
+    public static HookOutboxStatusType fromInt(final Integer statusValue) {
+
+        HookOutboxStatusType enumeration = HookOutboxStatusType.INVALID;
+        switch (statusValue) {
+            case 100:
+                enumeration = HookOutboxStatusType.PENDING;
+            break;
+            case 300:
+                enumeration = HookOutboxStatusType.DEAD_LETTER;
+            break;
+        }
+        return enumeration;
+    }
+
+    HookOutboxStatusType(final Integer value, final String code) {
+        this.value = value;
+        this.code = code;
+    }
+
+    public Integer getValue() {
+        return this.value;
+    }
+
+    public String getCode() {
+        return this.code;
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index from an (entity, action) event to the active hooks registered for it.
+ */
+public final class HookRoutingTable {
+
+    private final Map<String, List<Long>> hookIdsByEvent;
+
+    private HookRoutingTable(final Map<String, List<Long>> hookIdsByEvent) {
+        this.hookIdsByEvent = hookIdsByEvent;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<Long> hookIdsFor(final String entityName, final String actionName) {
+        return this.hookIdsByEvent.getOrDefault(keyOf(entityName, actionName), Collections.emptyList());
+    }
+
+    private static String keyOf(final String entityName, final String actionName) {
+        return entityName + "/" + actionName;
+    }
+
+    public static final class Builder {
+
+        private final Map<String, List<Long>> hookIdsByEvent = new HashMap<>();
+
+        private Builder() {}
+
+        public Builder route(final String entityName, final String actionName, final Long hookId) {
+            final List<Long> hookIds = this.hookIdsByEvent.computeIfAbsent(keyOf(entityName, actionName), key -> new ArrayList<>());
+            if (!hookIds.contains(hookId)) {
+                hookIds.add(hookId);
+            }
+            return this;
+        }
+
+        public HookRoutingTable build() {
+            final Map<String, List<Long>> routes = new HashMap<>();
+            for (final Map.Entry<String, List<Long>> entry : this.hookIdsByEvent.entrySet()) {
+                routes.put(entry.getKey(), List.copyOf(entry.getValue()));
+            }
+            return new HookRoutingTable(Map.copyOf(routes));
+        }
+    }
+}
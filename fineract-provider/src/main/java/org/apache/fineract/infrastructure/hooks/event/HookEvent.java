@@ -18,12 +18,18 @@
  */
 package org.apache.fineract.infrastructure.hooks.event;
 
+import java.util.function.Supplier;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.springframework.context.ApplicationEvent;
 
 public class HookEvent extends ApplicationEvent {
 
-    private final String payload;
+    /**
+     * Builds the payload the first time it is asked for; most events have no listener that needs it.
+     */
+    private Supplier<String> payloadSupplier;
+
+    private String payload;
 
     private final String tenantIdentifier;
 
@@ -31,16 +37,36 @@ public class HookEvent extends ApplicationEvent {
 
     private final String authToken;
 
+    /**
+     * Whether the event reports a failed command, whose transaction is going to be rolled back.
+     */
+    private final boolean failure;
+
     public HookEvent(final HookEventSource source, final String payload, final String tenantIdentifier, final AppUser appUser,
             final String authToken) {
+        this(source, payload, tenantIdentifier, appUser, authToken, false);
+    }
+
+    public HookEvent(final HookEventSource source, final String payload, final String tenantIdentifier, final AppUser appUser,
+            final String authToken, final boolean failure) {
+        this(source, () -> payload, tenantIdentifier, appUser, authToken, failure);
+    }
+
+    public HookEvent(final HookEventSource source, final Supplier<String> payloadSupplier, final String tenantIdentifier,
+            final AppUser appUser, final String authToken, final boolean failure) {
         super(source);
-        this.payload = payload;
+        this.payloadSupplier = payloadSupplier;
         this.tenantIdentifier = tenantIdentifier;
         this.appUser = appUser;
         this.authToken = authToken;
+        this.failure = failure;
     }
 
-    public String getPayload() {
+    public synchronized String getPayload() {
+        if (this.payloadSupplier != null) {
+            this.payload = this.payloadSupplier.get();
+            this.payloadSupplier = null;
+        }
         return this.payload;
     }
 
@@ -61,4 +87,8 @@ public class HookEvent extends ApplicationEvent {
         return this.authToken;
     }
 
+    public boolean isFailure() {
+        return this.failure;
+    }
+
 }
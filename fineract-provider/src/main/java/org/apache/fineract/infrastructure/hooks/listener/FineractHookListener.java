@@ -18,64 +18,53 @@
  */
 package org.apache.fineract.infrastructure.hooks.listener;
 
-import java.util.List;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
-import org.apache.fineract.infrastructure.hooks.domain.Hook;
 import org.apache.fineract.infrastructure.hooks.event.HookEvent;
 import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
-import org.apache.fineract.infrastructure.hooks.processor.HookProcessor;
-import org.apache.fineract.infrastructure.hooks.processor.HookProcessorProvider;
-import org.apache.fineract.infrastructure.hooks.service.HookReadPlatformService;
+import org.apache.fineract.infrastructure.hooks.service.HookOutboxService;
+import org.apache.fineract.infrastructure.hooks.service.HookRoutingService;
 import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
-import org.apache.fineract.useradministration.domain.AppUser;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+/**
+ * Hands hook events over to the {@link HookOutboxService}; the hooks themselves are called in the background once the
+ * command that raised the event has committed. Events no hook is registered for are dropped after a lookup in the
+ * in-memory routing table, before their payload is built.
+ */
 @Service
 public class FineractHookListener implements HookListener {
 
-    private static final Logger LOG = LoggerFactory.getLogger(FineractHookListener.class);
-
-    private final HookProcessorProvider hookProcessorProvider;
-    private final HookReadPlatformService hookReadPlatformService;
+    private final HookOutboxService hookOutboxService;
     private final TenantDetailsService tenantDetailsService;
+    private final HookRoutingService hookRoutingService;
 
     @Autowired
-    public FineractHookListener(final HookProcessorProvider hookProcessorProvider, final HookReadPlatformService hookReadPlatformService,
-            final TenantDetailsService tenantDetailsService) {
-        this.hookReadPlatformService = hookReadPlatformService;
-        this.hookProcessorProvider = hookProcessorProvider;
+    public FineractHookListener(final HookOutboxService hookOutboxService, final TenantDetailsService tenantDetailsService,
+            final HookRoutingService hookRoutingService) {
+        this.hookOutboxService = hookOutboxService;
         this.tenantDetailsService = tenantDetailsService;
+        this.hookRoutingService = hookRoutingService;
     }
 
     @Override
     public void onApplicationEvent(final HookEvent event) {
         final String tenantIdentifier = event.getTenantIdentifier();
-        final FineractPlatformTenant tenant = this.tenantDetailsService.loadTenantById(tenantIdentifier);
-        ThreadLocalContextUtil.setTenant(tenant);
-
-        final AppUser appUser = event.getAppUser();
-        final String authToken = event.getAuthToken();
-
-        final HookEventSource hookEventSource = event.getSource();
-        final String entityName = hookEventSource.getEntityName();
-        final String actionName = hookEventSource.getActionName();
-        final String payload = event.getPayload();
-
-        final List<Hook> hooks = this.hookReadPlatformService.retrieveHooksByEvent(hookEventSource.getEntityName(),
-                hookEventSource.getActionName());
+        final FineractPlatformTenant currentTenant = ThreadLocalContextUtil.getTenant();
+        if (currentTenant == null || !tenantIdentifier.equals(currentTenant.getTenantIdentifier())) {
+            ThreadLocalContextUtil.setTenant(this.tenantDetailsService.loadTenantById(tenantIdentifier));
+        }
+        final HookEventSource source = event.getSource();
+        if (this.hookRoutingService.retrieveHookIdsByEvent(source.getEntityName(), source.getActionName()).isEmpty()) {
+            return;
+        }
 
-        for (final Hook hook : hooks) {
-            final HookProcessor processor = this.hookProcessorProvider.getProcessor(hook);
-            try {
-                processor.process(hook, appUser, payload, entityName, actionName, tenantIdentifier, authToken);
-            } catch (Throwable e) {
-                LOG.error("Hook {} failed in HookProcessor {} for tenantIdentifier/user {}/{}, entityName: {}, actionName: {}, payload {} ",
-                        hook.getId(), processor.getClass().getSimpleName(), tenantIdentifier, appUser, entityName, actionName, payload, e);
-            }
+        if (event.isFailure()) {
+            // the transaction of a failed command is rolled back, its event would be lost along with it
+            this.hookOutboxService.enqueueInNewTransaction(event);
+        } else {
+            this.hookOutboxService.enqueue(event);
         }
     }
 }
@@ -18,11 +18,15 @@
  */
 package org.apache.fineract.infrastructure.hooks.processor;
 
+import java.io.IOException;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
@@ -32,7 +36,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import retrofit2.Call;
-import retrofit2.Callback;
+import retrofit2.Response;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
@@ -44,6 +48,11 @@ public final class ProcessorHelper {
 
     private static final Logger LOG = LoggerFactory.getLogger(ProcessorHelper.class);
 
+    /**
+     * Upper bound for a single call to a hook receiver, from connecting until the response has been read.
+     */
+    public static final long CALL_TIMEOUT_SECONDS = 30;
+
     @SuppressWarnings("unused")
     private static final X509TrustManager insecureX509TrustManager = new X509TrustManager() {
 
@@ -67,16 +76,24 @@ public final class ProcessorHelper {
     private final boolean insecureHttpClient = Boolean.getBoolean("fineract.insecureHttpClient");
     private final SSLContext insecureSSLContext;
 
+    /**
+     * A single client is shared by all hooks, so that connections and threads are pooled across deliveries.
+     */
+    private final OkHttpClient client;
+    private final Map<String, WebHookService> webHookServices = new ConcurrentHashMap<>();
+
     public ProcessorHelper() throws KeyManagementException, NoSuchAlgorithmException {
         if (insecureHttpClient) {
             insecureSSLContext = createInsecureSSLContext();
         } else {
             insecureSSLContext = null;
         }
+        client = createClient();
     }
 
     private OkHttpClient createClient() {
         var okBuilder = new OkHttpClient.Builder();
+        okBuilder.callTimeout(CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
         if (insecureHttpClient) {
             configureInsecureClient(okBuilder);
         }
@@ -96,46 +113,25 @@ public final class ProcessorHelper {
         return insecureSSLContext;
     }
 
-    @SuppressWarnings("rawtypes")
-    public Callback createCallback(final String url) {
-        return new Callback() {
-
-            @Override
-            public void onResponse(@SuppressWarnings("unused") Call call, retrofit2.Response response) {
-                LOG.info("URL: {} - Status: {}", url, response.code());
-            }
-
-            @Override
-            public void onFailure(@SuppressWarnings("unused") Call call, Throwable t) {
-                LOG.error("URL: {} - Retrofit failure occured", url, t);
-            }
-        };
+    /**
+     * Executes the request on the calling thread and fails unless the receiver answered with a successful status.
+     */
+    public void execute(final Call<?> call, final String url) throws IOException {
+        final Response<?> response = call.execute();
+        if (!response.isSuccessful()) {
+            throw new IOException("URL: " + url + " - Status: " + response.code());
+        }
+        LOG.debug("URL: {} - Status: {}", url, response.code());
     }
 
     public WebHookService createWebHookService(final String url) {
-        final OkHttpClient client = createClient();
-        final Retrofit.Builder retrofitBuilder = new Retrofit.Builder();
-        retrofitBuilder.baseUrl(url);
-        retrofitBuilder.client(client);
-        retrofitBuilder.addConverterFactory(GsonConverterFactory.create());
-        final Retrofit retrofit = retrofitBuilder.build();
-        return retrofit.create(WebHookService.class);
-    }
-
-    @SuppressWarnings("rawtypes")
-    public Callback createCallback(final String url, String payload) {
-
-        return new Callback() {
-
-            @Override
-            public void onResponse(@SuppressWarnings("unused") Call call, retrofit2.Response response) {
-                LOG.info("URL: {} - Status: {}", url, response.code());
-            }
-
-            @Override
-            public void onFailure(@SuppressWarnings("unused") Call call, Throwable t) {
-                LOG.error("URL: {} - Retrofit failure occured", url, t);
-            }
-        };
+        return this.webHookServices.computeIfAbsent(url, baseUrl -> {
+            final Retrofit.Builder retrofitBuilder = new Retrofit.Builder();
+            retrofitBuilder.baseUrl(baseUrl);
+            retrofitBuilder.client(this.client);
+            retrofitBuilder.addConverterFactory(GsonConverterFactory.create());
+            final Retrofit retrofit = retrofitBuilder.build();
+            return retrofit.create(WebHookService.class);
+        });
     }
 }
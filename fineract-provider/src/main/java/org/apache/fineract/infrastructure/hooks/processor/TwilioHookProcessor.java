@@ -39,7 +39,6 @@ import org.codehaus.jackson.map.JsonMappingException;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import retrofit2.Callback;
 
 @Service
 public class TwilioHookProcessor implements HookProcessor {
@@ -74,9 +73,6 @@ public class TwilioHookProcessor implements HookProcessor {
 
         final WebHookService service = processorHelper.createWebHookService(smsProviderData.getUrl());
 
-        @SuppressWarnings("rawtypes")
-        final Callback callback = processorHelper.createCallback(smsProviderData.getUrl());
-
         String apiKey = this.hookConfigurationRepository.findOneByHookIdAndFieldName(hook.getId(), apiKeyName);
         if (apiKey == null) {
             smsProviderData.setUrl(null);
@@ -100,7 +96,8 @@ public class TwilioHookProcessor implements HookProcessor {
             } else {
                 json = JsonParser.parseString(payload).getAsJsonObject();
             }
-            service.sendSmsBridgeRequest(entityName, actionName, tenantIdentifier, apiKey, json).enqueue(callback);
+            processorHelper.execute(service.sendSmsBridgeRequest(entityName, actionName, tenantIdentifier, apiKey, json),
+                    smsProviderData.getUrl());
         }
     }
 
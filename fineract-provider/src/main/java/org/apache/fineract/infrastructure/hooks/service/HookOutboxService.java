@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import org.apache.fineract.infrastructure.hooks.event.HookEvent;
+
+/**
+ * Durable delivery of hook events. Events are stored in an outbox table together with the command that raised them and
+ * are delivered to the hooks in the background once that command has committed.
+ */
+public interface HookOutboxService {
+
+    /**
+     * Stores the event for every hook listening to it, in the transaction of the command that raised it.
+     */
+    void enqueue(HookEvent event);
+
+    /**
+     * Stores the event in a transaction of its own, for events raised by commands that are going to be rolled back.
+     */
+    void enqueueInNewTransaction(HookEvent event);
+
+    /**
+     * Delivers the events that are due, retrying failed deliveries with backoff until they are dead-lettered.
+     */
+    void dispatchPendingEvents();
+}
@@ -0,0 +1,382 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookOutboxStatusType;
+import org.apache.fineract.infrastructure.hooks.domain.HookRepository;
+import org.apache.fineract.infrastructure.hooks.event.HookEvent;
+import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessor;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessorProvider;
+import org.apache.fineract.infrastructure.hooks.processor.ProcessorHelper;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Delivers the events of a hook strictly one after the other, in the order they were raised. Only the dispatcher
+ * holding the lease of a hook delivers its events; the lease is renewed before every delivery and is several times
+ * longer than a single call to the receiver may take, so it cannot run out while an event is in flight and no event
+ * is delivered twice by concurrent dispatchers. Different hooks are delivered in parallel.
+ *
+ * Events only record the id of the user who raised them. The credentials of the user's request are kept in memory on
+ * the node that took the request, for a limited time, and are looked up when an event of the user is delivered; after
+ * a restart or on another node an event is delivered without them, like the events raised by scheduled jobs.
+ */
+@Service
+public class HookOutboxServiceImpl implements HookOutboxService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HookOutboxServiceImpl.class);
+    private static final int DISPATCH_THREADS = 4;
+    private static final int BATCH_SIZE = 200;
+    private static final int MAX_ATTEMPTS = 10;
+    static final long LEASE_SECONDS = 4 * ProcessorHelper.CALL_TIMEOUT_SECONDS;
+    private static final long INITIAL_BACKOFF_SECONDS = 30;
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final long AUTH_TOKEN_RETENTION_MINUTES = 60;
+    private static final int MAX_AUTH_TOKENS = 10000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HookRoutingService hookRoutingService;
+    private final HookRepository hookRepository;
+    private final HookProcessorProvider hookProcessorProvider;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, String> authTokens = CacheBuilder.newBuilder()
+            .expireAfterWrite(AUTH_TOKEN_RETENTION_MINUTES, TimeUnit.MINUTES).maximumSize(MAX_AUTH_TOKENS).build();
+    private ExecutorService dispatchExecutorService;
+
+    @Autowired
+    public HookOutboxServiceImpl(final RoutingDataSource dataSource, final HookRoutingService hookRoutingService,
+            final HookRepository hookRepository, final HookProcessorProvider hookProcessorProvider, final MeterRegistry meterRegistry) {
+        this(new JdbcTemplate(dataSource), hookRoutingService, hookRepository, hookProcessorProvider, meterRegistry);
+    }
+
+    HookOutboxServiceImpl(final JdbcTemplate jdbcTemplate, final HookRoutingService hookRoutingService, final HookRepository hookRepository,
+            final HookProcessorProvider hookProcessorProvider, final MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.hookRoutingService = hookRoutingService;
+        this.hookRepository = hookRepository;
+        this.hookProcessorProvider = hookProcessorProvider;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void initializeExecutorService() {
+        this.dispatchExecutorService = Executors.newFixedThreadPool(DISPATCH_THREADS);
+    }
+
+    @PreDestroy
+    public void shutdownExecutorService() {
+        this.dispatchExecutorService.shutdown();
+    }
+
+    @Override
+    @Transactional
+    public void enqueue(final HookEvent event) {
+        store(event);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void enqueueInNewTransaction(final HookEvent event) {
+        store(event);
+    }
+
+    @Override
+    @CronTarget(jobName = JobName.DISPATCH_WEBHOOK_EVENTS)
+    public void dispatchPendingEvents() {
+        final List<Long> hookIds = this.jdbcTemplate.queryForList(
+                "select distinct o.hook_id from m_hook_outbox o where o.status_enum = ? and o.next_attempt_at <= now()", Long.class,
+                HookOutboxStatusType.PENDING.getValue());
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final List<Callable<Object>> tasks = new ArrayList<>();
+        for (final Long hookId : hookIds) {
+            tasks.add(Executors.callable(new DispatchTask(tenant, hookId)));
+        }
+        try {
+            // every hook has its own receiver, so they are delivered side by side while the events of a hook stay in order
+            this.dispatchExecutorService.invokeAll(tasks);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void store(final HookEvent event) {
+        final HookEventSource source = event.getSource();
+        try {
+            final List<Long> hookIds = this.hookRoutingService.retrieveHookIdsByEvent(source.getEntityName(), source.getActionName());
+            if (hookIds.isEmpty()) {
+                return;
+            }
+            final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+            final Long appUserId = event.getAppUser() == null ? null : event.getAppUser().getId();
+            if (appUserId != null && event.getAuthToken() != null) {
+                this.authTokens.put(authTokenKey(tenant.getTenantIdentifier(), appUserId), event.getAuthToken());
+            }
+            this.jdbcTemplate.batchUpdate("insert into m_hook_outbox (hook_id, entity_name, action_name, payload, app_user_id, status_enum,"
+                    + " attempts, next_attempt_at, created_date) values (?, ?, ?, ?, ?, ?, 0, now(), now())", hookIds, hookIds.size(),
+                    (final PreparedStatement ps, final Long hookId) -> {
+                        ps.setLong(1, hookId);
+                        ps.setString(2, source.getEntityName());
+                        ps.setString(3, source.getActionName());
+                        ps.setString(4, event.getPayload());
+                        if (appUserId == null) {
+                            ps.setNull(5, Types.BIGINT);
+                        } else {
+                            ps.setLong(5, appUserId);
+                        }
+                        ps.setInt(6, HookOutboxStatusType.PENDING.getValue());
+                    });
+            for (final Long hookId : hookIds) {
+                dispatchAfterCommit(new DispatchTask(tenant, hookId));
+            }
+        } catch (final RuntimeException e) {
+            // a hook must never fail the command that raised the event
+            LOG.error("Failed to store hook event for entityName: {}, actionName: {}", source.getEntityName(), source.getActionName(), e);
+        }
+    }
+
+    private void dispatchAfterCommit(final DispatchTask task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(task);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                submit(task);
+            }
+        });
+    }
+
+    private void submit(final DispatchTask task) {
+        try {
+            this.dispatchExecutorService.execute(task);
+        } catch (final RejectedExecutionException e) {
+            // the events stay in the outbox and are delivered by the next scheduled dispatch
+            LOG.warn("Hook dispatcher is not accepting events, leaving them to the scheduled dispatch", e);
+        }
+    }
+
+    /**
+     * Delivers the due events of the hook, unless another dispatcher holds its lease. That dispatcher delivers them
+     * instead, or the next scheduled dispatch does once it is done.
+     */
+    private void dispatchHook(final Long hookId) {
+        final String leaseToken = UUID.randomUUID().toString();
+        if (!acquireLease(hookId, leaseToken)) {
+            return;
+        }
+        try {
+            final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+            final Hook hook = this.hookRepository.findById(hookId).orElse(null);
+            final HookProcessor processor = hook == null ? null : this.hookProcessorProvider.getProcessor(hook);
+            final OutboxEventMapper mapper = new OutboxEventMapper();
+            List<OutboxEvent> events;
+            do {
+                events = this.jdbcTemplate.query(mapper.schema(), mapper, hookId, HookOutboxStatusType.PENDING.getValue());
+            } while (deliver(hook, processor, events, tenantIdentifier, leaseToken) && events.size() == BATCH_SIZE);
+        } finally {
+            this.jdbcTemplate.update("delete from m_hook_dispatch_lease where hook_id = ? and lease_token = ?", hookId, leaseToken);
+        }
+    }
+
+    private boolean acquireLease(final Long hookId, final String leaseToken) {
+        // takes over the lease if it is free or has run out; the assignments are evaluated in order, so the expiry is
+        // only moved when the token was just replaced by ours
+        this.jdbcTemplate.update("insert into m_hook_dispatch_lease (hook_id, lease_token, lease_until)"
+                + " values (?, ?, date_add(now(), interval ? second)) on duplicate key update"
+                + " lease_token = if(lease_until <= now(), values(lease_token), lease_token),"
+                + " lease_until = if(lease_token = values(lease_token), values(lease_until), lease_until)", hookId, leaseToken,
+                LEASE_SECONDS);
+        return this.jdbcTemplate.queryForObject("select count(*) from m_hook_dispatch_lease where hook_id = ? and lease_token = ?",
+                Integer.class, hookId, leaseToken) > 0;
+    }
+
+    private boolean renewLease(final Long hookId, final String leaseToken) {
+        return this.jdbcTemplate.update(
+                "update m_hook_dispatch_lease set lease_until = date_add(now(), interval ? second) where hook_id = ? and lease_token = ?",
+                LEASE_SECONDS, hookId, leaseToken) > 0;
+    }
+
+    /**
+     * Delivers the events in order and returns whether the dispatcher should go on with the next batch of the hook.
+     */
+    private boolean deliver(final Hook hook, final HookProcessor processor, final List<OutboxEvent> events, final String tenantIdentifier,
+            final String leaseToken) {
+        for (final OutboxEvent event : events) {
+            if (processor == null) {
+                // the hook was removed or its template cannot be processed, there is nobody to deliver to
+                this.jdbcTemplate.update("delete from m_hook_outbox where id = ?", event.id);
+                continue;
+            }
+            if (!renewLease(event.hookId, leaseToken)) {
+                LOG.warn("Lost the dispatch lease of hook {}, leaving its events to the dispatcher holding it", event.hookId);
+                return false;
+            }
+            try {
+                final String authToken = event.appUserId == null ? null
+                        : this.authTokens.getIfPresent(authTokenKey(tenantIdentifier, event.appUserId));
+                processor.process(hook, null, event.payload, event.entityName, event.actionName, tenantIdentifier, authToken);
+            } catch (Exception e) {
+                LOG.warn("Hook {} failed in HookProcessor {} for tenantIdentifier {}, entityName: {}, actionName: {}", event.hookId,
+                        processor.getClass().getSimpleName(), tenantIdentifier, event.entityName, event.actionName, e);
+                final long backoffSeconds = markFailed(event, e, tenantIdentifier);
+                // the receiver is most likely unavailable, the later events of this hook wait for the same retry so that
+                // they are not delivered ahead of this one
+                postponeLaterEvents(event, backoffSeconds);
+                return false;
+            }
+            this.jdbcTemplate.update("delete from m_hook_outbox where id = ?", event.id);
+            this.meterRegistry.counter("fineract.hooks.delivered", "tenant", tenantIdentifier, "hook", String.valueOf(event.hookId))
+                    .increment();
+            this.meterRegistry.timer("fineract.hooks.lag", "tenant", tenantIdentifier, "hook", String.valueOf(event.hookId))
+                    .record(event.lagSeconds, TimeUnit.SECONDS);
+        }
+        return true;
+    }
+
+    private long markFailed(final OutboxEvent event, final Exception e, final String tenantIdentifier) {
+        final int attempts = event.attempts + 1;
+        final String lastError = StringUtils.abbreviate(e.toString(), MAX_ERROR_LENGTH);
+        final String hookTag = String.valueOf(event.hookId);
+        if (attempts >= MAX_ATTEMPTS) {
+            this.jdbcTemplate.update("update m_hook_outbox set status_enum = ?, attempts = ?, last_error = ? where id = ?",
+                    HookOutboxStatusType.DEAD_LETTER.getValue(), attempts, lastError, event.id);
+            this.meterRegistry.counter("fineract.hooks.dead_lettered", "tenant", tenantIdentifier, "hook", hookTag).increment();
+            LOG.error("Hook {} gave up delivering outbox event {} after {} attempts", event.hookId, event.id, attempts);
+            return INITIAL_BACKOFF_SECONDS;
+        }
+        final long backoffSeconds = Math.min(MAX_BACKOFF_SECONDS, INITIAL_BACKOFF_SECONDS << (attempts - 1));
+        this.jdbcTemplate.update(
+                "update m_hook_outbox set attempts = ?, last_error = ?, next_attempt_at = date_add(now(), interval ? second) where id = ?",
+                attempts, lastError, backoffSeconds, event.id);
+        this.meterRegistry.counter("fineract.hooks.failed", "tenant", tenantIdentifier, "hook", hookTag).increment();
+        return backoffSeconds;
+    }
+
+    private void postponeLaterEvents(final OutboxEvent event, final long delaySeconds) {
+        this.jdbcTemplate.update(
+                "update m_hook_outbox set next_attempt_at = greatest(next_attempt_at, date_add(now(), interval ? second))"
+                        + " where hook_id = ? and status_enum = ? and id > ?",
+                delaySeconds, event.hookId, HookOutboxStatusType.PENDING.getValue(), event.id);
+    }
+
+    private static String authTokenKey(final String tenantIdentifier, final Long appUserId) {
+        return tenantIdentifier + ":" + appUserId;
+    }
+
+    private final class DispatchTask implements Runnable {
+
+        private final FineractPlatformTenant tenant;
+        private final Long hookId;
+
+        DispatchTask(final FineractPlatformTenant tenant, final Long hookId) {
+            this.tenant = tenant;
+            this.hookId = hookId;
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalContextUtil.setTenant(this.tenant);
+            try {
+                dispatchHook(this.hookId);
+            } catch (RuntimeException e) {
+                // whatever was not delivered stays in the outbox for the scheduled dispatch
+                LOG.error("Hook {} dispatch failed for tenantIdentifier {}", this.hookId, this.tenant.getTenantIdentifier(), e);
+            } finally {
+                ThreadLocalContextUtil.clearTenant();
+            }
+        }
+    }
+
+    static final class OutboxEvent {
+
+        private final Long id;
+        private final Long hookId;
+        private final String entityName;
+        private final String actionName;
+        private final String payload;
+        private final Long appUserId;
+        private final int attempts;
+        private final long lagSeconds;
+
+        OutboxEvent(final Long id, final Long hookId, final String entityName, final String actionName, final String payload,
+                final Long appUserId, final int attempts, final long lagSeconds) {
+            this.id = id;
+            this.hookId = hookId;
+            this.entityName = entityName;
+            this.actionName = actionName;
+            this.payload = payload;
+            this.appUserId = appUserId;
+            this.attempts = attempts;
+            this.lagSeconds = lagSeconds;
+        }
+    }
+
+    private static final class OutboxEventMapper implements RowMapper<OutboxEvent> {
+
+        public String schema() {
+            return "select o.id as id, o.hook_id as hookId, o.entity_name as entityName, o.action_name as actionName, o.payload as payload,"
+                    + " o.app_user_id as appUserId, o.attempts as attempts, timestampdiff(SECOND, o.created_date, now()) as lagSeconds"
+                    + " from m_hook_outbox o where o.hook_id = ? and o.status_enum = ? and o.next_attempt_at <= now() order by o.id limit "
+                    + BATCH_SIZE;
+        }
+
+        @Override
+        public OutboxEvent mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new OutboxEvent(rs.getLong("id"), rs.getLong("hookId"), rs.getString("entityName"), rs.getString("actionName"),
+                    rs.getString("payload"), JdbcSupport.getLong(rs, "appUserId"), rs.getInt("attempts"), rs.getLong("lagSeconds"));
+        }
+    }
+}
@@ -31,12 +31,9 @@ import org.apache.fineract.infrastructure.hooks.data.Field;
 import org.apache.fineract.infrastructure.hooks.data.Grouping;
 import org.apache.fineract.infrastructure.hooks.data.HookData;
 import org.apache.fineract.infrastructure.hooks.data.HookTemplateData;
-import org.apache.fineract.infrastructure.hooks.domain.Hook;
-import org.apache.fineract.infrastructure.hooks.domain.HookRepository;
 import org.apache.fineract.infrastructure.hooks.exception.HookNotFoundException;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -46,14 +43,11 @@ import org.springframework.stereotype.Service;
 public class HookReadPlatformServiceImpl implements HookReadPlatformService {
 
     private final JdbcTemplate jdbcTemplate;
-    private final HookRepository hookRepository;
     private final PlatformSecurityContext context;
 
     @Autowired
-    public HookReadPlatformServiceImpl(final PlatformSecurityContext context, final HookRepository hookRepository,
-            final RoutingDataSource dataSource) {
+    public HookReadPlatformServiceImpl(final PlatformSecurityContext context, final RoutingDataSource dataSource) {
         this.context = context;
-        this.hookRepository = hookRepository;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
     }
 
@@ -80,13 +74,6 @@ public class HookReadPlatformServiceImpl implements HookReadPlatformService {
 
     }
 
-    @Override
-    @Cacheable(value = "hooks", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat('HK')")
-    public List<Hook> retrieveHooksByEvent(final String entityName, final String actionName) {
-
-        return this.hookRepository.findAllHooksListeningToEvent(entityName, actionName);
-    }
-
     @Override
     public HookData retrieveNewHookDetails(final String templateName) {
 
@@ -0,0 +1,36 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import java.util.List;
+
+/**
+ * Resolves the hooks listening to an event from a per tenant in-memory routing table, so that the large majority of
+ * events, which nobody subscribes to, cost a map lookup.
+ */
+public interface HookRoutingService {
+
+    List<Long> retrieveHookIdsByEvent(String entityName, String actionName);
+
+    /**
+     * Increments the routing version in the running transaction, so that every node rebuilds its routing table of the
+     * current tenant once the hook change has committed.
+     */
+    void invalidateRoutes();
+}
@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongSupplier;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.VersionedTenantCache;
+import org.apache.fineract.infrastructure.hooks.domain.HookRoutingTable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the routing table of each tenant in memory. Every hook change increments the row in
+ * <code>m_hook_routing_version</code> in the same transaction; the node making the change reloads its table once the
+ * change has committed, the other nodes within {@value #VERSION_RECHECK_SECONDS} seconds.
+ */
+@Service
+public class HookRoutingServiceImpl implements HookRoutingService {
+
+    private static final long VERSION_RECHECK_SECONDS = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VersionedTenantCache<HookRoutingTable> routes;
+
+    @Autowired
+    public HookRoutingServiceImpl(final RoutingDataSource dataSource) {
+        this(new JdbcTemplate(dataSource), System::nanoTime);
+    }
+
+    HookRoutingServiceImpl(final JdbcTemplate jdbcTemplate, final LongSupplier nanoClock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.routes = new VersionedTenantCache<>(jdbcTemplate, "m_hook_routing_version", Duration.ofSeconds(VERSION_RECHECK_SECONDS),
+                this::loadRoutes, nanoClock);
+    }
+
+    @Override
+    public List<Long> retrieveHookIdsByEvent(final String entityName, final String actionName) {
+        return this.routes.get().hookIdsFor(entityName, actionName);
+    }
+
+    @Override
+    public void invalidateRoutes() {
+        this.routes.invalidate();
+    }
+
+    private HookRoutingTable loadRoutes() {
+        final HookRoutingTable.Builder builder = HookRoutingTable.builder();
+        this.jdbcTemplate.query(
+                "select e.entity_name as entityName, e.action_name as actionName, h.id as hookId from m_hook h"
+                        + " join m_hook_registered_events e on e.hook_id = h.id where h.is_active = 1 order by h.id",
+                (RowCallbackHandler) rs -> builder.route(rs.getString("entityName"), rs.getString("actionName"), rs.getLong("hookId")));
+        return builder.build();
+    }
+}
@@ -63,7 +63,6 @@ import org.apache.fineract.template.domain.Template;
 import org.apache.fineract.template.domain.TemplateRepository;
 import org.apache.fineract.template.exception.TemplateNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.orm.jpa.JpaSystemException;
 import org.springframework.stereotype.Service;
@@ -79,12 +78,13 @@ public class HookWritePlatformServiceJpaRepositoryImpl implements HookWritePlatf
     private final HookCommandFromApiJsonDeserializer fromApiJsonDeserializer;
     private final FromJsonHelper fromApiJsonHelper;
     private final ProcessorHelper processorHelper;
+    private final HookRoutingService hookRoutingService;
 
     @Autowired
     public HookWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, final HookRepository hookRepository,
             final HookTemplateRepository hookTemplateRepository, final TemplateRepository ugdTemplateRepository,
             final HookCommandFromApiJsonDeserializer fromApiJsonDeserializer, final FromJsonHelper fromApiJsonHelper,
-            ProcessorHelper processorHelper) {
+            ProcessorHelper processorHelper, final HookRoutingService hookRoutingService) {
         this.context = context;
         this.hookRepository = hookRepository;
         this.hookTemplateRepository = hookTemplateRepository;
@@ -92,11 +92,11 @@ public class HookWritePlatformServiceJpaRepositoryImpl implements HookWritePlatf
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.fromApiJsonHelper = fromApiJsonHelper;
         this.processorHelper = processorHelper;
+        this.hookRoutingService = hookRoutingService;
     }
 
     @Transactional
     @Override
-    @CacheEvict(value = "hooks", allEntries = true)
     public CommandProcessingResult createHook(final JsonCommand command) {
 
         try {
@@ -120,6 +120,7 @@ public class HookWritePlatformServiceJpaRepositoryImpl implements HookWritePlatf
             validateHookRules(template, config, allEvents);
 
             this.hookRepository.save(hook);
+            this.hookRoutingService.invalidateRoutes();
 
             return new CommandProcessingResultBuilder().withCommandId(command.commandId()).withEntityId(hook.getId()).build();
         } catch (final JpaSystemException | DataIntegrityViolationException dve) {
@@ -134,7 +135,6 @@ public class HookWritePlatformServiceJpaRepositoryImpl implements HookWritePlatf
 
     @Transactional
     @Override
-    @CacheEvict(value = "hooks", allEntries = true)
     public CommandProcessingResult updateHook(final Long hookId, final JsonCommand command) {
 
         try {
@@ -176,6 +176,7 @@ public class HookWritePlatformServiceJpaRepositoryImpl implements HookWritePlatf
                 }
 
                 this.hookRepository.saveAndFlush(hook);
+                this.hookRoutingService.invalidateRoutes();
             }
 
             return new CommandProcessingResultBuilder() //
@@ -195,13 +196,13 @@ public class HookWritePlatformServiceJpaRepositoryImpl implements HookWritePlatf
 
     @Transactional
     @Override
-    @CacheEvict(value = "hooks", allEntries = true)
     public CommandProcessingResult deleteHook(final Long hookId) {
 
         this.context.authenticatedUser();
         final Hook hook = retrieveHookBy(hookId);
         try {
             this.hookRepository.delete(hook);
+            this.hookRoutingService.invalidateRoutes();
         } catch (final JpaSystemException | DataIntegrityViolationException e) {
             throw new PlatformDataIntegrityException("error.msg.unknown.data.integrity.issue",
                     "Unknown data integrity issue with resource: " + e.getMostSpecificCause(), e);
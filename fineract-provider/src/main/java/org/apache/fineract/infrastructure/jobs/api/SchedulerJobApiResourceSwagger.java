@@ -93,6 +93,33 @@ final class SchedulerJobApiResourceSwagger {
             public String status;
             @Schema(example = "cron")
             public String triggerType;
+            public JobRunTelemetryDataSwagger telemetry;
+        }
+
+        static final class JobRunTelemetryDataSwagger {
+
+            private JobRunTelemetryDataSwagger() {}
+
+            @Schema(example = "1200")
+            public Long itemsRead;
+            @Schema(example = "1195")
+            public Long itemsProcessed;
+            @Schema(example = "5")
+            public Long itemsFailed;
+            @Schema(example = "0")
+            public Long itemsSkipped;
+            @Schema(example = "12")
+            public Integer chunks;
+            @Schema(example = "850")
+            public Long chunkMedianMillis;
+            @Schema(example = "1400")
+            public Long chunkP95Millis;
+            @Schema(example = "2100")
+            public Long chunkMaxMillis;
+            @Schema(example = "6300")
+            public Long databaseTimeMillis;
+            @Schema(example = "3900")
+            public Long cpuTimeMillis;
         }
 
         @Schema(example = "8")
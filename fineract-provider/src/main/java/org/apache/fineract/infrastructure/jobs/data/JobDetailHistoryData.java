@@ -43,8 +43,16 @@ public class JobDetailHistoryData {
     @SuppressWarnings("unused")
     private final String jobRunErrorLog;
 
+    @SuppressWarnings("unused")
+    private final JobRunTelemetryData telemetry;
+
     public JobDetailHistoryData(final Long version, final Date jobRunStartTime, final Date jobRunEndTime, final String status,
             final String jobRunErrorMessage, final String triggerType, final String jobRunErrorLog) {
+        this(version, jobRunStartTime, jobRunEndTime, status, jobRunErrorMessage, triggerType, jobRunErrorLog, null);
+    }
+
+    public JobDetailHistoryData(final Long version, final Date jobRunStartTime, final Date jobRunEndTime, final String status,
+            final String jobRunErrorMessage, final String triggerType, final String jobRunErrorLog, final JobRunTelemetryData telemetry) {
         this.version = version;
         this.jobRunStartTime = jobRunStartTime;
         this.jobRunEndTime = jobRunEndTime;
@@ -52,5 +60,6 @@ public class JobDetailHistoryData {
         this.jobRunErrorMessage = jobRunErrorMessage;
         this.triggerType = triggerType;
         this.jobRunErrorLog = jobRunErrorLog;
+        this.telemetry = telemetry;
     }
 }
@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.data;
+
+/**
+ * Item counts, chunk latencies and time split of a job run. Item counts and chunk latencies are only present for jobs
+ * processing their items in chunks.
+ */
+public class JobRunTelemetryData {
+
+    @SuppressWarnings("unused")
+    private final Long itemsRead;
+
+    @SuppressWarnings("unused")
+    private final Long itemsProcessed;
+
+    @SuppressWarnings("unused")
+    private final Long itemsFailed;
+
+    @SuppressWarnings("unused")
+    private final Long itemsSkipped;
+
+    @SuppressWarnings("unused")
+    private final Integer chunks;
+
+    @SuppressWarnings("unused")
+    private final Long chunkMedianMillis;
+
+    @SuppressWarnings("unused")
+    private final Long chunkP95Millis;
+
+    @SuppressWarnings("unused")
+    private final Long chunkMaxMillis;
+
+    @SuppressWarnings("unused")
+    private final Long databaseTimeMillis;
+
+    @SuppressWarnings("unused")
+    private final Long cpuTimeMillis;
+
+    public JobRunTelemetryData(final Long itemsRead, final Long itemsProcessed, final Long itemsFailed, final Long itemsSkipped,
+            final Integer chunks, final Long chunkMedianMillis, final Long chunkP95Millis, final Long chunkMaxMillis,
+            final Long databaseTimeMillis, final Long cpuTimeMillis) {
+        this.itemsRead = itemsRead;
+        this.itemsProcessed = itemsProcessed;
+        this.itemsFailed = itemsFailed;
+        this.itemsSkipped = itemsSkipped;
+        this.chunks = chunks;
+        this.chunkMedianMillis = chunkMedianMillis;
+        this.chunkP95Millis = chunkP95Millis;
+        this.chunkMaxMillis = chunkMaxMillis;
+        this.databaseTimeMillis = databaseTimeMillis;
+        this.cpuTimeMillis = cpuTimeMillis;
+    }
+}
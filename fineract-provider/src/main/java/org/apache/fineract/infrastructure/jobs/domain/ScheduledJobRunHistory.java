@@ -19,6 +19,7 @@
 package org.apache.fineract.infrastructure.jobs.domain;
 
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.JoinColumn;
@@ -27,6 +28,7 @@ import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.infrastructure.jobs.service.JobRunTelemetry;
 
 @Entity
 @Table(name = "job_run_history")
@@ -59,6 +61,36 @@ public class ScheduledJobRunHistory extends AbstractPersistableCustom {
     @Column(name = "error_log")
     private String errorLog;
 
+    @Column(name = "items_read")
+    private Long itemsRead;
+
+    @Column(name = "items_processed")
+    private Long itemsProcessed;
+
+    @Column(name = "items_failed")
+    private Long itemsFailed;
+
+    @Column(name = "items_skipped")
+    private Long itemsSkipped;
+
+    @Column(name = "chunks")
+    private Integer chunks;
+
+    @Column(name = "chunk_median_millis")
+    private Long chunkMedianMillis;
+
+    @Column(name = "chunk_p95_millis")
+    private Long chunkP95Millis;
+
+    @Column(name = "chunk_max_millis")
+    private Long chunkMaxMillis;
+
+    @Column(name = "database_time_millis")
+    private Long databaseTimeMillis;
+
+    @Column(name = "cpu_time_millis")
+    private Long cpuTimeMillis;
+
     public ScheduledJobRunHistory() {
 
     }
@@ -75,4 +107,18 @@ public class ScheduledJobRunHistory extends AbstractPersistableCustom {
         this.errorLog = errorLog;
     }
 
+    public void recordTelemetry(final JobRunTelemetry telemetry) {
+        if (telemetry.hasItems()) {
+            this.itemsRead = telemetry.getItemsRead();
+            this.itemsProcessed = telemetry.getItemsProcessed();
+            this.itemsFailed = telemetry.getItemsFailed();
+            this.itemsSkipped = telemetry.getItemsSkipped();
+            this.chunks = telemetry.getChunks();
+            this.chunkMedianMillis = telemetry.chunkMillisAt(0.5);
+            this.chunkP95Millis = telemetry.chunkMillisAt(0.95);
+            this.chunkMaxMillis = telemetry.chunkMillisAt(1.0);
+        }
+        this.databaseTimeMillis = TimeUnit.NANOSECONDS.toMillis(telemetry.getDatabaseNanos());
+        this.cpuTimeMillis = TimeUnit.NANOSECONDS.toMillis(telemetry.getCpuNanos());
+    }
 }
@@ -46,7 +46,7 @@ public enum JobName {
                                                                                                                                                                                             "Generate AdhocClient Schedule"), UPDATE_EMAIL_OUTBOUND_WITH_CAMPAIGN_MESSAGE(
                                                                                                                                                                                                     "Update Email Outbound with campaign message"), EXECUTE_EMAIL(
                                                                                                                                                                                                             "Execute Email"), UPDATE_TRAIL_BALANCE_DETAILS(
-                                                                                                                                                                                                                    "Update Trial Balance Details");
+                                                                                                                                                                                                                    "Update Trial Balance Details"), REBUILD_SEARCH_INDEX("Rebuild Search Index"), GENERATE_COLLECTION_SHEET_SNAPSHOTS("Generate Collection Sheet Snapshots"), DISPATCH_WEBHOOK_EVENTS("Dispatch Webhook Events");
 
     private final String name;
 
@@ -0,0 +1,183 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.fineract.infrastructure.core.service.DatabaseTimeTracker;
+
+/**
+ * What a job run did and where its time went, collected while the run is going on.
+ *
+ * A run is tracked on the scheduler thread from {@link #start()} to {@link #finish()}. Worker threads taking part in
+ * the run attach themselves with {@link #attachWorker()}, so the statement and CPU time they use is added to the run.
+ * Item counts and chunk latencies are only reported by jobs run through {@link PerEntityJobRunner}.
+ */
+public final class JobRunTelemetry {
+
+    private static final ThreadLocal<JobRunTelemetry> CURRENT = new ThreadLocal<>();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final LongAdder itemsRead = new LongAdder();
+    private final LongAdder itemsProcessed = new LongAdder();
+    private final LongAdder itemsFailed = new LongAdder();
+    private final LongAdder itemsSkipped = new LongAdder();
+    private final LongAdder databaseNanos = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+    private final List<Long> chunkNanos = Collections.synchronizedList(new ArrayList<>());
+    private final long cpuStartNanos;
+    private boolean itemsReported;
+
+    private JobRunTelemetry() {
+        this.cpuStartNanos = threadCpuNanos();
+    }
+
+    public static JobRunTelemetry start() {
+        final JobRunTelemetry telemetry = new JobRunTelemetry();
+        CURRENT.set(telemetry);
+        DatabaseTimeTracker.track(telemetry.databaseNanos);
+        return telemetry;
+    }
+
+    /**
+     * @return the run tracked on this thread, null outside of a scheduled run
+     */
+    public static JobRunTelemetry current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stops tracking the run of this thread.
+     *
+     * @return the finished run, null if no run was tracked
+     */
+    public static JobRunTelemetry finish() {
+        final JobRunTelemetry telemetry = CURRENT.get();
+        CURRENT.remove();
+        DatabaseTimeTracker.stopTracking();
+        if (telemetry != null) {
+            telemetry.cpuNanos.add(threadCpuNanos() - telemetry.cpuStartNanos);
+        }
+        return telemetry;
+    }
+
+    /**
+     * Attaches the calling worker thread to this run until the returned handle is closed.
+     */
+    public Worker attachWorker() {
+        DatabaseTimeTracker.track(this.databaseNanos);
+        return new Worker(threadCpuNanos());
+    }
+
+    public void itemsRead(final int count) {
+        this.itemsReported = true;
+        this.itemsRead.add(count);
+    }
+
+    public void itemProcessed() {
+        this.itemsProcessed.increment();
+    }
+
+    public void itemFailed() {
+        this.itemsFailed.increment();
+    }
+
+    public void itemsSkipped(final int count) {
+        this.itemsSkipped.add(count);
+    }
+
+    public void chunkCompleted(final long nanos) {
+        this.chunkNanos.add(nanos);
+    }
+
+    public boolean hasItems() {
+        return this.itemsReported;
+    }
+
+    public long getItemsRead() {
+        return this.itemsRead.sum();
+    }
+
+    public long getItemsProcessed() {
+        return this.itemsProcessed.sum();
+    }
+
+    public long getItemsFailed() {
+        return this.itemsFailed.sum();
+    }
+
+    public long getItemsSkipped() {
+        return this.itemsSkipped.sum();
+    }
+
+    public int getChunks() {
+        return this.chunkNanos.size();
+    }
+
+    /**
+     * @return the chunk latency in milliseconds below which the given share of the chunks completed, null without chunks
+     */
+    public Long chunkMillisAt(final double percentile) {
+        final List<Long> sorted;
+        synchronized (this.chunkNanos) {
+            sorted = new ArrayList<>(this.chunkNanos);
+        }
+        if (sorted.isEmpty()) {
+            return null;
+        }
+        Collections.sort(sorted);
+        final int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sorted.get(Math.max(0, Math.min(index, sorted.size() - 1))));
+    }
+
+    public long getDatabaseNanos() {
+        return this.databaseNanos.sum();
+    }
+
+    public long getCpuNanos() {
+        return this.cpuNanos.sum();
+    }
+
+    private static long threadCpuNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? Math.max(0, THREADS.getCurrentThreadCpuTime()) : 0;
+    }
+
+    /**
+     * A worker thread taking part in a run.
+     */
+    public final class Worker implements AutoCloseable {
+
+        private final long cpuStartNanos;
+
+        private Worker(final long cpuStartNanos) {
+            this.cpuStartNanos = cpuStartNanos;
+        }
+
+        @Override
+        public void close() {
+            JobRunTelemetry.this.cpuNanos.add(threadCpuNanos() - this.cpuStartNanos);
+            DatabaseTimeTracker.stopTracking();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A job working through accounts (or other entities) one item at a time, run by {@link PerEntityJobRunner}.
+ *
+ * @param <T>
+ *            the items read for a run
+ * @param <R>
+ *            what processing an item hands to the chunk writer, {@link Void} for items the processor writes itself
+ */
+public interface PerEntityJob<T, R> {
+
+    JobName getJobName();
+
+    /**
+     * Reads the items of a run, in any order.
+     */
+    Collection<T> read();
+
+    /**
+     * Items of the same entity are always processed by one worker in read order, and a restarted run continues after the
+     * entity the last committed chunk ended with.
+     */
+    Long entityId(T item);
+
+    /**
+     * Processes one item on a worker thread. Lock conflicts are retried, any other failure skips the item.
+     *
+     * @return the result handed to {@link #write(List)}, null if there is nothing to write
+     */
+    R process(T item);
+
+    /**
+     * Writes the results of a chunk in one transaction, after all its items were processed.
+     */
+    default void write(List<R> results) {}
+
+    /**
+     * Whether a restarted run continues after the last committed chunk. Jobs which record themselves which entities are
+     * done, and no longer read those, run without a checkpoint and read whatever is left.
+     */
+    default boolean isCheckpointed() {
+        return true;
+    }
+
+    /**
+     * How an item is referred to when it fails.
+     */
+    default String describe(T item) {
+        return String.valueOf(entityId(item));
+    }
+
+    /**
+     * A job whose processor writes each item itself.
+     */
+    static <T> PerEntityJob<T, Void> of(final JobName jobName, final Supplier<Collection<T>> reader, final Function<T, Long> entityId,
+            final Function<T, String> description, final Consumer<T> processor) {
+        return new PerEntityJob<T, Void>() {
+
+            @Override
+            public JobName getJobName() {
+                return jobName;
+            }
+
+            @Override
+            public Collection<T> read() {
+                return reader.get();
+            }
+
+            @Override
+            public Long entityId(final T item) {
+                return entityId.apply(item);
+            }
+
+            @Override
+            public Void process(final T item) {
+                processor.accept(item);
+                return null;
+            }
+
+            @Override
+            public String describe(final T item) {
+                return description.apply(item);
+            }
+        };
+    }
+}
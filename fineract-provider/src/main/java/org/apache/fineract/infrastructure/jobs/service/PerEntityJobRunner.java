@@ -0,0 +1,375 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.fineract.infrastructure.core.data.ApiParameterError;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs {@link PerEntityJob}s on a shared pool of workers.
+ *
+ * The items of a run are ordered by entity and cut into chunks of {@value #CHUNK_SIZE_PROPERTYNAME} items (never
+ * splitting an entity), which the workers process concurrently. An item failing with a lock conflict is retried as often
+ * as the tenant connection allows for deadlocks, any other failure skips the item. Once more than
+ * {@value #SKIP_LIMIT_PROPERTYNAME} items were skipped (0 for no limit) the run stops. Chunks are committed in order
+ * into m_job_checkpoint, so a run that stopped or was interrupted continues after the last committed chunk when the job
+ * is started again on the same business date. The entities a committed chunk skipped are kept in
+ * m_job_checkpoint_failure and are read again by the next run of that date, and the checkpoint is only dropped once a
+ * run got through all its items without skipping any. Checkpoints are kept per job and run scope, so a job run once per
+ * office (for example) keeps one checkpoint per office. Jobs which are not {@link PerEntityJob#isCheckpointed()
+ * checkpointed} keep none.
+ *
+ * Item counts and chunk latencies are added to the {@link JobRunTelemetry} of the scheduled run, and chunk latencies
+ * are also published as the fineract.jobs.chunk timer.
+ */
+@Component
+public class PerEntityJobRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PerEntityJobRunner.class);
+    private static final String WORKER_THREADS_PROPERTYNAME = "fineract_job_worker_threads";
+    private static final String CHUNK_SIZE_PROPERTYNAME = "fineract_job_chunk_size";
+    private static final String SKIP_LIMIT_PROPERTYNAME = "fineract_job_skip_limit";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int workerThreads;
+    private final int chunkSize;
+    private final int skipLimit;
+    private ExecutorService workers;
+
+    @Autowired
+    public PerEntityJobRunner(final RoutingDataSource dataSource, final PlatformTransactionManager transactionManager,
+            final Environment environment, final MeterRegistry meterRegistry) {
+        this(new JdbcTemplate(dataSource), new TransactionTemplate(transactionManager), meterRegistry,
+                environment.getProperty(WORKER_THREADS_PROPERTYNAME, Integer.class, 0),
+                environment.getProperty(CHUNK_SIZE_PROPERTYNAME, Integer.class, 100),
+                environment.getProperty(SKIP_LIMIT_PROPERTYNAME, Integer.class, 0));
+    }
+
+    PerEntityJobRunner(final JdbcTemplate jdbcTemplate, final TransactionTemplate transactionTemplate, final MeterRegistry meterRegistry,
+            final int configuredThreads, final int chunkSize, final int skipLimit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.workerThreads = configuredThreads > 0 ? configuredThreads : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = Math.max(1, chunkSize);
+        this.skipLimit = skipLimit;
+    }
+
+    @PostConstruct
+    public void startWorkers() {
+        this.workers = Executors.newFixedThreadPool(this.workerThreads);
+    }
+
+    @PreDestroy
+    public void stopWorkers() {
+        this.workers.shutdownNow();
+    }
+
+    public <T, R> void run(final PerEntityJob<T, R> job) throws JobExecutionException {
+        run(job, "");
+    }
+
+    /**
+     * @param runScope
+     *            tells apart runs of the same job which work through different items, for example one run per holiday
+     */
+    public <T, R> void run(final PerEntityJob<T, R> job, final String runScope) throws JobExecutionException {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+        final String jobName = job.getJobName().name();
+        final LocalDate businessDate = DateUtils.getLocalDateOfTenant();
+        final boolean checkpointed = job.isCheckpointed();
+        Long restartAfter = null;
+        if (checkpointed) {
+            this.jdbcTemplate.update("delete from m_job_checkpoint_failure where job_name = ? and run_scope = ? and business_date <> ?",
+                    jobName, runScope, businessDate);
+            restartAfter = retrieveCheckpoint(jobName, runScope, businessDate);
+        }
+        final Set<Long> retryEntityIds = restartAfter == null ? new HashSet<>()
+                : retrieveFailedEntityIds(jobName, runScope, businessDate);
+        final JobRunTelemetry telemetry = JobRunTelemetry.current();
+        final Timer chunkTimer = Timer.builder("fineract.jobs.chunk").description("Time taken to process and write a chunk of a job")
+                .tags("job", job.getJobName().toString(), "tenant", tenant.getTenantIdentifier()).publishPercentileHistogram()
+                .register(this.meterRegistry);
+
+        final Collection<T> readItems = job.read();
+        final List<T> items = new ArrayList<>();
+        for (final T item : readItems) {
+            final Long entityId = job.entityId(item);
+            if (restartAfter == null || entityId > restartAfter || retryEntityIds.contains(entityId)) {
+                items.add(item);
+            }
+        }
+        items.sort(Comparator.comparing(job::entityId));
+        if (telemetry != null) {
+            telemetry.itemsRead(readItems.size());
+            telemetry.itemsSkipped(readItems.size() - items.size());
+        }
+        if (restartAfter != null) {
+            LOG.info("{}: Restarting {} after entity {} with {} items left, retrying {} skipped entities", tenant.getName(),
+                    job.getJobName(), restartAfter, items.size(), retryEntityIds.size());
+        }
+
+        final RunState state = new RunState();
+        final List<Future<ChunkOutcome>> chunks = new ArrayList<>();
+        int fromIndex = 0;
+        while (fromIndex < items.size()) {
+            int toIndex = Math.min(fromIndex + this.chunkSize, items.size());
+            while (toIndex < items.size() && job.entityId(items.get(toIndex - 1)).equals(job.entityId(items.get(toIndex)))) {
+                toIndex++;
+            }
+            final List<T> chunk = items.subList(fromIndex, toIndex);
+            chunks.add(this.workers.submit(() -> {
+                ThreadLocalContextUtil.setTenant(tenant);
+                SecurityContextHolder.setContext(securityContext);
+                final JobRunTelemetry.Worker worker = telemetry == null ? null : telemetry.attachWorker();
+                final long startNanos = System.nanoTime();
+                try {
+                    return processChunk(job, chunk, state, telemetry);
+                } finally {
+                    final long chunkNanos = System.nanoTime() - startNanos;
+                    chunkTimer.record(chunkNanos, TimeUnit.NANOSECONDS);
+                    if (worker != null) {
+                        telemetry.chunkCompleted(chunkNanos);
+                        worker.close();
+                    }
+                    SecurityContextHolder.clearContext();
+                    ThreadLocalContextUtil.clearTenant();
+                }
+            }));
+            fromIndex = toIndex;
+        }
+
+        final List<Throwable> failures = new ArrayList<>();
+        int processed = 0;
+        boolean committed = true;
+        boolean skippedAny = false;
+        for (final Future<ChunkOutcome> chunk : chunks) {
+            try {
+                final ChunkOutcome outcome = chunk.get();
+                failures.addAll(outcome.failures);
+                processed += outcome.processed;
+                if (committed && outcome.committed) {
+                    if (checkpointed) {
+                        saveCheckpoint(jobName, runScope, businessDate, outcome);
+                    }
+                    skippedAny |= !outcome.failedEntityIds.isEmpty();
+                } else {
+                    committed = false;
+                }
+            } catch (ExecutionException e) {
+                LOG.error("{}: A chunk of {} failed", tenant.getName(), job.getJobName(), e.getCause());
+                failures.add(e.getCause());
+                committed = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                state.aborted = true;
+                failures.add(e);
+                committed = false;
+                break;
+            }
+        }
+        if (checkpointed && committed && !skippedAny) {
+            deleteCheckpoint(jobName, runScope);
+        }
+
+        LOG.info("{}: Records affected by {}: {}", tenant.getName(), job.getJobName(), processed);
+        if (!failures.isEmpty()) {
+            throw new JobExecutionException(failures);
+        }
+    }
+
+    private <T, R> ChunkOutcome processChunk(final PerEntityJob<T, R> job, final List<T> chunk, final RunState state,
+            final JobRunTelemetry telemetry) {
+        final ChunkOutcome outcome = new ChunkOutcome(job.entityId(chunk.get(0)), job.entityId(chunk.get(chunk.size() - 1)));
+        final List<R> results = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            final T item = chunk.get(i);
+            if (state.aborted) {
+                if (telemetry != null) {
+                    telemetry.itemsSkipped(chunk.size() - i);
+                }
+                return outcome;
+            }
+            try {
+                final R result = processWithRetries(job, item);
+                if (result != null) {
+                    results.add(result);
+                }
+                outcome.processed++;
+                if (telemetry != null) {
+                    telemetry.itemProcessed();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                state.aborted = true;
+                outcome.failures.add(e);
+                return outcome;
+            } catch (RuntimeException e) {
+                logFailure(job, item, e);
+                outcome.failures.add(e);
+                outcome.failedEntityIds.add(job.entityId(item));
+                if (telemetry != null) {
+                    telemetry.itemFailed();
+                }
+                if (this.skipLimit > 0 && state.skipped.incrementAndGet() > this.skipLimit) {
+                    LOG.error("{} stopped after skipping more than {} items", job.getJobName(), this.skipLimit);
+                    state.aborted = true;
+                    return outcome;
+                }
+            }
+        }
+        if (!results.isEmpty()) {
+            try {
+                this.transactionTemplate.executeWithoutResult(status -> job.write(results));
+            } catch (RuntimeException e) {
+                LOG.error("{} failed to write the chunk ending with entity {}", job.getJobName(), outcome.lastEntityId, e);
+                outcome.failures.add(e);
+                return outcome;
+            }
+        }
+        outcome.committed = true;
+        return outcome;
+    }
+
+    private <T, R> R processWithRetries(final PerEntityJob<T, R> job, final T item) throws InterruptedException {
+        final FineractPlatformTenantConnection connection = ThreadLocalContextUtil.getTenant().getConnection();
+        int numberOfRetries = 0;
+        while (true) {
+            try {
+                return job.process(item);
+            } catch (CannotAcquireLockException | ObjectOptimisticLockingFailureException exception) {
+                if (numberOfRetries >= connection.getMaxRetriesOnDeadlock()) {
+                    throw exception;
+                }
+                numberOfRetries++;
+                LOG.info("{} for {} has been retried {} time(s)", job.getJobName(), job.describe(item), numberOfRetries);
+                final int randomNum = ThreadLocalRandom.current().nextInt(connection.getMaxIntervalBetweenRetries() + 1);
+                Thread.sleep(1000 + (randomNum * 1000L));
+            }
+        }
+    }
+
+    private <T> void logFailure(final PerEntityJob<T, ?> job, final T item, final RuntimeException e) {
+        if (e instanceof PlatformApiDataValidationException) {
+            for (final ApiParameterError error : ((PlatformApiDataValidationException) e).getErrors()) {
+                LOG.error("{} failed for {} with message {}", job.getJobName(), job.describe(item), error.getDeveloperMessage());
+            }
+        } else {
+            LOG.error("{} failed for {}", job.getJobName(), job.describe(item), e);
+        }
+    }
+
+    private Long retrieveCheckpoint(final String jobName, final String runScope, final LocalDate businessDate) {
+        final List<Long> entityIds = this.jdbcTemplate.queryForList(
+                "select last_entity_id from m_job_checkpoint where job_name = ? and run_scope = ? and business_date = ?", Long.class,
+                jobName, runScope, businessDate);
+        return entityIds.isEmpty() ? null : entityIds.get(0);
+    }
+
+    private Set<Long> retrieveFailedEntityIds(final String jobName, final String runScope, final LocalDate businessDate) {
+        return new HashSet<>(this.jdbcTemplate.queryForList(
+                "select entity_id from m_job_checkpoint_failure where job_name = ? and run_scope = ? and business_date = ?", Long.class,
+                jobName, runScope, businessDate));
+    }
+
+    /**
+     * Moves the checkpoint to the end of a committed chunk and replaces the skipped entities recorded for its range, which
+     * covers the entities it retried, with the ones it skipped this time.
+     */
+    private void saveCheckpoint(final String jobName, final String runScope, final LocalDate businessDate, final ChunkOutcome outcome) {
+        this.transactionTemplate.executeWithoutResult(status -> {
+            this.jdbcTemplate.update(
+                    "delete from m_job_checkpoint_failure where job_name = ? and run_scope = ? and entity_id between ? and ?", jobName,
+                    runScope, outcome.firstEntityId, outcome.lastEntityId);
+            for (final Long entityId : outcome.failedEntityIds) {
+                this.jdbcTemplate.update("insert ignore into m_job_checkpoint_failure (job_name, run_scope, business_date, entity_id,"
+                        + " failed_on) values (?, ?, ?, ?, now())", jobName, runScope, businessDate, entityId);
+            }
+            this.jdbcTemplate.update("insert into m_job_checkpoint (job_name, run_scope, business_date, last_entity_id, updated_on)"
+                    + " values (?, ?, ?, ?, now()) on duplicate key update business_date = values(business_date),"
+                    + " last_entity_id = values(last_entity_id), updated_on = values(updated_on)", jobName, runScope, businessDate,
+                    outcome.lastEntityId);
+        });
+    }
+
+    private void deleteCheckpoint(final String jobName, final String runScope) {
+        this.jdbcTemplate.update("delete from m_job_checkpoint_failure where job_name = ? and run_scope = ?", jobName, runScope);
+        this.jdbcTemplate.update("delete from m_job_checkpoint where job_name = ? and run_scope = ?", jobName, runScope);
+    }
+
+    private static final class RunState {
+
+        private final AtomicInteger skipped = new AtomicInteger();
+        private volatile boolean aborted;
+    }
+
+    private static final class ChunkOutcome {
+
+        private final Long firstEntityId;
+        private final Long lastEntityId;
+        private final List<Throwable> failures = new ArrayList<>();
+        private final Set<Long> failedEntityIds = new HashSet<>();
+        private int processed;
+        private boolean committed;
+
+        ChunkOutcome(final Long firstEntityId, final Long lastEntityId) {
+            this.firstEntityId = firstEntityId;
+            this.lastEntityId = lastEntityId;
+        }
+    }
+}
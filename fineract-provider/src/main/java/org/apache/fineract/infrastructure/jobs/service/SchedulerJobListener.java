@@ -18,7 +18,11 @@
  */
 package org.apache.fineract.infrastructure.jobs.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobDetail;
 import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobRunHistory;
@@ -40,6 +44,8 @@ import org.springframework.stereotype.Component;
  * Global job Listener class to set Tenant details to {@link ThreadLocalContextUtil} for batch Job and stores the batch
  * job status to database after the execution
  *
+ * Each run is tracked with a {@link JobRunTelemetry}, which is stored with the run history and published as the
+ * fineract.jobs.* meters tagged with the job and tenant.
  */
 @Component
 public class SchedulerJobListener implements JobListener {
@@ -52,12 +58,16 @@ public class SchedulerJobListener implements JobListener {
 
     private final AppUserRepositoryWrapper userRepository;
 
+    private final MeterRegistry meterRegistry;
+
     private final GrantedAuthoritiesMapper authoritiesMapper = new NullAuthoritiesMapper();
 
     @Autowired
-    public SchedulerJobListener(final SchedularWritePlatformService schedularService, final AppUserRepositoryWrapper userRepository) {
+    public SchedulerJobListener(final SchedularWritePlatformService schedularService, final AppUserRepositoryWrapper userRepository,
+            final MeterRegistry meterRegistry) {
         this.schedularService = schedularService;
         this.userRepository = userRepository;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -71,6 +81,7 @@ public class SchedulerJobListener implements JobListener {
         UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(user, user.getPassword(),
                 authoritiesMapper.mapAuthorities(user.getAuthorities()));
         SecurityContextHolder.getContext().setAuthentication(auth);
+        JobRunTelemetry.start();
     }
 
     @Override
@@ -80,6 +91,7 @@ public class SchedulerJobListener implements JobListener {
 
     @Override
     public void jobWasExecuted(final JobExecutionContext context, final JobExecutionException jobException) {
+        final JobRunTelemetry telemetry = JobRunTelemetry.finish();
         final Trigger trigger = context.getTrigger();
         final JobKey key = context.getJobDetail().getKey();
         final String jobKey = key.getName() + SchedulerServiceConstants.JOB_KEY_SEPERATOR + key.getGroup();
@@ -116,14 +128,33 @@ public class SchedulerJobListener implements JobListener {
         scheduledJobDetails.updatePreviousRunStartTime(context.getFireTime());
         scheduledJobDetails.updateCurrentlyRunningStatus(false);
 
+        final Date endTime = new Date();
         final ScheduledJobRunHistory runHistory = new ScheduledJobRunHistory(scheduledJobDetails, version, context.getFireTime(),
-                new Date(), status, errorMessage, triggerType, errorLog);
+                endTime, status, errorMessage, triggerType, errorLog);
         // scheduledJobDetails.addRunHistory(runHistory);
+        if (telemetry != null) {
+            runHistory.recordTelemetry(telemetry);
+            publishTelemetry(scheduledJobDetails.getJobName(), status, endTime.getTime() - context.getFireTime().getTime(), telemetry);
+        }
 
         this.schedularService.saveOrUpdate(scheduledJobDetails, runHistory);
 
     }
 
+    private void publishTelemetry(final String jobName, final String status, final long durationMillis, final JobRunTelemetry telemetry) {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final Tags tags = Tags.of("job", jobName, "tenant", tenant == null ? "" : tenant.getTenantIdentifier());
+        this.meterRegistry.timer("fineract.jobs.run", tags.and("status", status)).record(durationMillis, TimeUnit.MILLISECONDS);
+        this.meterRegistry.timer("fineract.jobs.database", tags).record(telemetry.getDatabaseNanos(), TimeUnit.NANOSECONDS);
+        this.meterRegistry.timer("fineract.jobs.cpu", tags).record(telemetry.getCpuNanos(), TimeUnit.NANOSECONDS);
+        if (telemetry.hasItems()) {
+            this.meterRegistry.counter("fineract.jobs.items", tags.and("outcome", "read")).increment(telemetry.getItemsRead());
+            this.meterRegistry.counter("fineract.jobs.items", tags.and("outcome", "processed")).increment(telemetry.getItemsProcessed());
+            this.meterRegistry.counter("fineract.jobs.items", tags.and("outcome", "failed")).increment(telemetry.getItemsFailed());
+            this.meterRegistry.counter("fineract.jobs.items", tags.and("outcome", "skipped")).increment(telemetry.getItemsSkipped());
+        }
+    }
+
     private Throwable getCauseFromException(final Throwable exception) {
         if (this.stackTraceLevel <= SchedulerServiceConstants.STACK_TRACE_LEVEL && exception.getCause() != null
                 && (exception.getCause().toString().contains(SchedulerServiceConstants.SCHEDULER_EXCEPTION)
@@ -22,12 +22,14 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Date;
 import java.util.List;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.infrastructure.jobs.data.JobDetailData;
 import org.apache.fineract.infrastructure.jobs.data.JobDetailHistoryData;
+import org.apache.fineract.infrastructure.jobs.data.JobRunTelemetryData;
 import org.apache.fineract.infrastructure.jobs.exception.JobNotFoundException;
 import org.apache.fineract.infrastructure.jobs.exception.OperationNotAllowedException;
 import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
@@ -174,6 +176,11 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
 
         private final StringBuilder sqlBuilder = new StringBuilder(200).append(
                 " runHistory.version,runHistory.start_time as runStartTime,runHistory.end_time as runEndTime,runHistory.`status`,runHistory.error_message as jobRunErrorMessage,runHistory.trigger_type as triggerType,runHistory.error_log as jobRunErrorLog ")
+                .append(", runHistory.items_read as itemsRead, runHistory.items_processed as itemsProcessed,")
+                .append(" runHistory.items_failed as itemsFailed, runHistory.items_skipped as itemsSkipped, runHistory.chunks,")
+                .append(" runHistory.chunk_median_millis as chunkMedianMillis, runHistory.chunk_p95_millis as chunkP95Millis,")
+                .append(" runHistory.chunk_max_millis as chunkMaxMillis, runHistory.database_time_millis as databaseTimeMillis,")
+                .append(" runHistory.cpu_time_millis as cpuTimeMillis")
                 .append(" from job job join job_run_history runHistory ON job.id=runHistory.job_id");
 
         public String schema() {
@@ -189,8 +196,17 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
             final String jobRunErrorMessage = rs.getString("jobRunErrorMessage");
             final String triggerType = rs.getString("triggerType");
             final String jobRunErrorLog = rs.getString("jobRunErrorLog");
+            final Long databaseTimeMillis = JdbcSupport.getLong(rs, "databaseTimeMillis");
+            JobRunTelemetryData telemetry = null;
+            if (databaseTimeMillis != null) {
+                telemetry = new JobRunTelemetryData(JdbcSupport.getLong(rs, "itemsRead"), JdbcSupport.getLong(rs, "itemsProcessed"),
+                        JdbcSupport.getLong(rs, "itemsFailed"), JdbcSupport.getLong(rs, "itemsSkipped"),
+                        JdbcSupport.getInteger(rs, "chunks"), JdbcSupport.getLong(rs, "chunkMedianMillis"),
+                        JdbcSupport.getLong(rs, "chunkP95Millis"), JdbcSupport.getLong(rs, "chunkMaxMillis"), databaseTimeMillis,
+                        JdbcSupport.getLong(rs, "cpuTimeMillis"));
+            }
             final JobDetailHistoryData jobDetailHistory = new JobDetailHistoryData(version, jobRunStartTime, jobRunEndTime, status,
-                    jobRunErrorMessage, triggerType, jobRunErrorLog);
+                    jobRunErrorMessage, triggerType, jobRunErrorLog, telemetry);
             return jobDetailHistory;
         }
 
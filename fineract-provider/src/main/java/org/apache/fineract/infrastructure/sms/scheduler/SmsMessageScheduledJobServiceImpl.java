@@ -18,22 +18,34 @@
  */
 package org.apache.fineract.infrastructure.sms.scheduler;
 
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.RateLimiter;
 import com.google.gson.Gson;
 import java.net.URI;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
 import org.apache.fineract.infrastructure.campaigns.helper.SmsConfigUtils;
 import org.apache.fineract.infrastructure.campaigns.sms.constants.SmsCampaignConstants;
 import org.apache.fineract.infrastructure.campaigns.sms.domain.SmsCampaign;
 import org.apache.fineract.infrastructure.campaigns.sms.exception.ConnectionFailureException;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
-import org.apache.fineract.infrastructure.core.service.Page;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.gcm.service.NotificationSenderService;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
@@ -43,111 +55,247 @@ import org.apache.fineract.infrastructure.sms.data.SmsMessageDeliveryReportData;
 import org.apache.fineract.infrastructure.sms.domain.SmsMessage;
 import org.apache.fineract.infrastructure.sms.domain.SmsMessageRepository;
 import org.apache.fineract.infrastructure.sms.domain.SmsMessageStatusType;
-import org.apache.fineract.infrastructure.sms.service.SmsReadPlatformService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
 /**
  * Scheduled job services that send SMS messages and get delivery reports for the sent SMS messages
  **/
 @Service
-public class SmsMessageScheduledJobServiceImpl implements SmsMessageScheduledJobService {
+public class SmsMessageScheduledJobServiceImpl implements SmsMessageScheduledJobService, ApplicationListener<ContextClosedEvent> {
 
-    private final SmsMessageRepository smsMessageRepository;
-    private final SmsReadPlatformService smsReadPlatformService;
     private static final Logger LOG = LoggerFactory.getLogger(SmsMessageScheduledJobServiceImpl.class);
+    private static final int DISPATCH_BATCH_SIZE = 5000;
+    private static final int GATEWAY_REQUEST_SIZE = 500;
+    private static final int GATEWAY_CONNECTIONS = 4;
+    private static final int DELIVERY_REPORT_BATCH_SIZE = 1000;
+    private static final int STALE_CLAIM_MINUTES = 30;
+    private static final String PROVIDER_RATE_LIMIT_PROPERTYNAME = "fineract_sms_provider_rate_limit";
+    private static final double DEFAULT_PROVIDER_RATE_LIMIT = 100;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final SmsMessageRepository smsMessageRepository;
     private final RestTemplate restTemplate = new RestTemplate();
-    private ExecutorService genericExecutorService;
     private ExecutorService triggeredExecutorService;
+    private ExecutorService gatewayExecutorService;
     private final SmsConfigUtils smsConfigUtils;
     private final NotificationSenderService notificationSenderService;
+    private final JdbcTemplate jdbcTemplate;
+    private final Environment environment;
+    private final Map<Long, RateLimiter> providerRateLimiters = new ConcurrentHashMap<>();
+    // messages per second sent to the gateway for each provider
+    private double providerRateLimit;
 
     /**
      * SmsMessageScheduledJobServiceImpl constructor
      **/
     @Autowired
-    public SmsMessageScheduledJobServiceImpl(SmsMessageRepository smsMessageRepository, SmsReadPlatformService smsReadPlatformService,
-            final SmsConfigUtils smsConfigUtils, final NotificationSenderService notificationSenderService) {
+    public SmsMessageScheduledJobServiceImpl(SmsMessageRepository smsMessageRepository, final SmsConfigUtils smsConfigUtils,
+            final NotificationSenderService notificationSenderService, final RoutingDataSource dataSource, final Environment environment) {
+        this(smsMessageRepository, smsConfigUtils, notificationSenderService, new JdbcTemplate(dataSource), environment);
+    }
+
+    SmsMessageScheduledJobServiceImpl(final SmsMessageRepository smsMessageRepository, final SmsConfigUtils smsConfigUtils,
+            final NotificationSenderService notificationSenderService, final JdbcTemplate jdbcTemplate, final Environment environment) {
         this.smsMessageRepository = smsMessageRepository;
-        this.smsReadPlatformService = smsReadPlatformService;
         this.smsConfigUtils = smsConfigUtils;
         this.notificationSenderService = notificationSenderService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.environment = environment;
     }
 
     @PostConstruct
     public void initializeExecutorService() {
-        genericExecutorService = Executors.newSingleThreadExecutor();
         triggeredExecutorService = Executors.newSingleThreadExecutor();
+        gatewayExecutorService = Executors.newFixedThreadPool(GATEWAY_CONNECTIONS);
+        providerRateLimit = environment.getProperty(PROVIDER_RATE_LIMIT_PROPERTYNAME, Double.class, DEFAULT_PROVIDER_RATE_LIMIT);
+    }
+
+    /**
+     * Lets the messages already handed to the executors reach the gateway before the application goes down; whatever
+     * is still running after the timeout is picked up again by the scheduled job after the restart.
+     */
+    @Override
+    public void onApplicationEvent(final ContextClosedEvent event) {
+        triggeredExecutorService.shutdown();
+        gatewayExecutorService.shutdown();
+        LOG.info("Shutting down the ExecutorService");
+        try {
+            if (!triggeredExecutorService.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    || !gatewayExecutorService.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOG.warn("SMS messages were still being sent after {} seconds, leaving them to the next run", SHUTDOWN_TIMEOUT_SECONDS);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
      * Send batches of SMS messages to the SMS gateway (or intermediate gateway)
+     *
+     * Pending messages are claimed in large batches with a single update, split per provider into gateway requests that
+     * are sent over several connections in parallel, throttled per provider, and marked as sent with set-based updates.
+     * Messages of a request the gateway did not accept are released and picked up again by the next run.
      **/
     @Override
-    @Transactional
     @CronTarget(jobName = JobName.SEND_MESSAGES_TO_SMS_GATEWAY)
     public void sendMessagesToGateway() {
-        Integer pageLimit = 200;
-        Integer page = 0;
-        int totalRecords = 0;
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        long lastClaimedId = 0;
+        List<PendingSmsMessage> pendingMessages;
         do {
-            PageRequest pageRequest = PageRequest.of(0, pageLimit);
-            org.springframework.data.domain.Page<SmsMessage> pendingMessages = this.smsMessageRepository
-                    .findByStatusType(SmsMessageStatusType.PENDING.getValue(), pageRequest);
-            List<SmsMessage> toSaveMessages = new ArrayList<>();
-            List<SmsMessage> toSendNotificationMessages = new ArrayList<>();
-            try {
+            pendingMessages = claimPendingMessages(lastClaimedId);
+            if (!pendingMessages.isEmpty()) {
+                lastClaimedId = pendingMessages.get(pendingMessages.size() - 1).id;
+                dispatchToGateway(tenant, pendingMessages);
+            }
+        } while (pendingMessages.size() == DISPATCH_BATCH_SIZE);
+    }
 
-                if (pendingMessages.getContent().size() > 0) {
-                    final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
-                    Iterator<SmsMessage> pendingMessageIterator = pendingMessages.iterator();
-                    Collection<SmsMessageApiQueueResourceData> apiQueueResourceDatas = new ArrayList<>();
-                    while (pendingMessageIterator.hasNext()) {
-                        SmsMessage smsData = pendingMessageIterator.next();
-                        if (smsData.isNotification()) {
-                            smsData.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
-                            toSendNotificationMessages.add(smsData);
-                        } else {
-                            SmsMessageApiQueueResourceData apiQueueResourceData = SmsMessageApiQueueResourceData.instance(smsData.getId(),
-                                    tenantIdentifier, null, null, smsData.getMobileNo(), smsData.getMessage(),
-                                    smsData.getSmsCampaign().getProviderId());
-                            apiQueueResourceDatas.add(apiQueueResourceData);
-                            smsData.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
-                            toSaveMessages.add(smsData);
-                        }
-                    }
-                    if (toSaveMessages.size() > 0) {
-                        this.smsMessageRepository.saveAll(toSaveMessages);
-                        this.smsMessageRepository.flush();
-                        this.genericExecutorService.execute(new SmsTask(ThreadLocalContextUtil.getTenant(), apiQueueResourceDatas));
-                    }
-                    if (!toSendNotificationMessages.isEmpty()) {
-                        this.notificationSenderService.sendNotification(toSendNotificationMessages);
-                    }
-                    // new MyThread(ThreadLocalContextUtil.getTenant(),
-                    // apiQueueResourceDatas).start();
-                }
-            } catch (Exception e) {
-                throw new ConnectionFailureException(SmsCampaignConstants.SMS, e);
+    private List<PendingSmsMessage> claimPendingMessages(final long afterId) {
+        final String dispatchToken = UUID.randomUUID().toString();
+        final int claimed = this.jdbcTemplate.update("update sms_messages_outbound set dispatch_token = ?, dispatch_claimed_on = now()"
+                + " where status_enum = ? and id > ? and (dispatch_token is null or dispatch_claimed_on < date_sub(now(), interval "
+                + STALE_CLAIM_MINUTES + " minute)) order by id limit " + DISPATCH_BATCH_SIZE, dispatchToken,
+                SmsMessageStatusType.PENDING.getValue(), afterId);
+        if (claimed == 0) {
+            return Collections.emptyList();
+        }
+        final PendingSmsMessageMapper mapper = new PendingSmsMessageMapper();
+        return this.jdbcTemplate.query(mapper.schema(), mapper, dispatchToken);
+    }
+
+    private void dispatchToGateway(final FineractPlatformTenant tenant, final List<PendingSmsMessage> pendingMessages) {
+        final List<Long> notificationIds = new ArrayList<>();
+        final List<Long> withoutProviderIds = new ArrayList<>();
+        final Map<Long, List<SmsMessageApiQueueResourceData>> messagesByProvider = new LinkedHashMap<>();
+        for (final PendingSmsMessage pendingMessage : pendingMessages) {
+            if (pendingMessage.isNotification) {
+                notificationIds.add(pendingMessage.id);
+            } else if (pendingMessage.providerId == null) {
+                withoutProviderIds.add(pendingMessage.id);
+            } else {
+                messagesByProvider.computeIfAbsent(pendingMessage.providerId, providerId -> new ArrayList<>())
+                        .add(SmsMessageApiQueueResourceData.instance(pendingMessage.id, tenant.getTenantIdentifier(), null, null,
+                                pendingMessage.mobileNo, pendingMessage.message, pendingMessage.providerId));
+            }
+        }
+
+        if (!withoutProviderIds.isEmpty()) {
+            // the provider may still be configured for the campaign, the messages are retried on the next run
+            LOG.warn("{} SMS message(s) have no provider to be sent through and are left pending", withoutProviderIds.size());
+            releaseClaim(withoutProviderIds);
+        }
+
+        final List<Future<?>> submissions = new ArrayList<>();
+        for (final Map.Entry<Long, List<SmsMessageApiQueueResourceData>> entry : messagesByProvider.entrySet()) {
+            for (final List<SmsMessageApiQueueResourceData> request : Lists.partition(entry.getValue(), GATEWAY_REQUEST_SIZE)) {
+                submissions.add(this.gatewayExecutorService.submit(() -> sendToGateway(tenant, entry.getKey(), request)));
+            }
+        }
+
+        if (!notificationIds.isEmpty()) {
+            updateStatus(notificationIds, SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT);
+            this.notificationSenderService.sendNotification(this.smsMessageRepository.findAllById(notificationIds));
+        }
+
+        for (final Future<?> submission : submissions) {
+            try {
+                submission.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final ExecutionException e) {
+                LOG.error("Sending SMS messages to the gateway failed", e.getCause());
             }
-            page++;
-            totalRecords = pendingMessages.getTotalPages();
-        } while (page < totalRecords);
+        }
     }
 
-    class SmsTask implements Runnable, ApplicationListener<ContextClosedEvent> {
+    private void sendToGateway(final FineractPlatformTenant tenant, final Long providerId,
+            final List<SmsMessageApiQueueResourceData> apiQueueResourceDatas) {
+        ThreadLocalContextUtil.setTenant(tenant);
+        final List<Long> smsMessageIds = new ArrayList<>();
+        for (final SmsMessageApiQueueResourceData apiQueueResourceData : apiQueueResourceDatas) {
+            smsMessageIds.add(apiQueueResourceData.getInternalId());
+        }
+        try {
+            this.providerRateLimiters.computeIfAbsent(providerId, id -> RateLimiter.create(this.providerRateLimit))
+                    .acquire(apiQueueResourceDatas.size());
+            connectAndSendToIntermediateServer(apiQueueResourceDatas);
+            updateStatus(smsMessageIds, SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT);
+        } catch (final RuntimeException e) {
+            LOG.error("{} SMS message(s) of provider {} were not accepted by the gateway and are retried on the next run",
+                    smsMessageIds.size(), providerId, e);
+            releaseClaim(smsMessageIds);
+        } finally {
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+
+    private void releaseClaim(final List<Long> smsMessageIds) {
+        this.jdbcTemplate.update("update sms_messages_outbound set dispatch_token = null where id in (" + placeholders(smsMessageIds) + ")",
+                smsMessageIds.toArray());
+    }
+
+    private void updateStatus(final List<Long> smsMessageIds, final SmsMessageStatusType statusType) {
+        final List<Object> params = new ArrayList<>();
+        params.add(statusType.getValue());
+        params.addAll(smsMessageIds);
+        this.jdbcTemplate.update("update sms_messages_outbound set status_enum = ?, dispatch_token = null where id in ("
+                + placeholders(smsMessageIds) + ")", params.toArray());
+    }
+
+    private static String placeholders(final List<Long> ids) {
+        return String.join(", ", Collections.nCopies(ids.size(), "?"));
+    }
+
+    static final class PendingSmsMessage {
+
+        private final Long id;
+        private final String mobileNo;
+        private final String message;
+        private final boolean isNotification;
+        private final Long providerId;
+
+        PendingSmsMessage(final Long id, final String mobileNo, final String message, final boolean isNotification,
+                final Long providerId) {
+            this.id = id;
+            this.mobileNo = mobileNo;
+            this.message = message;
+            this.isNotification = isNotification;
+            this.providerId = providerId;
+        }
+    }
+
+    private static final class PendingSmsMessageMapper implements RowMapper<PendingSmsMessage> {
+
+        public String schema() {
+            return "select smo.id as id, smo.mobile_no as mobileNo, smo.message as message, smo.is_notification as isNotification,"
+                    + " sc.provider_id as providerId from sms_messages_outbound smo left join sms_campaign sc on sc.id = smo.campaign_id"
+                    + " where smo.dispatch_token = ? order by smo.id";
+        }
+
+        @Override
+        public PendingSmsMessage mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new PendingSmsMessage(rs.getLong("id"), rs.getString("mobileNo"), rs.getString("message"),
+                    rs.getBoolean("isNotification"), JdbcSupport.getLong(rs, "providerId"));
+        }
+    }
+
+    class SmsTask implements Runnable {
 
         private final FineractPlatformTenant tenant;
         private final Collection<SmsMessageApiQueueResourceData> apiQueueResourceDatas;
@@ -160,13 +308,25 @@ public class SmsMessageScheduledJobServiceImpl implements SmsMessageScheduledJob
         @Override
         public void run() {
             ThreadLocalContextUtil.setTenant(tenant);
-            connectAndSendToIntermediateServer(apiQueueResourceDatas);
-        }
-
-        @Override
-        public void onApplicationEvent(ContextClosedEvent event) {
-            genericExecutorService.shutdown();
-            LOG.info("Shutting down the ExecutorService");
+            try {
+                connectAndSendToIntermediateServer(apiQueueResourceDatas);
+            } catch (final RuntimeException e) {
+                // the gateway did not take the messages, they go back to pending for the scheduled job to send
+                final List<Long> smsMessageIds = new ArrayList<>();
+                for (final SmsMessageApiQueueResourceData apiQueueResourceData : apiQueueResourceDatas) {
+                    smsMessageIds.add(apiQueueResourceData.getInternalId());
+                }
+                LOG.error("{} triggered SMS message(s) were not accepted by the gateway and are retried on the next run",
+                        smsMessageIds.size(), e);
+                final List<Object> params = new ArrayList<>();
+                params.add(SmsMessageStatusType.PENDING.getValue());
+                params.add(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
+                params.addAll(smsMessageIds);
+                jdbcTemplate.update("update sms_messages_outbound set status_enum = ? where status_enum = ? and id in ("
+                        + placeholders(smsMessageIds) + ")", params.toArray());
+            } finally {
+                ThreadLocalContextUtil.clearTenant();
+            }
         }
     }
 
@@ -190,21 +350,22 @@ public class SmsMessageScheduledJobServiceImpl implements SmsMessageScheduledJob
     public void sendTriggeredMessages(Map<SmsCampaign, Collection<SmsMessage>> smsDataMap) {
         try {
             if (!smsDataMap.isEmpty()) {
-                List<SmsMessage> toSaveMessages = new ArrayList<>();
-                List<SmsMessage> toSendNotificationMessages = new ArrayList<>();
                 for (Map.Entry<SmsCampaign, Collection<SmsMessage>> entry : smsDataMap.entrySet()) {
+                    List<SmsMessage> toSaveMessages = new ArrayList<>();
+                    List<SmsMessage> toSendNotificationMessages = new ArrayList<>();
                     Iterator<SmsMessage> smsMessageIterator = entry.getValue().iterator();
                     Collection<SmsMessageApiQueueResourceData> apiQueueResourceDatas = new ArrayList<>();
-                    StringBuilder request = new StringBuilder();
+                    final Long providerId = entry.getKey().getProviderId();
                     while (smsMessageIterator.hasNext()) {
                         SmsMessage smsMessage = smsMessageIterator.next();
                         if (smsMessage.isNotification()) {
                             smsMessage.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
                             toSendNotificationMessages.add(smsMessage);
-                        } else {
+                        } else if (providerId != null) {
+                            // without a provider the message is left pending, like the scheduled job does, so that it is
+                            // sent once the campaign has one
                             SmsMessageApiQueueResourceData apiQueueResourceData = SmsMessageApiQueueResourceData.instance(
-                                    smsMessage.getId(), null, null, null, smsMessage.getMobileNo(), smsMessage.getMessage(),
-                                    entry.getKey().getProviderId());
+                                    smsMessage.getId(), null, null, null, smsMessage.getMobileNo(), smsMessage.getMessage(), providerId);
                             apiQueueResourceDatas.add(apiQueueResourceData);
                             smsMessage.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
                             toSaveMessages.add(smsMessage);
@@ -230,7 +391,6 @@ public class SmsMessageScheduledJobServiceImpl implements SmsMessageScheduledJob
     public void sendTriggeredMessage(Collection<SmsMessage> smsMessages, long providerId) {
         try {
             Collection<SmsMessageApiQueueResourceData> apiQueueResourceDatas = new ArrayList<>();
-            StringBuilder request = new StringBuilder();
             for (SmsMessage smsMessage : smsMessages) {
                 SmsMessageApiQueueResourceData apiQueueResourceData = SmsMessageApiQueueResourceData.instance(smsMessage.getId(), null,
                         null, null, smsMessage.getMobileNo(), smsMessage.getMessage(), providerId);
@@ -238,8 +398,7 @@ public class SmsMessageScheduledJobServiceImpl implements SmsMessageScheduledJob
                 smsMessage.setStatusType(SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue());
             }
             this.smsMessageRepository.saveAll(smsMessages);
-            request.append(SmsMessageApiQueueResourceData.toJsonString(apiQueueResourceDatas));
-            LOG.info("Sending triggered SMS to specific provider with request - {}", request);
+            LOG.info("Sending {} triggered SMS message(s) to provider {}", apiQueueResourceDatas.size(), providerId);
             this.triggeredExecutorService.execute(new SmsTask(ThreadLocalContextUtil.getTenant(), apiQueueResourceDatas));
         } catch (Exception e) {
             LOG.error("Error occured.", e);
@@ -248,90 +407,60 @@ public class SmsMessageScheduledJobServiceImpl implements SmsMessageScheduledJob
 
     /**
      * get SMS message delivery reports from the SMS gateway (or intermediate gateway)
+     *
+     * Messages waiting for a report are walked through once in id order, and the reports of each batch are applied
+     * with a single batched update.
      **/
     @Override
-    @Transactional
     @CronTarget(jobName = JobName.GET_DELIVERY_REPORTS_FROM_SMS_GATEWAY)
     public void getDeliveryReports() {
-        int page = 0;
-        int totalRecords = 0;
-        Integer limit = 200;
+        long lastRequestedId = 0;
+        List<Long> smsMessageInternalIds;
         do {
-            Page<Long> smsMessageInternalIds = this.smsReadPlatformService.retrieveAllWaitingForDeliveryReport(limit);
-            // only proceed if there are sms message with status type enum 300
+            smsMessageInternalIds = this.jdbcTemplate.queryForList("select id from sms_messages_outbound where status_enum = ? and id > ?"
+                    + " order by id limit " + DELIVERY_REPORT_BATCH_SIZE, Long.class,
+                    SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue(), lastRequestedId);
+            if (smsMessageInternalIds.isEmpty()) {
+                return;
+            }
+            lastRequestedId = smsMessageInternalIds.get(smsMessageInternalIds.size() - 1);
             try {
+                // make request
+                Map<String, Object> hostConfig = this.smsConfigUtils.getMessageGateWayRequestURI("sms/report",
+                        new Gson().toJson(smsMessageInternalIds));
+                URI uri = (URI) hostConfig.get("uri");
+                HttpEntity<?> entity = (HttpEntity<?>) hostConfig.get("entity");
+                ResponseEntity<Collection<SmsMessageDeliveryReportData>> responseOne = restTemplate.exchange(uri, HttpMethod.POST, entity,
+                        new ParameterizedTypeReference<Collection<SmsMessageDeliveryReportData>>() {});
 
-                if (smsMessageInternalIds.getPageItems().size() > 0) {
-                    // make request
-                    Map<String, Object> hostConfig = this.smsConfigUtils.getMessageGateWayRequestURI("sms/report",
-                            new Gson().toJson(smsMessageInternalIds.getPageItems()));
-                    URI uri = (URI) hostConfig.get("uri");
-                    HttpEntity<?> entity = (HttpEntity<?>) hostConfig.get("entity");
-                    ResponseEntity<Collection<SmsMessageDeliveryReportData>> responseOne = restTemplate.exchange(uri, HttpMethod.POST,
-                            entity, new ParameterizedTypeReference<Collection<SmsMessageDeliveryReportData>>() {});
-
-                    Collection<SmsMessageDeliveryReportData> smsMessageDeliveryReportDatas = responseOne.getBody();
-                    Iterator<SmsMessageDeliveryReportData> responseReportIterator = smsMessageDeliveryReportDatas.iterator();
-                    while (responseReportIterator.hasNext()) {
-                        SmsMessageDeliveryReportData smsMessageDeliveryReportData = responseReportIterator.next();
-                        Integer deliveryStatus = smsMessageDeliveryReportData.getDeliveryStatus();
-
-                        if (!smsMessageDeliveryReportData.getHasError() && deliveryStatus != 100) {
-                            SmsMessage smsMessage = this.smsMessageRepository.findById(smsMessageDeliveryReportData.getId()).orElse(null);
-                            Integer statusType = smsMessage.getStatusType();
-
-                            switch (deliveryStatus) {
-                                case 0:
-                                    statusType = SmsMessageStatusType.INVALID.getValue();
-                                break;
-                                case 150:
-                                    statusType = SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue();
-                                break;
-                                case 200:
-                                    statusType = SmsMessageStatusType.SENT.getValue();
-                                break;
-                                case 300:
-                                    statusType = SmsMessageStatusType.DELIVERED.getValue();
-                                break;
-
-                                case 400:
-                                    statusType = SmsMessageStatusType.FAILED.getValue();
-                                break;
-
-                                default:
-                                    statusType = smsMessage.getStatusType();
-                                break;
-                            }
-
-                            boolean statusChanged = !statusType.equals(smsMessage.getStatusType());
-
-                            // update the status Type enum
-                            smsMessage.setStatusType(statusType);
-
-                            // update the externalId
-                            smsMessage.setExternalId(smsMessageDeliveryReportData.getExternalId());
-
-                            // save the SmsMessage entity
-                            this.smsMessageRepository.save(smsMessage);
-
-                            if (statusChanged) {
-                                LOG.info("Status of SMS message id: {} successfully changed to {}", smsMessage.getId(), statusType);
-                            }
-                        }
-                    }
-
-                    if (smsMessageDeliveryReportDatas.size() > 0) {
-                        LOG.info("{} delivery report(s) successfully received from the intermediate gateway - sms",
-                                smsMessageDeliveryReportDatas.size());
+                final Collection<SmsMessageDeliveryReportData> smsMessageDeliveryReportDatas = responseOne.getBody();
+                final List<Object[]> updates = new ArrayList<>();
+                for (final SmsMessageDeliveryReportData smsMessageDeliveryReportData : smsMessageDeliveryReportDatas) {
+                    final Integer deliveryStatus = smsMessageDeliveryReportData.getDeliveryStatus();
+                    if (Boolean.TRUE.equals(smsMessageDeliveryReportData.getHasError()) || deliveryStatus == null
+                            || deliveryStatus == 100) {
+                        continue;
                     }
+                    // unknown statuses leave the status of the message as it is
+                    final boolean knownStatus = deliveryStatus == 0
+                            || !SmsMessageStatusType.INVALID.equals(SmsMessageStatusType.fromInt(deliveryStatus));
+                    updates.add(new Object[] { knownStatus ? deliveryStatus : null, smsMessageDeliveryReportData.getExternalId(),
+                            smsMessageDeliveryReportData.getId() });
+                }
+                if (!updates.isEmpty()) {
+                    this.jdbcTemplate.batchUpdate("update sms_messages_outbound set status_enum = coalesce(?, status_enum),"
+                            + " external_id = ? where id = ?", updates);
                 }
-            }
 
-            catch (Exception e) {
+                if (smsMessageDeliveryReportDatas.size() > 0) {
+                    LOG.info("{} delivery report(s) successfully received from the intermediate gateway - sms",
+                            smsMessageDeliveryReportDatas.size());
+                }
+            } catch (Exception e) {
+                // the gateway is not answering, the remaining reports are requested on the next run
                 LOG.error("Error occured.", e);
+                return;
             }
-            page++;
-            totalRecords = smsMessageInternalIds.getTotalFilteredRecords();
-        } while (page < totalRecords);
+        } while (smsMessageInternalIds.size() == DELIVERY_REPORT_BATCH_SIZE);
     }
 }
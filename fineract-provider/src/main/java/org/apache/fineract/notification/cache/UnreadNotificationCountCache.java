@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unread notification counts of the users of every tenant, so that the check made on each authenticated request (for
+ * the X-Notification-Refresh header) does not go to the database.
+ *
+ * Notifications fanned out or read on this instance adjust the cached counts once committed. Counts are recounted
+ * after {@value #EXPIRY_SECONDS} seconds, which is how notifications written by other instances show up.
+ */
+@Component
+public class UnreadNotificationCountCache {
+
+    private static final long EXPIRY_SECONDS = 60;
+    private static final long MAXIMUM_USERS = 100000;
+
+    private final Cache<String, AtomicInteger> unreadCounts = CacheBuilder.newBuilder()
+            .expireAfterWrite(EXPIRY_SECONDS, TimeUnit.SECONDS).maximumSize(MAXIMUM_USERS).build();
+
+    public int getUnreadCount(final Long appUserId, final Supplier<Integer> counter) {
+        try {
+            return this.unreadCounts.get(key(appUserId), () -> new AtomicInteger(counter.get())).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public void notificationsAdded(final Collection<Long> appUserIds) {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        afterCommit(() -> {
+            for (Long appUserId : appUserIds) {
+                // users without a cached count are counted when they next ask
+                final AtomicInteger unreadCount = this.unreadCounts.getIfPresent(key(tenantIdentifier, appUserId));
+                if (unreadCount != null) {
+                    unreadCount.incrementAndGet();
+                }
+            }
+        });
+    }
+
+    public void notificationsRead(final Long appUserId) {
+        final String key = key(appUserId);
+        afterCommit(() -> this.unreadCounts.put(key, new AtomicInteger()));
+    }
+
+    private static void afterCommit(final Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String key(final Long appUserId) {
+        return key(ThreadLocalContextUtil.getTenant().getTenantIdentifier(), appUserId);
+    }
+
+    private static String key(final String tenantIdentifier, final Long appUserId) {
+        return tenantIdentifier + ":" + appUserId;
+    }
+}
@@ -18,9 +18,6 @@
  */
 package org.apache.fineract.notification.eventandlistener;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.ObjectMessage;
@@ -30,8 +27,6 @@ import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.security.service.BasicAuthTenantDetailsService;
 import org.apache.fineract.notification.data.NotificationData;
 import org.apache.fineract.notification.service.NotificationWritePlatformService;
-import org.apache.fineract.useradministration.domain.AppUser;
-import org.apache.fineract.useradministration.domain.AppUserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jms.listener.SessionAwareMessageListener;
 import org.springframework.stereotype.Service;
@@ -43,14 +38,11 @@ public class NotificationEventListener implements SessionAwareMessageListener {
 
     private final NotificationWritePlatformService notificationWritePlatformService;
 
-    private final AppUserRepository appUserRepository;
-
     @Autowired
     public NotificationEventListener(BasicAuthTenantDetailsService basicAuthTenantDetailsService,
-            NotificationWritePlatformService notificationWritePlatformService, AppUserRepository appUserRepository) {
+            NotificationWritePlatformService notificationWritePlatformService) {
         this.basicAuthTenantDetailsService = basicAuthTenantDetailsService;
         this.notificationWritePlatformService = notificationWritePlatformService;
-        this.appUserRepository = appUserRepository;
     }
 
     @Override
@@ -62,27 +54,7 @@ public class NotificationEventListener implements SessionAwareMessageListener {
                     false);
             ThreadLocalContextUtil.setTenant(tenant);
 
-            Long appUserId = notificationData.getActor();
-
-            List<Long> userIds = notificationData.getUserIds();
-
-            if (notificationData.getOfficeId() != null) {
-                List<Long> tempUserIds = new ArrayList<>(userIds);
-                for (Long userId : tempUserIds) {
-                    AppUser appUser = appUserRepository.findById(userId).get();
-                    if (!Objects.equals(appUser.getOffice().getId(), notificationData.getOfficeId())) {
-                        userIds.remove(userId);
-                    }
-                }
-            }
-
-            if (userIds.contains(appUserId)) {
-                userIds.remove(appUserId);
-            }
-
-            notificationWritePlatformService.notify(userIds, notificationData.getObjectType(), notificationData.getObjectIdentfier(),
-                    notificationData.getAction(), notificationData.getActor(), notificationData.getContent(),
-                    notificationData.isSystemGenerated());
+            notificationWritePlatformService.notify(notificationData);
         }
     }
 }
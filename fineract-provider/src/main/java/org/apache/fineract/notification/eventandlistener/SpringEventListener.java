@@ -18,16 +18,11 @@
  */
 package org.apache.fineract.notification.eventandlistener;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.security.service.BasicAuthTenantDetailsService;
 import org.apache.fineract.notification.data.NotificationData;
 import org.apache.fineract.notification.service.NotificationWritePlatformService;
-import org.apache.fineract.useradministration.domain.AppUser;
-import org.apache.fineract.useradministration.domain.AppUserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationListener;
 import org.springframework.stereotype.Component;
@@ -39,14 +34,11 @@ public class SpringEventListener implements ApplicationListener<SpringEvent> {
 
     private final NotificationWritePlatformService notificationWritePlatformService;
 
-    private final AppUserRepository appUserRepository;
-
     @Autowired
     public SpringEventListener(BasicAuthTenantDetailsService basicAuthTenantDetailsService,
-            NotificationWritePlatformService notificationWritePlatformService, AppUserRepository appUserRepository) {
+            NotificationWritePlatformService notificationWritePlatformService) {
         this.basicAuthTenantDetailsService = basicAuthTenantDetailsService;
         this.notificationWritePlatformService = notificationWritePlatformService;
-        this.appUserRepository = appUserRepository;
     }
 
     @Override
@@ -57,27 +49,7 @@ public class SpringEventListener implements ApplicationListener<SpringEvent> {
                 false);
         ThreadLocalContextUtil.setTenant(tenant);
 
-        Long appUserId = notificationData.getActor();
-
-        List<Long> userIds = notificationData.getUserIds();
-
-        if (notificationData.getOfficeId() != null) {
-            List<Long> tempUserIds = new ArrayList<>(userIds);
-            for (Long userId : tempUserIds) {
-                AppUser appUser = appUserRepository.findById(userId).get();
-                if (!Objects.equals(appUser.getOffice().getId(), notificationData.getOfficeId())) {
-                    userIds.remove(userId);
-                }
-            }
-        }
-
-        if (userIds.contains(appUserId)) {
-            userIds.remove(appUserId);
-        }
-
-        notificationWritePlatformService.notify(userIds, notificationData.getObjectType(), notificationData.getObjectIdentfier(),
-                notificationData.getAction(), notificationData.getActor(), notificationData.getContent(),
-                notificationData.isSystemGenerated());
+        notificationWritePlatformService.notify(notificationData);
 
     }
 
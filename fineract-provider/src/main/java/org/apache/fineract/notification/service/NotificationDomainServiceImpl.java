@@ -18,7 +18,6 @@
  */
 package org.apache.fineract.notification.service;
 
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -30,7 +29,6 @@ import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.notification.data.NotificationData;
-import org.apache.fineract.notification.data.TopicSubscriberData;
 import org.apache.fineract.notification.eventandlistener.NotificationEventService;
 import org.apache.fineract.notification.eventandlistener.SpringEventPublisher;
 import org.apache.fineract.organisation.office.domain.OfficeRepository;
@@ -414,8 +412,6 @@ public class NotificationDomainServiceImpl implements NotificationDomainService
 
     private List<Long> retrieveSubscribers(Long officeId, String permission) {
 
-        Set<TopicSubscriberData> topicSubscribers = new HashSet<>();
-        List<Long> subscriberIds = new ArrayList<>();
         Long entityId = officeId;
         String entityType = "";
         if (officeRepository.findById(entityId).get().getParent() == null) {
@@ -423,17 +419,14 @@ public class NotificationDomainServiceImpl implements NotificationDomainService
         } else {
             entityType = "BRANCH";
         }
+        Set<String> memberTypes = new HashSet<>();
         List<Role> allRoles = roleRepository.findAll();
         for (Role curRole : allRoles) {
             if (curRole.hasPermissionTo(permission) || curRole.hasPermissionTo("ALL_FUNCTIONS")) {
-                String memberType = curRole.getName();
-                topicSubscribers.addAll(topicSubscriberReadPlatformService.getSubscribers(entityId, entityType, memberType));
+                memberTypes.add(curRole.getName());
             }
         }
-
-        for (TopicSubscriberData topicSubscriber : topicSubscribers) {
-            subscriberIds.add(topicSubscriber.getUserId());
-        }
-        return subscriberIds;
+        // one query for the topics of all matching roles, users subscribed through several roles are notified once
+        return topicSubscriberReadPlatformService.getSubscriberUserIds(entityId, entityType, memberTypes);
     }
 }
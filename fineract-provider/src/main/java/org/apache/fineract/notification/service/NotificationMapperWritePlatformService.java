@@ -18,9 +18,15 @@
  */
 package org.apache.fineract.notification.service;
 
+import java.util.Collection;
 import org.apache.fineract.notification.domain.NotificationMapper;
 
 public interface NotificationMapperWritePlatformService {
 
     Long create(NotificationMapper notificationMapper);
+
+    /**
+     * Delivers a notification to all the given users at once, as one JDBC batch.
+     */
+    void createAll(Long notificationId, Collection<Long> userIds, String createdAt);
 }
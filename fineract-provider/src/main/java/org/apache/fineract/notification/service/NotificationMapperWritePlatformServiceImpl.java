@@ -18,24 +18,55 @@
  */
 package org.apache.fineract.notification.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.notification.cache.UnreadNotificationCountCache;
 import org.apache.fineract.notification.domain.NotificationMapper;
 import org.apache.fineract.notification.domain.NotificationMapperRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 @Service
 public class NotificationMapperWritePlatformServiceImpl implements NotificationMapperWritePlatformService {
 
     private final NotificationMapperRepository notificationMapperRepository;
+    private final UnreadNotificationCountCache unreadNotificationCountCache;
+    private final JdbcTemplate jdbcTemplate;
 
     @Autowired
-    public NotificationMapperWritePlatformServiceImpl(NotificationMapperRepository notificationMapperRepository) {
+    public NotificationMapperWritePlatformServiceImpl(NotificationMapperRepository notificationMapperRepository,
+            UnreadNotificationCountCache unreadNotificationCountCache, RoutingDataSource dataSource) {
+        this(notificationMapperRepository, unreadNotificationCountCache, new JdbcTemplate(dataSource));
+    }
+
+    NotificationMapperWritePlatformServiceImpl(NotificationMapperRepository notificationMapperRepository,
+            UnreadNotificationCountCache unreadNotificationCountCache, JdbcTemplate jdbcTemplate) {
         this.notificationMapperRepository = notificationMapperRepository;
+        this.unreadNotificationCountCache = unreadNotificationCountCache;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
     public Long create(NotificationMapper notificationMapper) {
         this.notificationMapperRepository.save(notificationMapper);
+        this.unreadNotificationCountCache.notificationsAdded(List.of(notificationMapper.getUserId().getId()));
         return notificationMapper.getId();
     }
+
+    @Override
+    public void createAll(Long notificationId, Collection<Long> userIds, String createdAt) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        final List<Object[]> rows = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            rows.add(new Object[] { notificationId, userId, createdAt });
+        }
+        this.jdbcTemplate.batchUpdate(
+                "INSERT INTO notification_mapper (notification_id, user_id, is_read, created_at) VALUES (?, ?, false, ?)", rows);
+        this.unreadNotificationCountCache.notificationsAdded(userIds);
+    }
 }
@@ -19,6 +19,7 @@
 package org.apache.fineract.notification.service;
 
 import java.util.List;
+import org.apache.fineract.notification.data.NotificationData;
 
 public interface NotificationWritePlatformService {
 
@@ -27,4 +28,9 @@ public interface NotificationWritePlatformService {
 
     Long notify(List<Long> userIds, String objectType, Long objectId, String action, Long actorId, String notificationContent,
             boolean isSystemGenerated);
+
+    /**
+     * Fans a notification event out to its users: those of the event's office when it names one, other than the actor.
+     */
+    Long notify(NotificationData notificationData);
 }
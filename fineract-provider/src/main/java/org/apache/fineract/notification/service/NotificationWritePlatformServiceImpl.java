@@ -20,14 +20,18 @@ package org.apache.fineract.notification.service;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import org.apache.fineract.notification.data.NotificationData;
 import org.apache.fineract.notification.domain.Notification;
 import org.apache.fineract.notification.domain.NotificationMapper;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.apache.fineract.useradministration.domain.AppUserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class NotificationWritePlatformServiceImpl implements NotificationWritePlatformService {
@@ -86,21 +90,22 @@ public class NotificationWritePlatformServiceImpl implements NotificationWritePl
         Long generatedNotificationId = insertIntoNotificationGenerator(objectType, objectId, action, actorId, notificationContent,
                 isSystemGenerated);
 
-        insertIntoNotificationMapper(userIds, generatedNotificationId);
+        this.notificationMapperWritePlatformService.createAll(generatedNotificationId, new LinkedHashSet<>(userIds), getCurrentDateTime());
         return generatedNotificationId;
     }
 
-    private List<Long> insertIntoNotificationMapper(List<Long> userIds, Long generatedNotificationId) {
-        List<Long> mappedIds = new ArrayList<>();
-        for (Long userId : userIds) {
-            AppUser appUser = this.appUserRepository.findById(userId).get();
-            NotificationMapper notificationMapper = new NotificationMapper(
-                    this.notificationGeneratorReadRepositoryWrapper.findById(generatedNotificationId), appUser, false,
-                    getCurrentDateTime());
-            this.notificationMapperWritePlatformService.create(notificationMapper);
-            mappedIds.add(notificationMapper.getId());
+    @Override
+    @Transactional
+    public Long notify(NotificationData notificationData) {
+        Collection<Long> userIds = new LinkedHashSet<>(notificationData.getUserIds());
+        if (notificationData.getOfficeId() != null && !userIds.isEmpty()) {
+            userIds = new LinkedHashSet<>(this.appUserRepository.findIdsOfUsersInOffice(notificationData.getOfficeId(), userIds));
         }
-        return mappedIds;
+        userIds.remove(notificationData.getActor());
+
+        return notify(new ArrayList<>(userIds), notificationData.getObjectType(), notificationData.getObjectIdentfier(),
+                notificationData.getAction(), notificationData.getActor(), notificationData.getContent(),
+                notificationData.isSystemGenerated());
     }
 
     private String getCurrentDateTime() {
@@ -19,10 +19,16 @@
 package org.apache.fineract.notification.service;
 
 import java.util.Collection;
+import java.util.List;
 import org.apache.fineract.notification.data.TopicSubscriberData;
 
 public interface TopicSubscriberReadPlatformService {
 
     Collection<TopicSubscriberData> getSubscribers(Long entityId, String entityType, String memberType);
 
+    /**
+     * The distinct users subscribed to any of the topics of the entity for the given member types.
+     */
+    List<Long> getSubscriberUserIds(Long entityId, String entityType, Collection<String> memberTypes);
+
 }
@@ -21,23 +21,29 @@ package org.apache.fineract.notification.service;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.notification.data.TopicSubscriberData;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 
 @Service
 public class TopicSubscriberReadPlatformServiceImpl implements TopicSubscriberReadPlatformService {
 
     private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
     @Autowired
     public TopicSubscriberReadPlatformServiceImpl(final RoutingDataSource dataSource) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
     }
 
     private static final class TopicSubscriberMapper implements RowMapper<TopicSubscriberData> {
@@ -75,4 +81,16 @@ public class TopicSubscriberReadPlatformServiceImpl implements TopicSubscriberRe
         String sql = "SELECT " + tsm.schema();
         return this.jdbcTemplate.query(sql, tsm, new Object[] { entityId, entityType, memberType });
     }
+
+    @Override
+    public List<Long> getSubscriberUserIds(Long entityId, String entityType, Collection<String> memberTypes) {
+        if (memberTypes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final String sql = "SELECT DISTINCT ts.user_id FROM topic_subscriber ts JOIN topic t ON t.id = ts.topic_id "
+                + "WHERE t.entity_id = :entityId AND t.entity_type = :entityType AND t.member_type IN (:memberTypes)";
+        final MapSqlParameterSource params = new MapSqlParameterSource().addValue("entityId", entityId)
+                .addValue("entityType", entityType).addValue("memberTypes", memberTypes);
+        return this.namedParameterJdbcTemplate.queryForList(sql, params, Long.class);
+    }
 }
@@ -0,0 +1,174 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.holiday.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.holiday.domain.Holiday;
+
+/**
+ * The holidays of an office, compiled for the date lookups done while generating repayment schedules.
+ *
+ * Holidays are sorted by start date so the holiday containing a date is found with a binary search instead of walking
+ * the list for every installment date. Overlapping holidays are resolved by list order in {@link HolidayUtil}, so when
+ * holidays overlap the lookups fall back to it.
+ *
+ * The sorted index of an office is shared by every calendar of that office on the tenant. It only holds holiday ids and
+ * dates, each calendar binds it to the holidays it was given, and it is compiled again whenever a holiday it is given is
+ * missing from it or has other dates. An index may still hold holidays since deleted or loaded with a later date: those
+ * are not bound, and as indexed holidays never overlap, a date within one is not within any holiday that is bound.
+ */
+public final class HolidayCalendar {
+
+    private static final Cache<String, Index> OFFICE_INDEXES = CacheBuilder.newBuilder().maximumSize(1024).build();
+
+    private final List<Holiday> holidays;
+    private final Index index;
+    private final Holiday[] indexedHolidays;
+
+    private HolidayCalendar(final List<Holiday> holidays, final Index index, final Holiday[] indexedHolidays) {
+        this.holidays = holidays;
+        this.index = index;
+        this.indexedHolidays = indexedHolidays;
+    }
+
+    public static HolidayCalendar compile(final List<Holiday> holidays) {
+        final Holiday[] sortedHolidays = sortByFromDate(holidays);
+        return new HolidayCalendar(holidays, Index.of(sortedHolidays), sortedHolidays);
+    }
+
+    /**
+     * @return the calendar of the holidays loaded for the office, reusing the index of the office when it covers them
+     */
+    public static HolidayCalendar forOffice(final Long officeId, final List<Holiday> holidays) {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        if (officeId == null || tenant == null || holidays == null || holidays.isEmpty() || !isSaved(holidays)) {
+            return compile(holidays);
+        }
+        final String key = tenant.getTenantIdentifier() + ":" + officeId;
+        Index index = OFFICE_INDEXES.getIfPresent(key);
+        if (index == null || index.overlapping || !index.covers(holidays)) {
+            index = Index.of(sortByFromDate(holidays));
+            OFFICE_INDEXES.put(key, index);
+        }
+        final Holiday[] indexedHolidays = new Holiday[index.fromDays.length];
+        for (final Holiday holiday : holidays) {
+            indexedHolidays[index.positions.get(holiday.getId())] = holiday;
+        }
+        return new HolidayCalendar(holidays, index, indexedHolidays);
+    }
+
+    /**
+     * @return the holiday the date falls on, or null when it is not a holiday
+     */
+    public Holiday getApplicableHoliday(final LocalDate date) {
+        if (this.index.overlapping) {
+            return HolidayUtil.getApplicableHoliday(date, this.holidays);
+        }
+        final int position = this.index.positionOf(date.toEpochDay());
+        return position < 0 ? null : this.indexedHolidays[position];
+    }
+
+    public boolean isHoliday(final LocalDate date) {
+        return getApplicableHoliday(date) != null;
+    }
+
+    private static Holiday[] sortByFromDate(final List<Holiday> holidays) {
+        if (holidays == null || holidays.isEmpty()) {
+            return new Holiday[0];
+        }
+        final List<Holiday> sorted = new ArrayList<>(holidays);
+        sorted.sort(Comparator.comparing(Holiday::getFromDateLocalDate));
+        return sorted.toArray(new Holiday[0]);
+    }
+
+    private static boolean isSaved(final List<Holiday> holidays) {
+        for (final Holiday holiday : holidays) {
+            if (holiday.getId() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Holiday ids and dates sorted by start date, never changed once compiled.
+     */
+    private static final class Index {
+
+        private final long[] fromDays;
+        private final long[] toDays;
+        private final boolean overlapping;
+        private final Map<Long, Integer> positions;
+
+        private Index(final long[] fromDays, final long[] toDays, final boolean overlapping, final Map<Long, Integer> positions) {
+            this.fromDays = fromDays;
+            this.toDays = toDays;
+            this.overlapping = overlapping;
+            this.positions = positions;
+        }
+
+        static Index of(final Holiday[] sortedHolidays) {
+            final long[] fromDays = new long[sortedHolidays.length];
+            final long[] toDays = new long[sortedHolidays.length];
+            final Map<Long, Integer> positions = new HashMap<>();
+            boolean overlapping = false;
+            long latestToDay = Long.MIN_VALUE;
+            for (int i = 0; i < sortedHolidays.length; i++) {
+                fromDays[i] = sortedHolidays[i].getFromDateLocalDate().toEpochDay();
+                toDays[i] = sortedHolidays[i].getToDateLocalDate().toEpochDay();
+                overlapping |= fromDays[i] <= latestToDay;
+                latestToDay = Math.max(latestToDay, toDays[i]);
+                if (sortedHolidays[i].getId() != null) {
+                    positions.put(sortedHolidays[i].getId(), i);
+                }
+            }
+            return new Index(fromDays, toDays, overlapping, positions);
+        }
+
+        boolean covers(final List<Holiday> holidays) {
+            for (final Holiday holiday : holidays) {
+                final Integer position = this.positions.get(holiday.getId());
+                if (position == null || this.fromDays[position] != holiday.getFromDateLocalDate().toEpochDay()
+                        || this.toDays[position] != holiday.getToDateLocalDate().toEpochDay()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return the position of the holiday containing the day, or -1 when no indexed holiday does
+         */
+        int positionOf(final long day) {
+            final int found = Arrays.binarySearch(this.fromDays, day);
+            final int candidate = found >= 0 ? found : -found - 2;
+            return candidate >= 0 && day <= this.toDays[candidate] ? candidate : -1;
+        }
+    }
+}
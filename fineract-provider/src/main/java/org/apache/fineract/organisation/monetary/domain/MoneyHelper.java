@@ -46,6 +46,15 @@ public class MoneyHelper {
         staticConfigurationDomainService = configurationDomainService;
     }
 
+    /**
+     * Sets the rounding mode otherwise read from the configuration on first use, for code running without the
+     * application context such as benchmarks.
+     */
+    public static void initialize(final RoundingMode initialRoundingMode) {
+        roundingMode = initialRoundingMode;
+        mathContext = null;
+    }
+
     public static RoundingMode getRoundingMode() {
         if (roundingMode == null) {
             roundingMode = RoundingMode.valueOf(staticConfigurationDomainService.getRoundingMode());
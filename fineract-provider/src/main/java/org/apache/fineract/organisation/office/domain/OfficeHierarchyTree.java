@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.office.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable nested-set encoding of the office tree.
+ *
+ * Offices are numbered in depth-first order, so every office owns the interval <code>[left, right]</code> of the
+ * positions of itself and its descendants. Checking whether an office lies under another one is then two integer
+ * comparisons, and the offices under an office are a contiguous slice of the depth-first order, instead of the string
+ * prefix comparison done by <code>hierarchy like '.1.%'</code>.
+ */
+public final class OfficeHierarchyTree {
+
+    private final Map<Long, Integer> leftByOfficeId;
+    private final int[] rightByPosition;
+    private final List<Long> officeIdsInOrder;
+
+    private OfficeHierarchyTree(final Map<Long, Integer> leftByOfficeId, final int[] rightByPosition, final List<Long> officeIdsInOrder) {
+        this.leftByOfficeId = leftByOfficeId;
+        this.rightByPosition = rightByPosition;
+        this.officeIdsInOrder = officeIdsInOrder;
+    }
+
+    /**
+     * Builds the tree from the parent of each office; offices without a (known) parent are treated as roots.
+     */
+    public static OfficeHierarchyTree fromParents(final Map<Long, Long> parentIdByOfficeId) {
+        final Map<Long, List<Long>> childrenByOfficeId = new HashMap<>();
+        final List<Long> rootOfficeIds = new ArrayList<>();
+        for (final Long officeId : new TreeMap<>(parentIdByOfficeId).keySet()) {
+            final Long parentId = parentIdByOfficeId.get(officeId);
+            if (parentId == null || !parentIdByOfficeId.containsKey(parentId)) {
+                rootOfficeIds.add(officeId);
+            } else {
+                childrenByOfficeId.computeIfAbsent(parentId, k -> new ArrayList<>()).add(officeId);
+            }
+        }
+
+        final Map<Long, Integer> leftByOfficeId = new HashMap<>();
+        final int[] rightByPosition = new int[parentIdByOfficeId.size()];
+        final List<Long> officeIdsInOrder = new ArrayList<>(parentIdByOfficeId.size());
+        for (final Long rootOfficeId : rootOfficeIds) {
+            number(rootOfficeId, childrenByOfficeId, leftByOfficeId, rightByPosition, officeIdsInOrder);
+        }
+        return new OfficeHierarchyTree(leftByOfficeId, rightByPosition, Collections.unmodifiableList(officeIdsInOrder));
+    }
+
+    private static void number(final Long officeId, final Map<Long, List<Long>> childrenByOfficeId, final Map<Long, Integer> leftByOfficeId,
+            final int[] rightByPosition, final List<Long> officeIdsInOrder) {
+        final int left = officeIdsInOrder.size();
+        leftByOfficeId.put(officeId, left);
+        officeIdsInOrder.add(officeId);
+        for (final Long childOfficeId : childrenByOfficeId.getOrDefault(officeId, Collections.emptyList())) {
+            number(childOfficeId, childrenByOfficeId, leftByOfficeId, rightByPosition, officeIdsInOrder);
+        }
+        rightByPosition[left] = officeIdsInOrder.size() - 1;
+    }
+
+    public boolean contains(final Long officeId) {
+        return this.leftByOfficeId.containsKey(officeId);
+    }
+
+    public int size() {
+        return this.officeIdsInOrder.size();
+    }
+
+    /**
+     * Whether the office is the given ancestor office or one of its descendants.
+     */
+    public boolean isWithin(final Long officeId, final Long ancestorOfficeId) {
+        final Integer position = this.leftByOfficeId.get(officeId);
+        final Integer ancestorLeft = this.leftByOfficeId.get(ancestorOfficeId);
+        if (position == null || ancestorLeft == null) {
+            return false;
+        }
+        return position >= ancestorLeft && position <= this.rightByPosition[ancestorLeft];
+    }
+
+    /**
+     * Whether the office and its descendants make up the whole tree.
+     */
+    public boolean coversAllOffices(final Long officeId) {
+        final Integer left = this.leftByOfficeId.get(officeId);
+        return left != null && left == 0 && this.rightByPosition[left] == this.officeIdsInOrder.size() - 1;
+    }
+
+    /**
+     * The office and all of its descendants, in depth-first order; empty if the office is unknown.
+     */
+    public List<Long> officeIdsWithin(final Long officeId) {
+        final Integer left = this.leftByOfficeId.get(officeId);
+        if (left == null) {
+            return Collections.emptyList();
+        }
+        return this.officeIdsInOrder.subList(left, this.rightByPosition[left] + 1);
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.office.service;
+
+/**
+ * Per-tenant in-memory view of the office tree used to apply office based data scoping without string comparisons on
+ * <code>m_office.hierarchy</code>.
+ */
+public interface OfficeHierarchyService {
+
+    /**
+     * Scope of the authenticated user: the user's office and all offices below it.
+     */
+    OfficeScope currentUserScope();
+
+    OfficeScope scopeOf(Long officeId);
+
+    boolean isWithinHierarchy(Long officeId, Long ancestorOfficeId);
+
+    /**
+     * Records a change of the office tree: increments the tenant's hierarchy version within the current transaction, so
+     * every node reloads its tree once the change is committed.
+     */
+    void invalidateCache();
+}
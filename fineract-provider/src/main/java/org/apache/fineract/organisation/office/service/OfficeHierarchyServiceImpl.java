@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.office.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.VersionedTenantCache;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.organisation.office.domain.OfficeHierarchyTree;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the office tree of each tenant in memory. Every office change that affects the tree increments the row in
+ * <code>m_office_hierarchy_version</code> in the same transaction; the node making the change reloads its tree once the
+ * change has committed, the other nodes within {@value #VERSION_RECHECK_SECONDS} seconds.
+ */
+@Service
+public class OfficeHierarchyServiceImpl implements OfficeHierarchyService {
+
+    private static final long VERSION_RECHECK_SECONDS = 10;
+
+    private final PlatformSecurityContext context;
+    private final JdbcTemplate jdbcTemplate;
+    private final VersionedTenantCache<CachedHierarchy> hierarchies;
+
+    @Autowired
+    public OfficeHierarchyServiceImpl(final PlatformSecurityContext context, final RoutingDataSource dataSource) {
+        this(context, new JdbcTemplate(dataSource), System::nanoTime);
+    }
+
+    OfficeHierarchyServiceImpl(final PlatformSecurityContext context, final JdbcTemplate jdbcTemplate, final LongSupplier nanoClock) {
+        this.context = context;
+        this.jdbcTemplate = jdbcTemplate;
+        this.hierarchies = new VersionedTenantCache<>(jdbcTemplate, "m_office_hierarchy_version",
+                Duration.ofSeconds(VERSION_RECHECK_SECONDS), this::loadHierarchy, nanoClock);
+    }
+
+    @Override
+    public OfficeScope currentUserScope() {
+        return scopeOf(this.context.authenticatedUser().getOffice().getId());
+    }
+
+    @Override
+    public OfficeScope scopeOf(final Long officeId) {
+        return this.hierarchies.get().scopeOf(officeId);
+    }
+
+    @Override
+    public boolean isWithinHierarchy(final Long officeId, final Long ancestorOfficeId) {
+        return this.hierarchies.get().tree.isWithin(officeId, ancestorOfficeId);
+    }
+
+    @Override
+    public void invalidateCache() {
+        this.hierarchies.invalidate();
+    }
+
+    private CachedHierarchy loadHierarchy() {
+        final Map<Long, Long> parentIdByOfficeId = new HashMap<>();
+        this.jdbcTemplate.query("select o.id as id, o.parent_id as parentId from m_office o", (RowCallbackHandler) rs -> {
+            final long parentId = rs.getLong("parentId");
+            parentIdByOfficeId.put(rs.getLong("id"), rs.wasNull() ? null : parentId);
+        });
+        return new CachedHierarchy(OfficeHierarchyTree.fromParents(parentIdByOfficeId));
+    }
+
+    private static final class CachedHierarchy {
+
+        private final OfficeHierarchyTree tree;
+        private final Map<Long, OfficeScope> scopes = new ConcurrentHashMap<>();
+
+        CachedHierarchy(final OfficeHierarchyTree tree) {
+            this.tree = tree;
+        }
+
+        OfficeScope scopeOf(final Long officeId) {
+            return this.scopes.computeIfAbsent(officeId, id -> this.tree.coversAllOffices(id) ? OfficeScope.allOffices()
+                    : OfficeScope.of(this.tree.officeIdsWithin(id)));
+        }
+    }
+}
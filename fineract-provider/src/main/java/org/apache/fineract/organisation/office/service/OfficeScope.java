@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.office.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+/**
+ * The offices a user may see data of: the user's office and everything below it.
+ *
+ * Read services use {@link #sqlCondition(String)} on the office id column they already select from instead of joining
+ * <code>m_office</code> and comparing <code>hierarchy like :hierarchy</code>. The ids are rendered into the SQL as
+ * literals, they are read from <code>m_office</code> and never come from the request.
+ */
+public final class OfficeScope {
+
+    private final Collection<Long> officeIds;
+    private final String officeIdList;
+
+    private OfficeScope(final Collection<Long> officeIds) {
+        this.officeIds = officeIds;
+        this.officeIdList = officeIds == null ? null : officeIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    public static OfficeScope allOffices() {
+        return new OfficeScope(null);
+    }
+
+    public static OfficeScope of(final Collection<Long> officeIds) {
+        return new OfficeScope(Collections.unmodifiableCollection(officeIds));
+    }
+
+    public boolean includesAllOffices() {
+        return this.officeIds == null;
+    }
+
+    public boolean includes(final Long officeId) {
+        return officeId != null && (this.officeIds == null || this.officeIds.contains(officeId));
+    }
+
+    /**
+     * SQL condition restricting the given office id column to this scope. Like the hierarchy comparison it replaces, it
+     * never matches a null office id.
+     */
+    public String sqlCondition(final String officeIdColumn) {
+        if (this.officeIds == null) {
+            return " " + officeIdColumn + " is not null ";
+        }
+        if (this.officeIds.isEmpty()) {
+            return " 1 = 0 ";
+        }
+        return " " + officeIdColumn + " in (" + this.officeIdList + ") ";
+    }
+}
@@ -61,13 +61,15 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
     private final OfficeTransactionRepository officeTransactionRepository;
     private final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository;
     private final TopicDomainService topicDomainService;
+    private final OfficeHierarchyService officeHierarchyService;
 
     @Autowired
     public OfficeWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
             final OfficeCommandFromApiJsonDeserializer fromApiJsonDeserializer,
             final OfficeTransactionCommandFromApiJsonDeserializer moneyTransferCommandFromApiJsonDeserializer,
             final OfficeRepositoryWrapper officeRepositoryWrapper, final OfficeTransactionRepository officeMonetaryTransferRepository,
-            final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository, final TopicDomainService topicDomainService) {
+            final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository, final TopicDomainService topicDomainService,
+            final OfficeHierarchyService officeHierarchyService) {
         this.context = context;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.moneyTransferCommandFromApiJsonDeserializer = moneyTransferCommandFromApiJsonDeserializer;
@@ -75,6 +77,7 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
         this.officeTransactionRepository = officeMonetaryTransferRepository;
         this.applicationCurrencyRepository = applicationCurrencyRepository;
         this.topicDomainService = topicDomainService;
+        this.officeHierarchyService = officeHierarchyService;
     }
 
     @Transactional
@@ -106,6 +109,8 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
 
             this.topicDomainService.createTopic(office);
 
+            this.officeHierarchyService.invalidateCache();
+
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
                     .withEntityId(office.getId()) //
@@ -152,6 +157,10 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
                 this.officeRepositoryWrapper.saveAndFlush(office);
 
                 this.topicDomainService.updateTopic(office, changes);
+
+                if (changes.containsKey("parentId")) {
+                    this.officeHierarchyService.invalidateCache();
+                }
             }
 
             return new CommandProcessingResultBuilder() //
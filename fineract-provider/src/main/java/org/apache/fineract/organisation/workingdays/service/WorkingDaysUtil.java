@@ -22,7 +22,6 @@ import java.time.LocalDate;
 import org.apache.fineract.organisation.workingdays.data.AdjustedDateDetailsDTO;
 import org.apache.fineract.organisation.workingdays.domain.RepaymentRescheduleType;
 import org.apache.fineract.organisation.workingdays.domain.WorkingDays;
-import org.apache.fineract.portfolio.calendar.service.CalendarUtils;
 
 public final class WorkingDaysUtil {
 
@@ -57,7 +56,7 @@ public final class WorkingDaysUtil {
     }
 
     public static boolean isWorkingDay(final WorkingDays workingDays, final LocalDate date) {
-        return CalendarUtils.isValidRedurringDate(workingDays.getRecurrence(), date, date);
+        return WorkingWeek.of(workingDays.getRecurrence()).isWorkingDay(date);
     }
 
     public static boolean isNonWorkingDay(final WorkingDays workingDays, final LocalDate date) {
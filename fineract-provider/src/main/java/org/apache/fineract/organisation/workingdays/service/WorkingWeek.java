@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.workingdays.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import net.fortuna.ical4j.model.Recur;
+import net.fortuna.ical4j.model.WeekDay;
+import org.apache.fineract.portfolio.calendar.service.CalendarUtils;
+import org.apache.fineract.portfolio.calendar.service.CalendarUtils.DayNameEnum;
+
+/**
+ * The working days of a week, compiled from the recurrence rule of the working days settings.
+ *
+ * Working days are configured as a weekly rule repeating on the selected days, so whether a date is a working day only
+ * depends on its day of the week and a seven bit mask answers it for any date. Rules of any other shape are evaluated
+ * through {@link CalendarUtils} as before. Compiled weeks are kept by rule text, so changing the working days yields a
+ * new rule and never a stale week.
+ */
+final class WorkingWeek {
+
+    private static final Cache<String, WorkingWeek> WEEKS = CacheBuilder.newBuilder().maximumSize(64).build();
+
+    private final String recurrence;
+    private final int workingDayMask;
+    private final boolean compiled;
+
+    private WorkingWeek(final String recurrence, final int workingDayMask, final boolean compiled) {
+        this.recurrence = recurrence;
+        this.workingDayMask = workingDayMask;
+        this.compiled = compiled;
+    }
+
+    static WorkingWeek of(final String recurrence) {
+        if (recurrence == null) {
+            return new WorkingWeek(null, 0, false);
+        }
+        WorkingWeek week = WEEKS.getIfPresent(recurrence);
+        if (week == null) {
+            week = compile(recurrence);
+            WEEKS.put(recurrence, week);
+        }
+        return week;
+    }
+
+    boolean isWorkingDay(final LocalDate date) {
+        if (this.compiled) {
+            return (this.workingDayMask & bit(date.getDayOfWeek())) != 0;
+        }
+        return CalendarUtils.isValidRedurringDate(this.recurrence, date, date);
+    }
+
+    private static WorkingWeek compile(final String recurrence) {
+        final Recur recur = CalendarUtils.getICalRecur(recurrence);
+        if (recur == null || !isPlainWeeklyRule(recur)) {
+            return new WorkingWeek(recurrence, 0, false);
+        }
+        int mask = 0;
+        for (final WeekDay weekDay : recur.getDayList()) {
+            if (weekDay.getOffset() != 0) {
+                return new WorkingWeek(recurrence, 0, false);
+            }
+            mask |= bit(DayOfWeek.of(DayNameEnum.from(weekDay.getDay().name()).getValue()));
+        }
+        return new WorkingWeek(recurrence, mask, true);
+    }
+
+    /**
+     * A weekly rule repeating every week on a list of days and restricted by nothing else, which is how working days
+     * are stored.
+     */
+    private static boolean isPlainWeeklyRule(final Recur recur) {
+        return Recur.Frequency.WEEKLY.equals(recur.getFrequency()) && recur.getInterval() <= 1 && recur.getCount() < 1
+                && recur.getUntil() == null && !recur.getDayList().isEmpty() && recur.getMonthDayList().isEmpty()
+                && recur.getYearDayList().isEmpty() && recur.getWeekNoList().isEmpty() && recur.getMonthList().isEmpty()
+                && recur.getSetPosList().isEmpty() && recur.getHourList().isEmpty() && recur.getMinuteList().isEmpty()
+                && recur.getSecondList().isEmpty();
+    }
+
+    private static int bit(final DayOfWeek dayOfWeek) {
+        return 1 << dayOfWeek.ordinal();
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.fineract.portfolio.account.service;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.Set;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.portfolio.account.PortfolioAccountType;
@@ -37,6 +38,11 @@ public interface AccountTransfersReadPlatformService {
 
     boolean isAccountTransfer(Long transactionId, PortfolioAccountType accountType);
 
+    /**
+     * @return those of the given loan or savings transactions that are part of an account transfer
+     */
+    Set<Long> retrieveAccountTransferTransactionIds(Collection<Long> transactionIds, PortfolioAccountType accountType);
+
     Page<AccountTransferData> retrieveByStandingInstruction(Long id, SearchParameters searchParameters);
 
     Collection<Long> fetchPostInterestTransactionIds(Long accountId);
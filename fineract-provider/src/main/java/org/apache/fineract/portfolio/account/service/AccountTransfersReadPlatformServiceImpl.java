@@ -26,7 +26,10 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
@@ -49,6 +52,7 @@ import org.apache.fineract.portfolio.client.service.ClientReadPlatformService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
@@ -396,6 +400,32 @@ public class AccountTransfersReadPlatformServiceImpl implements AccountTransfers
         return count > 0;
     }
 
+    @Override
+    public Set<Long> retrieveAccountTransferTransactionIds(final Collection<Long> transactionIds, final PortfolioAccountType accountType) {
+        final Set<Long> accountTransferTransactionIds = new HashSet<>();
+        if (transactionIds.isEmpty()) {
+            return accountTransferTransactionIds;
+        }
+        final String fromColumn = accountType.isLoanAccount() ? "at.from_loan_transaction_id" : "at.from_savings_transaction_id";
+        final String toColumn = accountType.isLoanAccount() ? "at.to_loan_transaction_id" : "at.to_savings_transaction_id";
+        final String ids = transactionIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        final String sql = "select " + fromColumn + " as fromTransactionId, " + toColumn
+                + " as toTransactionId from m_account_transfer_transaction at where " + fromColumn + " in (" + ids + ") or " + toColumn
+                + " in (" + ids + ")";
+
+        this.jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            final Long fromTransactionId = JdbcSupport.getLong(rs, "fromTransactionId");
+            final Long toTransactionId = JdbcSupport.getLong(rs, "toTransactionId");
+            if (transactionIds.contains(fromTransactionId)) {
+                accountTransferTransactionIds.add(fromTransactionId);
+            }
+            if (transactionIds.contains(toTransactionId)) {
+                accountTransferTransactionIds.add(toTransactionId);
+            }
+        });
+        return accountTransferTransactionIds;
+    }
+
     @Override
     public Page<AccountTransferData> retrieveByStandingInstruction(final Long id, final SearchParameters searchParameters) {
 
@@ -18,6 +18,8 @@
  */
 package org.apache.fineract.portfolio.calendar.service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.gson.JsonElement;
 import java.text.DateFormat;
 import java.text.ParseException;
@@ -62,6 +64,13 @@ public final class CalendarUtils {
 
     private static final Logger LOG = LoggerFactory.getLogger(CalendarUtils.class);
 
+    /**
+     * Parsed recurrence rules by rule text. Schedule generation parses the same few meeting and working day rules for
+     * nearly every date it looks at, so each distinct rule is parsed once. {@link Recur} is mutable, so the cached rules
+     * are never handed out, callers get a copy.
+     */
+    private static final Cache<String, Recur> RECURRENCES = CacheBuilder.newBuilder().maximumSize(1024).build();
+
     static {
         System.setProperty("net.fortuna.ical4j.timezone.date.floating", "true");
     }
@@ -220,6 +229,40 @@ public final class CalendarUtils {
     }
 
     public static Recur getICalRecur(final String recurringRule) {
+        if (recurringRule == null) {
+            return parseICalRecur(recurringRule);
+        }
+        Recur recur = RECURRENCES.getIfPresent(recurringRule);
+        if (recur == null) {
+            recur = parseICalRecur(recurringRule);
+            if (recur == null) {
+                return null;
+            }
+            RECURRENCES.put(recurringRule, recur);
+        }
+        return copyOf(recur);
+    }
+
+    private static Recur copyOf(final Recur recur) {
+        final Date until = recur.getUntil();
+        final WeekDayList dayList = new WeekDayList();
+        dayList.addAll(recur.getDayList());
+        return new Recur.Builder().frequency(recur.getFrequency())
+                .until(until == null ? null : until instanceof DateTime ? new DateTime(until) : new Date(until)).count(recur.getCount())
+                .interval(recur.getInterval()).secondList(copyOf(recur.getSecondList())).minuteList(copyOf(recur.getMinuteList()))
+                .hourList(copyOf(recur.getHourList())).dayList(dayList).monthDayList(copyOf(recur.getMonthDayList()))
+                .yearDayList(copyOf(recur.getYearDayList())).weekNoList(copyOf(recur.getWeekNoList()))
+                .monthList(copyOf(recur.getMonthList())).setPosList(copyOf(recur.getSetPosList())).weekStartDay(recur.getWeekStartDay())
+                .build();
+    }
+
+    private static NumberList copyOf(final NumberList numbers) {
+        final NumberList copy = new NumberList();
+        copy.addAll(numbers);
+        return copy;
+    }
+
+    private static Recur parseICalRecur(final String recurringRule) {
 
         // Construct RRule
         try {
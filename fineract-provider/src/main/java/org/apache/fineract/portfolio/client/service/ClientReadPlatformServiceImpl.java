@@ -47,7 +47,9 @@ import org.apache.fineract.infrastructure.dataqueries.service.EntityDatatableChe
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
 import org.apache.fineract.organisation.office.data.OfficeData;
+import org.apache.fineract.organisation.office.service.OfficeHierarchyService;
 import org.apache.fineract.organisation.office.service.OfficeReadPlatformService;
+import org.apache.fineract.organisation.office.service.OfficeScope;
 import org.apache.fineract.organisation.staff.data.StaffData;
 import org.apache.fineract.organisation.staff.service.StaffReadPlatformService;
 import org.apache.fineract.portfolio.address.data.AddressData;
@@ -64,7 +66,6 @@ import org.apache.fineract.portfolio.client.exception.ClientNotFoundException;
 import org.apache.fineract.portfolio.group.data.GroupGeneralData;
 import org.apache.fineract.portfolio.savings.data.SavingsProductData;
 import org.apache.fineract.portfolio.savings.service.SavingsProductReadPlatformService;
-import org.apache.fineract.useradministration.domain.AppUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -93,6 +94,7 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     private final ConfigurationReadPlatformService configurationReadPlatformService;
     private final EntityDatatableChecksReadService entityDatatableChecksReadService;
     private final ColumnValidator columnValidator;
+    private final OfficeHierarchyService officeHierarchyService;
 
     @Autowired
     public ClientReadPlatformServiceImpl(final PlatformSecurityContext context, final RoutingDataSource dataSource,
@@ -102,7 +104,8 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
             final AddressReadPlatformService addressReadPlatformService,
             final ClientFamilyMembersReadPlatformService clientFamilyMembersReadPlatformService,
             final ConfigurationReadPlatformService configurationReadPlatformService,
-            final EntityDatatableChecksReadService entityDatatableChecksReadService, final ColumnValidator columnValidator) {
+            final EntityDatatableChecksReadService entityDatatableChecksReadService, final ColumnValidator columnValidator,
+            final OfficeHierarchyService officeHierarchyService) {
         this.context = context;
         this.officeReadPlatformService = officeReadPlatformService;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
@@ -114,6 +117,7 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
         this.configurationReadPlatformService = configurationReadPlatformService;
         this.entityDatatableChecksReadService = entityDatatableChecksReadService;
         this.columnValidator = columnValidator;
+        this.officeHierarchyService = officeHierarchyService;
     }
 
     @Override
@@ -189,19 +193,19 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
             throw new PlatformApiDataValidationException(dataValidationErrors);
         }
 
-        final String userOfficeHierarchy = this.context.officeHierarchy();
-        final String underHierarchySearchString = userOfficeHierarchy + "%";
+        final OfficeScope officeScope = this.officeHierarchyService.currentUserScope();
         final String appUserID = String.valueOf(context.authenticatedUser().getId());
 
         // if (searchParameters.isScopedByOfficeHierarchy()) {
         // this.context.validateAccessRights(searchParameters.getHierarchy());
         // underHierarchySearchString = searchParameters.getHierarchy() + "%";
         // }
-        List<Object> paramList = new ArrayList<>(Arrays.asList(underHierarchySearchString, underHierarchySearchString));
+        List<Object> paramList = new ArrayList<>();
         final StringBuilder sqlBuilder = new StringBuilder(200);
         sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
         sqlBuilder.append(this.clientMapper.schema());
-        sqlBuilder.append(" where (o.hierarchy like ? or transferToOffice.hierarchy like ?) ");
+        sqlBuilder.append(" where (").append(officeScope.sqlCondition("c.office_id")).append(" or ")
+                .append(officeScope.sqlCondition("c.transfer_to_office_id")).append(") ");
 
         if (searchParameters != null) {
             if (searchParameters.isSelfUser()) {
@@ -305,13 +309,11 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     @Override
     public ClientData retrieveOne(final Long clientId) {
         try {
-            final String hierarchy = this.context.officeHierarchy();
-            final String hierarchySearchString = hierarchy + "%";
+            final OfficeScope officeScope = this.officeHierarchyService.currentUserScope();
 
-            final String sql = "select " + this.clientMapper.schema()
-                    + " where ( o.hierarchy like ? or transferToOffice.hierarchy like ?) and c.id = ?";
-            final ClientData clientData = this.jdbcTemplate.queryForObject(sql, this.clientMapper,
-                    new Object[] { hierarchySearchString, hierarchySearchString, clientId });
+            final String sql = "select " + this.clientMapper.schema() + " where (" + officeScope.sqlCondition("c.office_id") + " or "
+                    + officeScope.sqlCondition("c.transfer_to_office_id") + ") and c.id = ?";
+            final ClientData clientData = this.jdbcTemplate.queryForObject(sql, this.clientMapper, new Object[] { clientId });
 
             final String clientGroupsSql = "select " + this.clientGroupsMapper.parentGroupsSchema();
 
@@ -348,27 +350,23 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     @Override
     public Collection<ClientData> retrieveClientMembersOfGroup(final Long groupId) {
 
-        final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String hierarchySearchString = hierarchy + "%";
+        final OfficeScope officeScope = this.officeHierarchyService.currentUserScope();
 
-        final String sql = "select " + this.membersOfGroupMapper.schema() + " where o.hierarchy like ? and pgc.group_id = ?";
+        final String sql = "select " + this.membersOfGroupMapper.schema() + " where " + officeScope.sqlCondition("c.office_id")
+                + " and pgc.group_id = ?";
 
-        return this.jdbcTemplate.query(sql, this.membersOfGroupMapper, new Object[] { hierarchySearchString, groupId });
+        return this.jdbcTemplate.query(sql, this.membersOfGroupMapper, new Object[] { groupId });
     }
 
     @Override
     public Collection<ClientData> retrieveActiveClientMembersOfGroup(final Long groupId) {
 
-        final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String hierarchySearchString = hierarchy + "%";
+        final OfficeScope officeScope = this.officeHierarchyService.currentUserScope();
 
-        final String sql = "select " + this.membersOfGroupMapper.schema()
-                + " where o.hierarchy like ? and pgc.group_id = ? and c.status_enum = ? ";
+        final String sql = "select " + this.membersOfGroupMapper.schema() + " where " + officeScope.sqlCondition("c.office_id")
+                + " and pgc.group_id = ? and c.status_enum = ? ";
 
-        return this.jdbcTemplate.query(sql, this.membersOfGroupMapper,
-                new Object[] { hierarchySearchString, groupId, ClientStatus.ACTIVE.getValue() });
+        return this.jdbcTemplate.query(sql, this.membersOfGroupMapper, new Object[] { groupId, ClientStatus.ACTIVE.getValue() });
     }
 
     private static final class ClientMembersOfGroupMapper implements RowMapper<ClientData> {
@@ -549,15 +547,12 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     @Override
     public Collection<ClientData> retrieveActiveClientMembersOfCenter(final Long centerId) {
 
-        final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String hierarchySearchString = hierarchy + "%";
+        final OfficeScope officeScope = this.officeHierarchyService.currentUserScope();
 
-        final String sql = "select " + this.membersOfGroupMapper.schema()
-                + " left join m_group g on pgc.group_id=g.id where o.hierarchy like ? and g.parent_id = ? and c.status_enum = ? group by c.id";
+        final String sql = "select " + this.membersOfGroupMapper.schema() + " left join m_group g on pgc.group_id=g.id where "
+                + officeScope.sqlCondition("c.office_id") + " and g.parent_id = ? and c.status_enum = ? group by c.id";
 
-        return this.jdbcTemplate.query(sql, this.membersOfGroupMapper,
-                new Object[] { hierarchySearchString, centerId, ClientStatus.ACTIVE.getValue() });
+        return this.jdbcTemplate.query(sql, this.membersOfGroupMapper, new Object[] { centerId, ClientStatus.ACTIVE.getValue() });
     }
 
     private static final class ClientMapper implements RowMapper<ClientData> {
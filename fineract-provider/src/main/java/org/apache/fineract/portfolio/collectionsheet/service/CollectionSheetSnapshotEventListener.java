@@ -0,0 +1,209 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.collectionsheet.service;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.PostConstruct;
+import org.apache.fineract.infrastructure.hooks.event.HookEvent;
+import org.apache.fineract.portfolio.account.PortfolioAccountType;
+import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BusinessEntity;
+import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BusinessEvents;
+import org.apache.fineract.portfolio.common.service.BusinessEventListener;
+import org.apache.fineract.portfolio.common.service.BusinessEventNotifierService;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Drops collection sheet snapshots as soon as something shown on them changes. Loan and savings postings made outside
+ * the command pipeline (jobs, interest recalculation) arrive as business events; every successful command is checked
+ * for the group, client, loan and savings ids it touched, which covers attendance, membership, meeting and calendar
+ * changes, charges and account transfers.
+ */
+@Service
+public class CollectionSheetSnapshotEventListener implements ApplicationListener<HookEvent> {
+
+    /**
+     * Entities whose commands can change what a collection sheet shows; commands on anything else are skipped without
+     * parsing their payload.
+     */
+    private static final Set<String> SHEET_ENTITIES = new HashSet<>(Arrays.asList("GROUP", "CENTER", "COLLECTIONSHEET", "MEETING",
+            "CALENDAR", "CLIENT", "LOAN", "GLIMLOAN", "LOANCHARGE", "DISBURSEMENTDETAIL", "RESCHEDULELOAN", "SAVINGSACCOUNT",
+            "GSIMACCOUNT", "SAVINGSACCOUNTCHARGE", "RECURRINGDEPOSITACCOUNT", "ACCOUNTTRANSFER", "STANDINGINSTRUCTION"));
+    private static final Set<String> GROUP_ENTITIES = new HashSet<>(Arrays.asList("GROUP", "CENTER", "COLLECTIONSHEET", "MEETING"));
+    private static final Set<String> TRANSFER_ENTITIES = new HashSet<>(Arrays.asList("ACCOUNTTRANSFER", "STANDINGINSTRUCTION"));
+    private static final String CALENDAR_ENTITY = "CALENDAR";
+
+    static final BusinessEvents[] LOAN_EVENTS = { BusinessEvents.LOAN_APPROVED, BusinessEvents.LOAN_UNDO_APPROVAL,
+            BusinessEvents.LOAN_DISBURSAL, BusinessEvents.LOAN_UNDO_DISBURSAL, BusinessEvents.LOAN_UNDO_LASTDISBURSAL,
+            BusinessEvents.LOAN_MAKE_REPAYMENT, BusinessEvents.LOAN_UNDO_TRANSACTION, BusinessEvents.LOAN_ADJUST_TRANSACTION,
+            BusinessEvents.LOAN_WAIVE_INTEREST, BusinessEvents.LOAN_WRITTEN_OFF, BusinessEvents.LOAN_UNDO_WRITTEN_OFF,
+            BusinessEvents.LOAN_CLOSE, BusinessEvents.LOAN_CLOSE_AS_RESCHEDULE, BusinessEvents.LOAN_ADD_CHARGE,
+            BusinessEvents.LOAN_UPDATE_CHARGE, BusinessEvents.LOAN_WAIVE_CHARGE, BusinessEvents.LOAN_DELETE_CHARGE,
+            BusinessEvents.LOAN_CHARGE_PAYMENT, BusinessEvents.LOAN_APPLY_OVERDUE_CHARGE, BusinessEvents.LOAN_INTEREST_RECALCULATION,
+            BusinessEvents.LOAN_FORECLOSURE, BusinessEvents.LOAN_REFUND };
+
+    static final BusinessEvents[] SAVINGS_EVENTS = { BusinessEvents.SAVINGS_ACTIVATE, BusinessEvents.SAVINGS_DEPOSIT,
+            BusinessEvents.SAVINGS_WITHDRAWAL, BusinessEvents.SAVINGS_POST_INTEREST, BusinessEvents.SAVINGS_CLOSE };
+
+    private final BusinessEventNotifierService businessEventNotifierService;
+    private final CollectionSheetSnapshotService collectionSheetSnapshotService;
+
+    @Autowired
+    public CollectionSheetSnapshotEventListener(final BusinessEventNotifierService businessEventNotifierService,
+            final CollectionSheetSnapshotService collectionSheetSnapshotService) {
+        this.businessEventNotifierService = businessEventNotifierService;
+        this.collectionSheetSnapshotService = collectionSheetSnapshotService;
+    }
+
+    @PostConstruct
+    public void addListeners() {
+        final LoanChangedListener loanChangedListener = new LoanChangedListener();
+        for (final BusinessEvents event : LOAN_EVENTS) {
+            this.businessEventNotifierService.addBusinessEventPostListeners(event, loanChangedListener);
+        }
+        final SavingsChangedListener savingsChangedListener = new SavingsChangedListener();
+        for (final BusinessEvents event : SAVINGS_EVENTS) {
+            this.businessEventNotifierService.addBusinessEventPostListeners(event, savingsChangedListener);
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(final HookEvent event) {
+        final String entityName = event.getSource().getEntityName();
+        if (event.isFailure() || !SHEET_ENTITIES.contains(entityName) || !this.collectionSheetSnapshotService.isEnabled()) {
+            return;
+        }
+        final JsonObject payload = JsonParser.parseString(event.getPayload()).getAsJsonObject();
+        final JsonElement response = payload.get("response");
+        if (response == null || !response.isJsonObject() || payload.has("status")) {
+            return;
+        }
+        final JsonObject result = response.getAsJsonObject();
+
+        Long groupId = idOf(result, "groupId");
+        if (groupId == null && GROUP_ENTITIES.contains(entityName)) {
+            groupId = idOf(result, "resourceId");
+        }
+        if (groupId != null) {
+            this.collectionSheetSnapshotService.invalidateForGroup(groupId);
+        } else if (CALENDAR_ENTITY.equals(entityName) && idOf(result, "resourceId") != null) {
+            this.collectionSheetSnapshotService.invalidateForCalendar(idOf(result, "resourceId"));
+        }
+
+        final Long clientId = idOf(payload, "clientId") != null ? idOf(payload, "clientId") : idOf(result, "clientId");
+        if (clientId != null) {
+            this.collectionSheetSnapshotService.invalidateForClient(clientId);
+        }
+        invalidateForAccount(idOf(result, "loanId"), PortfolioAccountType.LOAN);
+        invalidateForAccount(idOf(result, "savingsId"), PortfolioAccountType.SAVINGS);
+
+        final JsonElement request = payload.get("request");
+        if (TRANSFER_ENTITIES.contains(entityName) && request != null && request.isJsonObject()) {
+            // only the source account is part of the command result
+            final JsonObject transfer = request.getAsJsonObject();
+            invalidateForAccount(idOf(transfer, "fromAccountId"), PortfolioAccountType.fromInt(intOf(transfer, "fromAccountType")));
+            invalidateForAccount(idOf(transfer, "toAccountId"), PortfolioAccountType.fromInt(intOf(transfer, "toAccountType")));
+        }
+    }
+
+    private void invalidateForAccount(final Long accountId, final PortfolioAccountType accountType) {
+        if (accountId == null || accountType == null) {
+            return;
+        }
+        if (accountType.isLoanAccount()) {
+            this.collectionSheetSnapshotService.invalidateForLoan(accountId);
+        } else if (accountType.isSavingsAccount()) {
+            this.collectionSheetSnapshotService.invalidateForSavingsAccount(accountId);
+        }
+    }
+
+    private static Long idOf(final JsonObject json, final String idField) {
+        final JsonElement id = json.get(idField);
+        if (id == null || !id.isJsonPrimitive()) {
+            return null;
+        }
+        try {
+            return id.getAsLong();
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Integer intOf(final JsonObject json, final String field) {
+        final Long value = idOf(json, field);
+        return value == null ? null : value.intValue();
+    }
+
+    private abstract static class CollectionSheetBusinessEventAdapter implements BusinessEventListener {
+
+        @Override
+        public void businessEventToBeExecuted(final Map<BusinessEntity, Object> businessEventEntity) {}
+    }
+
+    private final class LoanChangedListener extends CollectionSheetBusinessEventAdapter {
+
+        @Override
+        public void businessEventWasExecuted(final Map<BusinessEntity, Object> businessEventEntity) {
+            Loan loan = null;
+            for (final Object entity : businessEventEntity.values()) {
+                if (entity instanceof Loan) {
+                    loan = (Loan) entity;
+                } else if (entity instanceof LoanTransaction) {
+                    loan = ((LoanTransaction) entity).getLoan();
+                } else if (entity instanceof LoanCharge) {
+                    loan = ((LoanCharge) entity).getLoan();
+                }
+            }
+            // individual loans are not part of center and group sheets
+            if (loan != null && loan.getGroupId() != null) {
+                collectionSheetSnapshotService.invalidateForLoan(loan.getId());
+            }
+        }
+    }
+
+    private final class SavingsChangedListener extends CollectionSheetBusinessEventAdapter {
+
+        @Override
+        public void businessEventWasExecuted(final Map<BusinessEntity, Object> businessEventEntity) {
+            SavingsAccount account = null;
+            for (final Object entity : businessEventEntity.values()) {
+                if (entity instanceof SavingsAccount) {
+                    account = (SavingsAccount) entity;
+                } else if (entity instanceof SavingsAccountTransaction) {
+                    account = ((SavingsAccountTransaction) entity).getSavingsAccount();
+                }
+            }
+            if (account != null && account.clientId() != null) {
+                collectionSheetSnapshotService.invalidateForSavingsAccount(account.getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.collectionsheet.service;
+
+import org.apache.fineract.infrastructure.core.api.JsonQuery;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+
+/**
+ * Center and group collection sheets materialised per meeting date in m_collection_sheet_snapshot. Snapshots are built
+ * on first read or by the nightly job and dropped whenever a transaction, attendance or membership change touches the
+ * group, so reads never serve figures older than the last posting.
+ */
+public interface CollectionSheetSnapshotService {
+
+    boolean isEnabled();
+
+    /**
+     * Serialized (compact) collection sheet of the center for the meeting date given in the query.
+     */
+    String retrieveCenterCollectionSheet(Long centerId, JsonQuery query);
+
+    String retrieveGroupCollectionSheet(Long groupId, JsonQuery query);
+
+    void invalidateForLoan(Long loanId);
+
+    void invalidateForSavingsAccount(Long savingsId);
+
+    /**
+     * Drops the snapshots of every group the client is a member of, and of their centers.
+     */
+    void invalidateForClient(Long clientId);
+
+    /**
+     * Drops the snapshots of the group or center the (collection) calendar is attached to.
+     */
+    void invalidateForCalendar(Long calendarId);
+
+    /**
+     * Drops the snapshots of the group or center, of its parent center and of its child groups.
+     */
+    void invalidateForGroup(Long groupId);
+
+    void generateSnapshots() throws JobExecutionException;
+}
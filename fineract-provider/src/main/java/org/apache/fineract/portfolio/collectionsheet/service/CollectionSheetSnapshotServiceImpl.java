@@ -0,0 +1,377 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.collectionsheet.service;
+
+import static org.apache.fineract.portfolio.collectionsheet.CollectionSheetConstants.calendarIdParamName;
+import static org.apache.fineract.portfolio.collectionsheet.CollectionSheetConstants.dateFormatParamName;
+import static org.apache.fineract.portfolio.collectionsheet.CollectionSheetConstants.localeParamName;
+import static org.apache.fineract.portfolio.collectionsheet.CollectionSheetConstants.transactionDateParamName;
+
+import com.google.gson.JsonObject;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.api.JsonQuery;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.portfolio.calendar.domain.CalendarEntityType;
+import org.apache.fineract.portfolio.calendar.domain.CalendarType;
+import org.apache.fineract.portfolio.calendar.service.CalendarUtils;
+import org.apache.fineract.portfolio.collectionsheet.data.JLGCollectionSheetData;
+import org.apache.fineract.portfolio.collectionsheet.serialization.CollectionSheetGenerateCommandFromApiJsonDeserializer;
+import org.apache.fineract.portfolio.group.domain.GroupingTypeStatus;
+import org.apache.fineract.portfolio.group.service.CenterReadPlatformService;
+import org.apache.fineract.portfolio.group.service.GroupReadPlatformService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class CollectionSheetSnapshotServiceImpl implements CollectionSheetSnapshotService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CollectionSheetSnapshotServiceImpl.class);
+    private static final String QUERY_DATE_FORMAT = "yyyy-MM-dd";
+    private static final int CENTER_LEVEL_ID = 1;
+
+    private final DateTimeFormatter sqlDateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private final DateTimeFormatter sqlDateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConfigurationDomainService configurationDomainService;
+    private final CollectionSheetReadPlatformService collectionSheetReadPlatformService;
+    private final CollectionSheetGenerateCommandFromApiJsonDeserializer collectionSheetGenerateCommandFromApiJsonDeserializer;
+    private final CenterReadPlatformService centerReadPlatformService;
+    private final GroupReadPlatformService groupReadPlatformService;
+    private final ToApiJsonSerializer<JLGCollectionSheetData> toApiJsonSerializer;
+    private final FromJsonHelper fromJsonHelper;
+
+    @Autowired
+    public CollectionSheetSnapshotServiceImpl(final RoutingDataSource dataSource, final PlatformTransactionManager transactionManager,
+            final ConfigurationDomainService configurationDomainService,
+            final CollectionSheetReadPlatformService collectionSheetReadPlatformService,
+            final CollectionSheetGenerateCommandFromApiJsonDeserializer collectionSheetGenerateCommandFromApiJsonDeserializer,
+            final CenterReadPlatformService centerReadPlatformService, final GroupReadPlatformService groupReadPlatformService,
+            final ToApiJsonSerializer<JLGCollectionSheetData> toApiJsonSerializer, final FromJsonHelper fromJsonHelper) {
+        this(new JdbcTemplate(dataSource), newTransactionTemplate(transactionManager), configurationDomainService,
+                collectionSheetReadPlatformService, collectionSheetGenerateCommandFromApiJsonDeserializer, centerReadPlatformService,
+                groupReadPlatformService, toApiJsonSerializer, fromJsonHelper);
+    }
+
+    CollectionSheetSnapshotServiceImpl(final JdbcTemplate jdbcTemplate, final TransactionTemplate transactionTemplate,
+            final ConfigurationDomainService configurationDomainService,
+            final CollectionSheetReadPlatformService collectionSheetReadPlatformService,
+            final CollectionSheetGenerateCommandFromApiJsonDeserializer collectionSheetGenerateCommandFromApiJsonDeserializer,
+            final CenterReadPlatformService centerReadPlatformService, final GroupReadPlatformService groupReadPlatformService,
+            final ToApiJsonSerializer<JLGCollectionSheetData> toApiJsonSerializer, final FromJsonHelper fromJsonHelper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.configurationDomainService = configurationDomainService;
+        this.collectionSheetReadPlatformService = collectionSheetReadPlatformService;
+        this.collectionSheetGenerateCommandFromApiJsonDeserializer = collectionSheetGenerateCommandFromApiJsonDeserializer;
+        this.centerReadPlatformService = centerReadPlatformService;
+        this.groupReadPlatformService = groupReadPlatformService;
+        this.toApiJsonSerializer = toApiJsonSerializer;
+        this.fromJsonHelper = fromJsonHelper;
+    }
+
+    private static TransactionTemplate newTransactionTemplate(final PlatformTransactionManager transactionManager) {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        // invalidations run after the command transaction completed, while its resources are still bound
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transactionTemplate;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return this.configurationDomainService.isCollectionSheetSnapshotEnabled();
+    }
+
+    @Override
+    public String retrieveCenterCollectionSheet(final Long centerId, final JsonQuery query) {
+        this.collectionSheetGenerateCommandFromApiJsonDeserializer.validateForGenerateCollectionSheet(query.json());
+        // applies the data scope of the current user before anything is served from the snapshot
+        this.centerReadPlatformService.retrieveOne(centerId);
+
+        final Long calendarId = query.longValueOfParameterNamed(calendarIdParamName);
+        final LocalDate meetingDate = query.localDateValueOfParameterNamed(transactionDateParamName);
+        final String snapshot = findSnapshot(centerId, calendarId, meetingDate);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        final long generation = currentGeneration(centerId);
+        return storeSnapshot(centerId, calendarId, meetingDate, generation,
+                this.collectionSheetReadPlatformService.generateCenterCollectionSheet(centerId, query));
+    }
+
+    @Override
+    public String retrieveGroupCollectionSheet(final Long groupId, final JsonQuery query) {
+        this.collectionSheetGenerateCommandFromApiJsonDeserializer.validateForGenerateCollectionSheet(query.json());
+        this.groupReadPlatformService.retrieveOne(groupId);
+
+        final Long calendarId = query.longValueOfParameterNamed(calendarIdParamName);
+        final LocalDate meetingDate = query.localDateValueOfParameterNamed(transactionDateParamName);
+        final String snapshot = findSnapshot(groupId, calendarId, meetingDate);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        final long generation = currentGeneration(groupId);
+        // the meeting date is validated against the calendar while generating, so only valid dates get a snapshot
+        return storeSnapshot(groupId, calendarId, meetingDate, generation,
+                this.collectionSheetReadPlatformService.generateGroupCollectionSheet(groupId, query));
+    }
+
+    private String findSnapshot(final Long groupId, final Long calendarId, final LocalDate meetingDate) {
+        // snapshots from an earlier business day are ignored, charges and schedules may have moved on since
+        final String generatedSince = this.sqlDateTimeFormatter.format(DateUtils.getLocalDateOfTenant().atStartOfDay());
+        final List<String> snapshots = this.jdbcTemplate.queryForList("select s.sheet_json from m_collection_sheet_snapshot s "
+                + "where s.group_id = ? and s.calendar_id = ? and s.meeting_date = ? and s.generated_on >= ?", String.class, groupId,
+                calendarId, this.sqlDateFormatter.format(meetingDate), generatedSince);
+        return snapshots.isEmpty() ? null : snapshots.get(0);
+    }
+
+    private long currentGeneration(final Long groupId) {
+        final List<Long> generations = this.jdbcTemplate.queryForList(
+                "select gen.generation from m_collection_sheet_generation gen where gen.group_id = ?", Long.class, groupId);
+        return generations.isEmpty() ? 0L : generations.get(0);
+    }
+
+    /**
+     * Stores the sheet only if the group was not invalidated since <code>generation</code> was read, so a sheet built
+     * from data that changed meanwhile can never replace the invalidation. The generation is read with a locking read
+     * by the insert, which serialises it against a concurrent invalidation of the same group.
+     */
+    private String storeSnapshot(final Long groupId, final Long calendarId, final LocalDate meetingDate, final long generation,
+            final JLGCollectionSheetData collectionSheet) {
+        final String json = this.toApiJsonSerializer.serialize(collectionSheet);
+        this.jdbcTemplate.update("insert into m_collection_sheet_snapshot (group_id, calendar_id, meeting_date, sheet_json, generated_on) "
+                + "select ?, ?, ?, ?, ? from dual where ? = (select ifnull(max(gen.generation), 0) from m_collection_sheet_generation gen "
+                + "where gen.group_id = ?) on duplicate key update sheet_json = values(sheet_json), generated_on = values(generated_on)",
+                groupId, calendarId, this.sqlDateFormatter.format(meetingDate), json,
+                this.sqlDateTimeFormatter.format(DateUtils.getLocalDateTimeOfTenant()), generation, groupId);
+        return json;
+    }
+
+    @Override
+    public void invalidateForLoan(final Long loanId) {
+        invalidateGroups("select l.group_id from m_loan l where l.id = ?", loanId);
+    }
+
+    @Override
+    public void invalidateForSavingsAccount(final Long savingsId) {
+        // savings due are listed for every group the account holder is a member of
+        invalidateGroups(
+                "select gc.group_id from m_savings_account sa join m_group_client gc on gc.client_id = sa.client_id where sa.id = ?",
+                savingsId);
+    }
+
+    @Override
+    public void invalidateForClient(final Long clientId) {
+        invalidateGroups("select gc.group_id from m_group_client gc where gc.client_id = ?", clientId);
+    }
+
+    @Override
+    public void invalidateForCalendar(final Long calendarId) {
+        invalidateGroups("select ci.entity_id from m_calendar_instance ci where ci.calendar_id = ? and ci.entity_type_enum in (?, ?)",
+                calendarId, CalendarEntityType.GROUPS.getValue(), CalendarEntityType.CENTERS.getValue());
+    }
+
+    @Override
+    public void invalidateForGroup(final Long groupId) {
+        invalidateGroups("select g.id from m_group g where g.id = ? or g.parent_id = ?", groupId, groupId);
+    }
+
+    /**
+     * Moves the groups selected by the given query and their parent centers to a new generation and deletes their
+     * snapshots once the current transaction has committed, so repayments in the same group do not queue on the
+     * generation row while their transactions are open. Sheets stored before the new generation are deleted by it,
+     * sheets still being built from the previous generation are then not stored.
+     */
+    private void invalidateGroups(final String groupIdsSql, final Object... params) {
+        if (!isEnabled()) {
+            return;
+        }
+        final Object[] bothParams = new Object[params.length * 2];
+        System.arraycopy(params, 0, bothParams, 0, params.length);
+        System.arraycopy(params, 0, bothParams, params.length, params.length);
+        final List<Long> groupIds = this.jdbcTemplate.queryForList("select g.id from m_group g where g.id in (" + groupIdsSql
+                + ") union select pg.parent_id from m_group pg where pg.parent_id is not null and pg.id in (" + groupIdsSql + ")",
+                Long.class, bothParams);
+        if (groupIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            moveToNextGeneration(new TreeSet<>(groupIds));
+            return;
+        }
+        PendingInvalidation pendingInvalidation = (PendingInvalidation) TransactionSynchronizationManager.getResource(this);
+        if (pendingInvalidation == null) {
+            pendingInvalidation = new PendingInvalidation();
+            TransactionSynchronizationManager.bindResource(this, pendingInvalidation);
+            TransactionSynchronizationManager.registerSynchronization(pendingInvalidation);
+        }
+        pendingInvalidation.groupIds.addAll(groupIds);
+    }
+
+    private void moveToNextGeneration(final Set<Long> groupIds) {
+        // ascending order keeps concurrent invalidations of overlapping groups from deadlocking
+        final List<Object[]> batchParams = new ArrayList<>();
+        for (final Long groupId : groupIds) {
+            batchParams.add(new Object[] { groupId });
+        }
+        this.jdbcTemplate.batchUpdate("insert into m_collection_sheet_generation (group_id, generation) values (?, 1) "
+                + "on duplicate key update generation = generation + 1", batchParams);
+        this.jdbcTemplate.batchUpdate("delete from m_collection_sheet_snapshot where group_id = ?", batchParams);
+    }
+
+    /**
+     * Groups to invalidate once the current transaction has committed, collected so a command touching several
+     * accounts of a group moves it to a new generation only once.
+     */
+    private final class PendingInvalidation implements TransactionSynchronization {
+
+        private final Set<Long> groupIds = new TreeSet<>();
+
+        @Override
+        public void afterCompletion(final int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CollectionSheetSnapshotServiceImpl.this);
+            if (status != STATUS_COMMITTED) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(transactionStatus -> moveToNextGeneration(this.groupIds));
+            } catch (final RuntimeException e) {
+                // stale snapshots are still only served on the day they were generated
+                LOG.error("Invalidating collection sheet snapshots of groups {} failed", this.groupIds, e);
+            }
+        }
+    }
+
+    @Override
+    @CronTarget(jobName = JobName.GENERATE_COLLECTION_SHEET_SNAPSHOTS)
+    public void generateSnapshots() throws JobExecutionException {
+        if (!isEnabled()) {
+            return;
+        }
+        final LocalDate today = DateUtils.getLocalDateOfTenant();
+        this.jdbcTemplate.update("delete from m_collection_sheet_snapshot where meeting_date < ?", this.sqlDateFormatter.format(today));
+
+        final MeetingCalendarMapper mapper = new MeetingCalendarMapper();
+        final List<MeetingCalendar> calendars = this.jdbcTemplate.query(mapper.schema(), mapper, CalendarEntityType.GROUPS.getValue(),
+                CalendarEntityType.CENTERS.getValue(), CalendarType.COLLECTION.getValue(), GroupingTypeStatus.ACTIVE.getValue());
+
+        final List<Throwable> errors = new ArrayList<>();
+        int generated = 0;
+        for (final MeetingCalendar calendar : calendars) {
+            // the next meeting on or after today
+            final LocalDate meetingDate = CalendarUtils.getNextRecurringDate(calendar.recurrence, calendar.startDate, today.minusDays(1));
+            if (meetingDate == null) {
+                continue;
+            }
+            try {
+                final long generation = currentGeneration(calendar.groupId);
+                final JsonQuery query = meetingQuery(calendar.calendarId, meetingDate);
+                final JLGCollectionSheetData collectionSheet = calendar.isCenter
+                        ? this.collectionSheetReadPlatformService.generateCenterCollectionSheet(calendar.groupId, query)
+                        : this.collectionSheetReadPlatformService.generateGroupCollectionSheet(calendar.groupId, query);
+                storeSnapshot(calendar.groupId, calendar.calendarId, meetingDate, generation, collectionSheet);
+                generated++;
+            } catch (final RuntimeException e) {
+                LOG.error("Collection sheet snapshot of group {} for {} failed", calendar.groupId, meetingDate, e);
+                errors.add(e);
+            }
+        }
+        LOG.info("Generated {} collection sheet snapshots", generated);
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+    }
+
+    private JsonQuery meetingQuery(final Long calendarId, final LocalDate meetingDate) {
+        final JsonObject query = new JsonObject();
+        query.addProperty(transactionDateParamName, meetingDate.format(DateTimeFormatter.ofPattern(QUERY_DATE_FORMAT)));
+        query.addProperty(dateFormatParamName, QUERY_DATE_FORMAT);
+        query.addProperty(localeParamName, "en");
+        query.addProperty(calendarIdParamName, calendarId);
+        final String json = query.toString();
+        return JsonQuery.from(json, this.fromJsonHelper.parse(json), this.fromJsonHelper);
+    }
+
+    private static final class MeetingCalendar {
+
+        private final Long groupId;
+        private final boolean isCenter;
+        private final Long calendarId;
+        private final LocalDate startDate;
+        private final String recurrence;
+
+        MeetingCalendar(final Long groupId, final boolean isCenter, final Long calendarId, final LocalDate startDate,
+                final String recurrence) {
+            this.groupId = groupId;
+            this.isCenter = isCenter;
+            this.calendarId = calendarId;
+            this.startDate = startDate;
+            this.recurrence = recurrence;
+        }
+    }
+
+    /**
+     * Collection calendars of active centers and of active groups that are not part of a center; groups within a
+     * center are covered by the center sheet.
+     */
+    private static final class MeetingCalendarMapper implements RowMapper<MeetingCalendar> {
+
+        public String schema() {
+            return "select g.id as groupId, g.level_id as levelId, c.id as calendarId, c.start_date as startDate, "
+                    + "c.recurrence as recurrence "
+                    + "from m_calendar_instance ci join m_calendar c on c.id = ci.calendar_id join m_group g on g.id = ci.entity_id "
+                    + "where ci.entity_type_enum in (?, ?) and c.calendar_type_enum = ? and g.status_enum = ? and g.parent_id is null";
+        }
+
+        @Override
+        public MeetingCalendar mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final Long groupId = JdbcSupport.getLong(rs, "groupId");
+            final boolean isCenter = rs.getInt("levelId") == CENTER_LEVEL_ID;
+            final Long calendarId = JdbcSupport.getLong(rs, "calendarId");
+            final LocalDate startDate = JdbcSupport.getLocalDate(rs, "startDate");
+            final String recurrence = rs.getString("recurrence");
+            return new MeetingCalendar(groupId, isCenter, calendarId, startDate, recurrence);
+        }
+    }
+}
@@ -20,13 +20,17 @@ package org.apache.fineract.portfolio.collectionsheet.service;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.data.ApiParameterError;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.portfolio.collectionsheet.command.CollectionSheetBulkDisbursalCommand;
 import org.apache.fineract.portfolio.collectionsheet.command.CollectionSheetBulkRepaymentCommand;
 import org.apache.fineract.portfolio.collectionsheet.data.CollectionSheetTransactionDataValidator;
@@ -39,9 +43,11 @@ import org.apache.fineract.portfolio.paymentdetail.domain.PaymentDetailAssembler
 import org.apache.fineract.portfolio.paymentdetail.service.PaymentDetailWritePlatformService;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionDTO;
 import org.apache.fineract.portfolio.savings.domain.DepositAccountAssembler;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountStatusType;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
 import org.apache.fineract.portfolio.savings.service.DepositAccountWritePlatformService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -56,6 +62,7 @@ public class CollectionSheetWritePlatformServiceJpaRepositoryImpl implements Col
     private final DepositAccountWritePlatformService accountWritePlatformService;
     private final PaymentDetailAssembler paymentDetailAssembler;
     private final PaymentDetailWritePlatformService paymentDetailWritePlatformService;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
     @Autowired
     public CollectionSheetWritePlatformServiceJpaRepositoryImpl(final LoanWritePlatformService loanWritePlatformService,
@@ -64,7 +71,7 @@ public class CollectionSheetWritePlatformServiceJpaRepositoryImpl implements Col
             final CollectionSheetTransactionDataValidator transactionDataValidator,
             final MeetingWritePlatformService meetingWritePlatformService, final DepositAccountAssembler accountAssembler,
             final DepositAccountWritePlatformService accountWritePlatformService, final PaymentDetailAssembler paymentDetailAssembler,
-            final PaymentDetailWritePlatformService paymentDetailWritePlatformService) {
+            final PaymentDetailWritePlatformService paymentDetailWritePlatformService, final RoutingDataSource dataSource) {
         this.loanWritePlatformService = loanWritePlatformService;
         this.bulkRepaymentCommandFromApiJsonDeserializer = bulkRepaymentCommandFromApiJsonDeserializer;
         this.bulkDisbursalCommandFromApiJsonDeserializer = bulkDisbursalCommandFromApiJsonDeserializer;
@@ -74,6 +81,7 @@ public class CollectionSheetWritePlatformServiceJpaRepositoryImpl implements Col
         this.accountWritePlatformService = accountWritePlatformService;
         this.paymentDetailAssembler = paymentDetailAssembler;
         this.paymentDetailWritePlatformService = paymentDetailWritePlatformService;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
     }
 
     @Override
@@ -151,22 +159,75 @@ public class CollectionSheetWritePlatformServiceJpaRepositoryImpl implements Col
         return changes;
     }
 
+    /**
+     * Posts the savings due payments of the sheet and reports the outcome per account: the transaction ids of the
+     * posted deposits under <code>SavingsTransactions</code> and the accounts that could not take their deposit under
+     * <code>rejectedSavingsTransactions</code>. One account that does not exist or is not active does not fail the
+     * whole sheet; it is skipped before posting, because a deposit failing within the sheet transaction would mark
+     * it rollback-only.
+     */
     private Map<String, Object> updateBulkMandatorySavingsDuePayments(final JsonCommand command, final PaymentDetail paymentDetail) {
         final Map<String, Object> changes = new HashMap<>();
         final Collection<SavingsAccountTransactionDTO> savingsTransactions = this.accountAssembler
                 .assembleBulkMandatorySavingsAccountTransactionDTOs(command, paymentDetail);
-        List<Long> depositTransactionIds = new ArrayList<>();
-        for (SavingsAccountTransactionDTO savingsAccountTransactionDTO : savingsTransactions) {
-            try {
-                SavingsAccountTransaction savingsAccountTransaction = this.accountWritePlatformService
-                        .mandatorySavingsAccountDeposit(savingsAccountTransactionDTO);
-                depositTransactionIds.add(savingsAccountTransaction.getId());
-            } catch (Exception e) {
-                // TODO: handle exception
+        final Map<Long, ApiParameterError> rejections = rejectMandatorySavingsDuePayments(savingsTransactions);
+        final List<Long> depositTransactionIds = new ArrayList<>();
+        for (final SavingsAccountTransactionDTO savingsAccountTransactionDTO : savingsTransactions) {
+            if (rejections.containsKey(savingsAccountTransactionDTO.getSavingsAccountId())) {
+                continue;
             }
+            final SavingsAccountTransaction savingsAccountTransaction = this.accountWritePlatformService
+                    .mandatorySavingsAccountDeposit(savingsAccountTransactionDTO);
+            depositTransactionIds.add(savingsAccountTransaction.getId());
         }
         changes.put("SavingsTransactions", depositTransactionIds);
+        if (!rejections.isEmpty()) {
+            changes.put("rejectedSavingsTransactions", new ArrayList<>(rejections.values()));
+        }
         return changes;
     }
 
+    private Map<Long, ApiParameterError> rejectMandatorySavingsDuePayments(
+            final Collection<SavingsAccountTransactionDTO> savingsTransactions) {
+        if (savingsTransactions.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final List<Long> savingsAccountIds = new ArrayList<>();
+        for (final SavingsAccountTransactionDTO savingsAccountTransactionDTO : savingsTransactions) {
+            savingsAccountIds.add(savingsAccountTransactionDTO.getSavingsAccountId());
+        }
+        final Map<Long, Integer> depositTypes = new HashMap<>();
+        final Map<Long, Integer> statuses = new HashMap<>();
+        this.namedParameterJdbcTemplate.query(
+                "select sa.id as id, sa.deposit_type_enum as depositType, sa.status_enum as status from m_savings_account sa "
+                        + "where sa.id in (:ids)",
+                Map.of("ids", savingsAccountIds), rs -> {
+                    depositTypes.put(rs.getLong("id"), rs.getInt("depositType"));
+                    statuses.put(rs.getLong("id"), rs.getInt("status"));
+                });
+        return rejectMandatorySavingsDuePayments(savingsTransactions, depositTypes, statuses);
+    }
+
+    /**
+     * The savings due payments that cannot be posted, keyed by account id in sheet order: accounts that do not exist
+     * as the requested deposit type and accounts that are not active.
+     */
+    static Map<Long, ApiParameterError> rejectMandatorySavingsDuePayments(
+            final Collection<SavingsAccountTransactionDTO> savingsTransactions, final Map<Long, Integer> depositTypes,
+            final Map<Long, Integer> statuses) {
+        final Map<Long, ApiParameterError> rejections = new LinkedHashMap<>();
+        for (final SavingsAccountTransactionDTO savingsAccountTransactionDTO : savingsTransactions) {
+            final Long savingsAccountId = savingsAccountTransactionDTO.getSavingsAccountId();
+            if (!savingsAccountTransactionDTO.getAccountType().equals(depositTypes.get(savingsAccountId))) {
+                rejections.put(savingsAccountId, ApiParameterError.parameterError("error.msg.saving.account.id.invalid",
+                        "Savings account with identifier " + savingsAccountId + " does not exist", "savingsId", savingsAccountId));
+            } else if (!SavingsAccountStatusType.ACTIVE.getValue().equals(statuses.get(savingsAccountId))) {
+                rejections.put(savingsAccountId,
+                        ApiParameterError.parameterError("error.msg.savingsaccount.transaction.account.is.not.active",
+                                "Transaction is not allowed. Account is not active.", "savingsId", savingsAccountId));
+            }
+        }
+        return rejections;
+    }
+
 }
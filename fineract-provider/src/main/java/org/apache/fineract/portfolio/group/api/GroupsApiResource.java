@@ -84,6 +84,7 @@ import org.apache.fineract.portfolio.client.data.ClientData;
 import org.apache.fineract.portfolio.client.service.ClientReadPlatformService;
 import org.apache.fineract.portfolio.collectionsheet.data.JLGCollectionSheetData;
 import org.apache.fineract.portfolio.collectionsheet.service.CollectionSheetReadPlatformService;
+import org.apache.fineract.portfolio.collectionsheet.service.CollectionSheetSnapshotService;
 import org.apache.fineract.portfolio.group.data.GroupGeneralData;
 import org.apache.fineract.portfolio.group.data.GroupRoleData;
 import org.apache.fineract.portfolio.group.service.CenterReadPlatformService;
@@ -120,6 +121,7 @@ public class GroupsApiResource {
     private final ApiRequestParameterHelper apiRequestParameterHelper;
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
     private final CollectionSheetReadPlatformService collectionSheetReadPlatformService;
+    private final CollectionSheetSnapshotService collectionSheetSnapshotService;
     private final FromJsonHelper fromJsonHelper;
     private final GroupRolesReadPlatformService groupRolesReadPlatformService;
     private final AccountDetailsReadPlatformService accountDetailsReadPlatformService;
@@ -149,7 +151,8 @@ public class GroupsApiResource {
             final BulkImportWorkbookService bulkImportWorkbookService,
             final BulkImportWorkbookPopulatorService bulkImportWorkbookPopulatorService,
             final GLIMAccountInfoReadPlatformService glimAccountInfoReadPlatformService,
-            final GSIMReadPlatformService gsimReadPlatformService) {
+            final GSIMReadPlatformService gsimReadPlatformService,
+            final CollectionSheetSnapshotService collectionSheetSnapshotService) {
         this.context = context;
         this.groupReadPlatformService = groupReadPlatformService;
         this.centerReadPlatformService = centerReadPlatformService;
@@ -162,6 +165,7 @@ public class GroupsApiResource {
         this.apiRequestParameterHelper = apiRequestParameterHelper;
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
         this.collectionSheetReadPlatformService = collectionSheetReadPlatformService;
+        this.collectionSheetSnapshotService = collectionSheetSnapshotService;
         this.fromJsonHelper = fromJsonHelper;
         this.groupRolesReadPlatformService = groupRolesReadPlatformService;
         this.accountDetailsReadPlatformService = accountDetailsReadPlatformService;
@@ -492,9 +496,12 @@ public class GroupsApiResource {
         } else if (is(commandParam, "generateCollectionSheet")) {
             final JsonElement parsedQuery = this.fromJsonHelper.parse(apiRequestBodyAsJson);
             final JsonQuery query = JsonQuery.from(apiRequestBodyAsJson, parsedQuery, this.fromJsonHelper);
+            final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+            if (this.collectionSheetSnapshotService.isEnabled() && !settings.isPrettyPrint() && !settings.isPartialResponseRequired()) {
+                return this.collectionSheetSnapshotService.retrieveGroupCollectionSheet(groupId, query);
+            }
             final JLGCollectionSheetData collectionSheet = this.collectionSheetReadPlatformService.generateGroupCollectionSheet(groupId,
                     query);
-            final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
             return this.toApiJsonSerializer.serialize(settings, collectionSheet, GroupingTypesApiConstants.COLLECTIONSHEET_DATA_PARAMETERS);
         } else if (is(commandParam, "saveCollectionSheet")) {
             final CommandWrapper commandRequest = builder.saveGroupCollectionSheet(groupId).build();
@@ -29,59 +29,52 @@ public class ClientAttributeIncentiveCalculation extends AttributeIncentiveCalcu
 
     @Override
     public BigDecimal calculateIncentive(IncentiveDTO incentiveDTO) {
-        final Client client = incentiveDTO.client();
-        BigDecimal interest = incentiveDTO.interest();
         final InterestIncentivesFields incentivesFields = incentiveDTO.incentives();
-        boolean applyIncentive = false;
-        switch (incentivesFields.attributeName()) {
+        return calculateIncentive(incentivesFields, incentiveDTO.interest(),
+                attributeValue(incentiveDTO.client(), incentivesFields.attributeName()));
+    }
+
+    /**
+     * Applies an incentive to the interest, given the value of the client attribute it looks at (see
+     * {@link #attributeValue(Client, InterestIncentiveAttributeName)}). The interest is returned as it is when the client has
+     * no value for the attribute or the condition of the incentive is not met.
+     */
+    public BigDecimal calculateIncentive(final InterestIncentivesFields incentivesFields, final BigDecimal interest,
+            final Long actualValue) {
+        if (actualValue == null
+                || !applyIncentive(incentivesFields.conditionType(), Long.valueOf(incentivesFields.attributeValue()), actualValue)) {
+            return interest;
+        }
+        switch (incentivesFields.incentiveType()) {
+            case FIXED:
+                return incentivesFields.amount();
+            case INCENTIVE:
+                return interest.add(incentivesFields.amount());
+            default:
+                return interest;
+        }
+    }
+
+    /**
+     * @return the value of the attribute of the client an incentive looks at, or null when the client has none
+     */
+    public Long attributeValue(final Client client, final InterestIncentiveAttributeName attributeName) {
+        switch (attributeName) {
             case GENDER:
-                if (client.genderId() != null) {
-                    applyIncentive = applyIncentive(incentivesFields.conditionType(), Long.valueOf(incentivesFields.attributeValue()),
-                            client.genderId());
-                }
-            break;
+                return client.genderId();
             case AGE:
-                if (client.dateOfBirth() != null) {
-                    final LocalDate dobLacalDate = LocalDate.ofInstant(client.dateOfBirth().toInstant(),
-                            DateUtils.getDateTimeZoneOfTenant());
-                    final int age = Math
-                            .toIntExact(ChronoUnit.YEARS.between(dobLacalDate, LocalDate.now(DateUtils.getDateTimeZoneOfTenant())));
-                    applyIncentive = applyIncentive(incentivesFields.conditionType(), Long.valueOf(incentivesFields.attributeValue()),
-                            Long.valueOf(age));
+                if (client.dateOfBirth() == null) {
+                    return null;
                 }
-            break;
+                final LocalDate dobLacalDate = LocalDate.ofInstant(client.dateOfBirth().toInstant(), DateUtils.getDateTimeZoneOfTenant());
+                return Long.valueOf(
+                        Math.toIntExact(ChronoUnit.YEARS.between(dobLacalDate, LocalDate.now(DateUtils.getDateTimeZoneOfTenant()))));
             case CLIENT_TYPE:
-                if (client.clientTypeId() != null) {
-                    applyIncentive = applyIncentive(incentivesFields.conditionType(), Long.valueOf(incentivesFields.attributeValue()),
-                            client.clientTypeId());
-                }
-            break;
+                return client.clientTypeId();
             case CLIENT_CLASSIFICATION:
-                if (client.clientClassificationId() != null) {
-                    applyIncentive = applyIncentive(incentivesFields.conditionType(), Long.valueOf(incentivesFields.attributeValue()),
-                            client.clientClassificationId());
-                }
-            break;
-
+                return client.clientClassificationId();
             default:
-            break;
-
+                return null;
         }
-        if (applyIncentive) {
-            switch (incentivesFields.incentiveType()) {
-                case FIXED:
-                    interest = incentivesFields.amount();
-                break;
-                case INCENTIVE:
-                    interest = interest.add(incentivesFields.amount());
-                break;
-                default:
-                break;
-
-            }
-        }
-
-        return interest;
     }
-
 }
@@ -20,6 +20,7 @@ package org.apache.fineract.portfolio.loanaccount.data;
 
 import java.util.List;
 import org.apache.fineract.organisation.holiday.domain.Holiday;
+import org.apache.fineract.organisation.holiday.service.HolidayCalendar;
 import org.apache.fineract.organisation.workingdays.domain.WorkingDays;
 
 public class HolidayDetailDTO {
@@ -29,17 +30,31 @@ public class HolidayDetailDTO {
     final WorkingDays workingDays;
     final boolean allowTransactionsOnHoliday;
     final boolean allowTransactionsOnNonWorkingDay;
+    private final Long officeId;
+    private HolidayCalendar holidayCalendar;
 
     public HolidayDetailDTO(final boolean isHolidayEnabled, final List<Holiday> holidays, final WorkingDays workingDays) {
-        this.isHolidayEnabled = isHolidayEnabled;
-        this.holidays = holidays;
-        this.workingDays = workingDays;
-        this.allowTransactionsOnHoliday = false;
-        this.allowTransactionsOnNonWorkingDay = false;
+        this(null, isHolidayEnabled, holidays, workingDays, false, false);
+    }
+
+    public HolidayDetailDTO(final Long officeId, final boolean isHolidayEnabled, final List<Holiday> holidays,
+            final WorkingDays workingDays) {
+        this(officeId, isHolidayEnabled, holidays, workingDays, false, false);
     }
 
     public HolidayDetailDTO(final boolean isHolidayEnabled, final List<Holiday> holidays, final WorkingDays workingDays,
             final boolean allowTransactionsOnHoliday, final boolean allowTransactionsOnNonWorkingDay) {
+        this(null, isHolidayEnabled, holidays, workingDays, allowTransactionsOnHoliday, allowTransactionsOnNonWorkingDay);
+    }
+
+    /**
+     * @param officeId
+     *            the office the holidays were loaded for, their compiled calendar is shared with other details of the
+     *            office
+     */
+    public HolidayDetailDTO(final Long officeId, final boolean isHolidayEnabled, final List<Holiday> holidays,
+            final WorkingDays workingDays, final boolean allowTransactionsOnHoliday, final boolean allowTransactionsOnNonWorkingDay) {
+        this.officeId = officeId;
         this.isHolidayEnabled = isHolidayEnabled;
         this.holidays = holidays;
         this.workingDays = workingDays;
@@ -66,4 +81,15 @@ public class HolidayDetailDTO {
     public boolean isAllowTransactionsOnNonWorkingDay() {
         return this.allowTransactionsOnNonWorkingDay;
     }
+
+    /**
+     * The holidays compiled for date lookups, built on first use and reused for every schedule generated with these
+     * details.
+     */
+    public HolidayCalendar getHolidayCalendar() {
+        if (this.holidayCalendar == null) {
+            this.holidayCalendar = HolidayCalendar.forOffice(this.officeId, this.holidays);
+        }
+        return this.holidayCalendar;
+    }
 }
@@ -430,6 +430,10 @@ public final class LoanAccountData {
         return clientId;
     }
 
+    public Long getGroupId() {
+        return groupId;
+    }
+
     public String getClientName() {
         return clientName;
     }
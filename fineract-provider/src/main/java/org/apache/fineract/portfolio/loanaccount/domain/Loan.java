@@ -63,6 +63,8 @@ import javax.persistence.UniqueConstraint;
 import javax.persistence.Version;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.accounting.journalentry.data.LoanDTO;
+import org.apache.fineract.accounting.journalentry.data.LoanTransactionDTO;
 import org.apache.fineract.infrastructure.codes.domain.CodeValue;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.ApiParameterError;
@@ -73,7 +75,6 @@ import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.security.service.RandomPasswordGenerator;
 import org.apache.fineract.organisation.holiday.domain.Holiday;
 import org.apache.fineract.organisation.holiday.service.HolidayUtil;
-import org.apache.fineract.organisation.monetary.data.CurrencyData;
 import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
@@ -4317,32 +4318,25 @@ public class Loan extends AbstractPersistableCustom {
         return this.proposedPrincipal;
     }
 
-    public Map<String, Object> deriveAccountingBridgeData(final CurrencyData currencyData, final List<Long> existingTransactionIds,
-            final List<Long> existingReversedTransactionIds, boolean isAccountTransfer) {
-
-        final Map<String, Object> accountingBridgeData = new LinkedHashMap<>();
-        accountingBridgeData.put("loanId", getId());
-        accountingBridgeData.put("loanProductId", productId());
-        accountingBridgeData.put("officeId", getOfficeId());
-        accountingBridgeData.put("currency", currencyData);
-        accountingBridgeData.put("calculatedInterest", this.summary.getTotalInterestCharged());
-        accountingBridgeData.put("cashBasedAccountingEnabled", isCashBasedAccountingEnabledOnLoanProduct());
-        accountingBridgeData.put("upfrontAccrualBasedAccountingEnabled", isUpfrontAccrualAccountingEnabledOnLoanProduct());
-        accountingBridgeData.put("periodicAccrualBasedAccountingEnabled", isPeriodicAccrualAccountingEnabledOnLoanProduct());
-        accountingBridgeData.put("isAccountTransfer", isAccountTransfer);
+    /**
+     * @return the transactions added or reversed since <code>existingTransactionIds</code> and
+     *         <code>existingReversedTransactionIds</code> were collected, as journal entries are derived from them
+     */
+    public LoanDTO deriveAccountingBridgeData(final List<Long> existingTransactionIds, final List<Long> existingReversedTransactionIds,
+            boolean isAccountTransfer) {
 
-        final List<Map<String, Object>> newLoanTransactions = new ArrayList<>();
+        final List<LoanTransactionDTO> newLoanTransactions = new ArrayList<>();
         for (final LoanTransaction transaction : this.loanTransactions) {
             if (transaction.isReversed() && existingTransactionIds.contains(transaction.getId())
                     && !existingReversedTransactionIds.contains(transaction.getId())) {
-                newLoanTransactions.add(transaction.toMapData(currencyData));
+                newLoanTransactions.add(transaction.toAccountingTransaction(isAccountTransfer));
             } else if (!existingTransactionIds.contains(transaction.getId())) {
-                newLoanTransactions.add(transaction.toMapData(currencyData));
+                newLoanTransactions.add(transaction.toAccountingTransaction(isAccountTransfer));
             }
         }
 
-        accountingBridgeData.put("newLoanTransactions", newLoanTransactions);
-        return accountingBridgeData;
+        return new LoanDTO(getId(), productId(), getOfficeId(), getCurrencyCode(), isCashBasedAccountingEnabledOnLoanProduct(),
+                isUpfrontAccrualAccountingEnabledOnLoanProduct(), isPeriodicAccrualAccountingEnabledOnLoanProduct(), newLoanTransactions);
     }
 
     public Money getReceivableInterest(final LocalDate tillDate) {
@@ -122,6 +122,16 @@ public interface LoanRepository extends JpaRepository<Loan, Long>, JpaSpecificat
     @Query("select loan from Loan loan where loan.glim.id = :glimId")
     List<Loan> findByGlimId(@Param("glimId") Long glimId);
 
+    /**
+     * Loans together with every collection a repayment touches. With OpenJPA's default parallel eager fetch mode each
+     * collection is loaded by one select for all the given loans, rather than one select per loan and collection.
+     */
+    @Query("select distinct loan from Loan loan left join fetch loan.repaymentScheduleInstallments left join fetch loan.loanTransactions "
+            + "left join fetch loan.charges left join fetch loan.trancheCharges left join fetch loan.disbursementDetails "
+            + "left join fetch loan.loanTermVariations left join fetch loan.collateral left join fetch loan.loanOfficerHistory "
+            + "where loan.id IN :ids")
+    List<Loan> findByIdInWithCollections(@Param("ids") Collection<Long> ids);
+
     @Query("select loan from Loan loan where loan.id IN :ids and loan.loanStatus IN :loanStatuses and loan.loanType IN :loanTypes")
     List<Loan> findByIdsAndLoanStatusAndLoanType(@Param("ids") Collection<Long> ids,
             @Param("loanStatuses") Collection<Integer> loanStatuses, @Param("loanTypes") Collection<Integer> loanTypes);
@@ -180,6 +180,10 @@ public class LoanRepositoryWrapper {
         return loans;
     }
 
+    public List<Loan> findByIdIn(final Collection<Long> ids) {
+        return this.repository.findByIdInWithCollections(ids);
+    }
+
     // This method is not used
     public List<Long> getLoansDisbursedAfter(@Param("disbursalDate") Date disbursalDate) {
         return this.repository.getLoansDisbursedAfter(disbursalDate);
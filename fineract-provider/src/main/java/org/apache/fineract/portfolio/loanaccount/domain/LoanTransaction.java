@@ -25,9 +25,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -40,6 +38,8 @@ import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 import javax.persistence.UniqueConstraint;
+import org.apache.fineract.accounting.journalentry.data.ChargePaymentDTO;
+import org.apache.fineract.accounting.journalentry.data.LoanTransactionDTO;
 import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.organisation.monetary.data.CurrencyData;
@@ -617,44 +617,26 @@ public class LoanTransaction extends AbstractPersistableCustom {
                 transfer, null, outstandingLoanBalance, this.unrecognizedIncomePortion, this.manuallyAdjustedOrReversed);
     }
 
-    public Map<String, Object> toMapData(final CurrencyData currencyData) {
-        final Map<String, Object> thisTransactionData = new LinkedHashMap<>();
-
+    public LoanTransactionDTO toAccountingTransaction(final boolean isAccountTransfer) {
         final LoanTransactionEnumData transactionType = LoanEnumerations.transactionType(this.typeOf);
-
-        thisTransactionData.put("id", getId());
-        thisTransactionData.put("officeId", this.office.getId());
-        thisTransactionData.put("type", transactionType);
-        thisTransactionData.put("reversed", Boolean.valueOf(isReversed()));
-        thisTransactionData.put("date", getTransactionDate());
-        thisTransactionData.put("currency", currencyData);
-        thisTransactionData.put("amount", this.amount);
-        thisTransactionData.put("netDisbursalAmount", this.loan.getNetDisbursalAmount());
-        thisTransactionData.put("principalPortion", this.principalPortion);
-        thisTransactionData.put("interestPortion", this.interestPortion);
-        thisTransactionData.put("feeChargesPortion", this.feeChargesPortion);
-        thisTransactionData.put("penaltyChargesPortion", this.penaltyChargesPortion);
-        thisTransactionData.put("overPaymentPortion", this.overPaymentPortion);
-
-        if (this.paymentDetail != null) {
-            thisTransactionData.put("paymentTypeId", this.paymentDetail.getPaymentType().getId());
-        }
-
-        if (!this.loanChargesPaid.isEmpty()) {
-            final List<Map<String, Object>> loanChargesPaidData = new ArrayList<>();
-            for (final LoanChargePaidBy chargePaidBy : this.loanChargesPaid) {
-                final Map<String, Object> loanChargePaidData = new LinkedHashMap<>();
-                loanChargePaidData.put("chargeId", chargePaidBy.getLoanCharge().getCharge().getId());
-                loanChargePaidData.put("isPenalty", chargePaidBy.getLoanCharge().isPenaltyCharge());
-                loanChargePaidData.put("loanChargeId", chargePaidBy.getLoanCharge().getId());
-                loanChargePaidData.put("amount", chargePaidBy.getAmount());
-
-                loanChargesPaidData.add(loanChargePaidData);
+        final Date transactionDate = Date.from(getTransactionDate().atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant());
+        final Long paymentTypeId = this.paymentDetail == null ? null : this.paymentDetail.getPaymentType().getId();
+
+        final List<ChargePaymentDTO> feePayments = new ArrayList<>();
+        final List<ChargePaymentDTO> penaltyPayments = new ArrayList<>();
+        for (final LoanChargePaidBy chargePaidBy : this.loanChargesPaid) {
+            final ChargePaymentDTO chargePayment = new ChargePaymentDTO(chargePaidBy.getLoanCharge().getCharge().getId(),
+                    chargePaidBy.getLoanCharge().getId(), chargePaidBy.getAmount());
+            if (chargePaidBy.getLoanCharge().isPenaltyCharge()) {
+                penaltyPayments.add(chargePayment);
+            } else {
+                feePayments.add(chargePayment);
             }
-            thisTransactionData.put("loanChargesPaid", loanChargesPaidData);
         }
 
-        return thisTransactionData;
+        return new LoanTransactionDTO(this.office.getId(), paymentTypeId, getId().toString(), transactionDate, transactionType,
+                this.amount, this.principalPortion, this.interestPortion, this.feeChargesPortion, this.penaltyChargesPortion,
+                this.overPaymentPortion, isReversed(), feePayments, penaltyPayments, isAccountTransfer);
     }
 
     public Loan getLoan() {
@@ -196,8 +196,8 @@ public class DefaultScheduledDateGenerator implements ScheduledDateGenerator {
          * Check Changed Schedule Date is holiday or is not a working day Then re-call this method to get the non
          * holiday and working day
          */
-        if ((holidayDetailDTO.isHolidayEnabled() && HolidayUtil.getApplicableHoliday(adjustedDateDetailsDTO.getChangedScheduleDate(),
-                holidayDetailDTO.getHolidays()) != null)
+        if ((holidayDetailDTO.isHolidayEnabled()
+                && holidayDetailDTO.getHolidayCalendar().getApplicableHoliday(adjustedDateDetailsDTO.getChangedScheduleDate()) != null)
                 || WorkingDaysUtil.isNonWorkingDay(holidayDetailDTO.getWorkingDays(), adjustedDateDetailsDTO.getChangedScheduleDate())) {
             recursivelyCheckNonWorkingDaysAndHolidaysAndWorkingDaysExemptionToGenerateNextRepaymentPeriodDate(adjustedDateDetailsDTO,
                     loanApplicationTerms, holidayDetailDTO, isFirstRepayment);
@@ -217,8 +217,8 @@ public class DefaultScheduledDateGenerator implements ScheduledDateGenerator {
             final HolidayDetailDTO holidayDetailDTO, final LoanApplicationTerms loanApplicationTerms, final boolean isFirstRepayment) {
         if (holidayDetailDTO.isHolidayEnabled()) {
             Holiday applicableHolidayForNewAdjustedDate = null;
-            while ((applicableHolidayForNewAdjustedDate = HolidayUtil.getApplicableHoliday(adjustedDateDetailsDTO.getChangedScheduleDate(),
-                    holidayDetailDTO.getHolidays())) != null) {
+            while ((applicableHolidayForNewAdjustedDate = holidayDetailDTO.getHolidayCalendar()
+                    .getApplicableHoliday(adjustedDateDetailsDTO.getChangedScheduleDate())) != null) {
                 if (applicableHolidayForNewAdjustedDate.getReScheduleType().isResheduleToNextRepaymentDate()) {
                     LocalDate nextRepaymentPeriodDueDate = adjustedDateDetailsDTO.getChangedActualRepaymentDate();
                     while (!nextRepaymentPeriodDueDate.isAfter(adjustedDateDetailsDTO.getChangedScheduleDate())) {
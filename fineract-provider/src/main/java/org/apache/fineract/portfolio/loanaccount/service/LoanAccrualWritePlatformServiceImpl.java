@@ -26,16 +26,15 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import javax.sql.DataSource;
+import org.apache.fineract.accounting.journalentry.data.ChargePaymentDTO;
+import org.apache.fineract.accounting.journalentry.data.LoanDTO;
+import org.apache.fineract.accounting.journalentry.data.LoanTransactionDTO;
 import org.apache.fineract.accounting.journalentry.service.JournalEntryWritePlatformService;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
-import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
-import org.apache.fineract.organisation.monetary.domain.ApplicationCurrencyRepositoryWrapper;
-import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
 import org.apache.fineract.portfolio.loanaccount.data.LoanChargeData;
 import org.apache.fineract.portfolio.loanaccount.data.LoanInstallmentChargeData;
@@ -65,13 +64,12 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
     private final JournalEntryWritePlatformService journalEntryWritePlatformService;
     private final AppUserRepositoryWrapper userRepository;
     private final LoanRepositoryWrapper loanRepositoryWrapper;
-    private final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository;
 
     @Autowired
     public LoanAccrualWritePlatformServiceImpl(final RoutingDataSource dataSource, final LoanReadPlatformService loanReadPlatformService,
             final JournalEntryWritePlatformService journalEntryWritePlatformService,
             final LoanChargeReadPlatformService loanChargeReadPlatformService, final AppUserRepositoryWrapper userRepository,
-            final LoanRepositoryWrapper loanRepositoryWrapper, final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository) {
+            final LoanRepositoryWrapper loanRepositoryWrapper) {
         this.loanReadPlatformService = loanReadPlatformService;
         this.dataSource = dataSource;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
@@ -79,7 +77,6 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         this.loanChargeReadPlatformService = loanChargeReadPlatformService;
         this.userRepository = userRepository;
         this.loanRepositoryWrapper = loanRepositoryWrapper;
-        this.applicationCurrencyRepository = applicationCurrencyRepository;
     }
 
     @Override
@@ -284,7 +281,7 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
                     scheduleAccrualData.getInstallmentNumber());
         }
 
-        Map<String, Object> transactionMap = toMapData(transactonId, amount, interestportion, feeportion, penaltyportion,
+        final LoanTransactionDTO transaction = toAccountingTransaction(transactonId, amount, interestportion, feeportion, penaltyportion,
                 scheduleAccrualData, accruedTill);
 
         String repaymetUpdatesql = "UPDATE m_loan_repayment_schedule SET accrual_interest_derived=?, accrual_fee_charges_derived=?, "
@@ -295,67 +292,53 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         String updateLoan = "UPDATE m_loan  SET accrued_till=?  WHERE  id=?";
         this.jdbcTemplate.update(updateLoan, Date.from(accruedTill.atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant()),
                 scheduleAccrualData.getLoanId());
-        final Map<String, Object> accountingBridgeData = deriveAccountingBridgeData(scheduleAccrualData, transactionMap);
+        final LoanDTO accountingBridgeData = deriveAccountingBridgeData(scheduleAccrualData, transaction);
         this.journalEntryWritePlatformService.createJournalEntriesForLoan(accountingBridgeData);
     }
 
-    public Map<String, Object> deriveAccountingBridgeData(final LoanScheduleAccrualData loanScheduleAccrualData,
-            final Map<String, Object> transactionMap) {
+    public LoanDTO deriveAccountingBridgeData(final LoanScheduleAccrualData loanScheduleAccrualData,
+            final LoanTransactionDTO transaction) {
 
-        final Map<String, Object> accountingBridgeData = new LinkedHashMap<>();
-        accountingBridgeData.put("loanId", loanScheduleAccrualData.getLoanId());
-        accountingBridgeData.put("loanProductId", loanScheduleAccrualData.getLoanProductId());
-        accountingBridgeData.put("officeId", loanScheduleAccrualData.getOfficeId());
-        accountingBridgeData.put("currency", loanScheduleAccrualData.getCurrencyData());
-        accountingBridgeData.put("cashBasedAccountingEnabled", false);
-        accountingBridgeData.put("upfrontAccrualBasedAccountingEnabled", false);
-        accountingBridgeData.put("periodicAccrualBasedAccountingEnabled", true);
-        accountingBridgeData.put("isAccountTransfer", false);
+        final boolean cashBasedAccountingEnabled = false;
+        final boolean upfrontAccrualBasedAccountingEnabled = false;
+        final boolean periodicAccrualBasedAccountingEnabled = true;
+        final List<LoanTransactionDTO> newLoanTransactions = new ArrayList<>();
+        newLoanTransactions.add(transaction);
 
-        final List<Map<String, Object>> newLoanTransactions = new ArrayList<>();
-        newLoanTransactions.add(transactionMap);
-
-        accountingBridgeData.put("newLoanTransactions", newLoanTransactions);
-        return accountingBridgeData;
+        return new LoanDTO(loanScheduleAccrualData.getLoanId(), loanScheduleAccrualData.getLoanProductId(),
+                loanScheduleAccrualData.getOfficeId(), loanScheduleAccrualData.getCurrencyData().code(), cashBasedAccountingEnabled,
+                upfrontAccrualBasedAccountingEnabled, periodicAccrualBasedAccountingEnabled, newLoanTransactions);
     }
 
-    public Map<String, Object> toMapData(final Long id, final BigDecimal amount, final BigDecimal interestportion,
+    public LoanTransactionDTO toAccountingTransaction(final Long id, final BigDecimal amount, final BigDecimal interestportion,
             final BigDecimal feeportion, final BigDecimal penaltyportion, final LoanScheduleAccrualData loanScheduleAccrualData,
             final LocalDate accruredTill) {
-        final Map<String, Object> thisTransactionData = new LinkedHashMap<>();
-
         final LoanTransactionEnumData transactionType = LoanEnumerations.transactionType(LoanTransactionType.ACCRUAL);
+        final Date transactionDate = Date.from(accruredTill.atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant());
 
-        thisTransactionData.put("id", id);
-        thisTransactionData.put("officeId", loanScheduleAccrualData.getOfficeId());
-        thisTransactionData.put("type", transactionType);
-        thisTransactionData.put("reversed", false);
-        thisTransactionData.put("date", accruredTill);
-        thisTransactionData.put("currency", loanScheduleAccrualData.getCurrencyData());
-        thisTransactionData.put("amount", amount);
-        thisTransactionData.put("principalPortion", null);
-        thisTransactionData.put("interestPortion", interestportion);
-        thisTransactionData.put("feeChargesPortion", feeportion);
-        thisTransactionData.put("penaltyChargesPortion", penaltyportion);
-        thisTransactionData.put("overPaymentPortion", null);
-
+        final List<ChargePaymentDTO> feePayments = new ArrayList<>();
+        final List<ChargePaymentDTO> penaltyPayments = new ArrayList<>();
         Map<LoanChargeData, BigDecimal> applicableCharges = loanScheduleAccrualData.getApplicableCharges();
-        if (applicableCharges != null && !applicableCharges.isEmpty()) {
-            final List<Map<String, Object>> loanChargesPaidData = new ArrayList<>();
+        if (applicableCharges != null) {
             for (Map.Entry<LoanChargeData, BigDecimal> entry : applicableCharges.entrySet()) {
                 LoanChargeData chargeData = entry.getKey();
-                final Map<String, Object> loanChargePaidData = new LinkedHashMap<>();
-                loanChargePaidData.put("chargeId", chargeData.getChargeId());
-                loanChargePaidData.put("isPenalty", chargeData.isPenalty());
-                loanChargePaidData.put("loanChargeId", chargeData.getId());
-                loanChargePaidData.put("amount", entry.getValue());
-
-                loanChargesPaidData.add(loanChargePaidData);
+                final ChargePaymentDTO chargePayment = new ChargePaymentDTO(chargeData.getChargeId(), chargeData.getId(), entry.getValue());
+                if (chargeData.isPenalty()) {
+                    penaltyPayments.add(chargePayment);
+                } else {
+                    feePayments.add(chargePayment);
+                }
             }
-            thisTransactionData.put("loanChargesPaid", loanChargesPaidData);
         }
 
-        return thisTransactionData;
+        final Long paymentTypeId = null;
+        final BigDecimal principal = null;
+        final BigDecimal overPayment = null;
+        final boolean reversed = false;
+        final boolean isAccountTransfer = false;
+        return new LoanTransactionDTO(loanScheduleAccrualData.getOfficeId(), paymentTypeId, id.toString(), transactionDate,
+                transactionType, amount, principal, interestportion, feeportion, penaltyportion, overPayment, reversed, feePayments,
+                penaltyPayments, isAccountTransfer);
     }
 
     private void updateCharges(final Collection<LoanChargeData> chargesData, final LoanScheduleAccrualData accrualData,
@@ -507,11 +490,9 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
 
     private void postJournalEntries(final Loan loan, final List<Long> existingTransactionIds,
             final List<Long> existingReversedTransactionIds) {
-        final MonetaryCurrency currency = loan.getCurrency();
-        final ApplicationCurrency applicationCurrency = this.applicationCurrencyRepository.findOneWithNotFoundDetection(currency);
         boolean isAccountTransfer = false;
-        final Map<String, Object> accountingBridgeData = loan.deriveAccountingBridgeData(applicationCurrency.toData(),
-                existingTransactionIds, existingReversedTransactionIds, isAccountTransfer);
+        final LoanDTO accountingBridgeData = loan.deriveAccountingBridgeData(existingTransactionIds, existingReversedTransactionIds,
+                isAccountTransfer);
         this.journalEntryWritePlatformService.createJournalEntriesForLoan(accountingBridgeData);
     }
 }
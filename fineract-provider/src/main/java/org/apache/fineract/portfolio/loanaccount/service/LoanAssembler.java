@@ -23,9 +23,12 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import org.apache.fineract.infrastructure.codes.domain.CodeValue;
 import org.apache.fineract.infrastructure.codes.domain.CodeValueRepositoryWrapper;
@@ -150,6 +153,22 @@ public class LoanAssembler {
         return loanAccount;
     }
 
+    /**
+     * Loads all the given loans in a single query, keyed by loan id. Identifiers that do not match a loan are simply
+     * absent from the returned map.
+     */
+    public Map<Long, Loan> assembleFrom(final Collection<Long> accountIds) {
+        final Map<Long, Loan> loans = new HashMap<>();
+        if (accountIds.isEmpty()) {
+            return loans;
+        }
+        for (final Loan loanAccount : this.loanRepository.findByIdIn(accountIds)) {
+            setHelpers(loanAccount);
+            loans.put(loanAccount.getId(), loanAccount);
+        }
+        return loans;
+    }
+
     public void setHelpers(final Loan loanAccount) {
         loanAccount.setHelpers(defaultLoanLifecycleStateMachine(), this.loanSummaryWrapper,
                 this.loanRepaymentScheduleTransactionProcessorFactory);
@@ -112,6 +112,12 @@ public interface LoanReadPlatformService {
 
     List<Long> fetchLoansForInterestRecalculation(Integer pageSize, Long maxLoanIdInList, String officeHierarchy);
 
+    /**
+     * Pending, approved and active loans of the holiday's offices with an installment due on or after the holiday
+     * starts, that the holiday was not applied to yet or whose interest is still to be recalculated after it was.
+     */
+    List<Long> retrieveLoanIdsAffectedByHoliday(Long holidayId, LocalDate holidayFromDate);
+
     LoanTransactionData retrieveLoanPrePaymentTemplate(Long loanId, LocalDate onDate);
 
     Collection<LoanTransactionData> retrieveWaiverLoanTransactions(Long loanId);
@@ -54,6 +54,8 @@ import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
 import org.apache.fineract.organisation.monetary.domain.ApplicationCurrencyRepositoryWrapper;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.office.service.OfficeHierarchyService;
+import org.apache.fineract.organisation.office.service.OfficeScope;
 import org.apache.fineract.organisation.staff.data.StaffData;
 import org.apache.fineract.organisation.staff.service.StaffReadPlatformService;
 import org.apache.fineract.portfolio.account.data.AccountTransferData;
@@ -155,6 +157,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
     private final ConfigurationDomainService configurationDomainService;
     private final AccountDetailsReadPlatformService accountDetailsReadPlatformService;
     private final ColumnValidator columnValidator;
+    private final OfficeHierarchyService officeHierarchyService;
 
     @Autowired
     public LoanReadPlatformServiceImpl(final PlatformSecurityContext context,
@@ -169,7 +172,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
             final FloatingRatesReadPlatformService floatingRatesReadPlatformService, final LoanUtilService loanUtilService,
             final ConfigurationDomainService configurationDomainService,
             final AccountDetailsReadPlatformService accountDetailsReadPlatformService, final LoanRepositoryWrapper loanRepositoryWrapper,
-            final ColumnValidator columnValidator) {
+            final ColumnValidator columnValidator, final OfficeHierarchyService officeHierarchyService) {
         this.context = context;
         this.loanRepositoryWrapper = loanRepositoryWrapper;
         this.applicationCurrencyRepository = applicationCurrencyRepository;
@@ -191,15 +194,14 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         this.configurationDomainService = configurationDomainService;
         this.accountDetailsReadPlatformService = accountDetailsReadPlatformService;
         this.columnValidator = columnValidator;
+        this.officeHierarchyService = officeHierarchyService;
     }
 
     @Override
     public LoanAccountData retrieveOne(final Long loanId) {
 
         try {
-            final AppUser currentUser = this.context.authenticatedUser();
-            final String hierarchy = currentUser.getOffice().getHierarchy();
-            final String hierarchySearchString = hierarchy + "%";
+            final OfficeScope officeScope = this.officeHierarchyService.currentUserScope();
 
             final LoanMapper rm = new LoanMapper();
 
@@ -207,11 +209,10 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
             sqlBuilder.append("select ");
             sqlBuilder.append(rm.loanSchema());
             sqlBuilder.append(" join m_office o on (o.id = c.office_id or o.id = g.office_id) ");
-            sqlBuilder.append(" left join m_office transferToOffice on transferToOffice.id = c.transfer_to_office_id ");
-            sqlBuilder.append(" where l.id=? and ( o.hierarchy like ? or transferToOffice.hierarchy like ?)");
+            sqlBuilder.append(" where l.id=? and (").append(officeScope.sqlCondition("o.id")).append(" or ")
+                    .append(officeScope.sqlCondition("c.transfer_to_office_id")).append(")");
 
-            return this.jdbcTemplate.queryForObject(sqlBuilder.toString(), rm,
-                    new Object[] { loanId, hierarchySearchString, hierarchySearchString });
+            return this.jdbcTemplate.queryForObject(sqlBuilder.toString(), rm, new Object[] { loanId });
         } catch (final EmptyResultDataAccessException e) {
             throw new LoanNotFoundException(loanId, e);
         }
@@ -288,9 +289,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
     @Override
     public Page<LoanAccountData> retrieveAll(final SearchParameters searchParameters) {
 
-        final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String hierarchySearchString = hierarchy + "%";
+        final OfficeScope officeScope = this.officeHierarchyService.currentUserScope();
 
         final StringBuilder sqlBuilder = new StringBuilder(200);
         sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
@@ -302,13 +301,11 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         // probably require a UNION query
         // but that at present is an edge case
         sqlBuilder.append(" join m_office o on (o.id = c.office_id or o.id = g.office_id) ");
-        sqlBuilder.append(" left join m_office transferToOffice on transferToOffice.id = c.transfer_to_office_id ");
-        sqlBuilder.append(" where ( o.hierarchy like ? or transferToOffice.hierarchy like ?)");
+        sqlBuilder.append(" where (").append(officeScope.sqlCondition("o.id")).append(" or ")
+                .append(officeScope.sqlCondition("c.transfer_to_office_id")).append(")");
 
-        int arrayPos = 2;
+        int arrayPos = 0;
         List<Object> extraCriterias = new ArrayList<>();
-        extraCriterias.add(hierarchySearchString);
-        extraCriterias.add(hierarchySearchString);
 
         if (searchParameters != null) {
 
@@ -1842,6 +1839,21 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         }
     }
 
+    @Override
+    public List<Long> retrieveLoanIdsAffectedByHoliday(final Long holidayId, final LocalDate holidayFromDate) {
+        // individual and JLG loans follow the client's office, group loans the group's office
+        final String sql = "select ml.id from m_loan ml left join m_client mc on mc.id = ml.client_id"
+                + " left join m_group mg on mg.id = ml.group_id"
+                + " where ml.loan_status_id in (?, ?, ?)"
+                + " and exists (select 1 from m_holiday_office ho where ho.holiday_id = ?"
+                + " and (ho.office_id = mc.office_id or ho.office_id = mg.office_id))"
+                + " and exists (select 1 from m_loan_repayment_schedule mr where mr.loan_id = ml.id and mr.duedate >= ?)"
+                + " and not exists (select 1 from m_holiday_loan hl where hl.holiday_id = ? and hl.loan_id = ml.id"
+                + " and hl.recalculate_interest = 0)";
+        return this.jdbcTemplate.queryForList(sql, Long.class, LoanStatus.SUBMITTED_AND_PENDING_APPROVAL.getValue(),
+                LoanStatus.APPROVED.getValue(), LoanStatus.ACTIVE.getValue(), holidayId, formatter.format(holidayFromDate), holidayId);
+    }
+
     @Override
     public List<Long> fetchLoansForInterestRecalculation(Integer pageSize, Long maxLoanIdInList, String officeHierarchy) {
         StringBuilder sqlBuilder = new StringBuilder();
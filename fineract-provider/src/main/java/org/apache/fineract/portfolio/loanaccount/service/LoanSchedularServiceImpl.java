@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.portfolio.loanaccount.service;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -38,9 +39,14 @@ import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.PerEntityJob;
+import org.apache.fineract.infrastructure.jobs.service.PerEntityJobRunner;
+import org.apache.fineract.organisation.holiday.domain.Holiday;
+import org.apache.fineract.organisation.holiday.domain.HolidayRepositoryWrapper;
 import org.apache.fineract.organisation.office.data.OfficeData;
 import org.apache.fineract.organisation.office.exception.OfficeNotFoundException;
 import org.apache.fineract.organisation.office.service.OfficeReadPlatformService;
+import org.apache.fineract.portfolio.collectionsheet.service.CollectionSheetSnapshotService;
 import org.apache.fineract.portfolio.loanaccount.loanschedule.data.OverdueLoanScheduleData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -61,16 +67,24 @@ public class LoanSchedularServiceImpl implements LoanSchedularService {
     private final LoanWritePlatformService loanWritePlatformService;
     private final OfficeReadPlatformService officeReadPlatformService;
     private final ApplicationContext applicationContext;
+    private final HolidayRepositoryWrapper holidayRepository;
+    private final PerEntityJobRunner perEntityJobRunner;
+    private final CollectionSheetSnapshotService collectionSheetSnapshotService;
 
     @Autowired
     public LoanSchedularServiceImpl(final ConfigurationDomainService configurationDomainService,
             final LoanReadPlatformService loanReadPlatformService, final LoanWritePlatformService loanWritePlatformService,
-            final OfficeReadPlatformService officeReadPlatformService, final ApplicationContext applicationContext) {
+            final OfficeReadPlatformService officeReadPlatformService, final ApplicationContext applicationContext,
+            final HolidayRepositoryWrapper holidayRepository, final PerEntityJobRunner perEntityJobRunner,
+            final CollectionSheetSnapshotService collectionSheetSnapshotService) {
         this.configurationDomainService = configurationDomainService;
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanWritePlatformService = loanWritePlatformService;
         this.officeReadPlatformService = officeReadPlatformService;
         this.applicationContext = applicationContext;
+        this.holidayRepository = holidayRepository;
+        this.perEntityJobRunner = perEntityJobRunner;
+        this.collectionSheetSnapshotService = collectionSheetSnapshotService;
     }
 
     @Override
@@ -306,4 +320,80 @@ public class LoanSchedularServiceImpl implements LoanSchedularService {
             LOG.error("Execution exception while posting IR entries", e2);
         }
     }
+
+    /**
+     * Applies new holidays to the loans they affect, one holiday after the other. The loans of a holiday are found with a
+     * single query and each loan is moved in its own transaction on the job workers, which load the holiday themselves.
+     * Due dates are regenerated from the repayment frequency of each loan, so they are not moved in bulk. Loans are
+     * recorded in m_holiday_loan as they are moved, and no longer read once recorded, so a failed or interrupted run
+     * continues with the loans left without a job checkpoint. The interest of a moved loan with interest recalculation is
+     * recalculated in a transaction of its own once the move committed, and the loan is read again until it was. The
+     * holiday is only marked processed once no loan is left. A loan that fails is tried again by the next run, and does
+     * not hold up the holidays after it; the failures of all holidays are reported together at the end.
+     */
+    @Override
+    @CronTarget(jobName = JobName.APPLY_HOLIDAYS_TO_LOANS)
+    public void applyHolidaysToLoans() throws JobExecutionException {
+        if (!this.configurationDomainService.isRescheduleRepaymentsOnHolidaysEnabled()) {
+            return;
+        }
+        final List<Throwable> errors = new ArrayList<>();
+        for (final Holiday holiday : this.holidayRepository.findUnprocessed()) {
+            final Long holidayId = holiday.getId();
+            final LocalDate holidayFromDate = holiday.getFromDateLocalDate();
+            try {
+                this.perEntityJobRunner.run(new PerEntityJob<Long, Void>() {
+
+                    @Override
+                    public JobName getJobName() {
+                        return JobName.APPLY_HOLIDAYS_TO_LOANS;
+                    }
+
+                    @Override
+                    public Collection<Long> read() {
+                        return loanReadPlatformService.retrieveLoanIdsAffectedByHoliday(holidayId, holidayFromDate);
+                    }
+
+                    @Override
+                    public Long entityId(final Long loanId) {
+                        return loanId;
+                    }
+
+                    @Override
+                    public Void process(final Long loanId) {
+                        applyHolidayToLoan(holidayId, loanId);
+                        return null;
+                    }
+
+                    @Override
+                    public String describe(final Long loanId) {
+                        return "Holiday Id: " + holidayId + " Loan Id: " + loanId;
+                    }
+
+                    @Override
+                    public boolean isCheckpointed() {
+                        return false;
+                    }
+                });
+            } catch (final JobExecutionException e) {
+                errors.addAll(e.getCauses());
+                continue;
+            }
+            if (this.loanReadPlatformService.retrieveLoanIdsAffectedByHoliday(holidayId, holidayFromDate).isEmpty()) {
+                this.loanWritePlatformService.completeHolidayApplication(holidayId);
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new JobExecutionException(errors);
+        }
+    }
+
+    private void applyHolidayToLoan(final Long holidayId, final Long loanId) {
+        if (this.loanWritePlatformService.applyHolidayToLoan(holidayId, loanId)) {
+            this.loanWritePlatformService.recalculateInterest(loanId);
+            this.loanWritePlatformService.completeHolidayInterestRecalculation(holidayId, loanId);
+        }
+        // the job moves due dates without business events, which is what invalidates the sheets otherwise
+        this.collectionSheetSnapshotService.invalidateForLoan(loanId);
+    }
 }
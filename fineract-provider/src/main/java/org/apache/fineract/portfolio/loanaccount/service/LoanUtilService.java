@@ -196,8 +196,8 @@ public class LoanUtilService {
         final boolean allowTransactionsOnHoliday = this.configurationDomainService.allowTransactionsOnHolidayEnabled();
         final boolean allowTransactionsOnNonWorkingDay = this.configurationDomainService.allowTransactionsOnNonWorkingDayEnabled();
 
-        HolidayDetailDTO holidayDetailDTO = new HolidayDetailDTO(isHolidayEnabled, holidays, workingDays, allowTransactionsOnHoliday,
-                allowTransactionsOnNonWorkingDay);
+        HolidayDetailDTO holidayDetailDTO = new HolidayDetailDTO(loan.getOfficeId(), isHolidayEnabled, holidays, workingDays,
+                allowTransactionsOnHoliday, allowTransactionsOnNonWorkingDay);
         return holidayDetailDTO;
     }
 
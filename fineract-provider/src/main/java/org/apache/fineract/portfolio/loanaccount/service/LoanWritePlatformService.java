@@ -45,6 +45,11 @@ public interface LoanWritePlatformService {
 
     CommandProcessingResult makeLoanRepayment(Long loanId, JsonCommand command, boolean isRecoveryRepayment);
 
+    /**
+     * Posts the loan repayments of a collection sheet. Before anything is posted, the repayment date is checked for
+     * every loan of the sheet against the holidays of that loan's office and the working days, and all violations are
+     * reported together; this used to be checked for the first loan of the sheet only.
+     */
     Map<String, Object> makeLoanBulkRepayment(CollectionSheetBulkRepaymentCommand bulkRepaymentCommand);
 
     CommandProcessingResult adjustLoanTransaction(Long loanId, Long transactionId, JsonCommand command);
@@ -74,7 +79,21 @@ public interface LoanWritePlatformService {
     void applyMeetingDateChanges(Calendar calendar, Collection<CalendarInstance> loanCalendarInstances,
             Boolean reschedulebasedOnMeetingDates, LocalDate presentMeetingDate, LocalDate newMeetingDate);
 
-    void applyHolidaysToLoans();
+    /**
+     * Moves the repayment dates of a loan off a holiday and records that the holiday was applied to the loan. A loan the
+     * holiday was already applied to is left as it is.
+     *
+     * @return true when the interest of the loan is still to be recalculated for the moved dates, which is done by
+     *         {@link #recalculateInterest(long)} and recorded by {@link #completeHolidayInterestRecalculation(Long, Long)}
+     */
+    boolean applyHolidayToLoan(Long holidayId, Long loanId);
+
+    void completeHolidayInterestRecalculation(Long holidayId, Long loanId);
+
+    /**
+     * Marks a holiday processed once it was applied to all affected loans.
+     */
+    void completeHolidayApplication(Long holidayId);
 
     LoanTransaction initiateLoanTransfer(Loan loan, LocalDate transferDate);
 
@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
+
+/**
+ * The last installment of an open ended recurring deposit schedule, with what is needed to extend the schedule.
+ */
+public final class RecurringDepositScheduleTailData {
+
+    private final Long savingsId;
+    private final BigDecimal depositAmount;
+    private final PeriodFrequencyType depositFrequency;
+    private final int depositEvery;
+    private final LocalDate lastDueDate;
+    private final int lastInstallment;
+    private final int futureInstallments;
+
+    public static RecurringDepositScheduleTailData instance(final Long savingsId, final BigDecimal depositAmount,
+            final PeriodFrequencyType depositFrequency, final int depositEvery, final LocalDate lastDueDate, final int lastInstallment,
+            final int futureInstallments) {
+        return new RecurringDepositScheduleTailData(savingsId, depositAmount, depositFrequency, depositEvery, lastDueDate, lastInstallment,
+                futureInstallments);
+    }
+
+    private RecurringDepositScheduleTailData(final Long savingsId, final BigDecimal depositAmount,
+            final PeriodFrequencyType depositFrequency, final int depositEvery, final LocalDate lastDueDate, final int lastInstallment,
+            final int futureInstallments) {
+        this.savingsId = savingsId;
+        this.depositAmount = depositAmount;
+        this.depositFrequency = depositFrequency;
+        this.depositEvery = depositEvery;
+        this.lastDueDate = lastDueDate;
+        this.lastInstallment = lastInstallment;
+        this.futureInstallments = futureInstallments;
+    }
+
+    public Long getSavingsId() {
+        return this.savingsId;
+    }
+
+    public BigDecimal getDepositAmount() {
+        return this.depositAmount;
+    }
+
+    public PeriodFrequencyType getDepositFrequency() {
+        return this.depositFrequency;
+    }
+
+    public int getDepositEvery() {
+        return this.depositEvery;
+    }
+
+    public LocalDate getLastDueDate() {
+        return this.lastDueDate;
+    }
+
+    public int getLastInstallment() {
+        return this.lastInstallment;
+    }
+
+    public int getFutureInstallments() {
+        return this.futureInstallments;
+    }
+}
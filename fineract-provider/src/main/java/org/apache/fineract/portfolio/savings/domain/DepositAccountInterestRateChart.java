@@ -30,14 +30,12 @@ import javax.persistence.JoinColumn;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
 import org.apache.fineract.portfolio.client.domain.Client;
 import org.apache.fineract.portfolio.interestratechart.domain.InterestRateChart;
 import org.apache.fineract.portfolio.interestratechart.domain.InterestRateChartFields;
 import org.apache.fineract.portfolio.interestratechart.domain.InterestRateChartSlab;
-import org.apache.fineract.portfolio.interestratechart.incentive.AttributeIncentiveCalculation;
-import org.apache.fineract.portfolio.interestratechart.incentive.AttributeIncentiveCalculationFactory;
-import org.apache.fineract.portfolio.interestratechart.incentive.IncentiveDTO;
 
 @Entity
 @Table(name = "m_savings_account_interest_rate_chart")
@@ -53,6 +51,9 @@ public class DepositAccountInterestRateChart extends AbstractPersistableCustom {
     @OneToMany(mappedBy = "depositAccountInterestRateChart", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
     private Set<DepositAccountInterestRateChartSlabs> chartSlabs = new HashSet<>();
 
+    @Transient
+    private DepositAccountInterestRateChartLookup lookup;
+
     protected DepositAccountInterestRateChart() {
         //
     }
@@ -129,28 +130,15 @@ public class DepositAccountInterestRateChart extends AbstractPersistableCustom {
 
     public BigDecimal getApplicableInterestRate(final BigDecimal depositAmount, final LocalDate periodStartDate,
             final LocalDate periodEndDate, final Client client) {
-        BigDecimal effectiveInterestRate = BigDecimal.ZERO;
-        for (DepositAccountInterestRateChartSlabs slab : setOfChartSlabs()) {
-            if (slab.slabFields().isBetweenPeriod(periodStartDate, periodEndDate) && slab.slabFields().isAmountBetween(depositAmount)) {
-
-                effectiveInterestRate = slab.slabFields().annualInterestRate();
-                Set<DepositAccountInterestIncentives> depositInterestIncentives = slab.setOfIncentives();
-                for (DepositAccountInterestIncentives incentives : depositInterestIncentives) {
-                    AttributeIncentiveCalculation attributeIncentiveCalculation = AttributeIncentiveCalculationFactory
-                            .findAttributeIncentiveCalculation(incentives.interestIncentivesFields().entiryType());
-                    IncentiveDTO incentiveDTO = new IncentiveDTO(client, effectiveInterestRate, incentives.interestIncentivesFields());
-                    effectiveInterestRate = attributeIncentiveCalculation.calculateIncentive(incentiveDTO);
-                }
-
-                // effectiveInterestRate is zero or null then reset to default
-                // interest rate.
-                if (effectiveInterestRate == null || effectiveInterestRate.compareTo(BigDecimal.ZERO) == 0) {
-                    effectiveInterestRate = slab.slabFields().annualInterestRate();
-                }
-            }
-        }
+        return lookup().applicableInterestRate(depositAmount, periodStartDate, periodEndDate, client);
+    }
 
-        return effectiveInterestRate;
+    private DepositAccountInterestRateChartLookup lookup() {
+        final Set<DepositAccountInterestRateChartSlabs> chartSlabs = setOfChartSlabs();
+        if (this.lookup == null || !this.lookup.isCompiledFrom(chartSlabs)) {
+            this.lookup = DepositAccountInterestRateChartLookup.compile(chartSlabs);
+        }
+        return this.lookup;
     }
 
     public boolean isPrimaryGroupingByAmount() {
@@ -0,0 +1,230 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import org.apache.fineract.portfolio.client.domain.Client;
+import org.apache.fineract.portfolio.interestratechart.domain.InterestIncentivesFields;
+import org.apache.fineract.portfolio.interestratechart.domain.InterestRateChartSlabFields;
+import org.apache.fineract.portfolio.interestratechart.incentive.ClientAttributeIncentiveCalculation;
+import org.apache.fineract.portfolio.interestratechart.incentive.InterestIncentiveAttributeName;
+import org.apache.fineract.portfolio.interestratechart.incentive.InterestIncentiveEntityType;
+
+/**
+ * The slabs of a {@link DepositAccountInterestRateChart} compiled for rate lookups.
+ *
+ * Slabs are kept in period bands sorted by their first period and, within a band, sorted by the amount they start at,
+ * so the slab of a deposit is found with two binary searches. Charts whose slabs overlap or mix period types are
+ * searched slab by slab, the last matching slab winning as before. The incentives of a slab are applied in the order of
+ * the chart by {@link ClientAttributeIncentiveCalculation}, reading each attribute of the client once per lookup.
+ */
+final class DepositAccountInterestRateChartLookup {
+
+    private static final ClientAttributeIncentiveCalculation INCENTIVES = new ClientAttributeIncentiveCalculation();
+    private static final int ATTRIBUTE_NAMES = InterestIncentiveAttributeName.values().length;
+
+    private final Set<DepositAccountInterestRateChartSlabs> source;
+    private final int sourceSize;
+    private final InterestRateChartSlabFields periodFields;
+    private final Band[] bands;
+    private final Slab[] slabs;
+    private final Slab[] slabsInChartOrder;
+
+    private DepositAccountInterestRateChartLookup(final Set<DepositAccountInterestRateChartSlabs> source,
+            final InterestRateChartSlabFields periodFields, final Band[] bands, final Slab[] slabs, final Slab[] slabsInChartOrder) {
+        this.source = source;
+        this.sourceSize = source.size();
+        this.periodFields = periodFields;
+        this.bands = bands;
+        this.slabs = slabs;
+        this.slabsInChartOrder = slabsInChartOrder;
+    }
+
+    static DepositAccountInterestRateChartLookup compile(final Set<DepositAccountInterestRateChartSlabs> chartSlabs) {
+        final List<Slab> compiled = new ArrayList<>(chartSlabs.size());
+        for (final DepositAccountInterestRateChartSlabs chartSlab : chartSlabs) {
+            compiled.add(new Slab(chartSlab));
+        }
+        final Slab[] slabsInChartOrder = compiled.toArray(new Slab[0]);
+        compiled.sort(Comparator.comparingInt((Slab slab) -> slab.fromPeriod).thenComparingInt(slab -> slab.toPeriod)
+                .thenComparing(slab -> slab.amountFrom, Comparator.nullsFirst(Comparator.naturalOrder())));
+        final Slab[] slabs = compiled.toArray(new Slab[0]);
+
+        final List<Band> bands = new ArrayList<>();
+        boolean disjoint = true;
+        int bandStart = 0;
+        for (int i = 1; i <= slabs.length && disjoint; i++) {
+            if (i < slabs.length && slabs[i].hasSamePeriods(slabs[bandStart])) {
+                disjoint = slabs[i].startsAfter(slabs[i - 1]) && slabs[i].hasSamePeriodType(slabs[bandStart]);
+            } else {
+                final Band band = new Band(slabs, bandStart, i);
+                disjoint = bands.isEmpty() || band.fromPeriod > bands.get(bands.size() - 1).toPeriod
+                        && slabs[bandStart].hasSamePeriodType(slabs[0]);
+                bands.add(band);
+                bandStart = i;
+            }
+        }
+        final InterestRateChartSlabFields periodFields = slabs.length == 0 ? null : slabs[0].fields;
+        return new DepositAccountInterestRateChartLookup(chartSlabs, periodFields, disjoint ? bands.toArray(new Band[0]) : null, slabs,
+                slabsInChartOrder);
+    }
+
+    /**
+     * Whether this lookup still reflects the given slabs, a chart gets a new slab set when it is reloaded or replaced.
+     */
+    boolean isCompiledFrom(final Set<DepositAccountInterestRateChartSlabs> chartSlabs) {
+        return this.source == chartSlabs && this.sourceSize == chartSlabs.size();
+    }
+
+    BigDecimal applicableInterestRate(final BigDecimal depositAmount, final LocalDate periodStartDate, final LocalDate periodEndDate,
+            final Client client) {
+        final Slab slab = this.bands == null ? scan(depositAmount, periodStartDate, periodEndDate)
+                : find(depositAmount, this.periodFields.depositPeriod(periodStartDate, periodEndDate));
+        return slab == null ? BigDecimal.ZERO : slab.interestRateFor(client);
+    }
+
+    private Slab find(final BigDecimal depositAmount, final int depositPeriod) {
+        int low = 0;
+        int high = this.bands.length - 1;
+        Band band = null;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (this.bands[mid].fromPeriod <= depositPeriod) {
+                band = this.bands[mid];
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (band == null || depositPeriod > band.toPeriod) {
+            return null;
+        }
+
+        low = band.start;
+        high = band.end - 1;
+        Slab slab = null;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final Slab candidate = this.slabs[mid];
+            if (candidate.amountFrom == null || candidate.amountFrom.compareTo(depositAmount) <= 0) {
+                slab = candidate;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return slab != null && slab.fields.isAmountBetween(depositAmount) ? slab : null;
+    }
+
+    private Slab scan(final BigDecimal depositAmount, final LocalDate periodStartDate, final LocalDate periodEndDate) {
+        Slab match = null;
+        for (final Slab slab : this.slabsInChartOrder) {
+            if (slab.fields.isBetweenPeriod(periodStartDate, periodEndDate) && slab.fields.isAmountBetween(depositAmount)) {
+                match = slab;
+            }
+        }
+        return match;
+    }
+
+    private static final class Band {
+
+        private final int start;
+        private final int end;
+        private final int fromPeriod;
+        private final int toPeriod;
+
+        Band(final Slab[] slabs, final int start, final int end) {
+            this.start = start;
+            this.end = end;
+            this.fromPeriod = slabs[start].fromPeriod;
+            this.toPeriod = slabs[start].toPeriod;
+        }
+    }
+
+    private static final class Slab {
+
+        private final InterestRateChartSlabFields fields;
+        private final int fromPeriod;
+        private final int toPeriod;
+        private final BigDecimal amountFrom;
+        private final BigDecimal amountTo;
+        private final BigDecimal annualInterestRate;
+        private final InterestIncentivesFields[] incentives;
+
+        Slab(final DepositAccountInterestRateChartSlabs chartSlab) {
+            this.fields = chartSlab.slabFields();
+            // a slab without a first period applies to any period, as does a slab without a first amount to any amount
+            this.fromPeriod = this.fields.fromPeriod() == null ? Integer.MIN_VALUE : this.fields.fromPeriod();
+            this.toPeriod = this.fields.fromPeriod() == null || this.fields.toPeriod() == null ? Integer.MAX_VALUE
+                    : this.fields.toPeriod();
+            this.amountFrom = this.fields.getAmountRangeFrom();
+            this.amountTo = this.amountFrom == null ? null : this.fields.getAmountRangeTo();
+            this.annualInterestRate = this.fields.annualInterestRate();
+
+            final List<InterestIncentivesFields> incentives = new ArrayList<>();
+            for (final DepositAccountInterestIncentives incentive : chartSlab.setOfIncentives()) {
+                final InterestIncentivesFields incentiveFields = incentive.interestIncentivesFields();
+                if (InterestIncentiveEntityType.CUSTOMER.equals(incentiveFields.entiryType())) {
+                    incentives.add(incentiveFields);
+                }
+            }
+            this.incentives = incentives.toArray(new InterestIncentivesFields[0]);
+        }
+
+        boolean hasSamePeriods(final Slab that) {
+            return this.fromPeriod == that.fromPeriod && this.toPeriod == that.toPeriod;
+        }
+
+        boolean hasSamePeriodType(final Slab that) {
+            return Objects.equals(this.fields.periodType(), that.fields.periodType());
+        }
+
+        boolean startsAfter(final Slab previous) {
+            return previous.amountTo != null && this.amountFrom != null && this.amountFrom.compareTo(previous.amountTo) > 0;
+        }
+
+        BigDecimal interestRateFor(final Client client) {
+            BigDecimal interestRate = this.annualInterestRate;
+            if (client != null && this.incentives.length > 0) {
+                final Long[] attributeValues = new Long[ATTRIBUTE_NAMES];
+                final boolean[] attributesRead = new boolean[ATTRIBUTE_NAMES];
+                for (final InterestIncentivesFields incentive : this.incentives) {
+                    final int attribute = incentive.attributeName().ordinal();
+                    if (!attributesRead[attribute]) {
+                        attributeValues[attribute] = INCENTIVES.attributeValue(client, incentive.attributeName());
+                        attributesRead[attribute] = true;
+                    }
+                    interestRate = INCENTIVES.calculateIncentive(incentive, interestRate, attributeValues[attribute]);
+                }
+            }
+
+            // incentives leaving no rate fall back to the rate of the slab
+            if (interestRate == null || interestRate.compareTo(BigDecimal.ZERO) == 0) {
+                interestRate = this.annualInterestRate;
+            }
+            return interestRate;
+        }
+    }
+}
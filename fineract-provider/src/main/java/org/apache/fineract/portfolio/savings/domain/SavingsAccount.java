@@ -63,6 +63,7 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.OrderBy;
+import javax.persistence.PostLoad;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
@@ -70,6 +71,8 @@ import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
 import javax.persistence.Version;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.accounting.journalentry.data.SavingsDTO;
+import org.apache.fineract.accounting.journalentry.data.SavingsTransactionDTO;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.ApiParameterError;
 import org.apache.fineract.infrastructure.core.data.DataValidatorBuilder;
@@ -79,7 +82,6 @@ import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidati
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.security.service.RandomPasswordGenerator;
 import org.apache.fineract.interoperation.domain.InteropIdentifier;
-import org.apache.fineract.organisation.monetary.data.CurrencyData;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
 import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
@@ -296,6 +298,9 @@ public class SavingsAccount extends AbstractPersistableCustom {
     @Embedded
     protected SavingsAccountSummary summary;
 
+    @Embedded
+    private SavingsInterestCheckpoint interestCheckpoint;
+
     @OrderBy(value = "dateOf, createdDate, id")
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "savingsAccount", orphanRemoval = true, fetch = FetchType.LAZY)
     protected List<SavingsAccountTransaction> transactions = new ArrayList<>();
@@ -312,6 +317,14 @@ public class SavingsAccount extends AbstractPersistableCustom {
     protected SavingsAccountTransactionSummaryWrapper savingsAccountTransactionSummaryWrapper;
     @Transient
     protected SavingsHelper savingsHelper;
+    // transactions in the order of SavingsAccountTransactionComparator,
+    // maintained by addTransaction, which every transaction is added through,
+    // and dropped whenever the transactions are loaded or replaced
+    @Transient
+    private List<SavingsAccountTransaction> transactionsSorted;
+    // the transactions list transactionsSorted was built from
+    @Transient
+    private List<SavingsAccountTransaction> transactionsSortedFrom;
 
     @Column(name = "deposit_type_enum", insertable = false, updatable = false)
     private Integer depositType;
@@ -564,9 +577,123 @@ public class SavingsAccount extends AbstractPersistableCustom {
             recalculateDailyBalances(openingAccountBalance, interestPostingUpToDate);
         }
 
+        advanceInterestCheckpoint(postingPeriods, interestPostingUpToDate, isSavingsInterestPostingAtCurrentPeriodEnd,
+                financialYearBeginningMonth);
+
         this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
     }
 
+    /**
+     * Moves the interest checkpoint to the end of the last period posted by this run, so that the next calculation only
+     * has to go over the periods after it. Only savings deposits are checkpointed, the interest rate of fixed and
+     * recurring deposits depends on the date up to which interest is calculated.
+     */
+    private void advanceInterestCheckpoint(final List<PostingPeriod> postingPeriods, final LocalDate interestPostingUpToDate,
+            final boolean isSavingsInterestPostingAtCurrentPeriodEnd, final Integer financialYearBeginningMonth) {
+        if (!depositAccountType().isSavingsDeposit() || postingPeriods.isEmpty()) {
+            return;
+        }
+        final String interestTermsDigest = interestTermsDigest(isSavingsInterestPostingAtCurrentPeriodEnd, financialYearBeginningMonth);
+        final SavingsInterestCheckpoint checkpoint = validInterestCheckpoint(interestTermsDigest);
+        final boolean resumedFromCheckpoint = checkpoint != null
+                && postingPeriods.get(0).getPeriodInterval().startDate().equals(checkpoint.getCheckpointDate().plusDays(1));
+        Money interestEarned = resumedFromCheckpoint ? checkpoint.interestEarned(this.currency) : Money.zero(this.currency);
+        Money interestEarnedToCheckpoint = null;
+        PostingPeriod lastPostedPeriod = null;
+        for (final PostingPeriod postingPeriod : postingPeriods) {
+            if (postingPeriod.interest() != null) {
+                interestEarned = interestEarned.plus(postingPeriod.interest());
+            }
+            if (postingPeriod.getPeriodInterval().endDate().isBefore(interestPostingUpToDate)
+                    && !postingPeriod.dateOfPostingTransaction().isAfter(interestPostingUpToDate)) {
+                lastPostedPeriod = postingPeriod;
+                interestEarnedToCheckpoint = interestEarned;
+            }
+        }
+        if (lastPostedPeriod == null || lastPostedPeriod.interestCarriedForward() == null) {
+            return;
+        }
+        this.interestCheckpoint = SavingsInterestCheckpoint.at(lastPostedPeriod.getPeriodInterval().endDate(),
+                lastPostedPeriod.closingBalance(), interestEarnedToCheckpoint, lastPostedPeriod.interestCarriedForward(), this.transactions,
+                interestTermsDigest);
+    }
+
+    /**
+     * The interest checkpoint, if the transactions on or before its date are still the ones it was taken over and, when
+     * <code>interestTermsDigest</code> is given, it was taken under the same interest terms. A checkpoint that no longer
+     * holds is dropped.
+     */
+    private SavingsInterestCheckpoint validInterestCheckpoint(final String interestTermsDigest) {
+        if (this.interestCheckpoint == null || !this.interestCheckpoint.isSet() || !depositAccountType().isSavingsDeposit()) {
+            return null;
+        }
+        if ((interestTermsDigest != null && !this.interestCheckpoint.hasInterestTerms(interestTermsDigest))
+                || !this.interestCheckpoint.isValidFor(transactionsSorted())) {
+            this.interestCheckpoint = null;
+            return null;
+        }
+        return this.interestCheckpoint;
+    }
+
+    /**
+     * The interest checkpoint, if interest calculated up to <code>upToInterestCalculationDate</code> can resume from it.
+     */
+    private SavingsInterestCheckpoint resumableInterestCheckpoint(final LocalDate upToInterestCalculationDate,
+            final LocalDate postInterestOnDate, final String interestTermsDigest) {
+        final SavingsInterestCheckpoint checkpoint = validInterestCheckpoint(interestTermsDigest);
+        if (checkpoint == null) {
+            return null;
+        }
+        final LocalDate checkpointDate = checkpoint.getCheckpointDate();
+        if (!checkpointDate.isBefore(upToInterestCalculationDate)
+                || (postInterestOnDate != null && !postInterestOnDate.isAfter(checkpointDate.plusDays(1)))) {
+            return null;
+        }
+        return checkpoint;
+    }
+
+    /**
+     * The date up to which the derived balances of the transactions are known to be correct, or null when they have to
+     * be recalculated from the first transaction. Balances only depend on the transactions, so the interest terms the
+     * checkpoint was taken under are not compared here.
+     */
+    private LocalDate dailyBalancesCheckpointDate(final Money openingAccountBalance, final LocalDate interestPostingUpToDate) {
+        final SavingsInterestCheckpoint checkpoint = validInterestCheckpoint(null);
+        if (checkpoint == null || !openingAccountBalance.isZero()) {
+            return null;
+        }
+        final LocalDate checkpointDate = checkpoint.getCheckpointDate();
+        return checkpointDate.isBefore(interestPostingUpToDate) ? checkpointDate : null;
+    }
+
+    private String interestTermsDigest(final boolean isSavingsInterestPostingAtCurrentPeriodEnd,
+            final Integer financialYearBeginningMonth) {
+        return SavingsInterestCheckpoint.interestTermsDigest(this.currency.getCode(), this.currency.getDigitsAfterDecimal(),
+                this.nominalAnnualInterestRate, this.nominalAnnualInterestRateOverdraft, this.interestCompoundingPeriodType,
+                this.interestPostingPeriodType, this.interestCalculationType, this.interestCalculationDaysInYearType,
+                this.minBalanceForInterestCalculation, this.minOverdraftForInterestCalculation, this.allowOverdraft, this.overdraftLimit,
+                this.enforceMinRequiredBalance, this.minRequiredBalance, this.withHoldTax,
+                this.taxGroup == null ? null : this.taxGroup.getId(), getStartInterestCalculationDate(), getLockedInUntilLocalDate(),
+                isSavingsInterestPostingAtCurrentPeriodEnd, financialYearBeginningMonth);
+    }
+
+    /**
+     * @return the index of the first of the sorted transactions dated after <code>date</code>
+     */
+    private static int firstTransactionAfter(final List<SavingsAccountTransaction> transactionsSorted, final LocalDate date) {
+        int low = 0;
+        int high = transactionsSorted.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (transactionsSorted.get(mid).transactionLocalDate().isAfter(date)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
     protected List<SavingsAccountTransaction> findWithHoldTransactions() {
         final List<SavingsAccountTransaction> withholdTransactions = new ArrayList<>();
         List<SavingsAccountTransaction> trans = getTransactions();
@@ -698,6 +825,29 @@ public class SavingsAccount extends AbstractPersistableCustom {
         // correct.
         recalculateDailyBalances(openingAccountBalance, upToInterestCalculationDate);
 
+        final List<PostingPeriod> allPostingPeriods = calculateInterestOnDerivedBalances(mc, upToInterestCalculationDate,
+                isInterestTransfer, isSavingsInterestPostingAtCurrentPeriodEnd, financialYearBeginningMonth, postInterestOnDate);
+        this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
+
+        return allPostingPeriods;
+    }
+
+    /**
+     * Calculates the interest earned up to <code>upToInterestCalculationDate</code> from the derived balances of the
+     * transactions as they are, without recalculating them first, and updates the interest earned of the summary. Used
+     * when the balances are already up to date, as after {@link #appendToDailyBalances}.
+     */
+    public List<PostingPeriod> calculateInterestOnDerivedBalances(final MathContext mc, final LocalDate upToInterestCalculationDate,
+            boolean isInterestTransfer, final boolean isSavingsInterestPostingAtCurrentPeriodEnd, final Integer financialYearBeginningMonth,
+            final LocalDate postInterestOnDate) {
+
+        // resume from the end of the last posted period when it is still
+        // valid, otherwise calculate from the start of the account
+        final SavingsInterestCheckpoint checkpoint = resumableInterestCheckpoint(upToInterestCalculationDate, postInterestOnDate,
+                interestTermsDigest(isSavingsInterestPostingAtCurrentPeriodEnd, financialYearBeginningMonth));
+        final LocalDate interestCalculationStartDate = checkpoint == null ? getStartInterestCalculationDate()
+                : checkpoint.getCheckpointDate().plusDays(1);
+
         // 1. default to calculate interest based on entire history OR
         // 2. determine latest 'posting period' and find interest credited to
         // that period
@@ -715,13 +865,14 @@ public class SavingsAccount extends AbstractPersistableCustom {
             postedAsOnDates.add(postInterestOnDate);
         }
         final List<LocalDateInterval> postingPeriodIntervals = this.savingsHelper.determineInterestPostingPeriods(
-                getStartInterestCalculationDate(), upToInterestCalculationDate, postingPeriodType, financialYearBeginningMonth,
-                postedAsOnDates);
+                interestCalculationStartDate, upToInterestCalculationDate, postingPeriodType, financialYearBeginningMonth, postedAsOnDates);
 
         final List<PostingPeriod> allPostingPeriods = new ArrayList<>();
 
         Money periodStartingBalance;
-        if (this.startInterestCalculationDate != null) {
+        if (checkpoint != null) {
+            periodStartingBalance = checkpoint.closingBalance(this.currency);
+        } else if (this.startInterestCalculationDate != null) {
             LocalDate startInterestCalculationDate = LocalDate.ofInstant(this.startInterestCalculationDate.toInstant(),
                     DateUtils.getDateTimeZoneOfTenant());
             final SavingsAccountTransaction transaction = findLastTransaction(startInterestCalculationDate);
@@ -753,6 +904,16 @@ public class SavingsAccount extends AbstractPersistableCustom {
         final Money minBalanceForInterestCalculation = Money.of(getCurrency(), minBalanceForInterestCalculation());
         final Money minOverdraftForInterestCalculation = Money.of(getCurrency(), this.minOverdraftForInterestCalculation);
 
+        List<SavingsAccountTransaction> orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingTransactions();
+        if (checkpoint != null) {
+            // only the last transaction on or before the checkpoint still has
+            // a balance spanning into the periods after it
+            final int firstTransactionAfterCheckpoint = firstTransactionAfter(orderedNonInterestPostingTransactions,
+                    checkpoint.getCheckpointDate());
+            orderedNonInterestPostingTransactions = orderedNonInterestPostingTransactions
+                    .subList(Math.max(firstTransactionAfterCheckpoint - 1, 0), orderedNonInterestPostingTransactions.size());
+        }
+
         for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
 
             boolean isUserPosting = false;
@@ -761,7 +922,7 @@ public class SavingsAccount extends AbstractPersistableCustom {
             }
 
             final PostingPeriod postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance,
-                    retreiveOrderedNonInterestPostingTransactions(), this.currency, compoundingPeriodType, interestCalculationType,
+                    orderedNonInterestPostingTransactions, this.currency, compoundingPeriodType, interestCalculationType,
                     interestRateAsFraction, daysInYearType.getValue(), upToInterestCalculationDate, interestPostTransactions,
                     isInterestTransfer, minBalanceForInterestCalculation, isSavingsInterestPostingAtCurrentPeriodEnd,
                     overdraftInterestRateAsFraction, minOverdraftForInterestCalculation, isUserPosting, financialYearBeginningMonth);
@@ -771,11 +932,15 @@ public class SavingsAccount extends AbstractPersistableCustom {
             allPostingPeriods.add(postingPeriod);
         }
 
-        this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
-                isTransferInterestToOtherAccount());
-
-        this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods);
-        this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
+        if (checkpoint == null) {
+            this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
+                    isTransferInterestToOtherAccount());
+            this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods);
+        } else {
+            this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
+                    isTransferInterestToOtherAccount(), checkpoint.interestCarriedForward());
+            this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods, checkpoint.interestEarned(this.currency));
+        }
 
         return allPostingPeriods;
     }
@@ -790,27 +955,44 @@ public class SavingsAccount extends AbstractPersistableCustom {
     }
 
     protected List<SavingsAccountTransaction> retreiveOrderedNonInterestPostingTransactions() {
-        final List<SavingsAccountTransaction> listOfTransactionsSorted = retreiveListOfTransactions();
-
         final List<SavingsAccountTransaction> orderedNonInterestPostingTransactions = new ArrayList<>();
 
-        for (final SavingsAccountTransaction transaction : listOfTransactionsSorted) {
+        for (final SavingsAccountTransaction transaction : transactionsSorted()) {
             if (!(transaction.isInterestPostingAndNotReversed() || transaction.isOverdraftInterestAndNotReversed())
                     && transaction.isNotReversed()) {
                 orderedNonInterestPostingTransactions.add(transaction);
             }
         }
-        orderedNonInterestPostingTransactions.sort(new SavingsAccountTransactionComparator());
         return orderedNonInterestPostingTransactions;
     }
 
     protected List<SavingsAccountTransaction> retreiveListOfTransactions() {
-        final List<SavingsAccountTransaction> listOfTransactionsSorted = new ArrayList<>();
-        listOfTransactionsSorted.addAll(this.transactions);
+        return new ArrayList<>(transactionsSorted());
+    }
+
+    /**
+     * The transactions of the account sorted by {@link SavingsAccountTransactionComparator}, callers must not modify it.
+     * Transactions are only added through {@link #addTransaction(SavingsAccountTransaction)}, which keeps the list
+     * sorted; it is sorted again when it was dropped by {@link #clearTransactionsSorted()} or the transactions list was
+     * replaced since it was built.
+     */
+    private List<SavingsAccountTransaction> transactionsSorted() {
+        if (this.transactionsSorted == null || this.transactionsSortedFrom != this.transactions) {
+            this.transactionsSorted = new ArrayList<>(this.transactions);
+            Collections.sort(this.transactionsSorted, new SavingsAccountTransactionComparator());
+            this.transactionsSortedFrom = this.transactions;
+        }
+        return this.transactionsSorted;
+    }
 
-        final SavingsAccountTransactionComparator transactionComparator = new SavingsAccountTransactionComparator();
-        Collections.sort(listOfTransactionsSorted, transactionComparator);
-        return listOfTransactionsSorted;
+    /**
+     * Drops the sorted transactions, so they are sorted again from the transactions as they are now. Called when the
+     * persistence layer (re)loads the account, which may replace the transactions by others of the same number.
+     */
+    @PostLoad
+    void clearTransactionsSorted() {
+        this.transactionsSorted = null;
+        this.transactionsSortedFrom = null;
     }
 
     protected void recalculateDailyBalances(final Money openingAccountBalance, final LocalDate interestPostingUpToDate) {
@@ -818,8 +1000,24 @@ public class SavingsAccount extends AbstractPersistableCustom {
         Money runningBalance = openingAccountBalance.copy();
 
         List<SavingsAccountTransaction> accountTransactionsSorted = retreiveListOfTransactions();
+
+        // balances of transactions on or before the interest checkpoint are
+        // left as they are, only the later ones are replayed
+        final LocalDate checkpointDate = dailyBalancesCheckpointDate(openingAccountBalance, interestPostingUpToDate);
+        int replayFrom = 0;
+        if (checkpointDate != null) {
+            replayFrom = firstTransactionAfter(accountTransactionsSorted, checkpointDate);
+            for (int i = replayFrom - 1; i >= 0; i--) {
+                if (accountTransactionsSorted.get(i).isNotReversed()) {
+                    runningBalance = accountTransactionsSorted.get(i).getRunningBalance(this.currency);
+                    break;
+                }
+            }
+        }
+
         boolean isTransactionsModified = false;
-        for (final SavingsAccountTransaction transaction : accountTransactionsSorted) {
+        for (final SavingsAccountTransaction transaction : accountTransactionsSorted.subList(replayFrom,
+                accountTransactionsSorted.size())) {
             if (transaction.isReversed()) {
                 transaction.zeroBalanceFields();
             } else {
@@ -873,9 +1071,80 @@ public class SavingsAccount extends AbstractPersistableCustom {
         if (isTransactionsModified) {
             accountTransactionsSorted = retreiveListOfTransactions();
         }
+        if (checkpointDate != null) {
+            // the balance of the last transaction on or before the checkpoint
+            // ends where the first later one starts
+            int resetFrom = firstTransactionAfter(accountTransactionsSorted, checkpointDate);
+            for (int i = resetFrom - 1; i >= 0; i--) {
+                final SavingsAccountTransaction transaction = accountTransactionsSorted.get(i);
+                if (transaction.isNotReversed()
+                        && !(transaction.isInterestPostingAndNotReversed() || transaction.isOverdraftInterestAndNotReversed())) {
+                    resetFrom = i;
+                    break;
+                }
+            }
+            accountTransactionsSorted = accountTransactionsSorted.subList(resetFrom, accountTransactionsSorted.size());
+        }
         resetAccountTransactionsEndOfDayBalances(accountTransactionsSorted, interestPostingUpToDate);
     }
 
+    private boolean isLatestTransaction(final SavingsAccountTransaction transaction) {
+        final List<SavingsAccountTransaction> transactionsSortedByDate = transactionsSorted();
+        return transactionsSortedByDate.get(transactionsSortedByDate.size() - 1) == transaction;
+    }
+
+    /**
+     * Brings the derived balances of the account up to date for a deposit or withdrawal just added after all its other
+     * transactions, without replaying the transaction history: the running balance of the transaction follows from the
+     * one before it and only the end of day balance of the previous transaction changes.
+     *
+     * The interest earned is not part of the derived balances, it is brought up to date with
+     * {@link #calculateInterestOnDerivedBalances}.
+     *
+     * @return false, leaving the balances untouched, when the transaction is not the latest of the account or the
+     *         account is or becomes overdrawn, in which case the balances have to be recalculated in full
+     */
+    public boolean appendToDailyBalances(final SavingsAccountTransaction transaction, final LocalDate interestPostingUpToDate) {
+        if (!depositAccountType().isSavingsDeposit() || !isLatestTransaction(transaction)
+                || !(transaction.isDeposit() || transaction.isDividendPayout() || transaction.isWithdrawal())) {
+            return false;
+        }
+        final List<SavingsAccountTransaction> transactionsSortedByDate = transactionsSorted();
+        SavingsAccountTransaction previousTransaction = null;
+        SavingsAccountTransaction previousBalanceTransaction = null;
+        for (int i = transactionsSortedByDate.size() - 2; i >= 0 && previousBalanceTransaction == null; i--) {
+            final SavingsAccountTransaction candidate = transactionsSortedByDate.get(i);
+            if (candidate.isReversed()) {
+                continue;
+            }
+            if (previousTransaction == null) {
+                previousTransaction = candidate;
+            }
+            if (!(candidate.isInterestPostingAndNotReversed() || candidate.isOverdraftInterestAndNotReversed())) {
+                previousBalanceTransaction = candidate;
+            }
+        }
+        if ((previousTransaction != null && !previousTransaction.hasRunningBalance())
+                || (previousBalanceTransaction != null && !previousBalanceTransaction.hasRunningBalance())) {
+            return false;
+        }
+
+        final Money previousRunningBalance = previousTransaction == null ? Money.zero(this.currency)
+                : previousTransaction.getRunningBalance(this.currency);
+        final Money runningBalance = transaction.isWithdrawal() ? previousRunningBalance.minus(transaction.getAmount(this.currency))
+                : previousRunningBalance.plus(transaction.getAmount(this.currency));
+        if (previousRunningBalance.isLessThanZero() || runningBalance.isLessThanZero()) {
+            return false;
+        }
+
+        transaction.updateRunningBalance(runningBalance);
+        transaction.updateCumulativeBalanceAndDates(this.currency, interestPostingUpToDate);
+        if (previousBalanceTransaction != null) {
+            previousBalanceTransaction.updateCumulativeBalanceAndDates(this.currency, transaction.transactionLocalDate().minusDays(1));
+        }
+        return true;
+    }
+
     protected void resetAccountTransactionsEndOfDayBalances(final List<SavingsAccountTransaction> accountTransactionsSorted,
             final LocalDate interestPostingUpToDate) {
         // loop over transactions in reverse
@@ -947,7 +1216,11 @@ public class SavingsAccount extends AbstractPersistableCustom {
                 transactionDTO.getTransactionDate(), amount, transactionDTO.getCreatedDate(), transactionDTO.getAppUser(),
                 savingsAccountTransactionType);
         addTransaction(transaction);
-        this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
+        if (isLatestTransaction(transaction)) {
+            this.summary.updateForAppendedTransaction(this.currency, transaction);
+        } else {
+            this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
+        }
 
         if (this.sub_status.equals(SavingsAccountSubStatusEnum.INACTIVE.getValue())
                 || this.sub_status.equals(SavingsAccountSubStatusEnum.DORMANT.getValue())) {
@@ -1035,6 +1308,7 @@ public class SavingsAccount extends AbstractPersistableCustom {
         }
         validateActivityNotBeforeClientOrGroupTransferDate(SavingsEvent.SAVINGS_WITHDRAWAL, transactionDTO.getTransactionDate());
 
+        final int transactionCountBeforeWithdrawal = this.transactions.size();
         if (applyWithdrawFee) {
             // auto pay withdrawal fee
             payWithdrawalFee(transactionDTO.getTransactionAmount(), transactionDTO.getTransactionDate(), transactionDTO.getAppUser());
@@ -1045,6 +1319,9 @@ public class SavingsAccount extends AbstractPersistableCustom {
                 transactionDTO.getPaymentDetail(), transactionDTO.getTransactionDate(), transactionAmountMoney,
                 transactionDTO.getCreatedDate(), transactionDTO.getAppUser());
         addTransaction(transaction);
+        if (this.transactions.size() == transactionCountBeforeWithdrawal + 1 && isLatestTransaction(transaction)) {
+            this.summary.updateForAppendedTransaction(this.currency, transaction);
+        }
 
         if (this.sub_status.equals(SavingsAccountSubStatusEnum.INACTIVE.getValue())
                 || this.sub_status.equals(SavingsAccountSubStatusEnum.DORMANT.getValue())) {
@@ -1078,9 +1355,10 @@ public class SavingsAccount extends AbstractPersistableCustom {
 
         boolean transactionBeforeLastInterestPosting = false;
 
-        for (final SavingsAccountTransaction transaction : retreiveListOfTransactions()) {
-            if ((transaction.isInterestPostingAndNotReversed() || transaction.isOverdraftInterestAndNotReversed())
-                    && transaction.isAfter(transactionDate)) {
+        final List<SavingsAccountTransaction> transactionsSortedByDate = transactionsSorted();
+        for (int i = firstTransactionAfter(transactionsSortedByDate, transactionDate); i < transactionsSortedByDate.size(); i++) {
+            final SavingsAccountTransaction transaction = transactionsSortedByDate.get(i);
+            if (transaction.isInterestPostingAndNotReversed() || transaction.isOverdraftInterestAndNotReversed()) {
                 transactionBeforeLastInterestPosting = true;
                 break;
             }
@@ -1091,7 +1369,7 @@ public class SavingsAccount extends AbstractPersistableCustom {
 
     public void validateAccountBalanceDoesNotBecomeNegative(final BigDecimal transactionAmount, final boolean isException,
             final List<DepositAccountOnHoldTransaction> depositAccountOnHoldTransactions) {
-        final List<SavingsAccountTransaction> transactionsSortedByDate = retreiveListOfTransactions();
+        final List<SavingsAccountTransaction> transactionsSortedByDate = transactionsSorted();
         Money runningBalance = Money.zero(this.currency);
         Money minRequiredBalance = minRequiredBalanceDerived(getCurrency());
         LocalDate lastSavingsDate = null;
@@ -1155,7 +1433,7 @@ public class SavingsAccount extends AbstractPersistableCustom {
     public void validateAccountBalanceDoesNotBecomeNegative(final String transactionAction,
             final List<DepositAccountOnHoldTransaction> depositAccountOnHoldTransactions) {
 
-        final List<SavingsAccountTransaction> transactionsSortedByDate = retreiveListOfTransactions();
+        final List<SavingsAccountTransaction> transactionsSortedByDate = transactionsSorted();
         Money runningBalance = Money.zero(this.currency);
         Money minRequiredBalance = minRequiredBalanceDerived(getCurrency());
         LocalDate lastSavingsDate = null;
@@ -1483,54 +1761,38 @@ public class SavingsAccount extends AbstractPersistableCustom {
         }
     }
 
-    public Map<String, Object> deriveAccountingBridgeData(final CurrencyData currencyData, final Set<Long> existingTransactionIds,
-            final Set<Long> existingReversedTransactionIds, boolean isAccountTransfer) {
-
-        final Map<String, Object> accountingBridgeData = new LinkedHashMap<>();
-        accountingBridgeData.put("savingsId", getId());
-        accountingBridgeData.put("savingsProductId", productId());
-        accountingBridgeData.put("currency", currencyData);
-        accountingBridgeData.put("officeId", officeId());
-        accountingBridgeData.put("cashBasedAccountingEnabled", isCashBasedAccountingEnabledOnSavingsProduct());
-        accountingBridgeData.put("accrualBasedAccountingEnabled", isAccrualBasedAccountingEnabledOnSavingsProduct());
-        accountingBridgeData.put("isAccountTransfer", isAccountTransfer);
+    /**
+     * @return the transactions added or reversed since <code>existingTransactionIds</code> and
+     *         <code>existingReversedTransactionIds</code> were collected, as journal entries are derived from them
+     */
+    public SavingsDTO deriveAccountingBridgeData(final Set<Long> existingTransactionIds, final Set<Long> existingReversedTransactionIds,
+            boolean isAccountTransfer) {
 
-        final List<Map<String, Object>> newSavingsTransactions = new ArrayList<>();
+        final List<SavingsTransactionDTO> newSavingsTransactions = new ArrayList<>();
         List<SavingsAccountTransaction> trans = getTransactions();
         for (final SavingsAccountTransaction transaction : trans) {
             if (transaction.isReversed() && !existingReversedTransactionIds.contains(transaction.getId())) {
-                newSavingsTransactions.add(transaction.toMapData(currencyData));
+                newSavingsTransactions.add(transaction.toAccountingTransaction(isAccountTransfer));
             } else if (!existingTransactionIds.contains(transaction.getId())) {
-                newSavingsTransactions.add(transaction.toMapData(currencyData));
+                newSavingsTransactions.add(transaction.toAccountingTransaction(isAccountTransfer));
             }
         }
 
-        accountingBridgeData.put("newSavingsTransactions", newSavingsTransactions);
-        return accountingBridgeData;
-    }
-
-    public Collection<Long> findExistingTransactionIds() {
-
-        final Collection<Long> ids = new ArrayList<>();
-        List<SavingsAccountTransaction> trans = getTransactions();
-        for (final SavingsAccountTransaction transaction : trans) {
-            ids.add(transaction.getId());
-        }
-
-        return ids;
+        return new SavingsDTO(getId(), productId(), officeId(), this.currency.getCode(), isCashBasedAccountingEnabledOnSavingsProduct(),
+                isAccrualBasedAccountingEnabledOnSavingsProduct(), newSavingsTransactions);
     }
 
-    public Collection<Long> findExistingReversedTransactionIds() {
-
-        final Collection<Long> ids = new ArrayList<>();
+    /**
+     * Collects the ids of the transactions of the account, and of those of them that are reversed, in a single pass.
+     */
+    public void collectExistingTransactionIds(final Set<Long> existingTransactionIds, final Set<Long> existingReversedTransactionIds) {
         List<SavingsAccountTransaction> trans = getTransactions();
         for (final SavingsAccountTransaction transaction : trans) {
+            existingTransactionIds.add(transaction.getId());
             if (transaction.isReversed()) {
-                ids.add(transaction.getId());
+                existingReversedTransactionIds.add(transaction.getId());
             }
         }
-
-        return ids;
     }
 
     public void update(final Client client) {
@@ -2323,7 +2585,7 @@ public class SavingsAccount extends AbstractPersistableCustom {
                 throw new PlatformApiDataValidationException(dataValidationErrors);
             }
         }
-        final List<SavingsAccountTransaction> savingsAccountTransactions = retreiveListOfTransactions();
+        final List<SavingsAccountTransaction> savingsAccountTransactions = transactionsSorted();
         if (savingsAccountTransactions.size() > 0) {
             final SavingsAccountTransaction accountTransaction = savingsAccountTransactions.get(savingsAccountTransactions.size() - 1);
             if (accountTransaction.isAfter(closedDate)) {
@@ -2431,8 +2693,30 @@ public class SavingsAccount extends AbstractPersistableCustom {
         return this.transactions;
     }
 
+    /**
+     * Adds a transaction to the account, keeping the sorted transactions in step. Transactions must not be added to
+     * {@link #getTransactions()} directly.
+     */
     public void addTransaction(final SavingsAccountTransaction transaction) {
         this.transactions.add(transaction);
+        if (this.transactionsSorted != null && this.transactionsSortedFrom == this.transactions) {
+            // insert after the transactions it sorts equal to, as sorting
+            // the whole list again would
+            final SavingsAccountTransactionComparator transactionComparator = new SavingsAccountTransactionComparator();
+            int low = 0;
+            int high = this.transactionsSorted.size();
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (transactionComparator.compare(this.transactionsSorted.get(mid), transaction) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            this.transactionsSorted.add(low, transaction);
+        } else {
+            clearTransactionsSorted();
+        }
     }
 
     public void setStatus(final Integer status) {
@@ -2763,7 +3047,7 @@ public class SavingsAccount extends AbstractPersistableCustom {
         final SavingsAccountChargePaidBy chargePaidBy = SavingsAccountChargePaidBy.instance(transaction, savingsAccountCharge,
                 transaction.getAmount(this.getCurrency()).getAmount());
         transaction.getSavingsAccountChargesPaid().add(chargePaidBy);
-        this.transactions.add(transaction);
+        addTransaction(transaction);
     }
 
     private SavingsAccountCharge getCharge(final Long savingsAccountChargeId) {
@@ -3023,7 +3307,7 @@ public class SavingsAccount extends AbstractPersistableCustom {
         LocalDate transactionDate = DateUtils.getLocalDateOfTenant();
         if (this.getSummary().getAccountBalance(this.getCurrency()).isGreaterThanZero()) {
             SavingsAccountTransaction transaction = SavingsAccountTransaction.escheat(this, transactionDate, appUser, postInterestAsOnDate);
-            this.transactions.add(transaction);
+            addTransaction(transaction);
         }
         recalculateDailyBalances(Money.zero(this.currency), transactionDate);
         this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
@@ -3255,7 +3539,7 @@ public class SavingsAccount extends AbstractPersistableCustom {
     }
 
     public LocalDate retrieveLastTransactionDate() {
-        final List<SavingsAccountTransaction> transactionsSortedByDate = retreiveListOfTransactions();
+        final List<SavingsAccountTransaction> transactionsSortedByDate = transactionsSorted();
         SavingsAccountTransaction lastTransaction = null;
         if (transactionsSortedByDate.size() > 0) {
             lastTransaction = transactionsSortedByDate.get(transactionsSortedByDate.size() - 1);
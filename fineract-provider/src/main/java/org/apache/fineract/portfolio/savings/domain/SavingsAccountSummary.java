@@ -106,9 +106,34 @@ public final class SavingsAccountSummary {
                 .minus(totalOverdraftInterestDerived).minus(totalWithholdTax).getAmount();
     }
 
+    /**
+     * Adds a deposit or withdrawal made after all other transactions of the account to the totals. Gives the same
+     * totals as {@link #updateSummary} over all transactions, as long as the totals were up to date before. The total
+     * interest earned depends on the balances over time, it is updated by {@link #updateFromInterestPeriodSummaries}.
+     */
+    public void updateForAppendedTransaction(final MonetaryCurrency currency, final SavingsAccountTransaction transaction) {
+        final Money amount = transaction.getAmount(currency);
+        if (transaction.isDepositAndNotReversed() || transaction.isDividendPayoutAndNotReversed()) {
+            this.totalDeposits = Money.of(currency, this.totalDeposits).plus(amount).getAmountDefaultedToNullIfZero();
+            this.accountBalance = Money.of(currency, this.accountBalance).plus(amount).getAmount();
+        } else if (transaction.isWithdrawal() && transaction.isNotReversed()) {
+            this.totalWithdrawals = Money.of(currency, this.totalWithdrawals).plus(amount).getAmountDefaultedToNullIfZero();
+            this.accountBalance = Money.of(currency, this.accountBalance).minus(amount).getAmount();
+        }
+    }
+
     public void updateFromInterestPeriodSummaries(final MonetaryCurrency currency, final List<PostingPeriod> allPostingPeriods) {
+        updateFromInterestPeriodSummaries(currency, allPostingPeriods, Money.zero(currency));
+    }
+
+    /**
+     * @param interestEarnedBefore
+     *            interest earned in the periods before the first of <code>allPostingPeriods</code>
+     */
+    public void updateFromInterestPeriodSummaries(final MonetaryCurrency currency, final List<PostingPeriod> allPostingPeriods,
+            final Money interestEarnedBefore) {
 
-        Money totalEarned = Money.zero(currency);
+        Money totalEarned = interestEarnedBefore;
         LocalDate interestCalculationDate = DateUtils.getLocalDateOfTenant();
         for (final PostingPeriod period : allPostingPeriods) {
             Money interestEarned = period.interest();
@@ -22,9 +22,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -38,10 +36,12 @@ import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
+import org.apache.fineract.accounting.journalentry.data.ChargePaymentDTO;
+import org.apache.fineract.accounting.journalentry.data.SavingsTransactionDTO;
+import org.apache.fineract.accounting.journalentry.data.TaxPaymentDTO;
 import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
 import org.apache.fineract.infrastructure.core.domain.LocalDateInterval;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
-import org.apache.fineract.organisation.monetary.data.CurrencyData;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
 import org.apache.fineract.organisation.office.domain.Office;
@@ -427,6 +427,10 @@ public final class SavingsAccountTransaction extends AbstractPersistableCustom {
         this.runningBalance = balance.getAmount();
     }
 
+    public boolean hasRunningBalance() {
+        return this.runningBalance != null;
+    }
+
     public void updateCumulativeBalanceAndDates(final MonetaryCurrency currency, final LocalDate endOfBalanceDate) {
         // balance end date should not be before transaction date
         if (endOfBalanceDate != null && endOfBalanceDate.isBefore(this.transactionLocalDate())) {
@@ -461,56 +465,40 @@ public final class SavingsAccountTransaction extends AbstractPersistableCustom {
         return transactionAmount.isNotEqualTo(amountToCheck);
     }
 
-    public Map<String, Object> toMapData(final CurrencyData currencyData) {
-        final Map<String, Object> thisTransactionData = new LinkedHashMap<>();
-
+    /**
+     * @return this transaction as the journal entries for it are derived from
+     */
+    public SavingsTransactionDTO toAccountingTransaction(final boolean isAccountTransfer) {
         final SavingsAccountTransactionEnumData transactionType = SavingsEnumerations.transactionType(this.typeOf);
-
-        thisTransactionData.put("id", getId());
-        thisTransactionData.put("officeId", this.office.getId());
-        thisTransactionData.put("type", transactionType);
-        thisTransactionData.put("reversed", Boolean.valueOf(isReversed()));
-        thisTransactionData.put("date", getTransactionLocalDate());
-        thisTransactionData.put("currency", currencyData);
-        thisTransactionData.put("amount", this.amount);
-        thisTransactionData.put("overdraftAmount", this.overdraftAmount);
-
-        if (this.paymentDetail != null) {
-            thisTransactionData.put("paymentTypeId", this.paymentDetail.getPaymentType().getId());
-        }
+        final Date transactionDate = Date.from(getTransactionLocalDate().atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant());
+        final Long paymentTypeId = this.paymentDetail == null ? null : this.paymentDetail.getPaymentType().getId();
 
         /***
-         * Sending data in a map, though in savings we currently expect a transaction to always repay a single charge
-         * (or may repay a part of a single charge too)
+         * Though in savings we currently expect a transaction to always repay a single charge (or may repay a part of a
+         * single charge too)
          ***/
-        if (!this.savingsAccountChargesPaid.isEmpty()) {
-            final List<Map<String, Object>> savingsChargesPaidData = new ArrayList<>();
-            for (final SavingsAccountChargePaidBy chargePaidBy : this.savingsAccountChargesPaid) {
-                final Map<String, Object> savingChargePaidData = new LinkedHashMap<>();
-                savingChargePaidData.put("chargeId", chargePaidBy.getSavingsAccountCharge().getCharge().getId());
-                savingChargePaidData.put("isPenalty", chargePaidBy.getSavingsAccountCharge().getCharge().isPenalty());
-                savingChargePaidData.put("savingsChargeId", chargePaidBy.getSavingsAccountCharge().getId());
-                savingChargePaidData.put("amount", chargePaidBy.getAmount());
-
-                savingsChargesPaidData.add(savingChargePaidData);
+        final List<ChargePaymentDTO> feePayments = new ArrayList<>();
+        final List<ChargePaymentDTO> penaltyPayments = new ArrayList<>();
+        for (final SavingsAccountChargePaidBy chargePaidBy : this.savingsAccountChargesPaid) {
+            final ChargePaymentDTO chargePayment = new ChargePaymentDTO(chargePaidBy.getSavingsAccountCharge().getCharge().getId(),
+                    chargePaidBy.getSavingsAccountCharge().getId(), chargePaidBy.getAmount());
+            if (chargePaidBy.getSavingsAccountCharge().getCharge().isPenalty()) {
+                penaltyPayments.add(chargePayment);
+            } else {
+                feePayments.add(chargePayment);
             }
-            thisTransactionData.put("savingsChargesPaid", savingsChargesPaidData);
         }
 
-        if (!this.taxDetails.isEmpty()) {
-            final List<Map<String, Object>> taxData = new ArrayList<>();
-            for (final SavingsAccountTransactionTaxDetails taxDetails : this.taxDetails) {
-                final Map<String, Object> taxDetailsData = new HashMap<>();
-                taxDetailsData.put("amount", taxDetails.getAmount());
-                if (taxDetails.getTaxComponent().getCreditAcount() != null) {
-                    taxDetailsData.put("creditAccountId", taxDetails.getTaxComponent().getCreditAcount().getId());
-                }
-                taxData.add(taxDetailsData);
-            }
-            thisTransactionData.put("taxDetails", taxData);
+        final List<TaxPaymentDTO> taxPayments = new ArrayList<>();
+        for (final SavingsAccountTransactionTaxDetails taxDetails : this.taxDetails) {
+            final Long creditAccountId = taxDetails.getTaxComponent().getCreditAcount() == null ? null
+                    : taxDetails.getTaxComponent().getCreditAcount().getId();
+            final Long debitAccountId = null;
+            taxPayments.add(new TaxPaymentDTO(debitAccountId, creditAccountId, taxDetails.getAmount()));
         }
 
-        return thisTransactionData;
+        return new SavingsTransactionDTO(this.office.getId(), paymentTypeId, getId().toString(), transactionDate, transactionType,
+                this.amount, isReversed(), feePayments, penaltyPayments, this.overdraftAmount, isAccountTransfer, taxPayments);
     }
 
     public boolean isAfter(final LocalDate transactionDate) {
@@ -0,0 +1,208 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.portfolio.savings.domain.interest.CompoundInterestValues;
+
+/**
+ * {@link SavingsInterestCheckpoint} records the balance and interest state of a {@link SavingsAccount} at the end of its
+ * last posted interest period, so that interest calculation can resume from there instead of replaying the whole
+ * transaction history.
+ *
+ * The checkpoint only holds while the transactions on or before its date are the ones it was taken over and while the
+ * interest terms of the account are unchanged. The transactions are keyed by how many of them there are, how many of
+ * them are reversed and the date of the last one, the terms by a digest of every term the interest calculation depends
+ * on. A backdated transaction or a reversal before the checkpoint date, or a change of terms, invalidates it and the
+ * next calculation starts from the beginning of the account again. Transactions are never deleted and their amounts
+ * are never changed (an adjustment reverses the transaction and adds a new one), and ids are left out as the
+ * transactions added by the command taking the checkpoint have none yet.
+ */
+@Embeddable
+public class SavingsInterestCheckpoint {
+
+    @Temporal(TemporalType.DATE)
+    @Column(name = "interest_checkpoint_date")
+    private Date checkpointDate;
+
+    @Column(name = "interest_checkpoint_closing_balance", scale = 6, precision = 19)
+    private BigDecimal closingBalance;
+
+    @Column(name = "interest_checkpoint_interest_earned", scale = 6, precision = 19)
+    private BigDecimal interestEarned;
+
+    @Column(name = "interest_checkpoint_compounded", scale = 18, precision = 38)
+    private BigDecimal compoundedInterest;
+
+    @Column(name = "interest_checkpoint_uncompounded", scale = 18, precision = 38)
+    private BigDecimal uncompoundedInterest;
+
+    @Column(name = "interest_checkpoint_transactions")
+    private Integer transactionCount;
+
+    @Column(name = "interest_checkpoint_reversals")
+    private Integer reversalCount;
+
+    @Temporal(TemporalType.DATE)
+    @Column(name = "interest_checkpoint_last_transaction_date")
+    private Date lastTransactionDate;
+
+    @Column(name = "interest_checkpoint_terms_digest", length = 64)
+    private String interestTermsDigest;
+
+    protected SavingsInterestCheckpoint() {
+        //
+    }
+
+    private SavingsInterestCheckpoint(final LocalDate checkpointDate, final Money closingBalance, final Money interestEarned,
+            final CompoundInterestValues interestCarriedForward, final TransactionsKey key, final String interestTermsDigest) {
+        this.checkpointDate = toDate(checkpointDate);
+        this.closingBalance = closingBalance.getAmount();
+        this.interestEarned = interestEarned.getAmount();
+        this.compoundedInterest = interestCarriedForward.getcompoundedInterest();
+        this.uncompoundedInterest = interestCarriedForward.getuncompoundedInterest();
+        this.transactionCount = key.transactionCount;
+        this.reversalCount = key.reversalCount;
+        this.lastTransactionDate = key.lastTransactionDate == null ? null : toDate(key.lastTransactionDate);
+        this.interestTermsDigest = interestTermsDigest;
+    }
+
+    public static SavingsInterestCheckpoint at(final LocalDate checkpointDate, final Money closingBalance, final Money interestEarned,
+            final CompoundInterestValues interestCarriedForward, final List<SavingsAccountTransaction> transactions,
+            final String interestTermsDigest) {
+        return new SavingsInterestCheckpoint(checkpointDate, closingBalance, interestEarned, interestCarriedForward,
+                TransactionsKey.of(transactions, checkpointDate), interestTermsDigest);
+    }
+
+    /**
+     * Digest of the terms the interest calculation depends on; amounts are compared by value regardless of their scale.
+     */
+    public static String interestTermsDigest(final Object... terms) {
+        final StringBuilder normalisedTerms = new StringBuilder();
+        for (final Object term : terms) {
+            normalisedTerms.append(term instanceof BigDecimal ? ((BigDecimal) term).stripTrailingZeros().toPlainString() : term)
+                    .append('|');
+        }
+        return sha256(normalisedTerms.toString());
+    }
+
+    public boolean isSet() {
+        return this.checkpointDate != null && this.closingBalance != null && this.interestEarned != null && this.compoundedInterest != null
+                && this.uncompoundedInterest != null && this.transactionCount != null && this.reversalCount != null
+                && this.interestTermsDigest != null;
+    }
+
+    /**
+     * @return whether the transactions on or before the checkpoint date are still the ones the checkpoint was taken over
+     */
+    public boolean isValidFor(final List<SavingsAccountTransaction> transactions) {
+        final TransactionsKey key = TransactionsKey.of(transactions, getCheckpointDate());
+        return key.transactionCount == this.transactionCount && key.reversalCount == this.reversalCount
+                && (key.lastTransactionDate == null ? this.lastTransactionDate == null
+                        : this.lastTransactionDate != null && key.lastTransactionDate.equals(toLocalDate(this.lastTransactionDate)));
+    }
+
+    public boolean hasInterestTerms(final String interestTermsDigest) {
+        return this.interestTermsDigest.equals(interestTermsDigest);
+    }
+
+    public LocalDate getCheckpointDate() {
+        return toLocalDate(this.checkpointDate);
+    }
+
+    public Money closingBalance(final MonetaryCurrency currency) {
+        return Money.of(currency, this.closingBalance);
+    }
+
+    public Money interestEarned(final MonetaryCurrency currency) {
+        return Money.of(currency, this.interestEarned);
+    }
+
+    public CompoundInterestValues interestCarriedForward() {
+        return new CompoundInterestValues(this.compoundedInterest, this.uncompoundedInterest);
+    }
+
+    private static Date toDate(final LocalDate date) {
+        return Date.from(date.atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant());
+    }
+
+    private static LocalDate toLocalDate(final Date date) {
+        return LocalDate.ofInstant(date.toInstant(), DateUtils.getDateTimeZoneOfTenant());
+    }
+
+    private static String sha256(final String value) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return String.format("%064x", new BigInteger(1, digest));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Number of transactions on or before a date, how many of them are reversed and the date of the last one, counted
+     * in a single pass that neither allocates nor sorts.
+     */
+    private static final class TransactionsKey {
+
+        private final int transactionCount;
+        private final int reversalCount;
+        private final LocalDate lastTransactionDate;
+
+        private TransactionsKey(final int transactionCount, final int reversalCount, final LocalDate lastTransactionDate) {
+            this.transactionCount = transactionCount;
+            this.reversalCount = reversalCount;
+            this.lastTransactionDate = lastTransactionDate;
+        }
+
+        static TransactionsKey of(final List<SavingsAccountTransaction> transactions, final LocalDate date) {
+            int transactionCount = 0;
+            int reversalCount = 0;
+            LocalDate lastTransactionDate = null;
+            for (final SavingsAccountTransaction transaction : transactions) {
+                final LocalDate transactionDate = transaction.transactionLocalDate();
+                if (transactionDate.isAfter(date)) {
+                    continue;
+                }
+                transactionCount++;
+                if (transaction.isReversed()) {
+                    reversalCount++;
+                }
+                if (lastTransactionDate == null || transactionDate.isAfter(lastTransactionDate)) {
+                    lastTransactionDate = transactionDate;
+                }
+            }
+            return new TransactionsKey(transactionCount, reversalCount, lastTransactionDate);
+        }
+    }
+}
@@ -40,13 +40,23 @@ public class CompoundInterestHelper {
     public Money calculateInterestForAllPostingPeriods(final MonetaryCurrency currency, final List<PostingPeriod> allPeriods,
             LocalDate lockUntil, Boolean interestTransferEnabled) {
 
-        // sum up the 'rounded' values that are posted each posting period
-        Money interestEarned = Money.zero(currency);
-
         // total interest earned in previous periods but not yet recognised
         BigDecimal compoundedInterest = BigDecimal.ZERO;
         BigDecimal unCompoundedInterest = BigDecimal.ZERO;
-        final CompoundInterestValues compoundInterestValues = new CompoundInterestValues(compoundedInterest, unCompoundedInterest);
+        return calculateInterestForAllPostingPeriods(currency, allPeriods, lockUntil, interestTransferEnabled,
+                new CompoundInterestValues(compoundedInterest, unCompoundedInterest));
+    }
+
+    /**
+     * Calculates the interest of the given posting periods, starting from interest carried forward from the periods
+     * before them.
+     */
+    public Money calculateInterestForAllPostingPeriods(final MonetaryCurrency currency, final List<PostingPeriod> allPeriods,
+            LocalDate lockUntil, Boolean interestTransferEnabled, final CompoundInterestValues compoundInterestValues) {
+
+        // sum up the 'rounded' values that are posted each posting period
+        Money interestEarned = Money.zero(currency);
+
         for (final PostingPeriod postingPeriod : allPeriods) {
 
             final BigDecimal interestEarnedThisPeriod = postingPeriod.calculateInterest(compoundInterestValues);
@@ -62,6 +72,7 @@ public class CompoundInterestHelper {
                     || (lockUntil != null && !postingPeriod.dateOfPostingTransaction().isAfter(lockUntil)))) {
                 compoundInterestValues.setcompoundedInterest(BigDecimal.ZERO);
             }
+            postingPeriod.carryForward(compoundInterestValues);
         }
 
         return interestEarned;
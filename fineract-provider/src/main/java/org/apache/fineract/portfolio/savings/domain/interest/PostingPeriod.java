@@ -56,6 +56,9 @@ public final class PostingPeriod {
     // include in compounding interest
     private boolean interestTransfered = false;
     private boolean isUserPosting = false;
+    // interest carried forward to the next period once interest of this
+    // period is calculated
+    private CompoundInterestValues interestCarriedForward;
 
     // minimum balance for interest calculation
     private final Money minBalanceForInterestCalculation;
@@ -238,6 +241,15 @@ public final class PostingPeriod {
         return this.interestEarnedRounded;
     }
 
+    public void carryForward(final CompoundInterestValues compoundInterestValues) {
+        this.interestCarriedForward = new CompoundInterestValues(compoundInterestValues.getcompoundedInterest(),
+                compoundInterestValues.getuncompoundedInterest());
+    }
+
+    public CompoundInterestValues interestCarriedForward() {
+        return this.interestCarriedForward;
+    }
+
     private static List<CompoundingPeriod> compoundingPeriodsInPostingPeriod(final LocalDateInterval postingPeriodInterval,
             final SavingsCompoundingInterestPeriodType interestPeriodType, final List<EndOfDayBalance> allEndOfDayBalances,
             final LocalDate upToInterestCalculationDate, int financialYearBeginningMonth) {
@@ -19,12 +19,13 @@
 package org.apache.fineract.portfolio.savings.service;
 
 import java.util.Collection;
-import java.util.Map;
 import org.apache.fineract.infrastructure.core.data.PaginationParameters;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.portfolio.account.data.AccountTransferDTO;
 import org.apache.fineract.portfolio.savings.DepositAccountType;
 import org.apache.fineract.portfolio.savings.data.DepositAccountData;
+import org.apache.fineract.portfolio.savings.data.DepositAccountMaturityData;
+import org.apache.fineract.portfolio.savings.data.RecurringDepositScheduleTailData;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionData;
 
 public interface DepositAccountReadPlatformService {
@@ -46,11 +47,11 @@ public interface DepositAccountReadPlatformService {
     DepositAccountData retrieveTemplate(DepositAccountType depositAccountType, Long clientId, Long groupId, Long productId,
             boolean staffInSelectedOfficeOnly);
 
-    Collection<DepositAccountData> retrieveForMaturityUpdate();
+    Collection<DepositAccountMaturityData> retrieveForMaturityUpdate();
 
     SavingsAccountTransactionData retrieveRecurringAccountDepositTransactionTemplate(Long accountId);
 
     Collection<AccountTransferDTO> retrieveDataForInterestTransfer();
 
-    Collection<Map<String, Object>> retriveDataForRDScheduleCreation();
+    Collection<RecurringDepositScheduleTailData> retrieveScheduleTailsToExtend(int minimumFutureInstallments);
 }
@@ -27,7 +27,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.data.PaginationParameters;
@@ -50,6 +49,7 @@ import org.apache.fineract.portfolio.calendar.domain.CalendarEntityType;
 import org.apache.fineract.portfolio.calendar.domain.CalendarFrequencyType;
 import org.apache.fineract.portfolio.calendar.domain.CalendarType;
 import org.apache.fineract.portfolio.calendar.service.CalendarReadPlatformService;
+import org.apache.fineract.portfolio.calendar.service.CalendarUtils;
 import org.apache.fineract.portfolio.charge.data.ChargeData;
 import org.apache.fineract.portfolio.charge.service.ChargeReadPlatformService;
 import org.apache.fineract.portfolio.client.data.ClientData;
@@ -74,9 +74,11 @@ import org.apache.fineract.portfolio.savings.SavingsPeriodFrequencyType;
 import org.apache.fineract.portfolio.savings.SavingsPostingInterestPeriodType;
 import org.apache.fineract.portfolio.savings.data.DepositAccountData;
 import org.apache.fineract.portfolio.savings.data.DepositAccountInterestRateChartData;
+import org.apache.fineract.portfolio.savings.data.DepositAccountMaturityData;
 import org.apache.fineract.portfolio.savings.data.DepositProductData;
 import org.apache.fineract.portfolio.savings.data.FixedDepositAccountData;
 import org.apache.fineract.portfolio.savings.data.RecurringDepositAccountData;
+import org.apache.fineract.portfolio.savings.data.RecurringDepositScheduleTailData;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountApplicationTimelineData;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountChargeData;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountData;
@@ -215,7 +217,7 @@ public class DepositAccountReadPlatformServiceImpl implements DepositAccountRead
     }
 
     @Override
-    public Collection<DepositAccountData> retrieveForMaturityUpdate() {
+    public Collection<DepositAccountMaturityData> retrieveForMaturityUpdate() {
 
         final StringBuilder sqlBuilder = new StringBuilder(200);
         sqlBuilder.append("SELECT ");
@@ -518,12 +520,12 @@ public class DepositAccountReadPlatformServiceImpl implements DepositAccountRead
     }
 
     @Override
-    public Collection<Map<String, Object>> retriveDataForRDScheduleCreation() {
+    public Collection<RecurringDepositScheduleTailData> retrieveScheduleTailsToExtend(final int minimumFutureInstallments) {
         final StringBuilder sb = new StringBuilder(300);
         sb.append(" select rd.savings_account_id savingsId, rd.mandatory_recommended_deposit_amount as amount,");
         sb.append(" mc.recurrence as recurrence ,");
         sb.append(" max(ms.duedate) as dueDate , max(ms.installment) as installment,");
-        sb.append(" count(ms.installment) as futureInstallemts");
+        sb.append(" count(ms.installment) as futureInstallments");
         sb.append(" from m_deposit_account_term_and_preclosure dat ");
         sb.append(" inner join m_savings_account sa on sa.id = dat.savings_account_id and sa.status_enum = ?");
         sb.append(" inner join m_deposit_account_recurring_detail rd on rd.savings_account_id = dat.savings_account_id ");
@@ -532,10 +534,17 @@ public class DepositAccountReadPlatformServiceImpl implements DepositAccountRead
         sb.append(" inner join m_mandatory_savings_schedule ms on ms.savings_account_id = dat.savings_account_id and ms.duedate > ?");
         sb.append(" where dat.deposit_period is null");
         sb.append(" group by ms.savings_account_id, rd.mandatory_recommended_deposit_amount, mc.recurrence");
-
-        return this.jdbcTemplate.queryForList(sb.toString(), SavingsAccountStatusType.ACTIVE.getValue(),
-                CalendarEntityType.SAVINGS.getValue(), CalendarType.COLLECTION.getValue(),
-                formatter.format(DateUtils.getLocalDateOfTenant()));
+        sb.append(" having futureInstallments < ?");
+
+        return this.jdbcTemplate.query(sb.toString(), (rs, rowNum) -> {
+            final String recurrence = rs.getString("recurrence");
+            final PeriodFrequencyType depositFrequency = CalendarFrequencyType.from(CalendarUtils.getFrequency(recurrence));
+            final int interval = CalendarUtils.getInterval(recurrence);
+            return RecurringDepositScheduleTailData.instance(rs.getLong("savingsId"), rs.getBigDecimal("amount"), depositFrequency,
+                    interval == -1 ? 1 : interval, JdbcSupport.getLocalDate(rs, "dueDate"), rs.getInt("installment"),
+                    rs.getInt("futureInstallments"));
+        }, SavingsAccountStatusType.ACTIVE.getValue(), CalendarEntityType.SAVINGS.getValue(), CalendarType.COLLECTION.getValue(),
+                formatter.format(DateUtils.getLocalDateOfTenant()), minimumFutureInstallments);
     }
 
     private abstract static class DepositAccountMapper implements RowMapper<DepositAccountData> {
@@ -1378,7 +1387,7 @@ public class DepositAccountReadPlatformServiceImpl implements DepositAccountRead
         return savingsCharges;
     }
 
-    private static final class DepositAccountForMaturityMapper implements RowMapper<DepositAccountData> {
+    private static final class DepositAccountForMaturityMapper implements RowMapper<DepositAccountMaturityData> {
 
         private final String schemaSql;
 
@@ -1399,14 +1408,13 @@ public class DepositAccountReadPlatformServiceImpl implements DepositAccountRead
         }
 
         @Override
-        public DepositAccountData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+        public DepositAccountMaturityData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
 
             final Long id = rs.getLong("id");
-            final String name = rs.getString("accountNumber");
+            final String accountNo = rs.getString("accountNumber");
             final Integer depositTypeId = JdbcSupport.getInteger(rs, "depositTypeId");
-            final EnumOptionData depositType = (depositTypeId == null) ? null : SavingsEnumerations.depositType(depositTypeId);
 
-            return DepositAccountData.lookup(id, name, depositType);
+            return DepositAccountMaturityData.instance(id, accountNo, DepositAccountType.fromInt(depositTypeId));
         }
     }
 
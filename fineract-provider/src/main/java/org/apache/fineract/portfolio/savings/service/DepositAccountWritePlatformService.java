@@ -87,6 +87,13 @@ public interface DepositAccountWritePlatformService {
 
     void updateMaturityDetails(Long depositAccountId, DepositAccountType depositAccountType);
 
+    /**
+     * Same as {@link #updateMaturityDetails(Long, DepositAccountType)}, with the interest posting configuration resolved once by the
+     * caller for a whole maturity run rather than per account.
+     */
+    void updateMaturityDetails(Long depositAccountId, DepositAccountType depositAccountType,
+            boolean isSavingsInterestPostingAtCurrentPeriodEnd, Integer financialYearBeginningMonth);
+
     void transferInterestToSavings() throws JobExecutionException;
 
     SavingsAccountTransaction mandatorySavingsAccountDeposit(SavingsAccountTransactionDTO accountTransactionDTO);
@@ -52,6 +52,8 @@ public interface SavingsAccountReadPlatformService {
 
     Collection<SavingsAccountData> retrieveForLookup(Long clientId, Boolean overdraft);
 
+    List<Long> retrieveSavingsIdsForInterestPosting();
+
     List<Long> retrieveSavingsIdsPendingInactive(LocalDate tenantLocalDate);
 
     List<Long> retrieveSavingsIdsPendingDormant(LocalDate tenantLocalDate);
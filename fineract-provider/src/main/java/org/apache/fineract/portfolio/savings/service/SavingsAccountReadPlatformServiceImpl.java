@@ -1120,6 +1120,14 @@ public class SavingsAccountReadPlatformServiceImpl implements SavingsAccountRead
 
     }
 
+    @Override
+    public List<Long> retrieveSavingsIdsForInterestPosting() {
+        // same rate condition as SavingsAccountWritePlatformService.postInterest, accounts without interest are not loaded
+        final String sql = "select sa.id from m_savings_account sa where sa.status_enum = ? and (sa.nominal_annual_interest_rate > 0"
+                + " or (sa.allow_overdraft = 1 and sa.nominal_annual_interest_rate_overdraft > 0))";
+        return this.jdbcTemplate.queryForList(sql, Long.class, SavingsAccountStatusType.ACTIVE.getValue());
+    }
+
     @Override
     public List<Long> retrieveSavingsIdsPendingInactive(LocalDate tenantLocalDate) {
         List<Long> ret = null;
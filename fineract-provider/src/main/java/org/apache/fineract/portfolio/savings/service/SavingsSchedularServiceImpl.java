@@ -18,74 +18,62 @@
  */
 package org.apache.fineract.portfolio.savings.service;
 
-import static org.apache.fineract.portfolio.savings.domain.SavingsAccountStatusType.ACTIVE;
-
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.PerEntityJob;
+import org.apache.fineract.infrastructure.jobs.service.PerEntityJobRunner;
+import org.apache.fineract.portfolio.collectionsheet.service.CollectionSheetSnapshotService;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountAssembler;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepositoryWrapper;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 @Service
 public class SavingsSchedularServiceImpl implements SavingsSchedularService {
 
-    private static final Logger LOG = LoggerFactory.getLogger(SavingsSchedularServiceImpl.class);
-
     private final SavingsAccountAssembler savingAccountAssembler;
     private final SavingsAccountWritePlatformService savingsAccountWritePlatformService;
     private final SavingsAccountReadPlatformService savingAccountReadPlatformService;
     private final SavingsAccountRepositoryWrapper savingsAccountRepository;
+    private final PerEntityJobRunner perEntityJobRunner;
+    private final CollectionSheetSnapshotService collectionSheetSnapshotService;
 
     @Autowired
     public SavingsSchedularServiceImpl(final SavingsAccountAssembler savingAccountAssembler,
             final SavingsAccountWritePlatformService savingsAccountWritePlatformService,
             final SavingsAccountReadPlatformService savingAccountReadPlatformService,
-            final SavingsAccountRepositoryWrapper savingsAccountRepository) {
+            final SavingsAccountRepositoryWrapper savingsAccountRepository, final PerEntityJobRunner perEntityJobRunner,
+            final CollectionSheetSnapshotService collectionSheetSnapshotService) {
         this.savingAccountAssembler = savingAccountAssembler;
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
         this.savingAccountReadPlatformService = savingAccountReadPlatformService;
         this.savingsAccountRepository = savingsAccountRepository;
+        this.perEntityJobRunner = perEntityJobRunner;
+        this.collectionSheetSnapshotService = collectionSheetSnapshotService;
     }
 
     @Override
     @CronTarget(jobName = JobName.POST_INTEREST_FOR_SAVINGS)
     public void postInterestForAccounts() throws JobExecutionException {
-        int page = 0;
-        Integer initialSize = 500;
-        Integer totalPageSize = 0;
-        List<Throwable> errors = new ArrayList<>();
-        do {
-            PageRequest pageRequest = PageRequest.of(page, initialSize);
-            Page<SavingsAccount> savingsAccounts = this.savingsAccountRepository.findByStatus(ACTIVE.getValue(), pageRequest);
-            for (SavingsAccount savingsAccount : savingsAccounts.getContent()) {
-                try {
-                    this.savingAccountAssembler.assignSavingAccountHelpers(savingsAccount);
-                    boolean postInterestAsOn = false;
-                    LocalDate transactionDate = null;
-                    this.savingsAccountWritePlatformService.postInterest(savingsAccount, postInterestAsOn, transactionDate);
-                } catch (Exception e) {
-                    LOG.error("Failed to post interest for Savings with id {}", savingsAccount.getId(), e);
-                    errors.add(e);
-                }
-            }
-            page++;
-            totalPageSize = savingsAccounts.getTotalPages();
-        } while (page < totalPageSize);
+        this.perEntityJobRunner.run(PerEntityJob.of(JobName.POST_INTEREST_FOR_SAVINGS,
+                this.savingAccountReadPlatformService::retrieveSavingsIdsForInterestPosting, Function.identity(),
+                savingsId -> "Savings Id: " + savingsId, this::postInterest));
+    }
 
-        if (!errors.isEmpty()) {
-            throw new JobExecutionException(errors);
-        }
+    private void postInterest(final Long savingsId) {
+        final SavingsAccount savingsAccount = this.savingsAccountRepository.findOneWithNotFoundDetection(savingsId);
+        this.savingAccountAssembler.assignSavingAccountHelpers(savingsAccount);
+        boolean postInterestAsOn = false;
+        LocalDate transactionDate = null;
+        this.savingsAccountWritePlatformService.postInterest(savingsAccount, postInterestAsOn, transactionDate);
+        // the job posts without business events, which is what invalidates the sheets for interest posted on demand
+        this.collectionSheetSnapshotService.invalidateForSavingsAccount(savingsId);
     }
 
     @Override
@@ -118,6 +118,40 @@ public class SearchConstants {
         }
     }
 
+    /**
+     * Entity types kept in the <code>m_search_index</code> table. CENTER and GROUP share the GROUP entry as both live
+     * in <code>m_group</code>.
+     */
+    public enum SearchIndexEntityType {
+
+        CLIENT, CLIENTIDENTIFIER, GROUP, LOAN, SAVING, SHARE;
+
+        public static SearchIndexEntityType fromCommandEntityName(final String entityName) {
+            if (entityName == null) {
+                return null;
+            }
+            switch (entityName) {
+                case "CLIENT":
+                    return CLIENT;
+                case "CLIENTIDENTIFIER":
+                    return CLIENTIDENTIFIER;
+                case "GROUP":
+                case "CENTER":
+                    return GROUP;
+                case "LOAN":
+                    return LOAN;
+                case "SAVINGSACCOUNT":
+                case "FIXEDDEPOSITACCOUNT":
+                case "RECURRINGDEPOSITACCOUNT":
+                    return SAVING;
+                case "SHAREACCOUNT":
+                    return SHARE;
+                default:
+                    return null;
+            }
+        }
+    }
+
     public enum SearchLoanDate {
 
         APPROVAL_DATE("approvalDate"), CREATED_DATE("createdDate"), DISBURSAL_DATE("disbursalDate");
@@ -0,0 +1,197 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.PostConstruct;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.infrastructure.hooks.event.HookEvent;
+import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BusinessEntity;
+import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BusinessEvents;
+import org.apache.fineract.portfolio.common.service.BusinessEventListener;
+import org.apache.fineract.portfolio.common.service.BusinessEventNotifierService;
+import org.apache.fineract.portfolio.search.SearchConstants.SearchIndexEntityType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the search index in line with the entity tables. Entities touched by business events and by commands that can
+ * change searchable fields are collected per transaction and reindexed once it has committed.
+ */
+@Service
+public class SearchIndexEventListener implements ApplicationListener<HookEvent> {
+
+    private static final Set<String> INDEXED_ACTIONS = new HashSet<>(
+            Arrays.asList("CREATE", "UPDATE", "DELETE", "ACCEPTTRANSFER", "PROPOSEANDACCEPTTRANSFER", "TRANSFERCLIENTS"));
+
+    private final BusinessEventNotifierService businessEventNotifierService;
+    private final SearchIndexService searchIndexService;
+
+    @Autowired
+    public SearchIndexEventListener(final BusinessEventNotifierService businessEventNotifierService,
+            final SearchIndexService searchIndexService) {
+        this.businessEventNotifierService = businessEventNotifierService;
+        this.searchIndexService = searchIndexService;
+    }
+
+    @PostConstruct
+    public void addListeners() {
+        this.businessEventNotifierService.addBusinessEventPostListeners(BusinessEvents.CLIENTS_CREATE,
+                new EntityCreatedListener(BusinessEntity.CLIENT, SearchIndexEntityType.CLIENT));
+        this.businessEventNotifierService.addBusinessEventPostListeners(BusinessEvents.GROUPS_CREATE, new GroupCreatedListener());
+        this.businessEventNotifierService.addBusinessEventPostListeners(BusinessEvents.CENTERS_CREATE, new GroupCreatedListener());
+        this.businessEventNotifierService.addBusinessEventPostListeners(BusinessEvents.LOAN_CREATE,
+                new EntityCreatedListener(BusinessEntity.LOAN, SearchIndexEntityType.LOAN));
+        this.businessEventNotifierService.addBusinessEventPostListeners(BusinessEvents.SAVINGS_CREATE,
+                new EntityCreatedListener(BusinessEntity.SAVING, SearchIndexEntityType.SAVING));
+        this.businessEventNotifierService.addBusinessEventPostListeners(BusinessEvents.FIXED_DEPOSIT_ACCOUNT_CREATE,
+                new EntityCreatedListener(BusinessEntity.DEPOSIT_ACCOUNT, SearchIndexEntityType.SAVING));
+        this.businessEventNotifierService.addBusinessEventPostListeners(BusinessEvents.RECURRING_DEPOSIT_ACCOUNT_CREATE,
+                new EntityCreatedListener(BusinessEntity.DEPOSIT_ACCOUNT, SearchIndexEntityType.SAVING));
+        this.businessEventNotifierService.addBusinessEventPostListeners(BusinessEvents.SHARE_ACCOUNT_CREATE,
+                new EntityCreatedListener(BusinessEntity.SHARE_ACCOUNT, SearchIndexEntityType.SHARE));
+    }
+
+    @Override
+    public void onApplicationEvent(final HookEvent event) {
+        // entity, action and outcome are known from the event itself, the payload is only parsed for the events indexed
+        final SearchIndexEntityType entityType = SearchIndexEntityType.fromCommandEntityName(event.getSource().getEntityName());
+        if (entityType == null || event.isFailure() || !INDEXED_ACTIONS.contains(event.getSource().getActionName())
+                || !this.searchIndexService.isEnabled()) {
+            return;
+        }
+        final JsonObject payload = JsonParser.parseString(event.getPayload()).getAsJsonObject();
+        final JsonElement response = payload.get("response");
+        if (response == null || !response.isJsonObject()) {
+            return;
+        }
+        scheduleReindex(entityType, resolveEntityId(entityType, response.getAsJsonObject()));
+    }
+
+    private static Long resolveEntityId(final SearchIndexEntityType entityType, final JsonObject response) {
+        String idField = "resourceId";
+        switch (entityType) {
+            case CLIENT:
+                idField = "clientId";
+            break;
+            case GROUP:
+                idField = "groupId";
+            break;
+            case LOAN:
+                idField = "loanId";
+            break;
+            case SAVING:
+                idField = "savingsId";
+            break;
+            default:
+            break;
+        }
+        if (!response.has(idField) || response.get(idField).isJsonNull()) {
+            idField = "resourceId";
+        }
+        return response.has(idField) && !response.get(idField).isJsonNull() ? response.get(idField).getAsLong() : null;
+    }
+
+    private void scheduleReindex(final SearchIndexEntityType entityType, final Long entityId) {
+        if (entityId == null || !this.searchIndexService.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.searchIndexService.reindex(entityType, entityId);
+            return;
+        }
+        PendingReindex pendingReindex = (PendingReindex) TransactionSynchronizationManager.getResource(this);
+        if (pendingReindex == null) {
+            pendingReindex = new PendingReindex();
+            TransactionSynchronizationManager.bindResource(this, pendingReindex);
+            TransactionSynchronizationManager.registerSynchronization(pendingReindex);
+        }
+        pendingReindex.entities.computeIfAbsent(entityType, k -> new LinkedHashSet<>()).add(entityId);
+    }
+
+    /**
+     * Entities to reindex once the current transaction has committed, de-duplicated because a create command raises
+     * both a business event and a command event.
+     */
+    private final class PendingReindex implements TransactionSynchronization {
+
+        private final Map<SearchIndexEntityType, Set<Long>> entities = new EnumMap<>(SearchIndexEntityType.class);
+
+        @Override
+        public void afterCompletion(final int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(SearchIndexEventListener.this);
+            if (status != STATUS_COMMITTED) {
+                return;
+            }
+            for (final Map.Entry<SearchIndexEntityType, Set<Long>> entry : this.entities.entrySet()) {
+                for (final Long entityId : entry.getValue()) {
+                    searchIndexService.reindex(entry.getKey(), entityId);
+                }
+            }
+        }
+    }
+
+    private abstract static class SearchIndexBusinessEventAdapter implements BusinessEventListener {
+
+        @Override
+        public void businessEventToBeExecuted(final Map<BusinessEntity, Object> businessEventEntity) {}
+    }
+
+    private final class EntityCreatedListener extends SearchIndexBusinessEventAdapter {
+
+        private final BusinessEntity businessEntity;
+        private final SearchIndexEntityType entityType;
+
+        EntityCreatedListener(final BusinessEntity businessEntity, final SearchIndexEntityType entityType) {
+            this.businessEntity = businessEntity;
+            this.entityType = entityType;
+        }
+
+        @Override
+        public void businessEventWasExecuted(final Map<BusinessEntity, Object> businessEventEntity) {
+            final Object entity = businessEventEntity.get(this.businessEntity);
+            if (entity instanceof AbstractPersistableCustom) {
+                scheduleReindex(this.entityType, ((AbstractPersistableCustom) entity).getId());
+            }
+        }
+    }
+
+    private final class GroupCreatedListener extends SearchIndexBusinessEventAdapter {
+
+        @Override
+        public void businessEventWasExecuted(final Map<BusinessEntity, Object> businessEventEntity) {
+            final Object entity = businessEventEntity.get(BusinessEntity.GROUP);
+            if (entity instanceof CommandProcessingResult) {
+                scheduleReindex(SearchIndexEntityType.GROUP, ((CommandProcessingResult) entity).getGroupId());
+            }
+        }
+    }
+}
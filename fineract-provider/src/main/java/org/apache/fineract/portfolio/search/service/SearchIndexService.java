@@ -0,0 +1,49 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import java.util.Map;
+import java.util.Set;
+import org.apache.fineract.portfolio.search.SearchConstants.SearchIndexEntityType;
+import org.apache.fineract.portfolio.search.data.SearchConditions;
+
+/**
+ * Keeps the searchable terms of clients, groups and accounts in an index that supports prefix, phonetic and fuzzy
+ * lookups, so that /search does not need to run leading-wildcard LIKE scans over the entity tables.
+ */
+public interface SearchIndexService {
+
+    boolean isEnabled();
+
+    /**
+     * Resolves the search query against the index, limited to entities whose office falls under the given office
+     * hierarchy.
+     *
+     * @return ids of the matching entities grouped by entity type
+     */
+    Map<SearchIndexEntityType, Set<Long>> findMatches(SearchConditions searchConditions, String hierarchy);
+
+    /**
+     * Replaces the index entries of a single entity with its current state; removes them if the entity no longer
+     * exists.
+     */
+    void reindex(SearchIndexEntityType entityType, Long entityId);
+
+    void rebuildIndex();
+}
@@ -0,0 +1,354 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.portfolio.search.SearchConstants.SearchIndexEntityType;
+import org.apache.fineract.portfolio.search.data.SearchConditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link SearchIndexService} backed by the <code>m_search_index</code> table. Every searchable value of an entity is
+ * stored lower-cased as a separate term row, together with its SOUNDEX key for name fields and the owning office, so
+ * that prefix and phonetic lookups are index range scans. Office scoping joins the live office hierarchy, so moving an
+ * office under another parent applies to searches at once.
+ */
+@Service
+public class SearchIndexServiceImpl implements SearchIndexService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SearchIndexServiceImpl.class);
+
+    private static final int MAX_CANDIDATES = 1000;
+    private static final int MIN_PHONETIC_QUERY_LENGTH = 3;
+    private static final int MIN_FUZZY_QUERY_LENGTH = 5;
+    private static final int FUZZY_STEM_LENGTH = 3;
+    private static final int REBUILD_CHUNK_SIZE = 5000;
+
+    private static final Map<SearchIndexEntityType, IndexSource> SOURCES = new EnumMap<>(SearchIndexEntityType.class);
+    static {
+        SOURCES.put(SearchIndexEntityType.CLIENT, new IndexSource(SearchIndexEntityType.CLIENT, "m_client c", "c.id", "c.office_id",
+                Arrays.asList("c.display_name", "c.firstname", "c.middlename", "c.lastname"),
+                Arrays.asList("c.account_no", "c.external_id", "c.mobile_no")));
+        SOURCES.put(SearchIndexEntityType.CLIENTIDENTIFIER,
+                new IndexSource(SearchIndexEntityType.CLIENTIDENTIFIER, "m_client_identifier ci join m_client c on c.id = ci.client_id",
+                        "ci.id", "c.office_id", new ArrayList<>(), Arrays.asList("ci.document_key")));
+        SOURCES.put(SearchIndexEntityType.GROUP, new IndexSource(SearchIndexEntityType.GROUP, "m_group g", "g.id", "g.office_id",
+                Arrays.asList("g.display_name"), Arrays.asList("g.account_no", "g.external_id", "cast(g.id as char)")));
+        SOURCES.put(SearchIndexEntityType.LOAN,
+                new IndexSource(SearchIndexEntityType.LOAN,
+                        "m_loan l left join m_client c on c.id = l.client_id left join m_group g on g.id = l.group_id", "l.id",
+                        "ifnull(c.office_id, g.office_id)", new ArrayList<>(), Arrays.asList("l.account_no", "l.external_id")));
+        SOURCES.put(SearchIndexEntityType.SAVING,
+                new IndexSource(SearchIndexEntityType.SAVING,
+                        "m_savings_account s left join m_client c on c.id = s.client_id left join m_group g on g.id = s.group_id", "s.id",
+                        "ifnull(c.office_id, g.office_id)", new ArrayList<>(), Arrays.asList("s.account_no", "s.external_id")));
+        SOURCES.put(SearchIndexEntityType.SHARE,
+                new IndexSource(SearchIndexEntityType.SHARE, "m_share_account sa left join m_client c on c.id = sa.client_id", "sa.id",
+                        "c.office_id", new ArrayList<>(), Arrays.asList("sa.account_no", "sa.external_id")));
+    }
+
+    /**
+     * The kinds of matches, in the order their candidates are taken. Each kind leaves out the terms an earlier kind
+     * already matched, so a large number of weak matches can never crowd out an exact or prefix match.
+     */
+    enum MatchKind {
+
+        EXACT("si.term = :query"), //
+        PREFIX("si.term like :prefix and si.term <> :query"), //
+        PHONETIC("si.sound_key = nullif(soundex(:query), '') and si.term not like :prefix"), //
+        FUZZY("si.term like :stem and si.term not like :prefix");
+
+        private final String condition;
+
+        MatchKind(final String condition) {
+            this.condition = condition;
+        }
+
+        String getCondition() {
+            return this.condition;
+        }
+    }
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConfigurationDomainService configurationDomainService;
+
+    @Autowired
+    public SearchIndexServiceImpl(final RoutingDataSource dataSource, final PlatformTransactionManager transactionManager,
+            final ConfigurationDomainService configurationDomainService) {
+        this(new NamedParameterJdbcTemplate(dataSource), new TransactionTemplate(transactionManager), configurationDomainService);
+    }
+
+    SearchIndexServiceImpl(final NamedParameterJdbcTemplate namedParameterJdbcTemplate, final TransactionTemplate transactionTemplate,
+            final ConfigurationDomainService configurationDomainService) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.configurationDomainService = configurationDomainService;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return this.configurationDomainService.isSearchIndexEnabled();
+    }
+
+    @Override
+    public Map<SearchIndexEntityType, Set<Long>> findMatches(final SearchConditions searchConditions, final String hierarchy) {
+        final Map<SearchIndexEntityType, Set<Long>> matches = new EnumMap<>(SearchIndexEntityType.class);
+        final String query = StringUtils.lowerCase(StringUtils.trimToNull(searchConditions.getSearchQuery()), Locale.ROOT);
+        final List<String> entityTypes = searchedEntityTypes(searchConditions);
+        if (query == null || entityTypes.isEmpty()) {
+            return matches;
+        }
+
+        final List<MatchKind> kinds = new ArrayList<>();
+        kinds.add(MatchKind.EXACT);
+        if (!Boolean.TRUE.equals(searchConditions.getExactMatch())) {
+            kinds.add(MatchKind.PREFIX);
+            if (query.length() >= MIN_PHONETIC_QUERY_LENGTH && StringUtils.isAlphaSpace(query)) {
+                kinds.add(MatchKind.PHONETIC);
+            }
+            if (query.length() >= MIN_FUZZY_QUERY_LENGTH) {
+                kinds.add(MatchKind.FUZZY);
+            }
+        }
+
+        final MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("hierarchy", hierarchy + "%");
+        params.addValue("entityTypes", entityTypes);
+        params.addValue("query", query);
+        params.addValue("prefix", escapeLike(query) + "%");
+        params.addValue("stem", escapeLike(query.substring(0, Math.min(FUZZY_STEM_LENGTH, query.length()))) + "%");
+
+        final int maxEdits = query.length() >= 8 ? 2 : 1;
+        int remaining = MAX_CANDIDATES;
+        for (final MatchKind kind : kinds) {
+            if (remaining <= 0) {
+                break;
+            }
+            final int[] taken = new int[1];
+            final int limit = remaining;
+            final String sql = "select si.entity_type as entityType, si.entity_id as entityId, si.term as term from m_search_index si"
+                    + " join m_office o on o.id = si.office_id where si.entity_type in (:entityTypes) and o.hierarchy like :hierarchy"
+                    + " and " + kind.getCondition() + " order by si.term, si.entity_id limit "
+                    + (kind == MatchKind.FUZZY ? MAX_CANDIDATES : limit);
+            this.namedParameterJdbcTemplate.query(sql, params, (RowCallbackHandler) rs -> {
+                if (taken[0] >= limit || (kind == MatchKind.FUZZY && !isWithinEditDistance(query, rs.getString("term"), maxEdits))) {
+                    return;
+                }
+                final SearchIndexEntityType entityType = SearchIndexEntityType.valueOf(rs.getString("entityType"));
+                matches.computeIfAbsent(entityType, k -> new LinkedHashSet<>()).add(rs.getLong("entityId"));
+                taken[0]++;
+            });
+            remaining -= taken[0];
+        }
+        return matches;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Override
+    public void reindex(final SearchIndexEntityType entityType, final Long entityId) {
+        final IndexSource source = SOURCES.get(entityType);
+        final MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("entityType", entityType.name());
+        params.addValue("entityId", entityId);
+        this.namedParameterJdbcTemplate.update("delete from m_search_index where entity_type = :entityType and entity_id = :entityId",
+                params);
+        this.namedParameterJdbcTemplate.update(source.insertSql(" and " + source.idColumn + " = :entityId"), params);
+    }
+
+    /**
+     * Rebuilds the index entity type by entity type in id ranges of {@value #REBUILD_CHUNK_SIZE}, each range replaced in
+     * its own transaction, so a rebuild neither holds locks on the whole index nor leaves it empty while it runs.
+     */
+    @Override
+    @CronTarget(jobName = JobName.REBUILD_SEARCH_INDEX)
+    public void rebuildIndex() {
+        int indexedTerms = 0;
+        for (final IndexSource source : SOURCES.values()) {
+            indexedTerms += rebuild(source);
+        }
+        LOG.info("{}: Search index rebuilt with {} terms", ThreadLocalContextUtil.getTenant().getName(), indexedTerms);
+    }
+
+    private int rebuild(final IndexSource source) {
+        final MapSqlParameterSource params = new MapSqlParameterSource("entityType", source.entityType.name());
+        final Map<String, Object> idRange = this.namedParameterJdbcTemplate.queryForMap(
+                "select min(" + source.idColumn + ") as minId, max(" + source.idColumn + ") as maxId from " + source.fromClause, params);
+        if (idRange.get("minId") == null) {
+            this.namedParameterJdbcTemplate.update("delete from m_search_index where entity_type = :entityType", params);
+            return 0;
+        }
+        final long minId = ((Number) idRange.get("minId")).longValue();
+        final long maxId = ((Number) idRange.get("maxId")).longValue();
+        params.addValue("minId", minId);
+        params.addValue("maxId", maxId);
+        this.namedParameterJdbcTemplate.update(
+                "delete from m_search_index where entity_type = :entityType and (entity_id < :minId or entity_id > :maxId)", params);
+
+        int indexedTerms = 0;
+        for (long fromId = minId; fromId <= maxId; fromId += REBUILD_CHUNK_SIZE) {
+            final MapSqlParameterSource chunk = new MapSqlParameterSource("entityType", source.entityType.name())
+                    .addValue("fromId", fromId).addValue("toId", fromId + REBUILD_CHUNK_SIZE - 1);
+            final Integer chunkTerms = this.transactionTemplate.execute(status -> {
+                this.namedParameterJdbcTemplate.update(
+                        "delete from m_search_index where entity_type = :entityType and entity_id between :fromId and :toId", chunk);
+                return this.namedParameterJdbcTemplate.update(source.insertSql(" and " + source.idColumn + " between :fromId and :toId"),
+                        chunk);
+            });
+            indexedTerms += chunkTerms == null ? 0 : chunkTerms;
+        }
+        return indexedTerms;
+    }
+
+    private static List<String> searchedEntityTypes(final SearchConditions searchConditions) {
+        final List<String> entityTypes = new ArrayList<>();
+        if (Boolean.TRUE.equals(searchConditions.isClientSearch())) {
+            entityTypes.add(SearchIndexEntityType.CLIENT.name());
+        }
+        if (Boolean.TRUE.equals(searchConditions.isClientIdentifierSearch())) {
+            entityTypes.add(SearchIndexEntityType.CLIENTIDENTIFIER.name());
+        }
+        if (Boolean.TRUE.equals(searchConditions.isGroupSearch())) {
+            entityTypes.add(SearchIndexEntityType.GROUP.name());
+        }
+        if (Boolean.TRUE.equals(searchConditions.isLoanSeach())) {
+            entityTypes.add(SearchIndexEntityType.LOAN.name());
+        }
+        if (Boolean.TRUE.equals(searchConditions.isSavingSeach())) {
+            entityTypes.add(SearchIndexEntityType.SAVING.name());
+        }
+        if (Boolean.TRUE.equals(searchConditions.isShareSeach())) {
+            entityTypes.add(SearchIndexEntityType.SHARE.name());
+        }
+        return entityTypes;
+    }
+
+    private static String escapeLike(final String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Checks whether the query is within the given number of edits of either the whole term or the term prefix of the
+     * same length, so that a misspelt prefix still finds the longer name.
+     */
+    private static boolean isWithinEditDistance(final String query, final String term, final int maxEdits) {
+        if (editDistance(query, term, maxEdits) <= maxEdits) {
+            return true;
+        }
+        return term.length() > query.length() && editDistance(query, term.substring(0, query.length()), maxEdits) <= maxEdits;
+    }
+
+    /**
+     * Levenshtein distance that gives up as soon as every cell of a row exceeds the threshold.
+     *
+     * @return the distance, or <code>threshold + 1</code> if the distance is larger than the threshold
+     */
+    private static int editDistance(final String left, final String right, final int threshold) {
+        if (Math.abs(left.length() - right.length()) > threshold) {
+            return threshold + 1;
+        }
+        int[] previous = new int[right.length() + 1];
+        int[] current = new int[right.length() + 1];
+        for (int j = 0; j <= right.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= left.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            for (int j = 1; j <= right.length(); j++) {
+                final int cost = left.charAt(i - 1) == right.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum > threshold) {
+                return threshold + 1;
+            }
+            final int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[right.length()];
+    }
+
+    /**
+     * Describes how the terms of one entity type are selected from its source tables.
+     */
+    private static final class IndexSource {
+
+        private final SearchIndexEntityType entityType;
+        private final String fromClause;
+        private final String idColumn;
+        private final String officeColumn;
+        private final List<String> phoneticColumns;
+        private final List<String> plainColumns;
+
+        IndexSource(final SearchIndexEntityType entityType, final String fromClause, final String idColumn, final String officeColumn,
+                final List<String> phoneticColumns, final List<String> plainColumns) {
+            this.entityType = entityType;
+            this.fromClause = fromClause;
+            this.idColumn = idColumn;
+            this.officeColumn = officeColumn;
+            this.phoneticColumns = phoneticColumns;
+            this.plainColumns = plainColumns;
+        }
+
+        String insertSql(final String filter) {
+            final StringBuilder sql = new StringBuilder(
+                    "insert into m_search_index (entity_type, entity_id, office_id, term, sound_key) ");
+            String union = "";
+            for (final String column : this.phoneticColumns) {
+                sql.append(union).append(termSelect(column, "nullif(soundex(" + column + "), '')", filter));
+                union = " union all ";
+            }
+            for (final String column : this.plainColumns) {
+                sql.append(union).append(termSelect(column, "null", filter));
+                union = " union all ";
+            }
+            return sql.toString();
+        }
+
+        private String termSelect(final String column, final String soundKey, final String filter) {
+            return "select '" + this.entityType.name() + "', " + this.idColumn + ", " + this.officeColumn + ", lower(" + column + "), "
+                    + soundKey + " from " + this.fromClause + " where " + column + " is not null and " + column + " <> ''" + filter;
+        }
+    }
+}
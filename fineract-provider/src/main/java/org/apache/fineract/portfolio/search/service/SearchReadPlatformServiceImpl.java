@@ -22,8 +22,12 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
@@ -31,7 +35,9 @@ import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.organisation.office.data.OfficeData;
+import org.apache.fineract.organisation.office.service.OfficeHierarchyService;
 import org.apache.fineract.organisation.office.service.OfficeReadPlatformService;
+import org.apache.fineract.organisation.office.service.OfficeScope;
 import org.apache.fineract.portfolio.client.domain.ClientEnumerations;
 import org.apache.fineract.portfolio.group.domain.GroupingTypeEnumerations;
 import org.apache.fineract.portfolio.loanaccount.data.LoanStatusEnumData;
@@ -39,6 +45,7 @@ import org.apache.fineract.portfolio.loanproduct.data.LoanProductData;
 import org.apache.fineract.portfolio.loanproduct.service.LoanEnumerations;
 import org.apache.fineract.portfolio.loanproduct.service.LoanProductReadPlatformService;
 import org.apache.fineract.portfolio.search.SearchConstants;
+import org.apache.fineract.portfolio.search.SearchConstants.SearchIndexEntityType;
 import org.apache.fineract.portfolio.search.data.AdHocQuerySearchConditions;
 import org.apache.fineract.portfolio.search.data.AdHocSearchQueryData;
 import org.apache.fineract.portfolio.search.data.SearchConditions;
@@ -57,15 +64,19 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
     private final PlatformSecurityContext context;
     private final LoanProductReadPlatformService loanProductReadPlatformService;
     private final OfficeReadPlatformService officeReadPlatformService;
+    private final SearchIndexService searchIndexService;
+    private final OfficeHierarchyService officeHierarchyService;
 
     @Autowired
     public SearchReadPlatformServiceImpl(final PlatformSecurityContext context, final RoutingDataSource dataSource,
-            final LoanProductReadPlatformService loanProductReadPlatformService,
-            final OfficeReadPlatformService officeReadPlatformService) {
+            final LoanProductReadPlatformService loanProductReadPlatformService, final OfficeReadPlatformService officeReadPlatformService,
+            final SearchIndexService searchIndexService, final OfficeHierarchyService officeHierarchyService) {
         this.context = context;
         this.namedParameterjdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
         this.loanProductReadPlatformService = loanProductReadPlatformService;
         this.officeReadPlatformService = officeReadPlatformService;
+        this.searchIndexService = searchIndexService;
+        this.officeHierarchyService = officeHierarchyService;
     }
 
     @Override
@@ -73,10 +84,16 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
         final AppUser currentUser = this.context.authenticatedUser();
         final String hierarchy = currentUser.getOffice().getHierarchy();
 
-        final SearchMapper rm = new SearchMapper();
+        final SearchMapper rm = new SearchMapper(this.officeHierarchyService.currentUserScope());
 
         final MapSqlParameterSource params = new MapSqlParameterSource();
-        params.addValue("hierarchy", hierarchy + "%");
+        if (this.searchIndexService.isEnabled()) {
+            final Map<SearchIndexEntityType, Set<Long>> matches = this.searchIndexService.findMatches(searchConditions, hierarchy);
+            if (matches.isEmpty()) {
+                return new ArrayList<>();
+            }
+            return this.namedParameterjdbcTemplate.query(rm.indexedSearchSchema(matches, params), params, rm);
+        }
         if (searchConditions.getExactMatch()) {
             params.addValue("search", searchConditions.getSearchQuery());
         } else {
@@ -87,66 +104,123 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
 
     private static final class SearchMapper implements RowMapper<SearchData> {
 
+        private static final String UNION = " union ";
+
+        private static final String CLIENT_SELECT = "select 'CLIENT' as entityType, c.id as entityId, c.display_name as entityName, c.external_id as entityExternalId, c.account_no as entityAccountNo "
+                + " , c.office_id as parentId, o.name as parentName, c.mobile_no as entityMobileNo,c.status_enum as entityStatusEnum, null as parentType "
+                + " from m_client c join m_office o on o.id = c.office_id ";
+
+        private static final String LOAN_SELECT = "select 'LOAN' as entityType, l.id as entityId, pl.name as entityName, l.external_id as entityExternalId, l.account_no as entityAccountNo "
+                + " , IFNULL(c.id,g.id) as parentId, IFNULL(c.display_name,g.display_name) as parentName, null as entityMobileNo, l.loan_status_id as entityStatusEnum, IF(g.id is null, 'client', 'group') as parentType "
+                + " from m_loan l left join m_client c on l.client_id = c.id left join m_group g ON l.group_id = g.id left join m_product_loan pl on pl.id=l.product_id ";
+
+        private static final String SAVING_SELECT = "select 'SAVING' as entityType, s.id as entityId, sp.name as entityName, s.external_id as entityExternalId, s.account_no as entityAccountNo "
+                + " , IFNULL(c.id,g.id) as parentId, IFNULL(c.display_name,g.display_name) as parentName, null as entityMobileNo, s.status_enum as entityStatusEnum, IF(g.id is null, 'client', 'group') as parentType "
+                + " from m_savings_account s left join m_client c on s.client_id = c.id left join m_group g ON s.group_id = g.id left join m_savings_product sp on sp.id=s.product_id ";
+
+        private static final String SHARE_SELECT = "select 'SHARE' as entityType, s.id as entityId, sp.name as entityName, s.external_id as entityExternalId, s.account_no as entityAccountNo "
+                + " , c.id as parentId, c.display_name as parentName, null as entityMobileNo, s.status_enum as entityStatusEnum, 'client' as parentType "
+                + " from m_share_account s left join m_client c on s.client_id = c.id left join m_share_product sp on sp.id=s.product_id ";
+
+        private static final String CLIENT_IDENTIFIER_SELECT = "select 'CLIENTIDENTIFIER' as entityType, ci.id as entityId, ci.document_key as entityName, "
+                + " null as entityExternalId, null as entityAccountNo, c.id as parentId, c.display_name as parentName,null as entityMobileNo, c.status_enum as entityStatusEnum, null as parentType "
+                + " from m_client_identifier ci join m_client c on ci.client_id=c.id ";
+
+        private static final String GROUP_SELECT = "select IF(g.level_id=1,'CENTER','GROUP') as entityType, g.id as entityId, g.display_name as entityName, g.external_id as entityExternalId, g.account_no as entityAccountNo "
+                + " , g.office_id as parentId, o.name as parentName, null as entityMobileNo, g.status_enum as entityStatusEnum, null as parentType "
+                + " from m_group g join m_office o on o.id = g.office_id ";
+
+        private final String clientScope;
+        private final String groupScope;
+        private final String accountScope;
+
+        SearchMapper(final OfficeScope officeScope) {
+            this.clientScope = officeScope.sqlCondition("c.office_id");
+            this.groupScope = officeScope.sqlCondition("g.office_id");
+            // accounts of groups have no client office and are not restricted
+            this.accountScope = "(c.office_id is null or " + this.clientScope + ")";
+        }
+
         public String searchSchema(final SearchConditions searchConditions) {
 
-            final String union = " union ";
-            final String clientMatchSql = " (select 'CLIENT' as entityType, c.id as entityId, c.display_name as entityName, c.external_id as entityExternalId, c.account_no as entityAccountNo "
-                    + " , c.office_id as parentId, o.name as parentName, c.mobile_no as entityMobileNo,c.status_enum as entityStatusEnum, null as parentType "
-                    + " from m_client c join m_office o on o.id = c.office_id where o.hierarchy like :hierarchy and (c.account_no like :search or c.display_name like :search or c.external_id like :search or c.mobile_no like :search)) ";
-
-            final String loanMatchSql = " (select 'LOAN' as entityType, l.id as entityId, pl.name as entityName, l.external_id as entityExternalId, l.account_no as entityAccountNo "
-                    + " , IFNULL(c.id,g.id) as parentId, IFNULL(c.display_name,g.display_name) as parentName, null as entityMobileNo, l.loan_status_id as entityStatusEnum, IF(g.id is null, 'client', 'group') as parentType "
-                    + " from m_loan l left join m_client c on l.client_id = c.id left join m_group g ON l.group_id = g.id left join m_office o on o.id = c.office_id left join m_product_loan pl on pl.id=l.product_id where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and (l.account_no like :search or l.external_id like :search)) ";
-
-            final String savingMatchSql = " (select 'SAVING' as entityType, s.id as entityId, sp.name as entityName, s.external_id as entityExternalId, s.account_no as entityAccountNo "
-                    + " , IFNULL(c.id,g.id) as parentId, IFNULL(c.display_name,g.display_name) as parentName, null as entityMobileNo, s.status_enum as entityStatusEnum, IF(g.id is null, 'client', 'group') as parentType "
-                    + " from m_savings_account s left join m_client c on s.client_id = c.id left join m_group g ON s.group_id = g.id left join m_office o on o.id = c.office_id left join m_savings_product sp on sp.id=s.product_id "
-                    + " where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and (s.account_no like :search or s.external_id like :search)) ";
-
-            final String shareMatchSql = " (select 'SHARE' as entityType, s.id as entityId, sp.name as entityName, s.external_id as entityExternalId, s.account_no as entityAccountNo "
-                    + " , c.id as parentId, c.display_name as parentName, null as entityMobileNo, s.status_enum as entityStatusEnum, 'client' as parentType "
-                    + " from m_share_account s left join m_client c on s.client_id = c.id left join m_office o on o.id = c.office_id left join m_share_product sp on sp.id=s.product_id "
-                    + " where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and (s.account_no like :search or s.external_id like :search)) ";
-
-            final String clientIdentifierMatchSql = " (select 'CLIENTIDENTIFIER' as entityType, ci.id as entityId, ci.document_key as entityName, "
-                    + " null as entityExternalId, null as entityAccountNo, c.id as parentId, c.display_name as parentName,null as entityMobileNo, c.status_enum as entityStatusEnum, null as parentType "
-                    + " from m_client_identifier ci join m_client c on ci.client_id=c.id join m_office o on o.id = c.office_id "
-                    + " where o.hierarchy like :hierarchy and ci.document_key like :search ) ";
-            final String groupMatchSql = " (select IF(g.level_id=1,'CENTER','GROUP') as entityType, g.id as entityId, g.display_name as entityName, g.external_id as entityExternalId, g.account_no as entityAccountNo "
-                    + " , g.office_id as parentId, o.name as parentName, null as entityMobileNo, g.status_enum as entityStatusEnum, null as parentType "
-                    + " from m_group g join m_office o on o.id = g.office_id where o.hierarchy like :hierarchy and (g.account_no like :search or g.display_name like :search or g.external_id like :search or g.id like :search )) ";
             final StringBuilder sql = new StringBuilder();
 
             if (searchConditions.isClientSearch()) {
-                sql.append(clientMatchSql).append(union);
+                appendMatchSql(sql, CLIENT_SELECT, this.clientScope,
+                        "(c.account_no like :search or c.display_name like :search or c.external_id like :search or c.mobile_no like :search)");
             }
 
             if (searchConditions.isLoanSeach()) {
-                sql.append(loanMatchSql).append(union);
+                appendMatchSql(sql, LOAN_SELECT, this.accountScope, "(l.account_no like :search or l.external_id like :search)");
             }
 
             if (searchConditions.isSavingSeach()) {
-                sql.append(savingMatchSql).append(union);
+                appendMatchSql(sql, SAVING_SELECT, this.accountScope, "(s.account_no like :search or s.external_id like :search)");
             }
 
             if (searchConditions.isShareSeach()) {
-                sql.append(shareMatchSql).append(union);
+                appendMatchSql(sql, SHARE_SELECT, this.accountScope, "(s.account_no like :search or s.external_id like :search)");
             }
 
             if (searchConditions.isClientIdentifierSearch()) {
-                sql.append(clientIdentifierMatchSql).append(union);
+                appendMatchSql(sql, CLIENT_IDENTIFIER_SELECT, this.clientScope, "ci.document_key like :search");
             }
 
             if (searchConditions.isGroupSearch()) {
-                sql.append(groupMatchSql).append(union);
+                appendMatchSql(sql, GROUP_SELECT, this.groupScope,
+                        "(g.account_no like :search or g.display_name like :search or g.external_id like :search or g.id like :search )");
             }
 
-            sql.replace(sql.lastIndexOf(union), sql.length(), "");
+            // remove last occurrence of "union" string
+            sql.replace(sql.lastIndexOf(UNION), sql.length(), "");
 
-            // remove last occurrence of "union all" string
             return sql.toString();
         }
 
+        /**
+         * Fetches the entities already matched by the search index by primary key, the office scope is checked again
+         * so that index entries that are stale after an office transfer are not exposed.
+         */
+        public String indexedSearchSchema(final Map<SearchIndexEntityType, Set<Long>> matches, final MapSqlParameterSource params) {
+
+            final StringBuilder sql = new StringBuilder();
+
+            for (final Map.Entry<SearchIndexEntityType, Set<Long>> match : matches.entrySet()) {
+                final String idsParameter = match.getKey().name().toLowerCase(Locale.ROOT) + "Ids";
+                params.addValue(idsParameter, match.getValue());
+                switch (match.getKey()) {
+                    case CLIENT:
+                        appendMatchSql(sql, CLIENT_SELECT, this.clientScope, "c.id in (:" + idsParameter + ")");
+                    break;
+                    case CLIENTIDENTIFIER:
+                        appendMatchSql(sql, CLIENT_IDENTIFIER_SELECT, this.clientScope, "ci.id in (:" + idsParameter + ")");
+                    break;
+                    case GROUP:
+                        appendMatchSql(sql, GROUP_SELECT, this.groupScope, "g.id in (:" + idsParameter + ")");
+                    break;
+                    case LOAN:
+                        appendMatchSql(sql, LOAN_SELECT, this.accountScope, "l.id in (:" + idsParameter + ")");
+                    break;
+                    case SAVING:
+                        appendMatchSql(sql, SAVING_SELECT, this.accountScope, "s.id in (:" + idsParameter + ")");
+                    break;
+                    case SHARE:
+                        appendMatchSql(sql, SHARE_SELECT, this.accountScope, "s.id in (:" + idsParameter + ")");
+                    break;
+                }
+            }
+
+            sql.replace(sql.lastIndexOf(UNION), sql.length(), "");
+
+            return sql.toString();
+        }
+
+        private static void appendMatchSql(final StringBuilder sql, final String select, final String scopeCondition,
+                final String matchCondition) {
+            sql.append(" (").append(select).append(" where ").append(scopeCondition).append(" and ").append(matchCondition).append(") ")
+                    .append(UNION);
+        }
+
         @Override
         public SearchData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
             final Long entityId = JdbcSupport.getLong(rs, "entityId");
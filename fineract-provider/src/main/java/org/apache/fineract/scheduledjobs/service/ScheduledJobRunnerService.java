@@ -26,15 +26,15 @@ public interface ScheduledJobRunnerService {
 
     void updateLoanPaidInAdvance();
 
-    void applyAnnualFeeForSavings();
+    void applyAnnualFeeForSavings() throws JobExecutionException;
 
     void applyDueChargesForSavings() throws JobExecutionException;
 
     void updateNPA();
 
-    void updateMaturityDetailsOfDepositAccounts();
+    void updateMaturityDetailsOfDepositAccounts() throws JobExecutionException;
 
-    void generateRDSchedule();
+    void generateRDSchedule() throws JobExecutionException;
 
     void postDividends() throws JobExecutionException;
 
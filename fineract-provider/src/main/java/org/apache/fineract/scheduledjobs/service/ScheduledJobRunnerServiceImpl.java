@@ -19,7 +19,6 @@
 package org.apache.fineract.scheduledjobs.service;
 
 import java.math.BigDecimal;
-import java.math.BigInteger;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
@@ -29,20 +28,20 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
-import java.util.Map;
 import org.apache.fineract.accounting.glaccount.domain.TrialBalance;
 import org.apache.fineract.accounting.glaccount.domain.TrialBalanceRepositoryWrapper;
-import org.apache.fineract.infrastructure.core.data.ApiParameterError;
-import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSourceServiceFactory;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
-import org.apache.fineract.portfolio.savings.DepositAccountType;
+import org.apache.fineract.infrastructure.jobs.service.PerEntityJob;
+import org.apache.fineract.infrastructure.jobs.service.PerEntityJobRunner;
 import org.apache.fineract.portfolio.savings.DepositAccountUtils;
-import org.apache.fineract.portfolio.savings.data.DepositAccountData;
+import org.apache.fineract.portfolio.savings.data.DepositAccountMaturityData;
+import org.apache.fineract.portfolio.savings.data.RecurringDepositScheduleTailData;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountAnnualFeeData;
 import org.apache.fineract.portfolio.savings.service.DepositAccountReadPlatformService;
 import org.apache.fineract.portfolio.savings.service.DepositAccountWritePlatformService;
@@ -74,6 +73,8 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
     private final ShareAccountDividendReadPlatformService shareAccountDividendReadPlatformService;
     private final ShareAccountSchedularService shareAccountSchedularService;
     private final TrialBalanceRepositoryWrapper trialBalanceRepositoryWrapper;
+    private final PerEntityJobRunner perEntityJobRunner;
+    private final ConfigurationDomainService configurationDomainService;
 
     @Autowired
     public ScheduledJobRunnerServiceImpl(final RoutingDataSourceServiceFactory dataSourceServiceFactory,
@@ -83,7 +84,8 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
             final DepositAccountWritePlatformService depositAccountWritePlatformService,
             final ShareAccountDividendReadPlatformService shareAccountDividendReadPlatformService,
             final ShareAccountSchedularService shareAccountSchedularService,
-            final TrialBalanceRepositoryWrapper trialBalanceRepositoryWrapper) {
+            final TrialBalanceRepositoryWrapper trialBalanceRepositoryWrapper, final PerEntityJobRunner perEntityJobRunner,
+            final ConfigurationDomainService configurationDomainService) {
         this.dataSourceServiceFactory = dataSourceServiceFactory;
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
         this.savingsAccountChargeReadPlatformService = savingsAccountChargeReadPlatformService;
@@ -92,6 +94,8 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         this.shareAccountDividendReadPlatformService = shareAccountDividendReadPlatformService;
         this.shareAccountSchedularService = shareAccountSchedularService;
         this.trialBalanceRepositoryWrapper = trialBalanceRepositoryWrapper;
+        this.perEntityJobRunner = perEntityJobRunner;
+        this.configurationDomainService = configurationDomainService;
     }
 
     @Transactional
@@ -214,56 +218,20 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
 
     @Override
     @CronTarget(jobName = JobName.APPLY_ANNUAL_FEE_FOR_SAVINGS)
-    public void applyAnnualFeeForSavings() {
-
-        final Collection<SavingsAccountAnnualFeeData> annualFeeData = this.savingsAccountChargeReadPlatformService
-                .retrieveChargesWithAnnualFeeDue();
-
-        for (final SavingsAccountAnnualFeeData savingsAccountReference : annualFeeData) {
-            try {
-                this.savingsAccountWritePlatformService.applyAnnualFee(savingsAccountReference.getId(),
-                        savingsAccountReference.getAccountId());
-            } catch (final PlatformApiDataValidationException e) {
-                final List<ApiParameterError> errors = e.getErrors();
-                for (final ApiParameterError error : errors) {
-                    LOG.error("Apply annual fee failed for account: {} with message {}", savingsAccountReference.getAccountNo(), error);
-                }
-            } catch (final Exception ex) {
-                LOG.error("Apply annual fee failed for account: {}", savingsAccountReference.getAccountNo(), ex);
-            }
-        }
-
-        LOG.info("{}: Records affected by applyAnnualFeeForSavings: {}", ThreadLocalContextUtil.getTenant().getName(),
-                annualFeeData.size());
+    public void applyAnnualFeeForSavings() throws JobExecutionException {
+        this.perEntityJobRunner.run(PerEntityJob.of(JobName.APPLY_ANNUAL_FEE_FOR_SAVINGS,
+                this.savingsAccountChargeReadPlatformService::retrieveChargesWithAnnualFeeDue, SavingsAccountAnnualFeeData::getAccountId,
+                SavingsAccountAnnualFeeData::getAccountNo,
+                charge -> this.savingsAccountWritePlatformService.applyAnnualFee(charge.getId(), charge.getAccountId())));
     }
 
     @Override
     @CronTarget(jobName = JobName.PAY_DUE_SAVINGS_CHARGES)
     public void applyDueChargesForSavings() throws JobExecutionException {
-        final Collection<SavingsAccountAnnualFeeData> chargesDueData = this.savingsAccountChargeReadPlatformService
-                .retrieveChargesWithDue();
-        List<Throwable> exceptions = new ArrayList<>();
-        for (final SavingsAccountAnnualFeeData savingsAccountReference : chargesDueData) {
-            try {
-                this.savingsAccountWritePlatformService.applyChargeDue(savingsAccountReference.getId(),
-                        savingsAccountReference.getAccountId());
-            } catch (final PlatformApiDataValidationException e) {
-                exceptions.add(e);
-                final List<ApiParameterError> errors = e.getErrors();
-                for (final ApiParameterError error : errors) {
-                    LOG.error("Apply Charges due for savings failed for account {} with message: {}",
-                            savingsAccountReference.getAccountNo(), error.getDeveloperMessage(), e);
-                }
-            } catch (final Exception ex) {
-                exceptions.add(ex);
-                LOG.error("Apply Charges due for savings failed for account: {}", savingsAccountReference.getAccountNo(), ex);
-            }
-        }
-        LOG.info("{}: Records affected by applyDueChargesForSavings: {}", ThreadLocalContextUtil.getTenant().getName(),
-                chargesDueData.size());
-        if (!exceptions.isEmpty()) {
-            throw new JobExecutionException(exceptions);
-        }
+        this.perEntityJobRunner.run(PerEntityJob.of(JobName.PAY_DUE_SAVINGS_CHARGES,
+                this.savingsAccountChargeReadPlatformService::retrieveChargesWithDue, SavingsAccountAnnualFeeData::getAccountId,
+                SavingsAccountAnnualFeeData::getAccountNo,
+                charge -> this.savingsAccountWritePlatformService.applyChargeDue(charge.getId(), charge.getAccountId())));
     }
 
     @Transactional
@@ -301,122 +269,93 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         LOG.info("{}: Records affected by updateNPA: {}", ThreadLocalContextUtil.getTenant().getName(), result);
     }
 
+    /**
+     * All accounts due for a maturity transition are processed in one run, in parallel chunks and with a single restart
+     * checkpoint. The interest posting configuration is read once for the whole run.
+     * <p>
+     * Interest rate chart slab lookups are not shared between accounts: each account carries its own copy of the chart,
+     * which may have been changed after the product's chart, so every account uses the lookup compiled from its own chart.
+     */
     @Override
     @CronTarget(jobName = JobName.UPDATE_DEPOSITS_ACCOUNT_MATURITY_DETAILS)
-    public void updateMaturityDetailsOfDepositAccounts() {
-
-        final Collection<DepositAccountData> depositAccounts = this.depositAccountReadPlatformService.retrieveForMaturityUpdate();
-
-        for (final DepositAccountData depositAccount : depositAccounts) {
-            try {
-                final DepositAccountType depositAccountType = DepositAccountType.fromInt(depositAccount.depositType().getId().intValue());
-                this.depositAccountWritePlatformService.updateMaturityDetails(depositAccount.id(), depositAccountType);
-            } catch (final PlatformApiDataValidationException e) {
-                final List<ApiParameterError> errors = e.getErrors();
-                for (final ApiParameterError error : errors) {
-                    LOG.error("Update maturity details failed for account: {} with message {}", depositAccount.accountNo(),
-                            error.getDeveloperMessage());
-                }
-            } catch (final Exception ex) {
-                LOG.error("Update maturity details failed for account: {}", depositAccount.accountNo(), ex);
-            }
-        }
-
-        LOG.info("{}: Records affected by updateMaturityDetailsOfDepositAccounts: {}", ThreadLocalContextUtil.getTenant().getName(),
-                depositAccounts.size());
+    public void updateMaturityDetailsOfDepositAccounts() throws JobExecutionException {
+        final boolean isSavingsInterestPostingAtCurrentPeriodEnd = this.configurationDomainService
+                .isSavingsInterestPostingAtCurrentPeriodEnd();
+        final Integer financialYearBeginningMonth = this.configurationDomainService.retrieveFinancialYearBeginningMonth();
+        this.perEntityJobRunner.run(PerEntityJob.of(JobName.UPDATE_DEPOSITS_ACCOUNT_MATURITY_DETAILS,
+                this.depositAccountReadPlatformService::retrieveForMaturityUpdate, DepositAccountMaturityData::getId,
+                DepositAccountMaturityData::getAccountNo,
+                depositAccount -> this.depositAccountWritePlatformService.updateMaturityDetails(depositAccount.getId(),
+                        depositAccount.getDepositType(), isSavingsInterestPostingAtCurrentPeriodEnd, financialYearBeginningMonth)));
     }
 
     @Override
     @CronTarget(jobName = JobName.GENERATE_RD_SCEHDULE)
-    public void generateRDSchedule() {
+    public void generateRDSchedule() throws JobExecutionException {
         final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource());
-        final Collection<Map<String, Object>> scheduleDetails = this.depositAccountReadPlatformService.retriveDataForRDScheduleCreation();
-        String insertSql = "INSERT INTO `m_mandatory_savings_schedule` (`savings_account_id`, `duedate`, `installment`, `deposit_amount`, `completed_derived`, `created_date`, `lastmodified_date`) VALUES ";
-        StringBuilder sb = new StringBuilder();
-        String currentDate = formatterWithTime.format(DateUtils.getLocalDateTimeOfTenant());
-        int iterations = 0;
-        for (Map<String, Object> details : scheduleDetails) {
-            Long count = (Long) details.get("futureInstallemts");
-            if (count == null) {
-                count = 0L;
+        final String insertSql = "INSERT INTO `m_mandatory_savings_schedule` (`savings_account_id`, `duedate`, `installment`,"
+                + " `deposit_amount`, `completed_derived`, `created_date`, `lastmodified_date`) VALUES (?, ?, ?, ?, b'0', ?, ?)";
+        final String currentDate = formatterWithTime.format(DateUtils.getLocalDateTimeOfTenant());
+        final LocalDate today = DateUtils.getLocalDateOfTenant();
+        this.perEntityJobRunner.run(new PerEntityJob<RecurringDepositScheduleTailData, List<Object[]>>() {
+
+            @Override
+            public JobName getJobName() {
+                return JobName.GENERATE_RD_SCEHDULE;
             }
-            final Long savingsId = (Long) details.get("savingsId");
-            final BigDecimal amount = (BigDecimal) details.get("amount");
-            final String recurrence = (String) details.get("recurrence");
-            Date date = (Date) details.get("dueDate");
-            LocalDate lastDepositDate = LocalDate.ofInstant(date.toInstant(), DateUtils.getDateTimeZoneOfTenant());
-            Integer installmentNumber = (Integer) details.get("installment");
-            while (count < DepositAccountUtils.GENERATE_MINIMUM_NUMBER_OF_FUTURE_INSTALMENTS) {
-                count++;
-                installmentNumber++;
-                lastDepositDate = DepositAccountUtils.calculateNextDepositDate(lastDepositDate, recurrence);
-
-                if (sb.length() > 0) {
-                    sb.append(", ");
-                }
-                sb.append("(");
-                sb.append(savingsId);
-                sb.append(",'");
-                sb.append(formatter.format(lastDepositDate));
-                sb.append("',");
-                sb.append(installmentNumber);
-                sb.append(",");
-                sb.append(amount);
-                sb.append(", b'0','");
-                sb.append(currentDate);
-                sb.append("','");
-                sb.append(currentDate);
-                sb.append("')");
-                iterations++;
-                if (iterations > 200) {
-                    jdbcTemplate.update(insertSql + sb.toString());
-                    sb = new StringBuilder();
-                }
 
+            @Override
+            public Collection<RecurringDepositScheduleTailData> read() {
+                return depositAccountReadPlatformService
+                        .retrieveScheduleTailsToExtend(DepositAccountUtils.GENERATE_MINIMUM_NUMBER_OF_FUTURE_INSTALMENTS);
             }
-        }
 
-        if (sb.length() > 0) {
-            jdbcTemplate.update(insertSql + sb.toString());
-        }
+            @Override
+            public Long entityId(final RecurringDepositScheduleTailData tail) {
+                return tail.getSavingsId();
+            }
+
+            @Override
+            public List<Object[]> process(final RecurringDepositScheduleTailData tail) {
+                LocalDate dueDate = tail.getLastDueDate();
+                int installmentNumber = tail.getLastInstallment();
+                final List<Object[]> installments = new ArrayList<>();
+                int count = tail.getFutureInstallments();
+                while (count < DepositAccountUtils.GENERATE_MINIMUM_NUMBER_OF_FUTURE_INSTALMENTS) {
+                    final LocalDate nextDueDate = DepositAccountUtils.calculateNextDepositDate(dueDate, tail.getDepositFrequency(),
+                            tail.getDepositEvery());
+                    // a tail that is already past due is extended from today, it never gets overdue installments
+                    final boolean overdue = !nextDueDate.isAfter(today) && nextDueDate.isAfter(dueDate);
+                    dueDate = nextDueDate;
+                    if (!overdue) {
+                        installmentNumber++;
+                        installments.add(new Object[] { tail.getSavingsId(), formatter.format(dueDate), installmentNumber,
+                                tail.getDepositAmount(), currentDate, currentDate });
+                        count++;
+                    }
+                }
+                return installments;
+            }
 
+            @Override
+            public void write(final List<List<Object[]>> results) {
+                final List<Object[]> installments = new ArrayList<>();
+                results.forEach(installments::addAll);
+                jdbcTemplate.batchUpdate(insertSql, installments);
+            }
+        });
     }
 
     @Override
     @CronTarget(jobName = JobName.POST_DIVIDENTS_FOR_SHARES)
     public void postDividends() throws JobExecutionException {
-        List<Throwable> exceptions = new ArrayList<>();
-        List<Map<String, Object>> dividendDetails = this.shareAccountDividendReadPlatformService.retriveDividendDetailsForPostDividents();
-        for (Map<String, Object> dividendMap : dividendDetails) {
-            Long id = null;
-            Long savingsId = null;
-            if (dividendMap.get("id") instanceof BigInteger) {
-                // Drizzle is returningBigInteger
-                id = ((BigInteger) dividendMap.get("id")).longValue();
-                savingsId = ((BigInteger) dividendMap.get("savingsAccountId")).longValue();
-            } else { // MySQL connector is returning Long
-                id = (Long) dividendMap.get("id");
-                savingsId = (Long) dividendMap.get("savingsAccountId");
-            }
-            try {
-                this.shareAccountSchedularService.postDividend(id, savingsId);
-            } catch (final PlatformApiDataValidationException e) {
-                exceptions.add(e);
-                final List<ApiParameterError> errors = e.getErrors();
-                for (final ApiParameterError error : errors) {
-                    LOG.error(
-                            "Post Dividends to savings failed due to ApiParameterError for Divident detail Id: {} and savings Id: {} with message: {}",
-                            id, savingsId, error.getDeveloperMessage(), e);
-                }
-            } catch (final Exception e) {
-                LOG.error("Post Dividends to savings failed for Divident detail Id: {} and savings Id: {}", id, savingsId, e);
-                exceptions.add(e);
-            }
-        }
-
-        if (!exceptions.isEmpty()) {
-            throw new JobExecutionException(exceptions);
-        }
+        // Drizzle returns the ids as BigInteger, the MySQL connector as Long
+        this.perEntityJobRunner.run(PerEntityJob.of(JobName.POST_DIVIDENTS_FOR_SHARES,
+                this.shareAccountDividendReadPlatformService::retriveDividendDetailsForPostDividents,
+                dividend -> ((Number) dividend.get("savingsAccountId")).longValue(),
+                dividend -> "Divident detail Id: " + dividend.get("id") + " and savings Id: " + dividend.get("savingsAccountId"),
+                dividend -> this.shareAccountSchedularService.postDividend(((Number) dividend.get("id")).longValue(),
+                        ((Number) dividend.get("savingsAccountId")).longValue())));
     }
 
     @Override
@@ -18,6 +18,8 @@
  */
 package org.apache.fineract.useradministration.domain;
 
+import java.util.Collection;
+import java.util.List;
 import org.apache.fineract.infrastructure.security.domain.PlatformUserRepository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -28,4 +30,7 @@ public interface AppUserRepository extends JpaRepository<AppUser, Long>, JpaSpec
 
     @Query("Select appUser from AppUser appUser where appUser.username = :username")
     AppUser findAppUserByName(@Param("username") String username);
+
+    @Query("Select appUser.id from AppUser appUser where appUser.office.id = :officeId and appUser.id in :ids")
+    List<Long> findIdsOfUsersInOffice(@Param("officeId") Long officeId, @Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,38 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE `m_search_index` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT,
+    `entity_type` VARCHAR(20) NOT NULL,
+    `entity_id` BIGINT NOT NULL,
+    `office_id` BIGINT NULL DEFAULT NULL,
+    `term` VARCHAR(200) NOT NULL,
+    `sound_key` VARCHAR(50) NULL DEFAULT NULL,
+    PRIMARY KEY (`id`),
+    INDEX `idx_search_index_term` (`term`),
+    INDEX `idx_search_index_sound_key` (`sound_key`),
+    INDEX `idx_search_index_entity` (`entity_type`, `entity_id`),
+    INDEX `idx_search_index_office` (`office_id`)
+);
+
+INSERT INTO `c_configuration` (`name`, `value`, `date_value`, `enabled`, `is_trap_door`, `description`)
+VALUES
+    ('enable-search-index', 0, NULL, 0, 0, 'If enabled, /search is served from the m_search_index table instead of LIKE scans. Run the Rebuild Search Index job once after enabling');
+
+INSERT INTO `job` (`name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`) VALUES ('Rebuild Search Index', 'Rebuild Search Index', '0 0 3 1/1 * ? *', now(), 5, NULL, NULL, NULL, NULL, NULL, 0, 0, 1, 0, 0);
@@ -0,0 +1,45 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE `m_collection_sheet_snapshot` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT,
+    `group_id` BIGINT NOT NULL,
+    `calendar_id` BIGINT NOT NULL,
+    `meeting_date` DATE NOT NULL,
+    `sheet_json` MEDIUMTEXT NOT NULL,
+    `generated_on` DATETIME NOT NULL,
+    PRIMARY KEY (`id`),
+    UNIQUE INDEX `uq_collection_sheet_snapshot` (`group_id`, `calendar_id`, `meeting_date`),
+    INDEX `idx_collection_sheet_snapshot_date` (`meeting_date`),
+    CONSTRAINT `FK_collection_sheet_snapshot_group` FOREIGN KEY (`group_id`) REFERENCES `m_group` (`id`) ON DELETE CASCADE
+);
+
+-- Invalidation generation per group or center; a collection sheet snapshot is only stored if the generation it was built at is still current
+CREATE TABLE `m_collection_sheet_generation` (
+    `group_id` BIGINT NOT NULL,
+    `generation` BIGINT NOT NULL,
+    PRIMARY KEY (`group_id`),
+    CONSTRAINT `FK_collection_sheet_generation_group` FOREIGN KEY (`group_id`) REFERENCES `m_group` (`id`) ON DELETE CASCADE
+);
+
+INSERT INTO `c_configuration` (`name`, `value`, `date_value`, `enabled`, `is_trap_door`, `description`)
+VALUES
+    ('enable-collection-sheet-snapshot', 0, NULL, 0, 0, 'If enabled, center and group collection sheets are served from materialised snapshots that are refreshed when repayments and deposits post');
+
+INSERT INTO `job` (`name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`) VALUES ('Generate Collection Sheet Snapshots', 'Generate Collection Sheet Snapshots', '0 30 2 1/1 * ? *', now(), 5, NULL, NULL, NULL, NULL, NULL, 0, 0, 1, 0, 0);
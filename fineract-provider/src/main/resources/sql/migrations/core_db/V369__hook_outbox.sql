@@ -0,0 +1,47 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE `m_hook_outbox` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT,
+    `hook_id` BIGINT NOT NULL,
+    `entity_name` VARCHAR(45) NOT NULL,
+    `action_name` VARCHAR(45) NOT NULL,
+    `payload` MEDIUMTEXT NOT NULL,
+    `app_user_id` BIGINT NULL,
+    `status_enum` SMALLINT NOT NULL,
+    `attempts` INT NOT NULL DEFAULT 0,
+    `next_attempt_at` DATETIME NOT NULL,
+    `last_error` VARCHAR(1000) NULL,
+    `created_date` DATETIME NOT NULL,
+    PRIMARY KEY (`id`),
+    INDEX `idx_hook_outbox_due` (`status_enum`, `next_attempt_at`),
+    INDEX `idx_hook_outbox_hook_due` (`hook_id`, `status_enum`, `next_attempt_at`),
+    CONSTRAINT `FK_hook_outbox_hook` FOREIGN KEY (`hook_id`) REFERENCES `m_hook` (`id`) ON DELETE CASCADE
+);
+
+-- events of a hook are delivered by the dispatcher holding its lease
+CREATE TABLE `m_hook_dispatch_lease` (
+    `hook_id` BIGINT NOT NULL,
+    `lease_token` VARCHAR(36) NOT NULL,
+    `lease_until` DATETIME NOT NULL,
+    PRIMARY KEY (`hook_id`),
+    CONSTRAINT `FK_hook_dispatch_lease_hook` FOREIGN KEY (`hook_id`) REFERENCES `m_hook` (`id`) ON DELETE CASCADE
+);
+
+INSERT INTO `job` (`name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`) VALUES ('Dispatch Webhook Events', 'Dispatch Webhook Events', '0 0/1 * * * ?', now(), 5, NULL, NULL, NULL, NULL, NULL, 1, 0, 1, 0, 0);
@@ -0,0 +1,39 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- last committed chunk of a per-entity job run, kept per run scope (for example per holiday) and used to continue an
+-- interrupted run on the same business date
+CREATE TABLE `m_job_checkpoint` (
+    `job_name` VARCHAR(100) NOT NULL,
+    `run_scope` VARCHAR(100) NOT NULL DEFAULT '',
+    `business_date` DATE NOT NULL,
+    `last_entity_id` BIGINT NOT NULL,
+    `updated_on` DATETIME NOT NULL,
+    PRIMARY KEY (`job_name`, `run_scope`)
+);
+
+-- items a committed chunk skipped, retried when the run is continued
+CREATE TABLE `m_job_checkpoint_failure` (
+    `job_name` VARCHAR(100) NOT NULL,
+    `run_scope` VARCHAR(100) NOT NULL,
+    `business_date` DATE NOT NULL,
+    `entity_id` BIGINT NOT NULL,
+    `failed_on` DATETIME NOT NULL,
+    PRIMARY KEY (`job_name`, `run_scope`, `business_date`, `entity_id`)
+);
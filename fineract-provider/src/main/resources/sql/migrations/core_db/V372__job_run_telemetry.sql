@@ -0,0 +1,31 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- item counts, chunk latencies and time split of a job run
+ALTER TABLE `job_run_history`
+    ADD COLUMN `items_read` BIGINT NULL DEFAULT NULL,
+    ADD COLUMN `items_processed` BIGINT NULL DEFAULT NULL,
+    ADD COLUMN `items_failed` BIGINT NULL DEFAULT NULL,
+    ADD COLUMN `items_skipped` BIGINT NULL DEFAULT NULL,
+    ADD COLUMN `chunks` INT NULL DEFAULT NULL,
+    ADD COLUMN `chunk_median_millis` BIGINT NULL DEFAULT NULL,
+    ADD COLUMN `chunk_p95_millis` BIGINT NULL DEFAULT NULL,
+    ADD COLUMN `chunk_max_millis` BIGINT NULL DEFAULT NULL,
+    ADD COLUMN `database_time_millis` BIGINT NULL DEFAULT NULL,
+    ADD COLUMN `cpu_time_millis` BIGINT NULL DEFAULT NULL;
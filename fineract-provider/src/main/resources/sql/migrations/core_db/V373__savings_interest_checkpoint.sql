@@ -0,0 +1,30 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- balance and interest state of a savings account at the end of its last posted interest period
+ALTER TABLE `m_savings_account`
+    ADD COLUMN `interest_checkpoint_date` DATE NULL DEFAULT NULL,
+    ADD COLUMN `interest_checkpoint_closing_balance` DECIMAL(19,6) NULL DEFAULT NULL,
+    ADD COLUMN `interest_checkpoint_interest_earned` DECIMAL(19,6) NULL DEFAULT NULL,
+    ADD COLUMN `interest_checkpoint_compounded` DECIMAL(38,18) NULL DEFAULT NULL,
+    ADD COLUMN `interest_checkpoint_uncompounded` DECIMAL(38,18) NULL DEFAULT NULL,
+    ADD COLUMN `interest_checkpoint_transactions` INT NULL DEFAULT NULL,
+    ADD COLUMN `interest_checkpoint_reversals` INT NULL DEFAULT NULL,
+    ADD COLUMN `interest_checkpoint_last_transaction_date` DATE NULL DEFAULT NULL,
+    ADD COLUMN `interest_checkpoint_terms_digest` VARCHAR(64) NULL DEFAULT NULL;
@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import org.apache.fineract.accounting.journalentry.data.LoanDTO;
+import org.apache.fineract.accounting.journalentry.data.LoanTransactionDTO;
+import org.apache.fineract.accounting.journalentry.data.SavingsDTO;
+import org.apache.fineract.accounting.journalentry.data.SavingsTransactionDTO;
+import org.apache.fineract.portfolio.account.PortfolioAccountType;
+import org.apache.fineract.portfolio.account.service.AccountTransfersReadPlatformService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AccountingProcessorHelperTest {
+
+    private AccountTransfersReadPlatformService accountTransfersReadPlatformService;
+    private AccountingProcessorHelper helper;
+
+    @BeforeEach
+    void setUp() {
+        this.accountTransfersReadPlatformService = mock(AccountTransfersReadPlatformService.class);
+        this.helper = new AccountingProcessorHelper(null, null, null, null, null, null, null, this.accountTransfersReadPlatformService,
+                null, null);
+    }
+
+    @Test
+    void savingsTransactionsAfterATransferAreFlaggedAsTransfers() {
+        when(this.accountTransfersReadPlatformService.retrieveAccountTransferTransactionIds(any(), eq(PortfolioAccountType.SAVINGS)))
+                .thenReturn(Set.of(2L));
+        final SavingsDTO savingsDTO = savings(false, 1L, 2L, 3L);
+
+        this.helper.identifyAccountTransfers(savingsDTO);
+
+        verify(this.accountTransfersReadPlatformService).retrieveAccountTransferTransactionIds(Set.of(1L, 2L, 3L),
+                PortfolioAccountType.SAVINGS);
+        assertEquals(List.of(false, true, true), savingsFlags(savingsDTO));
+    }
+
+    @Test
+    void savingsTransactionsOfATransferAreNotLookedUp() {
+        final SavingsDTO savingsDTO = savings(true, 1L, 2L);
+
+        this.helper.identifyAccountTransfers(savingsDTO);
+
+        verify(this.accountTransfersReadPlatformService).retrieveAccountTransferTransactionIds(Set.of(), PortfolioAccountType.SAVINGS);
+        assertEquals(List.of(true, true), savingsFlags(savingsDTO));
+    }
+
+    @Test
+    void loanTransactionsAfterATransferAreFlaggedAsTransfers() {
+        when(this.accountTransfersReadPlatformService.retrieveAccountTransferTransactionIds(any(), eq(PortfolioAccountType.LOAN)))
+                .thenReturn(Set.of(2L));
+        final LoanDTO loanDTO = loan(1L, 2L, 3L);
+
+        this.helper.identifyAccountTransfers(loanDTO);
+
+        verify(this.accountTransfersReadPlatformService).retrieveAccountTransferTransactionIds(Set.of(1L, 2L, 3L),
+                PortfolioAccountType.LOAN);
+        final List<Boolean> flags = new ArrayList<>();
+        for (final LoanTransactionDTO transaction : loanDTO.getNewLoanTransactions()) {
+            flags.add(transaction.isAccountTransfer());
+        }
+        assertEquals(List.of(false, true, true), flags);
+    }
+
+    private static SavingsDTO savings(final boolean isAccountTransfer, final Long... transactionIds) {
+        final List<SavingsTransactionDTO> transactions = new ArrayList<>();
+        for (final Long transactionId : transactionIds) {
+            transactions.add(new SavingsTransactionDTO(1L, null, transactionId.toString(), new Date(), null, BigDecimal.TEN, false,
+                    new ArrayList<>(), new ArrayList<>(), null, isAccountTransfer, new ArrayList<>()));
+        }
+        return new SavingsDTO(1L, 1L, 1L, "USD", true, false, transactions);
+    }
+
+    private static List<Boolean> savingsFlags(final SavingsDTO savingsDTO) {
+        final List<Boolean> flags = new ArrayList<>();
+        for (final SavingsTransactionDTO transaction : savingsDTO.getNewSavingsTransactions()) {
+            flags.add(transaction.isAccountTransfer());
+        }
+        return flags;
+    }
+
+    private static LoanDTO loan(final Long... transactionIds) {
+        final List<LoanTransactionDTO> transactions = new ArrayList<>();
+        for (final Long transactionId : transactionIds) {
+            transactions.add(new LoanTransactionDTO(1L, null, transactionId.toString(), new Date(), null, BigDecimal.TEN, BigDecimal.TEN,
+                    null, null, null, null, false, new ArrayList<>(), new ArrayList<>(), false));
+        }
+        return new LoanDTO(1L, 1L, 1L, "USD", true, false, false, transactions);
+    }
+}
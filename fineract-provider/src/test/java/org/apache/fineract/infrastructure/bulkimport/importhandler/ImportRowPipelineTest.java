@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.fineract.infrastructure.bulkimport.data.Count;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ImportRowPipelineTest {
+
+    private final ImportRowPipeline importRowPipeline = new ImportRowPipeline();
+
+    @BeforeEach
+    void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void rowWhoseImportThrowsIsStillAnnotated() {
+        final Map<Integer, String> annotations = new HashMap<>();
+
+        final Count count = this.importRowPipeline.run(Arrays.asList(1, 2, 3), row -> row, row -> {
+            if (row == 2) {
+                throw new IllegalStateException("broken row");
+            }
+            return "ok";
+        }, (row, result) -> {
+            annotations.put(row, result);
+            return true;
+        }, (row, errorMessage) -> annotations.put(row, errorMessage), ImportProgress.NONE);
+
+        assertEquals(2, count.getSuccessCount());
+        assertEquals(1, count.getErrorCount());
+        assertEquals("ok", annotations.get(1));
+        assertEquals("broken row", annotations.get(2));
+        assertEquals("ok", annotations.get(3));
+    }
+
+    @Test
+    void rowsSharingALaneKeyAreImportedInFileOrder() {
+        final List<Integer> rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            rows.add(i);
+        }
+        final Map<Integer, List<Integer>> importedByKey = new ConcurrentHashMap<>();
+
+        final Count count = this.importRowPipeline.run(rows, row -> row % 7, row -> {
+            final List<Integer> imported = importedByKey.computeIfAbsent(row % 7, key -> Collections.synchronizedList(new ArrayList<>()));
+            imported.add(row);
+            return row;
+        }, (row, result) -> true, (row, errorMessage) -> {}, ImportProgress.NONE);
+
+        assertEquals(500, count.getSuccessCount());
+        assertEquals(0, count.getErrorCount());
+        for (final List<Integer> imported : importedByKey.values()) {
+            for (int i = 1; i < imported.size(); i++) {
+                assertTrue(imported.get(i - 1) < imported.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.fineract.infrastructure.bulkimport.constants.ClientPersonConstants;
+import org.apache.fineract.infrastructure.bulkimport.constants.JournalEntryConstants;
+import org.apache.fineract.infrastructure.bulkimport.constants.TemplatePopulateImportConstants;
+import org.apache.fineract.infrastructure.bulkimport.data.Count;
+import org.apache.fineract.infrastructure.bulkimport.data.GlobalEntityType;
+import org.apache.fineract.infrastructure.bulkimport.data.ImportFormatType;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TabularImportRunnerTest {
+
+    private static final int OFFICE_NAME_COL = 0;
+    private static final int FIRST_NAME_COL = 1;
+    private static final int DATE_COL = 2;
+
+    private final TabularImportRunner tabularImportRunner = new TabularImportRunner();
+
+    @TempDir
+    Path folder;
+
+    @BeforeEach
+    void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void csvRecordsAreImportedThroughTheHandlerAndEchoedWithTheirStatus() throws IOException {
+        final Workbook workbook = clientWorkbook();
+        final List<String> imported = new ArrayList<>();
+        final ImportHandler handler = (book, locale, dateFormat) -> {
+            final Sheet sheet = book.getSheet(TemplatePopulateImportConstants.CLIENT_PERSON_SHEET_NAME);
+            int successCount = 0;
+            int errorCount = 0;
+            for (Row row : sheet) {
+                if (row.getRowNum() > TemplatePopulateImportConstants.ROWHEADER_INDEX) {
+                    final String firstName = row.getCell(FIRST_NAME_COL).getStringCellValue();
+                    imported.add(firstName);
+                    if (firstName.equals("bad")) {
+                        row.createCell(ClientPersonConstants.STATUS_COL).setCellValue("Invalid name");
+                        errorCount++;
+                    } else {
+                        row.createCell(ClientPersonConstants.STATUS_COL).setCellValue(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED);
+                        successCount++;
+                    }
+                }
+            }
+            return Count.instance(successCount, errorCount);
+        };
+        final Path output = this.folder.resolve("result.csv");
+
+        final Count count = this.tabularImportRunner.process(handler, GlobalEntityType.CLIENTS_PERSON, workbook, ImportFormatType.CSV,
+                write("office_name,First Name,Status\nHead Office,Ann,\nHead Office,bad,\nHead Office,Old,Imported\n"), output,
+                "en", "dd MMMM yyyy", ImportProgress.NONE);
+
+        assertEquals(1, count.getSuccessCount());
+        assertEquals(1, count.getErrorCount());
+        // the record the earlier result file reported as imported is not imported again
+        assertEquals(Arrays.asList("Ann", "bad"), imported);
+        assertEquals(Arrays.asList("office_name,First Name,Status,Error", "Head Office,Ann,Imported,",
+                "Head Office,bad,Failed,Invalid name", "Head Office,Old,Imported,"), Files.readAllLines(output, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void jsonLinesRecordsWithUnknownColumnsOrBrokenSyntaxFailOnTheirOwn() throws IOException {
+        final Workbook workbook = clientWorkbook();
+        final List<CellType> dateCellTypes = new ArrayList<>();
+        final ImportHandler handler = (book, locale, dateFormat) -> {
+            final Sheet sheet = book.getSheet(TemplatePopulateImportConstants.CLIENT_PERSON_SHEET_NAME);
+            int successCount = 0;
+            for (Row row : sheet) {
+                if (row.getRowNum() > TemplatePopulateImportConstants.ROWHEADER_INDEX) {
+                    dateCellTypes.add(row.getCell(DATE_COL).getCellType());
+                    row.createCell(ClientPersonConstants.STATUS_COL).setCellValue(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED);
+                    successCount++;
+                }
+            }
+            return Count.instance(successCount, 0);
+        };
+        final Path output = this.folder.resolve("result.jsonl");
+
+        final Count count = this.tabularImportRunner.process(handler, GlobalEntityType.CLIENTS_PERSON, workbook, ImportFormatType.JSONL,
+                write("{\"officeName\":\"Head Office\",\"firstName\":\"Ann\",\"nickname\":\"A\"}\n{\"officeName\":\n"
+                        + "{\"officeName\":\"Head Office\",\"firstName\":\"Bob\",\"activationDate\":\"05 January 2021\"}\n"),
+                output, "en", "dd MMMM yyyy", ImportProgress.NONE);
+
+        assertEquals(1, count.getSuccessCount());
+        assertEquals(2, count.getErrorCount());
+        // values in the date format are handed to the handler as date cells, as a spreadsheet would have them
+        assertEquals(Arrays.asList(CellType.NUMERIC), dateCellTypes);
+        final List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        assertEquals("{\"officeName\":\"Head Office\",\"firstName\":\"Ann\",\"nickname\":\"A\",\"status\":\"Failed\","
+                + "\"error\":\"Unknown column(s) nickname\"}", lines.get(0));
+        assertTrue(lines.get(1).startsWith("{\"status\":\"Failed\",\"error\":\"Malformed record: "));
+        assertEquals("{\"officeName\":\"Head Office\",\"firstName\":\"Bob\",\"activationDate\":\"05 January 2021\","
+                + "\"status\":\"Imported\"}", lines.get(2));
+    }
+
+    @Test
+    void rowsOfOneJournalEntryAreNeverSplitAcrossChunks() throws IOException {
+        final Workbook workbook = new HSSFWorkbook();
+        final Row header = workbook.createSheet(TemplatePopulateImportConstants.JOURNAL_ENTRY_SHEET_NAME)
+                .createRow(TemplatePopulateImportConstants.ROWHEADER_INDEX);
+        header.createCell(0).setCellValue("Office Name*");
+        header.createCell(JournalEntryConstants.TRANSACTION_ID_COL).setCellValue("Transaction Id*");
+        header.createCell(JournalEntryConstants.STATUS_COL).setCellValue("Status");
+        final List<Integer> chunkSizes = new ArrayList<>();
+        final ImportHandler handler = (book, locale, dateFormat) -> {
+            final Sheet sheet = book.getSheet(TemplatePopulateImportConstants.JOURNAL_ENTRY_SHEET_NAME);
+            int rows = 0;
+            for (Row row : sheet) {
+                if (row.getRowNum() > TemplatePopulateImportConstants.ROWHEADER_INDEX) {
+                    rows++;
+                    row.createCell(JournalEntryConstants.STATUS_COL).setCellValue(TemplatePopulateImportConstants.STATUS_CELL_IMPORTED);
+                }
+            }
+            chunkSizes.add(rows);
+            return Count.instance(rows, 0);
+        };
+        final StringBuilder upload = new StringBuilder("officeName,transactionId\n");
+        for (int i = 0; i < 1005; i++) {
+            // the journal entry straddling the 1000th row has five lines
+            final String transactionId = i >= 997 && i < 1002 ? "shared" : "t" + i;
+            upload.append("Head Office,").append(transactionId).append('\n');
+        }
+
+        final Count count = this.tabularImportRunner.process(handler, GlobalEntityType.GL_JOURNAL_ENTRIES, workbook, ImportFormatType.CSV,
+                write(upload.toString()), this.folder.resolve("result.csv"), "en", "dd MMMM yyyy", ImportProgress.NONE);
+
+        assertEquals(1005, count.getSuccessCount());
+        assertEquals(Arrays.asList(1002, 3), chunkSizes);
+    }
+
+    private static Workbook clientWorkbook() {
+        final Workbook workbook = new HSSFWorkbook();
+        final Row header = workbook.createSheet(TemplatePopulateImportConstants.CLIENT_PERSON_SHEET_NAME)
+                .createRow(TemplatePopulateImportConstants.ROWHEADER_INDEX);
+        header.createCell(OFFICE_NAME_COL).setCellValue("Office Name*");
+        header.createCell(FIRST_NAME_COL).setCellValue("First Name*");
+        header.createCell(DATE_COL).setCellValue("Activation Date");
+        final Cell status = header.createCell(ClientPersonConstants.STATUS_COL);
+        status.setCellValue("Status");
+        return workbook;
+    }
+
+    private Path write(final String content) throws IOException {
+        return Files.write(Files.createTempFile(this.folder, "upload", ".txt"), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.importhandler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import org.apache.fineract.infrastructure.bulkimport.data.ImportFormatType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TabularRowReaderTest {
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void csvRecordsAreKeyedByTheHeader() throws IOException {
+        final Path upload = write("\uFEFFofficeName, firstName\r\nHead Office,Ann\r\n\r\nBranch,\r\n");
+
+        try (TabularRowReader reader = TabularRowReader.open(ImportFormatType.CSV, upload)) {
+            assertEquals(Arrays.asList("officeName", "firstName"), reader.getHeader());
+            final Map<String, Object> first = reader.next();
+            assertEquals("Head Office", first.get("officeName"));
+            assertEquals("Ann", first.get("firstName"));
+            final Map<String, Object> second = reader.next();
+            assertEquals("Branch", second.get("officeName"));
+            assertNull(second.get("firstName"));
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void quotedCsvFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        final Path upload = write("name,note,extra\n\"Doe, Jane\",\"said \"\"hi\"\"\nand left\",x,y\n");
+
+        try (TabularRowReader reader = TabularRowReader.open(ImportFormatType.CSV, upload)) {
+            final Map<String, Object> record = reader.next();
+            assertEquals("Doe, Jane", record.get("name"));
+            assertEquals("said \"hi\"\nand left", record.get("note"));
+            assertEquals("x", record.get("extra"));
+            // fields beyond the header are still reported, under a positional name
+            assertEquals("y", record.get("column4"));
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void unterminatedQuotedCsvFieldIsRejected() throws IOException {
+        final Path upload = write("name\n\"Doe, Jane\n");
+
+        try (TabularRowReader reader = TabularRowReader.open(ImportFormatType.CSV, upload)) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    @Test
+    void jsonLinesRecordsKeepTheirTypes() throws IOException {
+        final Path upload = write("{\"name\":\"Ann\",\"amount\":12.50,\"active\":true,\"note\":null}\n\n{\"name\":\"Bob\"}\n");
+
+        try (TabularRowReader reader = TabularRowReader.open(ImportFormatType.JSONL, upload)) {
+            assertEquals(0, reader.getHeader().size());
+            final Map<String, Object> first = reader.next();
+            assertEquals("Ann", first.get("name"));
+            assertEquals(new BigDecimal("12.50"), first.get("amount"));
+            assertEquals(Boolean.TRUE, first.get("active"));
+            assertNull(first.get("note"));
+            assertEquals("Bob", reader.next().get("name"));
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void malformedJsonLineFailsOnlyItself() throws IOException {
+        final Path upload = write("{\"name\":\"Ann\"}\n[1, 2]\n{\"name\":\n{\"name\":\"Bob\"}\n");
+
+        try (TabularRowReader reader = TabularRowReader.open(ImportFormatType.JSONL, upload)) {
+            assertEquals("Ann", reader.next().get("name"));
+            assertThrows(JsonParseException.class, reader::next);
+            assertThrows(JsonParseException.class, reader::next);
+            assertEquals("Bob", reader.next().get("name"));
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void rowsAreCountedWithoutTheHeader() throws IOException {
+        assertEquals(2, TabularRowReader.countRows(ImportFormatType.CSV, write("name\n\"a\nb\"\nc\n\n")));
+        assertEquals(3, TabularRowReader.countRows(ImportFormatType.JSONL, write("{}\n\n{}\nnot json\n")));
+    }
+
+    private Path write(final String content) throws IOException {
+        return Files.write(Files.createTempFile(this.folder, "upload", ".txt"), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
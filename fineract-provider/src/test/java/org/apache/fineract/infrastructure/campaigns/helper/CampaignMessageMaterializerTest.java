@@ -0,0 +1,186 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.campaigns.helper;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.apache.fineract.infrastructure.campaigns.email.domain.EmailMessageStatusType;
+import org.apache.fineract.infrastructure.campaigns.sms.domain.SmsCampaign;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.dataqueries.service.ReadReportingService;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessageStatusType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+class CampaignMessageMaterializerTest {
+
+    private static final String PARAM_VALUE = "{\"reportName\":\"Active Clients\"}";
+
+    private final List<Map<String, Object>> reportRows = new ArrayList<>();
+    private final List<ResultSet> clientRows = new ArrayList<>();
+    private JdbcTemplate jdbcTemplate;
+    private CampaignMessageMaterializer materializer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        final ReadReportingService readReportingService = mock(ReadReportingService.class);
+        doAnswer(invocation -> {
+            final Consumer<Map<String, Object>> rowHandler = invocation.getArgument(3);
+            this.reportRows.forEach(rowHandler);
+            return null;
+        }).when(readReportingService).streamGenericResultSetForSmsEmailCampaign(eq("Active Clients"), eq("report"), any(Map.class),
+                any(Consumer.class));
+        final NamedParameterJdbcTemplate namedParameterJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        doAnswer(invocation -> {
+            final RowCallbackHandler handler = invocation.getArgument(2);
+            for (final ResultSet clientRow : this.clientRows) {
+                handler.processRow(clientRow);
+            }
+            return null;
+        }).when(namedParameterJdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+        this.jdbcTemplate = mock(JdbcTemplate.class);
+        when(namedParameterJdbcTemplate.getJdbcTemplate()).thenReturn(this.jdbcTemplate);
+        this.materializer = new CampaignMessageMaterializer(readReportingService, namedParameterJdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void smsMessagesSetEveryColumnOfAPendingCampaignSms() throws Exception {
+        final SmsCampaign smsCampaign = mock(SmsCampaign.class);
+        when(smsCampaign.getId()).thenReturn(4L);
+        when(smsCampaign.getCampaignName()).thenReturn("Reminder");
+        when(smsCampaign.getMessage()).thenReturn("Dear {{firstName}}");
+        when(smsCampaign.getParamValue()).thenReturn(PARAM_VALUE);
+        reportRow(1L, "Jane", "+254700000001");
+        reportRow(2L, "John", null);
+        reportRow(3L, "Nobody", "+254700000003");
+        this.clientRows.add(client(1L, null));
+        this.clientRows.add(client(2L, null));
+
+        assertEquals(1, this.materializer.queueSmsCampaignMessages(smsCampaign));
+
+        final List<Object[]> messages = insertedMessages();
+        assertEquals(1, messages.size());
+        assertArrayEquals(new Object[] { 1L, 4L, SmsMessageStatusType.PENDING.getValue(), "+254700000001", "Dear Jane", today(), false },
+                messages.get(0));
+        final String sql = insertSql();
+        assertTrue(sql.contains("(external_id, group_id, client_id, staff_id, campaign_id, status_enum, mobile_no, message,"
+                + " submittedon_date, delivered_on_date, is_notification)"));
+        assertEquals(countPlaceholders(sql), messages.get(0).length);
+    }
+
+    @Test
+    void emailMessagesSkipInvalidAddressesAndSetEveryColumnOfAPendingCampaignEmail() throws Exception {
+        reportRow(1L, "Jane", null);
+        reportRow(2L, "John", null);
+        this.clientRows.add(client(1L, "jane@example.org"));
+        this.clientRows.add(client(2L, "john at example"));
+
+        assertEquals(1, this.materializer.queueEmailCampaignMessages(5L, PARAM_VALUE, "Statement", "Dear {{firstName}}", "Statements"));
+
+        final List<Object[]> messages = insertedMessages();
+        assertEquals(1, messages.size());
+        assertArrayEquals(new Object[] { 1L, 5L, EmailMessageStatusType.PENDING.getValue(), "jane@example.org", "Statement", "Dear Jane",
+                "Statements", today() }, messages.get(0));
+        final String sql = insertSql();
+        assertTrue(sql.contains("(group_id, client_id, staff_id, email_campaign_id, status_enum, email_address, email_subject, message,"
+                + " campaign_name, submittedon_date, error_message)"));
+        assertEquals(countPlaceholders(sql), messages.get(0).length);
+    }
+
+    @Test
+    void emailAddressValidation() {
+        assertTrue(EmailAddressUtils.isValidEmail("jane@example.org"));
+        assertFalse(EmailAddressUtils.isValidEmail("john at example"));
+        assertFalse(EmailAddressUtils.isValidEmail(null));
+    }
+
+    private void reportRow(final Long clientId, final String firstName, final String mobileNo) {
+        final Map<String, Object> row = new HashMap<>();
+        row.put("id", clientId);
+        row.put("firstName", firstName);
+        row.put("mobileNo", mobileNo);
+        this.reportRows.add(row);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> insertedMessages() {
+        final ArgumentCaptor<List<Object[]>> messages = ArgumentCaptor.forClass(List.class);
+        verify(this.jdbcTemplate).batchUpdate(anyString(), messages.capture());
+        return messages.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private String insertSql() {
+        final ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(this.jdbcTemplate).batchUpdate(sql.capture(), any(List.class));
+        return sql.getValue();
+    }
+
+    private static int countPlaceholders(final String sql) {
+        return (int) sql.chars().filter(c -> c == '?').count();
+    }
+
+    private static Date today() {
+        final LocalDate today = DateUtils.getLocalDateOfTenant();
+        return Date.valueOf(today);
+    }
+
+    private static ResultSet client(final Long id, final String emailAddress) throws SQLException {
+        final ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("id")).thenReturn(id);
+        when(resultSet.getString("emailAddress")).thenReturn(emailAddress);
+        when(resultSet.findColumn("deviceRegistrationId")).thenReturn(3);
+        when(resultSet.wasNull()).thenReturn(true);
+        return resultSet;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class DatabaseTimeTrackerTest {
+
+    private final Connection connection = mock(Connection.class);
+    private final LongAdder nanos = new LongAdder();
+
+    @AfterEach
+    void tearDown() {
+        DatabaseTimeTracker.stopTracking();
+    }
+
+    @Test
+    void connectionOfUntrackedThreadIsNotInstrumented() {
+        assertSame(this.connection, DatabaseTimeTracker.instrument(this.connection));
+
+        DatabaseTimeTracker.track(this.nanos);
+        DatabaseTimeTracker.stopTracking();
+
+        assertSame(this.connection, DatabaseTimeTracker.instrument(this.connection));
+    }
+
+    @Test
+    void executionTimeOfStatementsIsAdded() throws SQLException {
+        final PreparedStatement statement = mock(PreparedStatement.class);
+        when(this.connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeUpdate()).thenAnswer(invocation -> {
+            TimeUnit.MILLISECONDS.sleep(20);
+            return 1;
+        });
+        DatabaseTimeTracker.track(this.nanos);
+
+        final Connection instrumented = DatabaseTimeTracker.instrument(this.connection);
+        final PreparedStatement prepared = instrumented.prepareStatement("update m_client set status_enum = ?");
+        prepared.setInt(1, 300);
+        assertEquals(0, this.nanos.sum());
+        assertEquals(1, prepared.executeUpdate());
+
+        assertTrue(this.nanos.sum() >= TimeUnit.MILLISECONDS.toNanos(20));
+        verify(statement).setInt(1, 300);
+        // the statement reports the instrumented connection, not the one it was created on
+        assertSame(instrumented, prepared.getConnection());
+    }
+
+    @Test
+    void statementsKeepTheirMostSpecificType() throws SQLException {
+        when(this.connection.createStatement()).thenReturn(mock(Statement.class));
+        when(this.connection.prepareCall(anyString())).thenReturn(mock(CallableStatement.class));
+        when(this.connection.getAutoCommit()).thenReturn(true);
+        DatabaseTimeTracker.track(this.nanos);
+
+        final Connection instrumented = DatabaseTimeTracker.instrument(this.connection);
+
+        assertNotSame(this.connection, instrumented);
+        assertFalse(instrumented.createStatement() instanceof PreparedStatement);
+        assertTrue(instrumented.prepareCall("call proc()") instanceof CallableStatement);
+        assertTrue(instrumented.getAutoCommit());
+    }
+
+    @Test
+    void failureOfStatementIsPassedOnAndStillTimed() throws SQLException {
+        final Statement statement = mock(Statement.class);
+        when(this.connection.createStatement()).thenReturn(statement);
+        final SQLException failure = new SQLException("deadlock");
+        when(statement.execute(anyString())).thenAnswer(invocation -> {
+            TimeUnit.MILLISECONDS.sleep(5);
+            throw failure;
+        });
+        DatabaseTimeTracker.track(this.nanos);
+
+        final Statement instrumented = DatabaseTimeTracker.instrument(this.connection).createStatement();
+
+        assertSame(failure, assertThrows(SQLException.class, () -> instrumented.execute("select 1")));
+        assertTrue(this.nanos.sum() >= TimeUnit.MILLISECONDS.toNanos(5));
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.apache.fineract.infrastructure.core.service.TomcatJdbcDataSourcePerTenantService.PoolKey;
+import org.junit.jupiter.api.Test;
+
+class TomcatJdbcDataSourcePerTenantServiceTest {
+
+    @Test
+    void sharedPoolKeyIgnoresTheSchemaName() {
+        final PoolKey first = new PoolKey(connection(1L, "tenant_a", 5, 40), true);
+        final PoolKey second = new PoolKey(connection(2L, "tenant_b", 5, 40), true);
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertEquals(first.poolName(), second.poolName());
+    }
+
+    @Test
+    void sharedPoolKeyTellsApartDifferentPoolSettings() {
+        final PoolKey first = new PoolKey(connection(1L, "tenant_a", 5, 40), true);
+        final PoolKey second = new PoolKey(connection(2L, "tenant_b", 10, 40), true);
+
+        assertNotEquals(first, second);
+        assertNotEquals(first.poolName(), second.poolName());
+    }
+
+    @Test
+    void sharedPoolKeyTellsApartDifferentMaximumPoolSizes() {
+        final PoolKey first = new PoolKey(connection(1L, "tenant_a", 5, 40), true);
+        final PoolKey second = new PoolKey(connection(2L, "tenant_b", 5, 20), true);
+
+        assertNotEquals(first, second);
+        assertNotEquals(first.poolName(), second.poolName());
+    }
+
+    @Test
+    void poolKeyPerSchemaWhenPoolsAreNotShared() {
+        final PoolKey first = new PoolKey(connection(1L, "tenant_a", 5, 40), false);
+        final PoolKey second = new PoolKey(connection(2L, "tenant_b", 5, 40), false);
+
+        assertNotEquals(first, second);
+        assertEquals("tenant_a_pool", first.poolName());
+        assertEquals(first, new PoolKey(connection(3L, "tenant_a", 5, 40), false));
+    }
+
+    private static FineractPlatformTenantConnection connection(final Long connectionId, final String schemaName, final int initialSize,
+            final int maxActive) {
+        return new FineractPlatformTenantConnection(connectionId, schemaName, "db.example.org", "3306", "", "mifos", "password", true,
+                initialSize, 30000L, false, 0, false, 50, maxActive, initialSize, 10, 60, 34000, 60000, 3, 1, false);
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class VersionedTenantCacheTest {
+
+    private static final Duration RECHECK_INTERVAL = Duration.ofSeconds(10);
+
+    private JdbcTemplate jdbcTemplate;
+    private VersionedTenantCache<String> cache;
+
+    private final AtomicLong version = new AtomicLong(1);
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private Runnable duringLoad = () -> {};
+
+    @BeforeEach
+    void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        this.jdbcTemplate = mock(JdbcTemplate.class);
+        when(this.jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenAnswer(invocation -> this.version.get());
+        when(this.jdbcTemplate.update(anyString())).thenAnswer(invocation -> {
+            this.version.incrementAndGet();
+            return 1;
+        });
+        this.cache = new VersionedTenantCache<>(this.jdbcTemplate, "m_test_version", RECHECK_INTERVAL, () -> {
+            final long loadedVersion = this.version.get();
+            final Runnable concurrentChange = this.duringLoad;
+            this.duringLoad = () -> {};
+            concurrentChange.run();
+            this.loads.incrementAndGet();
+            return "v" + loadedVersion;
+        }, this.nanoTime::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void versionIsNotReadAgainWithinTheRecheckInterval() {
+        assertEquals("v1", this.cache.get());
+        this.nanoTime.addAndGet(RECHECK_INTERVAL.toNanos() - 1);
+        assertEquals("v1", this.cache.get());
+
+        verify(this.jdbcTemplate, times(1)).queryForObject(anyString(), eq(Long.class));
+        assertEquals(1, this.loads.get());
+    }
+
+    @Test
+    void unchangedVersionKeepsDataAfterTheRecheckInterval() {
+        this.cache.get();
+        this.nanoTime.addAndGet(RECHECK_INTERVAL.toNanos());
+
+        assertEquals("v1", this.cache.get());
+        assertEquals(1, this.loads.get());
+        verify(this.jdbcTemplate, times(2)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    void versionChangedThroughAnotherNodeReloadsAfterTheRecheckInterval() {
+        this.cache.get();
+        this.version.incrementAndGet();
+
+        assertEquals("v1", this.cache.get());
+        this.nanoTime.addAndGet(RECHECK_INTERVAL.toNanos());
+        assertEquals("v2", this.cache.get());
+    }
+
+    @Test
+    void invalidateReloadsOnThisNodeAtOnce() {
+        this.cache.get();
+
+        this.cache.invalidate();
+
+        verify(this.jdbcTemplate).update("update m_test_version set version = version + 1 where id = 1");
+        assertEquals("v2", this.cache.get());
+    }
+
+    @Test
+    void loadRacingWithAnInvalidationDoesNotOutliveIt() {
+        this.cache.get();
+        this.nanoTime.addAndGet(RECHECK_INTERVAL.toNanos());
+        this.version.incrementAndGet();
+
+        // this lookup loads version 2 while the change to version 3 commits on this node
+        this.duringLoad = () -> this.cache.invalidate();
+        this.cache.get();
+
+        assertEquals("v3", this.cache.get());
+    }
+
+    @Test
+    void olderLoadDoesNotReplaceNewerData() {
+        this.cache.get();
+        this.nanoTime.addAndGet(RECHECK_INTERVAL.toNanos());
+        this.version.incrementAndGet();
+
+        // while this lookup loads version 2, another node changes the data and a lookup here publishes version 3
+        this.duringLoad = () -> {
+            this.version.incrementAndGet();
+            assertEquals("v3", this.cache.get());
+        };
+        this.cache.get();
+
+        assertEquals("v3", this.cache.get());
+        assertEquals(3, this.loads.get());
+    }
+
+    @Test
+    void tenantsAreCachedApart() {
+        this.cache.get();
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(2L, "other", "Other", "Asia/Kolkata", null));
+
+        this.cache.get();
+
+        assertEquals(2, this.loads.get());
+        verify(this.jdbcTemplate, never()).update(anyString());
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.documentmanagement.api;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.sun.jersey.core.util.MultivaluedMapImpl;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import org.apache.fineract.infrastructure.documentmanagement.data.FileData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ContentResourcesTest {
+
+    private static final String CONTENT = "0123456789";
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void singleRangeIsParsed() {
+        assertArrayEquals(new long[] { 2, 5 }, ContentResources.parseRange("bytes=2-5", 10));
+        assertArrayEquals(new long[] { 2, 9 }, ContentResources.parseRange("bytes=2-", 10));
+        assertArrayEquals(new long[] { 7, 9 }, ContentResources.parseRange("bytes=-3", 10));
+        assertArrayEquals(new long[] { 0, 9 }, ContentResources.parseRange("bytes=-30", 10));
+        assertArrayEquals(new long[] { 8, 9 }, ContentResources.parseRange("bytes=8-30", 10));
+    }
+
+    @Test
+    void multipleRangesAndOtherUnitsAskForTheWholeContent() {
+        assertNull(ContentResources.parseRange("bytes=0-1,4-5", 10));
+        assertNull(ContentResources.parseRange("items=0-1", 10));
+        assertNull(ContentResources.parseRange("bytes=a-b", 10));
+    }
+
+    @Test
+    void rangeOutsideOfTheContentCannotBeSatisfied() {
+        assertArrayEquals(new long[0], ContentResources.parseRange("bytes=10-12", 10));
+        assertArrayEquals(new long[0], ContentResources.parseRange("bytes=5-2", 10));
+        assertArrayEquals(new long[0], ContentResources.parseRange("bytes=-0", 10));
+    }
+
+    @Test
+    void rangeOfFileIsSentAsPartialContent() throws IOException {
+        final Response response = fileResponse(contentFile(), headers("bytes=2-5", null));
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getMetadata().getFirst("Content-Range"));
+        assertEquals("2345", body(response));
+    }
+
+    @Test
+    void multipleRangesOfFileAreAnsweredWithTheWholeContent() throws IOException {
+        final Response response = fileResponse(contentFile(), headers("bytes=0-1,4-5", null));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, body(response));
+    }
+
+    @Test
+    void unsatisfiableRangeOfFileIsRejected() throws IOException {
+        final Response response = fileResponse(contentFile(), headers("bytes=20-30", null));
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getMetadata().getFirst("Content-Range"));
+    }
+
+    @Test
+    void rangeIsIgnoredWhenIfRangeIsStale() throws IOException {
+        final Response response = fileResponse(contentFile(), headers("bytes=2-5", "\"0-0\""));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, body(response));
+    }
+
+    @Test
+    void rangeIsSentWhenIfRangeIsCurrent() throws IOException {
+        final File file = contentFile();
+        final String entityTag = ContentResources.entityTag(new FileData(file, "content.txt", "text/plain"), null).toString();
+
+        final Response response = fileResponse(file, headers("bytes=2-5", entityTag));
+
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", body(response));
+    }
+
+    @Test
+    void missingFileIsAnsweredWithAnErrorBeforeAnyContent() {
+        final Response response = fileResponse(folder.resolve("missing.txt").toFile(), headers(null, null));
+
+        assertEquals(500, response.getStatus());
+    }
+
+    private File contentFile() throws IOException {
+        return Files.write(folder.resolve("content.txt"), CONTENT.getBytes(StandardCharsets.UTF_8)).toFile();
+    }
+
+    private static Response fileResponse(File file, HttpHeaders headers) {
+        return ContentResources.fileDataToResponse(new FileData(file, "content.txt", "text/plain"), "attachment", null, headers);
+    }
+
+    private static HttpHeaders headers(String range, String ifRange) {
+        final MultivaluedMapImpl requestHeaders = new MultivaluedMapImpl();
+        if (range != null) {
+            requestHeaders.putSingle("Range", range);
+        }
+        if (ifRange != null) {
+            requestHeaders.putSingle("If-Range", ifRange);
+        }
+        final HttpHeaders headers = mock(HttpHeaders.class);
+        when(headers.getRequestHeaders()).thenReturn(requestHeaders);
+        return headers;
+    }
+
+    private static String body(Response response) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.listener;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.event.HookEvent;
+import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
+import org.apache.fineract.infrastructure.hooks.service.HookOutboxService;
+import org.apache.fineract.infrastructure.hooks.service.HookRoutingService;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FineractHookListenerTest {
+
+    private HookOutboxService hookOutboxService;
+    private TenantDetailsService tenantDetailsService;
+    private HookRoutingService hookRoutingService;
+    private FineractHookListener listener;
+
+    @BeforeEach
+    void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        this.hookOutboxService = mock(HookOutboxService.class);
+        this.tenantDetailsService = mock(TenantDetailsService.class);
+        this.hookRoutingService = mock(HookRoutingService.class);
+        this.listener = new FineractHookListener(this.hookOutboxService, this.tenantDetailsService, this.hookRoutingService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void eventWithoutHookIsDroppedBeforeItsPayloadIsBuilt() {
+        when(this.hookRoutingService.retrieveHookIdsByEvent("CLIENT", "CREATE")).thenReturn(Collections.emptyList());
+
+        this.listener.onApplicationEvent(new HookEvent(new HookEventSource("CLIENT", "CREATE"), () -> {
+            throw new AssertionError("payload must not be built");
+        }, "default", null, null, false));
+
+        verify(this.hookOutboxService, never()).enqueue(any());
+        verify(this.tenantDetailsService, never()).loadTenantById(anyString());
+    }
+
+    @Test
+    void eventWithHookIsEnqueued() {
+        when(this.hookRoutingService.retrieveHookIdsByEvent("CLIENT", "CREATE")).thenReturn(List.of(7L));
+        final HookEvent event = new HookEvent(new HookEventSource("CLIENT", "CREATE"), "{}", "default", null, null);
+
+        this.listener.onApplicationEvent(event);
+
+        verify(this.hookOutboxService).enqueue(event);
+    }
+}
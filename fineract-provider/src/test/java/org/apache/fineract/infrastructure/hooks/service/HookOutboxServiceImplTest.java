@@ -0,0 +1,203 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookOutboxStatusType;
+import org.apache.fineract.infrastructure.hooks.domain.HookRepository;
+import org.apache.fineract.infrastructure.hooks.event.HookEvent;
+import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessor;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessorProvider;
+import org.apache.fineract.infrastructure.hooks.service.HookOutboxServiceImpl.OutboxEvent;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class HookOutboxServiceImplTest {
+
+    private static final Long HOOK_ID = 7L;
+    private static final Long USER_ID = 5L;
+    private static final int PENDING = HookOutboxStatusType.PENDING.getValue();
+
+    private JdbcTemplate jdbcTemplate;
+    private HookProcessor processor;
+    private Hook hook;
+    private HookRoutingService hookRoutingService;
+    private HookOutboxServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        this.jdbcTemplate = mock(JdbcTemplate.class);
+        this.processor = mock(HookProcessor.class);
+        this.hook = mock(Hook.class);
+        final HookRepository hookRepository = mock(HookRepository.class);
+        final HookProcessorProvider hookProcessorProvider = mock(HookProcessorProvider.class);
+        when(hookRepository.findById(HOOK_ID)).thenReturn(Optional.of(this.hook));
+        when(hookProcessorProvider.getProcessor(this.hook)).thenReturn(this.processor);
+        this.hookRoutingService = mock(HookRoutingService.class);
+        this.service = new HookOutboxServiceImpl(this.jdbcTemplate, this.hookRoutingService, hookRepository, hookProcessorProvider,
+                new SimpleMeterRegistry());
+        this.service.initializeExecutorService();
+
+        when(this.jdbcTemplate.queryForList(contains("select distinct o.hook_id"), eq(Long.class), eq(PENDING)))
+                .thenReturn(List.of(HOOK_ID));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.service.shutdownExecutorService();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void storesTheUserOfTheEventButNotItsCredentials() {
+        when(this.hookRoutingService.retrieveHookIdsByEvent("CLIENT", "CREATE")).thenReturn(List.of(HOOK_ID));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            this.service.enqueue(event(USER_ID, "dXNlcjpwYXNz"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(this.jdbcTemplate).batchUpdate(argThat((String sql) -> sql.contains("app_user_id") && !sql.contains("auth_token")),
+                eq(List.of(HOOK_ID)), eq(1), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void retryIsSentWithTheAuthTokenOfTheRaisingUser() throws Exception {
+        when(this.hookRoutingService.retrieveHookIdsByEvent("CLIENT", "CREATE")).thenReturn(List.of(HOOK_ID));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            this.service.enqueue(event(USER_ID, "dXNlcjpwYXNz"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        leaseAcquired(true);
+        leaseRenewed(true);
+        dueEvents(new OutboxEvent(1L, HOOK_ID, "CLIENT", "CREATE", "{}", USER_ID, 3, 120L));
+
+        this.service.dispatchPendingEvents();
+
+        verify(this.processor).process(eq(this.hook), isNull(), eq("{}"), eq("CLIENT"), eq("CREATE"), eq("default"), eq("dXNlcjpwYXNz"));
+        verify(this.jdbcTemplate).update("delete from m_hook_outbox where id = ?", 1L);
+        verify(this.jdbcTemplate).update(contains("delete from m_hook_dispatch_lease"), eq(HOOK_ID), anyString());
+    }
+
+    @Test
+    void eventOfUserWithoutKnownCredentialsIsSentWithoutAuthToken() throws Exception {
+        leaseAcquired(true);
+        leaseRenewed(true);
+        dueEvents(new OutboxEvent(1L, HOOK_ID, "CLIENT", "CREATE", "{}", USER_ID, 3, 120L));
+
+        this.service.dispatchPendingEvents();
+
+        verify(this.processor).process(eq(this.hook), isNull(), eq("{}"), eq("CLIENT"), eq("CREATE"), eq("default"), isNull());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void hookLeasedByAnotherDispatcherIsLeftToIt() throws Exception {
+        leaseAcquired(false);
+
+        this.service.dispatchPendingEvents();
+
+        verify(this.jdbcTemplate, never()).query(anyString(), any(RowMapper.class), eq(HOOK_ID), eq(PENDING));
+        verify(this.processor, never()).process(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void lostLeaseStopsDeliveryBeforeTheNextEvent() throws Exception {
+        leaseAcquired(true);
+        leaseRenewed(false);
+        dueEvents(new OutboxEvent(1L, HOOK_ID, "CLIENT", "CREATE", "{}", null, 0, 1L));
+
+        this.service.dispatchPendingEvents();
+
+        verify(this.processor, never()).process(any(), any(), any(), any(), any(), any(), any());
+        verify(this.jdbcTemplate, never()).update("delete from m_hook_outbox where id = ?", 1L);
+    }
+
+    @Test
+    void failedDeliveryHoldsBackTheLaterEventsOfTheHook() throws Exception {
+        leaseAcquired(true);
+        leaseRenewed(true);
+        dueEvents(new OutboxEvent(1L, HOOK_ID, "CLIENT", "CREATE", "{\"id\":1}", null, 0, 1L),
+                new OutboxEvent(2L, HOOK_ID, "CLIENT", "UPDATE", "{\"id\":2}", null, 0, 1L));
+        doThrow(new IOException("Status: 503")).when(this.processor).process(any(), any(), eq("{\"id\":1}"), any(), any(), any(), any());
+
+        this.service.dispatchPendingEvents();
+
+        verify(this.processor, never()).process(any(), any(), eq("{\"id\":2}"), any(), any(), any(), any());
+        verify(this.jdbcTemplate).update(contains("next_attempt_at = date_add(now(), interval ? second) where id = ?"), eq(1),
+                anyString(), eq(30L), eq(1L));
+        verify(this.jdbcTemplate).update(contains("where hook_id = ? and status_enum = ? and id > ?"), eq(30L), eq(HOOK_ID), eq(PENDING),
+                eq(1L));
+        verify(this.jdbcTemplate, never()).update("delete from m_hook_outbox where id = ?", 2L);
+    }
+
+    private static HookEvent event(final Long appUserId, final String authToken) {
+        final AppUser appUser = mock(AppUser.class);
+        when(appUser.getId()).thenReturn(appUserId);
+        return new HookEvent(new HookEventSource("CLIENT", "CREATE"), "{}", "default", appUser, authToken);
+    }
+
+    private void leaseAcquired(final boolean acquired) {
+        when(this.jdbcTemplate.queryForObject(contains("from m_hook_dispatch_lease"), eq(Integer.class), eq(HOOK_ID), anyString()))
+                .thenReturn(acquired ? 1 : 0);
+    }
+
+    private void leaseRenewed(final boolean renewed) {
+        when(this.jdbcTemplate.update(contains("update m_hook_dispatch_lease set lease_until"), anyLong(), eq(HOOK_ID), anyString()))
+                .thenReturn(renewed ? 1 : 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void dueEvents(final OutboxEvent... events) {
+        when(this.jdbcTemplate.query(contains("from m_hook_outbox o"), any(RowMapper.class), eq(HOOK_ID), eq(PENDING)))
+                .thenReturn(Arrays.asList(events));
+    }
+}
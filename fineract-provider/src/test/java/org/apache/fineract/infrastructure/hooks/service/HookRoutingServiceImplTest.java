@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+class HookRoutingServiceImplTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private HookRoutingServiceImpl hookRoutingService;
+
+    private final AtomicLong version = new AtomicLong(1);
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final List<Long> clientCreateHookIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        this.jdbcTemplate = mock(JdbcTemplate.class);
+        this.hookRoutingService = new HookRoutingServiceImpl(this.jdbcTemplate, this.nanoTime::get);
+        this.clientCreateHookIds.add(1L);
+
+        when(this.jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenAnswer(invocation -> this.version.get());
+        doAnswer(invocation -> {
+            final RowCallbackHandler handler = invocation.getArgument(1);
+            for (final Long hookId : new ArrayList<>(this.clientCreateHookIds)) {
+                handler.processRow(route("CLIENT", "CREATE", hookId));
+            }
+            return null;
+        }).when(this.jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void unchangedVersionServesCachedRoutes() {
+        assertEquals(List.of(1L), this.hookRoutingService.retrieveHookIdsByEvent("CLIENT", "CREATE"));
+        assertEquals(List.of(), this.hookRoutingService.retrieveHookIdsByEvent("LOAN", "APPROVE"));
+
+        verify(this.jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class));
+        verify(this.jdbcTemplate, times(1)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    void versionChangedThroughAnotherNodeReloadsRoutes() {
+        assertEquals(List.of(1L), this.hookRoutingService.retrieveHookIdsByEvent("CLIENT", "CREATE"));
+
+        this.clientCreateHookIds.add(2L);
+        this.version.incrementAndGet();
+        this.nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertEquals(List.of(1L, 2L), this.hookRoutingService.retrieveHookIdsByEvent("CLIENT", "CREATE"));
+    }
+
+    @Test
+    void invalidateRoutesIncrementsSharedVersion() {
+        this.hookRoutingService.invalidateRoutes();
+
+        verify(this.jdbcTemplate).update("update m_hook_routing_version set version = version + 1 where id = 1");
+    }
+
+    private static ResultSet route(final String entityName, final String actionName, final Long hookId) throws SQLException {
+        final ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString("entityName")).thenReturn(entityName);
+        when(resultSet.getString("actionName")).thenReturn(actionName);
+        when(resultSet.getLong("hookId")).thenReturn(hookId);
+        return resultSet;
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class PerEntityJobRunnerTest {
+
+    private static final String JOB_NAME = JobName.POST_INTEREST_FOR_SAVINGS.name();
+    private static final String CHECKPOINT_QUERY = "select last_entity_id from m_job_checkpoint";
+    private static final String FAILURE_QUERY = "select entity_id from m_job_checkpoint_failure";
+    private static final String SAVE_CHECKPOINT = "insert into m_job_checkpoint (";
+    private static final String SAVE_FAILURE = "insert ignore into m_job_checkpoint_failure";
+    private static final String CLEAR_CHUNK_FAILURES = "delete from m_job_checkpoint_failure where job_name = ? and run_scope = ?"
+            + " and entity_id between";
+    private static final String DELETE_CHECKPOINT = "delete from m_job_checkpoint where";
+
+    private JdbcTemplate jdbcTemplate;
+    private PerEntityJobRunner perEntityJobRunner;
+    private LocalDate businessDate;
+    private final List<Long> processed = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        this.businessDate = DateUtils.getLocalDateOfTenant();
+        this.jdbcTemplate = mock(JdbcTemplate.class);
+        this.perEntityJobRunner = new PerEntityJobRunner(this.jdbcTemplate, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new SimpleMeterRegistry(), 2, 2, 0);
+        this.perEntityJobRunner.startWorkers();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.perEntityJobRunner.stopWorkers();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void restartedRunContinuesAfterTheCheckpoint() throws JobExecutionException {
+        givenCheckpoint(3L);
+
+        this.perEntityJobRunner.run(job(Arrays.asList(6L, 1L, 2L, 3L, 4L, 5L)));
+
+        assertEquals(Arrays.asList(4L, 5L, 6L), sortedProcessed());
+        verify(this.jdbcTemplate).update(startsWith(SAVE_CHECKPOINT), eq(JOB_NAME), eq(""), eq(this.businessDate), eq(6L));
+        verify(this.jdbcTemplate).update(startsWith(DELETE_CHECKPOINT), eq(JOB_NAME), eq(""));
+    }
+
+    @Test
+    void skippedEntityIsRecordedAndKeepsTheCheckpoint() {
+        final PerEntityJob<Long, Void> job = PerEntityJob.of(JobName.POST_INTEREST_FOR_SAVINGS, () -> Arrays.asList(1L, 2L, 3L, 4L),
+                id -> id, String::valueOf, id -> {
+                    this.processed.add(id);
+                    if (id == 2L) {
+                        throw new IllegalStateException("account 2 cannot be posted");
+                    }
+                });
+
+        assertThrows(JobExecutionException.class, () -> this.perEntityJobRunner.run(job));
+
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L), sortedProcessed());
+        verify(this.jdbcTemplate).update(startsWith(SAVE_FAILURE), eq(JOB_NAME), eq(""), eq(this.businessDate), eq(2L));
+        verify(this.jdbcTemplate).update(startsWith(SAVE_CHECKPOINT), eq(JOB_NAME), eq(""), eq(this.businessDate), eq(4L));
+        verify(this.jdbcTemplate, never()).update(startsWith(DELETE_CHECKPOINT), eq(JOB_NAME), eq(""));
+    }
+
+    @Test
+    void nextRunRetriesSkippedEntitiesBelowTheCheckpoint() throws JobExecutionException {
+        givenCheckpoint(4L);
+        when(this.jdbcTemplate.queryForList(startsWith(FAILURE_QUERY), eq(Long.class), eq(JOB_NAME), eq(""), eq(this.businessDate)))
+                .thenReturn(Collections.singletonList(2L));
+
+        this.perEntityJobRunner.run(job(Arrays.asList(1L, 2L, 3L, 4L, 5L)));
+
+        assertEquals(Arrays.asList(2L, 5L), sortedProcessed());
+        verify(this.jdbcTemplate).update(startsWith(CLEAR_CHUNK_FAILURES), eq(JOB_NAME), eq(""), eq(2L), eq(5L));
+        verify(this.jdbcTemplate, never()).update(startsWith(SAVE_FAILURE), any(), any(), any(), any());
+        verify(this.jdbcTemplate).update(startsWith(DELETE_CHECKPOINT), eq(JOB_NAME), eq(""));
+    }
+
+    @Test
+    void checkpointsAreKeptPerRunScope() throws JobExecutionException {
+        when(this.jdbcTemplate.queryForList(startsWith(CHECKPOINT_QUERY), eq(Long.class), eq(JOB_NAME), eq("holiday-7"),
+                eq(this.businessDate))).thenReturn(Collections.singletonList(2L));
+
+        this.perEntityJobRunner.run(job(Arrays.asList(1L, 2L, 3L)), "holiday-8");
+
+        assertEquals(Arrays.asList(1L, 2L, 3L), sortedProcessed());
+        verify(this.jdbcTemplate).update(startsWith(SAVE_CHECKPOINT), eq(JOB_NAME), eq("holiday-8"), eq(this.businessDate), eq(3L));
+        verify(this.jdbcTemplate, never()).update(anyString(), eq(JOB_NAME), eq("holiday-7"));
+    }
+
+    @Test
+    void jobWithoutCheckpointReadsEveryItemAndKeepsNoCheckpoint() throws JobExecutionException {
+        givenCheckpoint(3L);
+        final PerEntityJob<Long, Void> checkpointed = job(Arrays.asList(3L, 1L, 2L, 4L));
+
+        this.perEntityJobRunner.run(new PerEntityJob<Long, Void>() {
+
+            @Override
+            public JobName getJobName() {
+                return checkpointed.getJobName();
+            }
+
+            @Override
+            public List<Long> read() {
+                return Arrays.asList(3L, 1L, 2L, 4L);
+            }
+
+            @Override
+            public Long entityId(final Long item) {
+                return item;
+            }
+
+            @Override
+            public Void process(final Long item) {
+                return checkpointed.process(item);
+            }
+
+            @Override
+            public boolean isCheckpointed() {
+                return false;
+            }
+        });
+
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L), sortedProcessed());
+        verify(this.jdbcTemplate, never()).queryForList(startsWith(CHECKPOINT_QUERY), eq(Long.class), any(), any(), any());
+        verify(this.jdbcTemplate, never()).update(startsWith(SAVE_CHECKPOINT), any(), any(), any(), any());
+        verify(this.jdbcTemplate, never()).update(startsWith(DELETE_CHECKPOINT), any(), any());
+    }
+
+    private void givenCheckpoint(final Long lastEntityId) {
+        when(this.jdbcTemplate.queryForList(startsWith(CHECKPOINT_QUERY), eq(Long.class), eq(JOB_NAME), eq(""), eq(this.businessDate)))
+                .thenReturn(Collections.singletonList(lastEntityId));
+    }
+
+    private PerEntityJob<Long, Void> job(final List<Long> entityIds) {
+        return PerEntityJob.of(JobName.POST_INTEREST_FOR_SAVINGS, () -> entityIds, id -> id, String::valueOf, this.processed::add);
+    }
+
+    private List<Long> sortedProcessed() {
+        final Long[] ids = this.processed.toArray(new Long[0]);
+        Arrays.sort(ids);
+        return Arrays.asList(ids);
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.sms.scheduler;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.infrastructure.campaigns.helper.SmsConfigUtils;
+import org.apache.fineract.infrastructure.campaigns.sms.domain.SmsCampaign;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.gcm.service.NotificationSenderService;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessage;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessageRepository;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessageStatusType;
+import org.apache.fineract.infrastructure.sms.scheduler.SmsMessageScheduledJobServiceImpl.PendingSmsMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+class SmsMessageScheduledJobServiceImplTest {
+
+    private static final int PENDING = SmsMessageStatusType.PENDING.getValue();
+    private static final int WAITING_FOR_DELIVERY_REPORT = SmsMessageStatusType.WAITING_FOR_DELIVERY_REPORT.getValue();
+
+    private JdbcTemplate jdbcTemplate;
+    private SmsMessageRepository smsMessageRepository;
+    private SmsConfigUtils smsConfigUtils;
+    private SmsMessageScheduledJobServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        this.jdbcTemplate = mock(JdbcTemplate.class);
+        this.smsMessageRepository = mock(SmsMessageRepository.class);
+        this.smsConfigUtils = mock(SmsConfigUtils.class);
+        final Environment environment = mock(Environment.class);
+        when(environment.getProperty(anyString(), eq(Double.class), any())).thenReturn(100d);
+        this.service = new SmsMessageScheduledJobServiceImpl(this.smsMessageRepository, this.smsConfigUtils,
+                mock(NotificationSenderService.class), this.jdbcTemplate, environment);
+        this.service.initializeExecutorService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.service.onApplicationEvent(new ContextClosedEvent(mock(ApplicationContext.class)));
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void scheduledMessagesWithoutProviderStayPending() {
+        when(this.jdbcTemplate.update(contains("set dispatch_token = ?, dispatch_claimed_on = now()"), anyString(), eq(PENDING), eq(0L)))
+                .thenReturn(1);
+        when(this.jdbcTemplate.query(contains("where smo.dispatch_token = ?"), any(RowMapper.class), anyString()))
+                .thenReturn(List.of(new PendingSmsMessage(5L, "+254700000000", "Your loan is due", false, null)));
+
+        this.service.sendMessagesToGateway();
+
+        verify(this.jdbcTemplate).update("update sms_messages_outbound set dispatch_token = null where id in (?)", 5L);
+        verify(this.jdbcTemplate, never()).update(contains("set status_enum = ?"), eq(SmsMessageStatusType.FAILED.getValue()), eq(5L));
+    }
+
+    @Test
+    void triggeredMessagesWithoutProviderStayPending() {
+        final SmsCampaign campaign = mock(SmsCampaign.class);
+        final SmsMessage smsMessage = mock(SmsMessage.class);
+
+        this.service.sendTriggeredMessages(Map.<SmsCampaign, Collection<SmsMessage>>of(campaign, List.of(smsMessage)));
+
+        verify(smsMessage, never()).setStatusType(anyInt());
+        verify(this.smsMessageRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void rejectedTriggeredMessagesGoBackToPendingBeforeShutdownCompletes() {
+        final SmsCampaign campaign = mock(SmsCampaign.class);
+        when(campaign.getProviderId()).thenReturn(3L);
+        final SmsMessage smsMessage = mock(SmsMessage.class);
+        when(smsMessage.getId()).thenReturn(9L);
+        when(this.smsConfigUtils.getMessageGateWayRequestURI(anyString(), anyString()))
+                .thenThrow(new IllegalStateException("no gateway configured"));
+
+        this.service.sendTriggeredMessages(Map.<SmsCampaign, Collection<SmsMessage>>of(campaign, List.of(smsMessage)));
+        // shutting down waits for the triggered messages that were already handed over
+        this.service.onApplicationEvent(new ContextClosedEvent(mock(ApplicationContext.class)));
+
+        verify(smsMessage).setStatusType(WAITING_FOR_DELIVERY_REPORT);
+        verify(this.jdbcTemplate).update(contains("set status_enum = ? where status_enum = ?"), eq(PENDING),
+                eq(WAITING_FOR_DELIVERY_REPORT), eq(9L));
+    }
+}
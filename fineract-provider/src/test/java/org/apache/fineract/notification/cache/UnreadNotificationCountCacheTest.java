@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class UnreadNotificationCountCacheTest {
+
+    private final UnreadNotificationCountCache unreadNotificationCountCache = new UnreadNotificationCountCache();
+    private final AtomicInteger counted = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        setTenant("default");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void unreadCountIsCountedOnlyOnce() {
+        assertEquals(3, unreadCount(1L, 3));
+        assertEquals(3, unreadCount(1L, 7));
+        assertEquals(1, this.counted.get());
+    }
+
+    @Test
+    void usersOfEachTenantAreCountedSeparately() {
+        assertEquals(3, unreadCount(1L, 3));
+        setTenant("other");
+
+        assertEquals(5, unreadCount(1L, 5));
+        assertEquals(2, this.counted.get());
+    }
+
+    @Test
+    void addedNotificationsAreCountedOnceCommitted() {
+        unreadCount(1L, 3);
+        unreadCount(2L, 0);
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.unreadNotificationCountCache.notificationsAdded(List.of(1L, 2L, 3L));
+
+        assertEquals(3, unreadCount(1L, 0));
+        commit();
+        assertEquals(4, unreadCount(1L, 0));
+        assertEquals(1, unreadCount(2L, 0));
+        // a user without a cached count is counted from the database when asked
+        assertEquals(9, unreadCount(3L, 9));
+    }
+
+    @Test
+    void addedNotificationsOfRolledBackTransactionAreNotCounted() {
+        unreadCount(1L, 3);
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.unreadNotificationCountCache.notificationsAdded(List.of(1L));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        assertEquals(3, unreadCount(1L, 0));
+    }
+
+    @Test
+    void readNotificationsResetTheCount() {
+        unreadCount(1L, 3);
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.unreadNotificationCountCache.notificationsRead(1L);
+        commit();
+
+        assertEquals(0, unreadCount(1L, 3));
+    }
+
+    @Test
+    void outsideOfTransactionCountsAreAdjustedAtOnce() {
+        unreadCount(1L, 3);
+
+        this.unreadNotificationCountCache.notificationsAdded(List.of(1L));
+
+        assertEquals(4, unreadCount(1L, 0));
+    }
+
+    private int unreadCount(final Long appUserId, final int unreadInDatabase) {
+        return this.unreadNotificationCountCache.getUnreadCount(appUserId, () -> {
+            this.counted.incrementAndGet();
+            return unreadInDatabase;
+        });
+    }
+
+    private static void commit() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+    }
+
+    private static void setTenant(final String tenantIdentifier) {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, tenantIdentifier, "Default", "Asia/Kolkata", null));
+    }
+}
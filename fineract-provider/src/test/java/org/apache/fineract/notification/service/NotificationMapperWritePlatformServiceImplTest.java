@@ -0,0 +1,69 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.Collection;
+import java.util.List;
+import org.apache.fineract.notification.cache.UnreadNotificationCountCache;
+import org.apache.fineract.notification.domain.NotificationMapperRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class NotificationMapperWritePlatformServiceImplTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final UnreadNotificationCountCache unreadNotificationCountCache = mock(UnreadNotificationCountCache.class);
+    private final NotificationMapperWritePlatformServiceImpl writePlatformService = new NotificationMapperWritePlatformServiceImpl(
+            mock(NotificationMapperRepository.class), this.unreadNotificationCountCache, this.jdbcTemplate);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recipientsAreWrittenInOneBatchAndCounted() {
+        final List<Long> userIds = List.of(4L, 7L);
+
+        this.writePlatformService.createAll(12L, userIds, "2021-01-05 10:00:00");
+
+        final ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(this.jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(2, rows.getValue().size());
+        assertArrayEquals(new Object[] { 12L, 4L, "2021-01-05 10:00:00" }, rows.getValue().get(0));
+        assertArrayEquals(new Object[] { 12L, 7L, "2021-01-05 10:00:00" }, rows.getValue().get(1));
+        verify(this.unreadNotificationCountCache).notificationsAdded(userIds);
+    }
+
+    @Test
+    void notificationWithoutRecipientsWritesNothing() {
+        final Collection<Long> userIds = List.of();
+
+        this.writePlatformService.createAll(12L, userIds, "2021-01-05 10:00:00");
+
+        verify(this.jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verifyNoInteractions(this.unreadNotificationCountCache);
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.holiday.service;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.holiday.domain.Holiday;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HolidayCalendarTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2021, 1, 1);
+    private static final LocalDate LAST_DAY = LocalDate.of(2021, 12, 31);
+
+    @BeforeEach
+    void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void disjointHolidaysGiveTheHolidaysOfHolidayUtil() {
+        final List<Holiday> holidays = List.of(holiday(3L, "2021-10-02", "2021-10-02"), holiday(1L, "2021-01-26", "2021-01-27"),
+                holiday(2L, "2021-08-13", "2021-08-16"), holiday(4L, "2021-12-24", "2021-12-31"));
+
+        assertSameAsHolidayUtil(HolidayCalendar.compile(holidays), holidays);
+        assertSameAsHolidayUtil(HolidayCalendar.forOffice(1L, holidays), holidays);
+    }
+
+    @Test
+    void overlappingHolidaysGiveTheLastHolidayInListOrderAsHolidayUtilDoes() {
+        final List<Holiday> holidays = List.of(holiday(1L, "2021-03-01", "2021-03-10"), holiday(2L, "2021-03-05", "2021-03-06"),
+                holiday(3L, "2021-03-08", "2021-03-20"), holiday(4L, "2021-03-01", "2021-03-01"));
+
+        assertSameAsHolidayUtil(HolidayCalendar.compile(holidays), holidays);
+        assertSameAsHolidayUtil(HolidayCalendar.forOffice(2L, holidays), holidays);
+    }
+
+    @Test
+    void officeIndexIsSharedWithFewerHolidaysLoadedLater() {
+        final Holiday january = holiday(1L, "2021-01-26", "2021-01-27");
+        final Holiday may = holiday(2L, "2021-05-01", "2021-05-01");
+        final Holiday august = holiday(3L, "2021-08-13", "2021-08-16");
+        assertSameAsHolidayUtil(HolidayCalendar.forOffice(3L, List.of(january, may, august)), List.of(january, may, august));
+
+        final HolidayCalendar later = HolidayCalendar.forOffice(3L, List.of(august, may));
+
+        assertSameAsHolidayUtil(later, List.of(august, may));
+        assertNull(later.getApplicableHoliday(LocalDate.of(2021, 1, 26)));
+    }
+
+    @Test
+    void officeIndexIsCompiledAgainForHolidaysAddedOrMoved() {
+        final Holiday may = holiday(1L, "2021-05-01", "2021-05-01");
+        final Holiday august = holiday(2L, "2021-08-13", "2021-08-16");
+        assertSameAsHolidayUtil(HolidayCalendar.forOffice(4L, List.of(may, august)), List.of(may, august));
+
+        final Holiday movedAugust = holiday(2L, "2021-08-20", "2021-08-23");
+        assertSameAsHolidayUtil(HolidayCalendar.forOffice(4L, List.of(may, movedAugust)), List.of(may, movedAugust));
+
+        final Holiday overlappingOldAugust = holiday(3L, "2021-08-15", "2021-08-15");
+        final List<Holiday> added = List.of(may, movedAugust, overlappingOldAugust);
+        assertSameAsHolidayUtil(HolidayCalendar.forOffice(4L, added), added);
+    }
+
+    @Test
+    void officesDoNotShareHolidays() {
+        final List<Holiday> firstOffice = List.of(holiday(1L, "2021-06-01", "2021-06-05"));
+        final List<Holiday> secondOffice = List.of(holiday(2L, "2021-06-03", "2021-06-10"));
+
+        assertSameAsHolidayUtil(HolidayCalendar.forOffice(5L, firstOffice), firstOffice);
+        assertSameAsHolidayUtil(HolidayCalendar.forOffice(6L, secondOffice), secondOffice);
+        assertSameAsHolidayUtil(HolidayCalendar.forOffice(5L, firstOffice), firstOffice);
+    }
+
+    @Test
+    void unsavedHolidaysAreLookedUpWithoutTheOfficeIndex() {
+        final List<Holiday> holidays = List.of(holiday(null, "2021-04-02", "2021-04-05"), holiday(null, "2021-11-04", "2021-11-04"));
+
+        assertSameAsHolidayUtil(HolidayCalendar.forOffice(7L, holidays), holidays);
+    }
+
+    private static void assertSameAsHolidayUtil(final HolidayCalendar calendar, final List<Holiday> holidays) {
+        for (LocalDate date = FIRST_DAY; !date.isAfter(LAST_DAY); date = date.plusDays(1)) {
+            assertSame(HolidayUtil.getApplicableHoliday(date, holidays), calendar.getApplicableHoliday(date), date.toString());
+        }
+    }
+
+    private static Holiday holiday(final Long id, final String fromDate, final String toDate) {
+        final Holiday holiday = mock(Holiday.class);
+        when(holiday.getId()).thenReturn(id);
+        when(holiday.getFromDateLocalDate()).thenReturn(LocalDate.parse(fromDate));
+        when(holiday.getToDateLocalDate()).thenReturn(LocalDate.parse(toDate));
+        return holiday;
+    }
+}
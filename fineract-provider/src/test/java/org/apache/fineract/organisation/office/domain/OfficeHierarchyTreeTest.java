@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.office.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OfficeHierarchyTreeTest {
+
+    private OfficeHierarchyTree tree;
+
+    @BeforeEach
+    void setUp() {
+        // 1 -> (2 -> (4, 5), 3 -> 6)
+        final Map<Long, Long> parentIdByOfficeId = new HashMap<>();
+        parentIdByOfficeId.put(1L, null);
+        parentIdByOfficeId.put(2L, 1L);
+        parentIdByOfficeId.put(3L, 1L);
+        parentIdByOfficeId.put(4L, 2L);
+        parentIdByOfficeId.put(5L, 2L);
+        parentIdByOfficeId.put(6L, 3L);
+        this.tree = OfficeHierarchyTree.fromParents(parentIdByOfficeId);
+    }
+
+    @Test
+    void officeIdsWithinReturnsSubtree() {
+        assertEquals(6, this.tree.size());
+        assertEquals(Arrays.asList(2L, 4L, 5L), this.tree.officeIdsWithin(2L));
+        assertEquals(Arrays.asList(3L, 6L), this.tree.officeIdsWithin(3L));
+        assertEquals(Collections.singletonList(6L), this.tree.officeIdsWithin(6L));
+        assertTrue(this.tree.officeIdsWithin(99L).isEmpty());
+    }
+
+    @Test
+    void isWithinFollowsAncestry() {
+        assertTrue(this.tree.isWithin(5L, 1L));
+        assertTrue(this.tree.isWithin(5L, 2L));
+        assertTrue(this.tree.isWithin(2L, 2L));
+        assertFalse(this.tree.isWithin(6L, 2L));
+        assertFalse(this.tree.isWithin(1L, 2L));
+        assertFalse(this.tree.isWithin(99L, 1L));
+    }
+
+    @Test
+    void onlyRootCoversAllOffices() {
+        assertTrue(this.tree.coversAllOffices(1L));
+        assertFalse(this.tree.coversAllOffices(2L));
+        assertFalse(this.tree.coversAllOffices(99L));
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.office.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+class OfficeHierarchyServiceImplTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private OfficeHierarchyServiceImpl officeHierarchyService;
+
+    private final AtomicLong version = new AtomicLong(1);
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final Map<Long, Long> parentIdByOfficeId = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        this.jdbcTemplate = mock(JdbcTemplate.class);
+        this.officeHierarchyService = new OfficeHierarchyServiceImpl(mock(PlatformSecurityContext.class), this.jdbcTemplate,
+                this.nanoTime::get);
+
+        // 1 -> (2, 3)
+        this.parentIdByOfficeId.put(1L, null);
+        this.parentIdByOfficeId.put(2L, 1L);
+        this.parentIdByOfficeId.put(3L, 1L);
+
+        when(this.jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenAnswer(invocation -> this.version.get());
+        doAnswer(invocation -> {
+            final RowCallbackHandler handler = invocation.getArgument(1);
+            for (final Map.Entry<Long, Long> office : new ArrayList<>(this.parentIdByOfficeId.entrySet())) {
+                handler.processRow(office(office.getKey(), office.getValue()));
+            }
+            return null;
+        }).when(this.jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void unchangedVersionServesCachedTree() {
+        assertTrue(this.officeHierarchyService.isWithinHierarchy(2L, 1L));
+        assertTrue(this.officeHierarchyService.isWithinHierarchy(3L, 1L));
+
+        verify(this.jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class));
+        verify(this.jdbcTemplate, times(1)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    void versionChangedThroughAnotherNodeReloadsTree() {
+        assertFalse(this.officeHierarchyService.isWithinHierarchy(3L, 2L));
+
+        this.parentIdByOfficeId.put(3L, 2L);
+        this.version.incrementAndGet();
+        this.nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertTrue(this.officeHierarchyService.isWithinHierarchy(3L, 2L));
+        verify(this.jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void invalidateCacheIncrementsSharedVersion() {
+        this.officeHierarchyService.invalidateCache();
+
+        verify(this.jdbcTemplate).update("update m_office_hierarchy_version set version = version + 1 where id = 1");
+    }
+
+    private static ResultSet office(final Long id, final Long parentId) throws SQLException {
+        final ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("id")).thenReturn(id);
+        when(resultSet.getLong("parentId")).thenReturn(parentId == null ? 0L : parentId);
+        when(resultSet.wasNull()).thenReturn(parentId == null);
+        return resultSet;
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.workingdays.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import org.apache.fineract.portfolio.calendar.service.CalendarUtils;
+import org.junit.jupiter.api.Test;
+
+class WorkingWeekTest {
+
+    private static final String[] RECURRENCES = { "FREQ=WEEKLY;INTERVAL=1;BYDAY=MO,TU,WE,TH,FR",
+            "FREQ=WEEKLY;INTERVAL=1;BYDAY=MO,TU,WE,TH,FR,SA,SU", "FREQ=WEEKLY;INTERVAL=1;BYDAY=SA,SU", "FREQ=WEEKLY;BYDAY=TU,TH",
+            "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE", "FREQ=DAILY;INTERVAL=1", "FREQ=MONTHLY;INTERVAL=1;BYDAY=1MO" };
+
+    @Test
+    void workingDaysAreTheDatesTheRecurrenceRuleAllows() {
+        for (final String recurrence : RECURRENCES) {
+            final WorkingWeek week = WorkingWeek.of(recurrence);
+            for (LocalDate date = LocalDate.of(2021, 2, 1); date.isBefore(LocalDate.of(2021, 4, 1)); date = date.plusDays(1)) {
+                assertEquals(CalendarUtils.isValidRedurringDate(recurrence, date, date), week.isWorkingDay(date), recurrence + " " + date);
+            }
+        }
+    }
+
+    @Test
+    void workingWeekIsKeptByRule() {
+        final String recurrence = "FREQ=WEEKLY;INTERVAL=1;BYDAY=MO,TU,WE,TH,FR";
+
+        assertSame(WorkingWeek.of(recurrence), WorkingWeek.of(recurrence));
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.calendar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import net.fortuna.ical4j.model.Recur;
+import org.junit.jupiter.api.Test;
+
+class CalendarUtilsTest {
+
+    @Test
+    void everyCallerGetsItsOwnCopyOfTheRule() throws Exception {
+        final String rule = "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE;BYSETPOS=1";
+        final Recur first = CalendarUtils.getICalRecur(rule);
+        final Recur second = CalendarUtils.getICalRecur(rule);
+
+        assertNotSame(first, second);
+        first.getDayList().clear();
+        first.getSetPosList().clear();
+
+        final Recur third = CalendarUtils.getICalRecur(rule);
+        assertEquals(2, second.getDayList().size());
+        assertEquals(2, third.getDayList().size());
+        assertEquals(1, third.getSetPosList().size());
+        assertEquals(Recur.Frequency.WEEKLY, third.getFrequency());
+        assertEquals(2, third.getInterval());
+        assertEquals(new Recur(rule).toString(), third.toString());
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.collectionsheet.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import org.apache.fineract.infrastructure.hooks.event.HookEvent;
+import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
+import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BusinessEvents;
+import org.apache.fineract.portfolio.common.service.BusinessEventListener;
+import org.apache.fineract.portfolio.common.service.BusinessEventNotifierService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CollectionSheetSnapshotEventListenerTest {
+
+    private BusinessEventNotifierService businessEventNotifierService;
+    private CollectionSheetSnapshotService snapshotService;
+    private CollectionSheetSnapshotEventListener listener;
+
+    @BeforeEach
+    void setUp() {
+        this.businessEventNotifierService = mock(BusinessEventNotifierService.class);
+        this.snapshotService = mock(CollectionSheetSnapshotService.class);
+        when(this.snapshotService.isEnabled()).thenReturn(true);
+        this.listener = new CollectionSheetSnapshotEventListener(this.businessEventNotifierService, this.snapshotService);
+    }
+
+    @Test
+    void listensToInterestPostingRecalculationAndChargeEvents() {
+        this.listener.addListeners();
+
+        final List<BusinessEvents> loanEvents = Arrays.asList(CollectionSheetSnapshotEventListener.LOAN_EVENTS);
+        final List<BusinessEvents> savingsEvents = Arrays.asList(CollectionSheetSnapshotEventListener.SAVINGS_EVENTS);
+        assertTrue(loanEvents.contains(BusinessEvents.LOAN_INTEREST_RECALCULATION));
+        assertTrue(loanEvents.contains(BusinessEvents.LOAN_UPDATE_CHARGE));
+        assertTrue(loanEvents.contains(BusinessEvents.LOAN_DELETE_CHARGE));
+        assertTrue(savingsEvents.contains(BusinessEvents.SAVINGS_POST_INTEREST));
+        verify(this.businessEventNotifierService).addBusinessEventPostListeners(eq(BusinessEvents.SAVINGS_POST_INTEREST),
+                any(BusinessEventListener.class));
+    }
+
+    @Test
+    void meetingAttendanceInvalidatesGroup() {
+        this.listener.onApplicationEvent(event("MEETING", "{\"response\":{\"resourceId\":5,\"groupId\":12}}"));
+
+        verify(this.snapshotService).invalidateForGroup(12L);
+    }
+
+    @Test
+    void calendarUpdateInvalidatesGroupOfCalendar() {
+        this.listener.onApplicationEvent(event("CALENDAR", "{\"response\":{\"resourceId\":31}}"));
+
+        verify(this.snapshotService).invalidateForCalendar(31L);
+    }
+
+    @Test
+    void loanChargeCommandInvalidatesLoanAndClient() {
+        this.listener.onApplicationEvent(event("LOANCHARGE", "{\"clientId\":3,\"response\":{\"resourceId\":9,\"loanId\":44}}"));
+
+        verify(this.snapshotService).invalidateForLoan(44L);
+        verify(this.snapshotService).invalidateForClient(3L);
+    }
+
+    @Test
+    void accountTransferInvalidatesBothAccounts() {
+        this.listener.onApplicationEvent(event("ACCOUNTTRANSFER", "{\"request\":{\"fromAccountId\":\"7\",\"fromAccountType\":2,"
+                + "\"toAccountId\":\"8\",\"toAccountType\":1},\"response\":{\"resourceId\":100,\"savingsId\":7}}"));
+
+        verify(this.snapshotService).invalidateForLoan(8L);
+        verify(this.snapshotService, times(2)).invalidateForSavingsAccount(7L);
+    }
+
+    @Test
+    void failedCommandsAreIgnored() {
+        this.listener.onApplicationEvent(
+                event("GROUP", "{\"status\":\"Exception\",\"response\":{\"errorCode\":\"error\",\"statusCode\":400}}"));
+
+        verify(this.snapshotService).isEnabled();
+        verifyNoMoreInteractions(this.snapshotService);
+    }
+
+    @Test
+    void commandsOnEntitiesNotShownOnSheetsAreNotParsed() {
+        this.listener.onApplicationEvent(event("REPORT", "unparseable"));
+
+        verifyNoMoreInteractions(this.snapshotService);
+    }
+
+    @Test
+    void groupCommandWithoutGroupIdUsesResourceId() {
+        this.listener.onApplicationEvent(event("CENTER", "{\"response\":{\"resourceId\":2}}"));
+
+        verify(this.snapshotService).invalidateForGroup(2L);
+        verify(this.snapshotService, never()).invalidateForCalendar(anyLong());
+    }
+
+    private static HookEvent event(final String entityName, final String payload) {
+        return new HookEvent(new HookEventSource(entityName, "UPDATE"), payload, "default", null, null);
+    }
+}
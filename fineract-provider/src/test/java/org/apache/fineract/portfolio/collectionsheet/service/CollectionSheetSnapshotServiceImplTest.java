@@ -0,0 +1,178 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.collectionsheet.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.api.JsonQuery;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.portfolio.collectionsheet.data.JLGCollectionSheetData;
+import org.apache.fineract.portfolio.collectionsheet.serialization.CollectionSheetGenerateCommandFromApiJsonDeserializer;
+import org.apache.fineract.portfolio.group.service.CenterReadPlatformService;
+import org.apache.fineract.portfolio.group.service.GroupReadPlatformService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class CollectionSheetSnapshotServiceImplTest {
+
+    private static final Long GROUP_ID = 12L;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private CollectionSheetReadPlatformService collectionSheetReadPlatformService;
+    private ToApiJsonSerializer<JLGCollectionSheetData> toApiJsonSerializer;
+    private final FromJsonHelper fromJsonHelper = new FromJsonHelper();
+    private CollectionSheetSnapshotServiceImpl snapshotService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        this.jdbcTemplate = mock(JdbcTemplate.class);
+        this.transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(this.transactionTemplate).executeWithoutResult(any());
+        this.collectionSheetReadPlatformService = mock(CollectionSheetReadPlatformService.class);
+        this.toApiJsonSerializer = mock(ToApiJsonSerializer.class);
+        final ConfigurationDomainService configurationDomainService = mock(ConfigurationDomainService.class);
+        when(configurationDomainService.isCollectionSheetSnapshotEnabled()).thenReturn(true);
+        this.snapshotService = new CollectionSheetSnapshotServiceImpl(this.jdbcTemplate, this.transactionTemplate,
+                configurationDomainService, this.collectionSheetReadPlatformService,
+                mock(CollectionSheetGenerateCommandFromApiJsonDeserializer.class), mock(CenterReadPlatformService.class),
+                mock(GroupReadPlatformService.class), this.toApiJsonSerializer, this.fromJsonHelper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void snapshotIsStoredOnlyForTheGenerationReadBeforeGenerating() {
+        final String json = "{\"transactionDate\":\"2026-10-19\",\"dateFormat\":\"yyyy-MM-dd\",\"locale\":\"en\",\"calendarId\":3}";
+        final JsonQuery query = JsonQuery.from(json, this.fromJsonHelper.parse(json), this.fromJsonHelper);
+        when(this.jdbcTemplate.queryForList(contains("from m_collection_sheet_generation gen"), eq(Long.class), eq(GROUP_ID)))
+                .thenReturn(Collections.singletonList(4L));
+        when(this.toApiJsonSerializer.serialize(any())).thenReturn("{}");
+
+        assertEquals("{}", this.snapshotService.retrieveGroupCollectionSheet(GROUP_ID, query));
+
+        final InOrder inOrder = inOrder(this.jdbcTemplate, this.collectionSheetReadPlatformService);
+        inOrder.verify(this.jdbcTemplate).queryForList(contains("from m_collection_sheet_generation gen"), eq(Long.class), eq(GROUP_ID));
+        inOrder.verify(this.collectionSheetReadPlatformService).generateGroupCollectionSheet(GROUP_ID, query);
+        inOrder.verify(this.jdbcTemplate).update(contains("where ? = (select ifnull(max(gen.generation), 0)"), eq(GROUP_ID), eq(3L),
+                eq("2026-10-19"), eq("{}"), anyString(), eq(4L), eq(GROUP_ID));
+    }
+
+    @Test
+    void snapshotIsLookedUpForTheRequestedCalendar() {
+        final String json = "{\"transactionDate\":\"2026-10-19\",\"dateFormat\":\"yyyy-MM-dd\",\"locale\":\"en\",\"calendarId\":3}";
+        final JsonQuery query = JsonQuery.from(json, this.fromJsonHelper.parse(json), this.fromJsonHelper);
+        when(this.jdbcTemplate.queryForList(contains("s.calendar_id = ?"), eq(String.class), eq(GROUP_ID), eq(3L), eq("2026-10-19"),
+                anyString())).thenReturn(Collections.singletonList("{\"cached\":true}"));
+
+        assertEquals("{\"cached\":true}", this.snapshotService.retrieveGroupCollectionSheet(GROUP_ID, query));
+        verify(this.collectionSheetReadPlatformService, never()).generateGroupCollectionSheet(any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void invalidationMovesGroupsAndCentersToNextGenerationBeforeDeleting() {
+        when(this.jdbcTemplate.queryForList(contains("union select pg.parent_id"), eq(Long.class), eq(GROUP_ID), eq(GROUP_ID),
+                eq(GROUP_ID), eq(GROUP_ID))).thenReturn(new ArrayList<>(Arrays.asList(GROUP_ID, 2L)));
+
+        this.snapshotService.invalidateForGroup(GROUP_ID);
+
+        final ArgumentCaptor<List<Object[]>> generationParams = ArgumentCaptor.forClass(List.class);
+        final InOrder inOrder = inOrder(this.jdbcTemplate);
+        inOrder.verify(this.jdbcTemplate).batchUpdate(contains("generation = generation + 1"), generationParams.capture());
+        inOrder.verify(this.jdbcTemplate).batchUpdate(contains("delete from m_collection_sheet_snapshot"), any(List.class));
+        assertEquals(2, generationParams.getValue().size());
+        assertArrayEquals(new Object[] { 2L }, generationParams.getValue().get(0));
+        assertArrayEquals(new Object[] { GROUP_ID }, generationParams.getValue().get(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void invalidationWithinTransactionWaitsForCommitAndRunsOncePerGroup() {
+        when(this.jdbcTemplate.queryForList(contains("union select pg.parent_id"), eq(Long.class), any(), any(), any(), any()))
+                .thenReturn(new ArrayList<>(Arrays.asList(GROUP_ID, 2L)));
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.snapshotService.invalidateForGroup(GROUP_ID);
+        this.snapshotService.invalidateForClient(5L);
+
+        verify(this.jdbcTemplate, never()).batchUpdate(anyString(), any(List.class));
+        final List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+        synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        final ArgumentCaptor<List<Object[]>> generationParams = ArgumentCaptor.forClass(List.class);
+        verify(this.jdbcTemplate).batchUpdate(contains("generation = generation + 1"), generationParams.capture());
+        assertEquals(2, generationParams.getValue().size());
+        assertNull(TransactionSynchronizationManager.getResource(this.snapshotService));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void invalidationOfRolledBackTransactionIsDropped() {
+        when(this.jdbcTemplate.queryForList(contains("union select pg.parent_id"), eq(Long.class), any(), any(), any(), any()))
+                .thenReturn(new ArrayList<>(Arrays.asList(GROUP_ID)));
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.snapshotService.invalidateForGroup(GROUP_ID);
+        TransactionSynchronizationManager.getSynchronizations().get(0).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(this.jdbcTemplate, never()).batchUpdate(anyString(), any(List.class));
+    }
+}
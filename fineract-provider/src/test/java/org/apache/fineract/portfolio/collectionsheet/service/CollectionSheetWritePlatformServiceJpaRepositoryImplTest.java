@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.collectionsheet.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.infrastructure.core.data.ApiParameterError;
+import org.apache.fineract.portfolio.savings.DepositAccountType;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionDTO;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountStatusType;
+import org.junit.jupiter.api.Test;
+
+class CollectionSheetWritePlatformServiceJpaRepositoryImplTest {
+
+    private final Map<Long, Integer> depositTypes = new HashMap<>();
+    private final Map<Long, Integer> statuses = new HashMap<>();
+
+    @Test
+    void unknownAccountIsRejectedAlone() {
+        account(1L, DepositAccountType.RECURRING_DEPOSIT, SavingsAccountStatusType.ACTIVE);
+
+        final Map<Long, ApiParameterError> rejections = reject(deposit(1L, DepositAccountType.RECURRING_DEPOSIT),
+                deposit(2L, DepositAccountType.SAVINGS_DEPOSIT));
+
+        assertEquals(Collections.singleton(2L), rejections.keySet());
+        assertEquals("error.msg.saving.account.id.invalid", rejections.get(2L).getUserMessageGlobalisationCode());
+    }
+
+    @Test
+    void accountOfAnotherDepositTypeIsRejected() {
+        account(1L, DepositAccountType.SAVINGS_DEPOSIT, SavingsAccountStatusType.ACTIVE);
+
+        final Map<Long, ApiParameterError> rejections = reject(deposit(1L, DepositAccountType.RECURRING_DEPOSIT));
+
+        assertEquals("error.msg.saving.account.id.invalid", rejections.get(1L).getUserMessageGlobalisationCode());
+    }
+
+    @Test
+    void rejectsEveryInactiveAccountInSheetOrder() {
+        account(3L, DepositAccountType.RECURRING_DEPOSIT, SavingsAccountStatusType.MATURED);
+        account(2L, DepositAccountType.SAVINGS_DEPOSIT, SavingsAccountStatusType.ACTIVE);
+        account(1L, DepositAccountType.SAVINGS_DEPOSIT, SavingsAccountStatusType.CLOSED);
+
+        final Map<Long, ApiParameterError> rejections = reject(deposit(3L, DepositAccountType.RECURRING_DEPOSIT),
+                deposit(2L, DepositAccountType.SAVINGS_DEPOSIT), deposit(1L, DepositAccountType.SAVINGS_DEPOSIT));
+
+        assertEquals(Arrays.asList(3L, 1L), new ArrayList<>(rejections.keySet()));
+        assertEquals("error.msg.savingsaccount.transaction.account.is.not.active", rejections.get(1L).getUserMessageGlobalisationCode());
+    }
+
+    @Test
+    void activeAccountsAreNotRejected() {
+        account(1L, DepositAccountType.SAVINGS_DEPOSIT, SavingsAccountStatusType.ACTIVE);
+        account(2L, DepositAccountType.RECURRING_DEPOSIT, SavingsAccountStatusType.ACTIVE);
+
+        assertTrue(reject(deposit(1L, DepositAccountType.SAVINGS_DEPOSIT), deposit(2L, DepositAccountType.RECURRING_DEPOSIT)).isEmpty());
+    }
+
+    private Map<Long, ApiParameterError> reject(final SavingsAccountTransactionDTO... deposits) {
+        final List<SavingsAccountTransactionDTO> savingsTransactions = Arrays.asList(deposits);
+        return CollectionSheetWritePlatformServiceJpaRepositoryImpl.rejectMandatorySavingsDuePayments(savingsTransactions,
+                this.depositTypes, this.statuses);
+    }
+
+    private void account(final Long savingsId, final DepositAccountType depositType, final SavingsAccountStatusType status) {
+        this.depositTypes.put(savingsId, depositType.getValue());
+        this.statuses.put(savingsId, status.getValue());
+    }
+
+    private static SavingsAccountTransactionDTO deposit(final Long savingsId, final DepositAccountType depositType) {
+        return new SavingsAccountTransactionDTO(null, LocalDate.of(2026, 10, 19), BigDecimal.TEN, null, null, savingsId, null,
+                depositType.getValue());
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.PerEntityJob;
+import org.apache.fineract.infrastructure.jobs.service.PerEntityJobRunner;
+import org.apache.fineract.organisation.holiday.domain.Holiday;
+import org.apache.fineract.organisation.holiday.domain.HolidayRepositoryWrapper;
+import org.apache.fineract.portfolio.collectionsheet.service.CollectionSheetSnapshotService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+class LoanSchedularServiceImplTest {
+
+    private LoanReadPlatformService loanReadPlatformService;
+    private LoanWritePlatformService loanWritePlatformService;
+    private HolidayRepositoryWrapper holidayRepository;
+    private CollectionSheetSnapshotService collectionSheetSnapshotService;
+    private LoanSchedularServiceImpl service;
+    private final Map<Long, List<Long>> loansLeftByHoliday = new HashMap<>();
+    private final Set<Long> loansWithInterestRecalculation = new HashSet<>();
+    private final List<List<Long>> loansAppliedByRun = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final ConfigurationDomainService configurationDomainService = mock(ConfigurationDomainService.class);
+        when(configurationDomainService.isRescheduleRepaymentsOnHolidaysEnabled()).thenReturn(true);
+        this.loanReadPlatformService = mock(LoanReadPlatformService.class);
+        this.loanWritePlatformService = mock(LoanWritePlatformService.class);
+        this.holidayRepository = mock(HolidayRepositoryWrapper.class);
+        this.collectionSheetSnapshotService = mock(CollectionSheetSnapshotService.class);
+        final PerEntityJobRunner perEntityJobRunner = mock(PerEntityJobRunner.class);
+        this.service = new LoanSchedularServiceImpl(configurationDomainService, this.loanReadPlatformService,
+                this.loanWritePlatformService, null, null, this.holidayRepository, perEntityJobRunner,
+                this.collectionSheetSnapshotService);
+
+        // loans are read until they are recorded as moved, and recalculated where needed, like m_holiday_loan does
+        when(this.loanReadPlatformService.retrieveLoanIdsAffectedByHoliday(any(), any()))
+                .thenAnswer(invocation -> new ArrayList<>(this.loansLeftByHoliday.get(invocation.<Long>getArgument(0))));
+        doAnswer(invocation -> {
+            final Long loanId = invocation.getArgument(1);
+            if (this.loansWithInterestRecalculation.contains(loanId)) {
+                return true;
+            }
+            this.loansLeftByHoliday.get(invocation.<Long>getArgument(0)).remove(loanId);
+            return false;
+        }).when(this.loanWritePlatformService).applyHolidayToLoan(any(), any());
+        doAnswer(invocation -> this.loansLeftByHoliday.get(invocation.<Long>getArgument(0)).remove(invocation.<Long>getArgument(1)))
+                .when(this.loanWritePlatformService).completeHolidayInterestRecalculation(any(), any());
+        // moves the loans like the runner does, leaving a loan that fails for the next run
+        doAnswer(invocation -> {
+            final PerEntityJob<Long, ?> job = invocation.getArgument(0);
+            assertFalse(job.isCheckpointed());
+            final List<Long> applied = new ArrayList<>();
+            final List<Throwable> failures = new ArrayList<>();
+            for (final Long loanId : job.read()) {
+                try {
+                    job.process(loanId);
+                    applied.add(loanId);
+                } catch (RuntimeException e) {
+                    failures.add(e);
+                }
+            }
+            this.loansAppliedByRun.add(applied);
+            if (!failures.isEmpty()) {
+                throw new JobExecutionException(failures);
+            }
+            return null;
+        }).when(perEntityJobRunner).run(any());
+    }
+
+    @Test
+    void eachHolidayIsAppliedByItsIdAndCompletedOnceNoLoanIsLeft() throws Exception {
+        final List<Holiday> holidays = List.of(holiday(1L, 1L, 2L), holiday(2L, 3L));
+        when(this.holidayRepository.findUnprocessed()).thenReturn(holidays);
+
+        this.service.applyHolidaysToLoans();
+
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L)), this.loansAppliedByRun);
+        verify(this.loanWritePlatformService).applyHolidayToLoan(1L, 2L);
+        verify(this.loanWritePlatformService).applyHolidayToLoan(2L, 3L);
+        verify(this.loanWritePlatformService, never()).recalculateInterest(anyLong());
+        verify(this.collectionSheetSnapshotService).invalidateForLoan(1L);
+        verify(this.collectionSheetSnapshotService).invalidateForLoan(3L);
+        verify(this.loanWritePlatformService).completeHolidayApplication(1L);
+        verify(this.loanWritePlatformService).completeHolidayApplication(2L);
+    }
+
+    @Test
+    void interestIsRecalculatedAfterTheMoveInATransactionOfItsOwn() throws Exception {
+        final Holiday christmas = holiday(1L, 1L, 2L);
+        when(this.holidayRepository.findUnprocessed()).thenReturn(List.of(christmas));
+        this.loansWithInterestRecalculation.add(2L);
+
+        this.service.applyHolidaysToLoans();
+
+        final InOrder inOrder = inOrder(this.loanWritePlatformService);
+        inOrder.verify(this.loanWritePlatformService).applyHolidayToLoan(1L, 2L);
+        inOrder.verify(this.loanWritePlatformService).recalculateInterest(2L);
+        inOrder.verify(this.loanWritePlatformService).completeHolidayInterestRecalculation(1L, 2L);
+        inOrder.verify(this.loanWritePlatformService).completeHolidayApplication(1L);
+        verify(this.loanWritePlatformService, never()).recalculateInterest(1L);
+    }
+
+    @Test
+    void aLoanWhoseInterestFailsToRecalculateKeepsItsHolidayOpen() throws Exception {
+        final Holiday christmas = holiday(1L, 1L, 2L);
+        when(this.holidayRepository.findUnprocessed()).thenReturn(List.of(christmas));
+        this.loansWithInterestRecalculation.add(2L);
+        final IllegalStateException failure = new IllegalStateException("interest could not be recalculated");
+        doThrow(failure).when(this.loanWritePlatformService).recalculateInterest(2L);
+
+        final JobExecutionException exception = assertThrows(JobExecutionException.class, this.service::applyHolidaysToLoans);
+
+        assertEquals(List.of(failure), exception.getCauses());
+        assertEquals(List.of(2L), this.loansLeftByHoliday.get(1L));
+        verify(this.loanWritePlatformService, never()).completeHolidayInterestRecalculation(any(), any());
+        verify(this.loanWritePlatformService, never()).completeHolidayApplication(1L);
+    }
+
+    @Test
+    void aFailingLoanDoesNotHoldUpLaterHolidays() throws Exception {
+        final List<Holiday> holidays = List.of(holiday(1L, 1L, 2L), holiday(2L, 3L));
+        when(this.holidayRepository.findUnprocessed()).thenReturn(holidays);
+        final IllegalStateException failure = new IllegalStateException("schedule could not be moved");
+        doThrow(failure).when(this.loanWritePlatformService).applyHolidayToLoan(1L, 1L);
+
+        final JobExecutionException exception = assertThrows(JobExecutionException.class, this.service::applyHolidaysToLoans);
+
+        assertEquals(List.of(failure), exception.getCauses());
+        assertEquals(List.of(List.of(2L), List.of(3L)), this.loansAppliedByRun);
+        verify(this.collectionSheetSnapshotService, never()).invalidateForLoan(1L);
+        verify(this.loanWritePlatformService, never()).completeHolidayApplication(1L);
+        verify(this.loanWritePlatformService).completeHolidayApplication(2L);
+    }
+
+    private Holiday holiday(final Long holidayId, final Long... loanIds) {
+        final Holiday holiday = mock(Holiday.class);
+        when(holiday.getId()).thenReturn(holidayId);
+        when(holiday.getFromDateLocalDate()).thenReturn(LocalDate.of(2020, 12, 25));
+        this.loansLeftByHoliday.put(holidayId, new ArrayList<>(List.of(loanIds)));
+        return holiday;
+    }
+}
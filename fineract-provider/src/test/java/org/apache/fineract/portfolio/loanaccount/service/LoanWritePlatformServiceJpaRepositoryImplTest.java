@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.apache.fineract.portfolio.collectionsheet.command.SingleRepaymentCommand;
+import org.apache.fineract.portfolio.loanaccount.data.HolidayDetailDTO;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.portfolio.loanaccount.exception.LoanNotFoundException;
+import org.junit.jupiter.api.Test;
+
+class LoanWritePlatformServiceJpaRepositoryImplTest {
+
+    private static final LocalDate TRANSACTION_DATE = LocalDate.of(2026, 10, 19);
+
+    private final Map<Long, Loan> loans = new HashMap<>();
+    private final List<Long> officesLookedUp = new ArrayList<>();
+
+    @Test
+    void missingLoanFailsWithNotFoundBeforeDateChecks() {
+        final Loan loan = loan(1L, 10L);
+        doThrow(new GeneralPlatformDomainRuleException("error.msg.loan.transaction.on.holiday", "On holiday")).when(loan)
+                .validateRepaymentDateIsOnHoliday(any(), anyBoolean(), any());
+
+        assertThrows(LoanNotFoundException.class, () -> validate(repayment(1L), repayment(2L)));
+        assertEquals(0, this.officesLookedUp.size());
+    }
+
+    @Test
+    void reportsEveryLoanWithAnInvalidRepaymentDate() {
+        final Loan onHoliday = loan(1L, 10L);
+        loan(2L, 10L);
+        final Loan onNonWorkingDay = loan(3L, 20L);
+        doThrow(new GeneralPlatformDomainRuleException("error.msg.loan.transaction.on.holiday", "On holiday")).when(onHoliday)
+                .validateRepaymentDateIsOnHoliday(any(), anyBoolean(), any());
+        doThrow(new GeneralPlatformDomainRuleException("error.msg.loan.transaction.on.nonworking.day", "On non working day"))
+                .when(onNonWorkingDay).validateRepaymentDateIsOnNonWorkingDay(any(), any(), anyBoolean());
+
+        final PlatformApiDataValidationException exception = assertThrows(PlatformApiDataValidationException.class,
+                () -> validate(repayment(1L), null, repayment(2L), repayment(3L)));
+
+        assertEquals(2, exception.getErrors().size());
+        assertEquals("error.msg.loan.transaction.on.holiday", exception.getErrors().get(0).getUserMessageGlobalisationCode());
+        assertEquals(1L, exception.getErrors().get(0).getValue());
+        assertEquals("error.msg.loan.transaction.on.nonworking.day", exception.getErrors().get(1).getUserMessageGlobalisationCode());
+        assertEquals(3L, exception.getErrors().get(1).getValue());
+    }
+
+    @Test
+    void holidaysAreLookedUpPerOfficeOfEachLoan() {
+        loan(1L, 10L);
+        loan(2L, 20L);
+
+        validate(repayment(1L), repayment(2L));
+
+        assertEquals(List.of(10L, 20L), this.officesLookedUp);
+    }
+
+    private void validate(final SingleRepaymentCommand... repayments) {
+        LoanWritePlatformServiceJpaRepositoryImpl.validateBulkRepayments(repayments, this.loans, TRANSACTION_DATE, officeId -> {
+            this.officesLookedUp.add(officeId);
+            return new HolidayDetailDTO(false, new ArrayList<>(), null, false, false);
+        });
+    }
+
+    private Loan loan(final Long loanId, final Long officeId) {
+        final Loan loan = mock(Loan.class);
+        when(loan.getOfficeId()).thenReturn(officeId);
+        this.loans.put(loanId, loan);
+        return loan;
+    }
+
+    private static SingleRepaymentCommand repayment(final Long loanId) {
+        return new SingleRepaymentCommand(loanId, BigDecimal.TEN, TRANSACTION_DATE, null);
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.fineract.infrastructure.core.data.DataValidatorBuilder;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.portfolio.client.domain.Client;
+import org.apache.fineract.portfolio.common.domain.ConditionType;
+import org.apache.fineract.portfolio.interestratechart.domain.InterestIncentivesFields;
+import org.apache.fineract.portfolio.interestratechart.domain.InterestRateChartSlabFields;
+import org.apache.fineract.portfolio.interestratechart.incentive.AttributeIncentiveCalculation;
+import org.apache.fineract.portfolio.interestratechart.incentive.AttributeIncentiveCalculationFactory;
+import org.apache.fineract.portfolio.interestratechart.incentive.IncentiveDTO;
+import org.apache.fineract.portfolio.interestratechart.incentive.InterestIncentiveAttributeName;
+import org.apache.fineract.portfolio.interestratechart.incentive.InterestIncentiveEntityType;
+import org.apache.fineract.portfolio.interestratechart.incentive.InterestIncentiveType;
+import org.apache.fineract.portfolio.savings.SavingsPeriodFrequencyType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class DepositAccountInterestRateChartLookupTest {
+
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+    private static final List<BigDecimal> AMOUNTS = Arrays.asList(BigDecimal.ZERO, new BigDecimal("500"), new BigDecimal("999.99"),
+            new BigDecimal("1000"), new BigDecimal("2500"), new BigDecimal("5000"), new BigDecimal("100000"));
+
+    @BeforeEach
+    void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void disjointSlabsGiveTheRatesOfTheLinearScan() {
+        final Set<DepositAccountInterestRateChartSlabs> chartSlabs = new LinkedHashSet<>();
+        int rate = 4;
+        for (final int[] periods : new int[][] { { 1, 6 }, { 7, 12 }, { 13, 24 } }) {
+            chartSlabs.add(slab(periods[0], periods[1], BigDecimal.ZERO, new BigDecimal("999.99"), rate++, ageAndGenderIncentives()));
+            chartSlabs.add(slab(periods[0], periods[1], new BigDecimal("1000"), new BigDecimal("4999.99"), rate++,
+                    typeAndClassificationIncentives()));
+            chartSlabs.add(slab(periods[0], periods[1], new BigDecimal("5000"), null, rate++, allIncentives()));
+        }
+        chartSlabs.add(slab(25, null, null, null, rate, allIncentives()));
+
+        assertSameRatesAsLinearScan(chartSlabs);
+    }
+
+    @Test
+    void overlappingSlabsGiveTheRatesOfTheLinearScan() {
+        final Set<DepositAccountInterestRateChartSlabs> chartSlabs = new LinkedHashSet<>();
+        chartSlabs.add(slab(1, 12, null, null, 5, allIncentives()));
+        chartSlabs.add(slab(6, 18, new BigDecimal("1000"), new BigDecimal("9999.99"), 6, typeAndClassificationIncentives()));
+        chartSlabs.add(slab(1, 3, new BigDecimal("500"), null, 7, ageAndGenderIncentives()));
+        chartSlabs.add(slab(10, 30, null, new BigDecimal("2500"), 8, allIncentives()));
+
+        assertSameRatesAsLinearScan(chartSlabs);
+    }
+
+    private static void assertSameRatesAsLinearScan(final Set<DepositAccountInterestRateChartSlabs> chartSlabs) {
+        final DepositAccountInterestRateChartLookup lookup = DepositAccountInterestRateChartLookup.compile(chartSlabs);
+        final List<Client> clients = Arrays.asList(client(10L, 70, 20L, 30L), client(11L, 30, 20L, 31L), client(10L, 40, 21L, 30L),
+                client(null, null, null, null));
+        for (final Client client : clients) {
+            for (final BigDecimal amount : AMOUNTS) {
+                for (int months = 0; months <= 36; months++) {
+                    final LocalDate end = START.plusMonths(months);
+                    final BigDecimal expected = linearScan(chartSlabs, amount, START, end, client);
+                    final BigDecimal actual = lookup.applicableInterestRate(amount, START, end, client);
+                    assertEquals(0, expected.compareTo(actual), "amount " + amount + " over " + months + " months: expected " + expected
+                            + " but was " + actual);
+                }
+            }
+        }
+    }
+
+    /**
+     * The rate as it was found before the chart was compiled: every slab is checked, the last matching one winning, and
+     * its incentives are applied in the order of the chart.
+     */
+    private static BigDecimal linearScan(final Set<DepositAccountInterestRateChartSlabs> chartSlabs, final BigDecimal depositAmount,
+            final LocalDate periodStartDate, final LocalDate periodEndDate, final Client client) {
+        BigDecimal effectiveInterestRate = BigDecimal.ZERO;
+        for (DepositAccountInterestRateChartSlabs slab : chartSlabs) {
+            if (slab.slabFields().isBetweenPeriod(periodStartDate, periodEndDate) && slab.slabFields().isAmountBetween(depositAmount)) {
+                effectiveInterestRate = slab.slabFields().annualInterestRate();
+                for (DepositAccountInterestIncentives incentives : slab.setOfIncentives()) {
+                    AttributeIncentiveCalculation attributeIncentiveCalculation = AttributeIncentiveCalculationFactory
+                            .findAttributeIncentiveCalculation(incentives.interestIncentivesFields().entiryType());
+                    IncentiveDTO incentiveDTO = new IncentiveDTO(client, effectiveInterestRate, incentives.interestIncentivesFields());
+                    effectiveInterestRate = attributeIncentiveCalculation.calculateIncentive(incentiveDTO);
+                }
+                if (effectiveInterestRate == null || effectiveInterestRate.compareTo(BigDecimal.ZERO) == 0) {
+                    effectiveInterestRate = slab.slabFields().annualInterestRate();
+                }
+            }
+        }
+        return effectiveInterestRate;
+    }
+
+    private static DepositAccountInterestRateChartSlabs slab(final Integer fromPeriod, final Integer toPeriod, final BigDecimal amountFrom,
+            final BigDecimal amountTo, final int annualInterestRate, final List<InterestIncentivesFields> incentives) {
+        final DepositAccountInterestRateChartSlabs chartSlab = new DepositAccountInterestRateChartSlabs();
+        ReflectionTestUtils.setField(chartSlab, "slabFields", InterestRateChartSlabFields.createNew(null, SavingsPeriodFrequencyType.MONTHS,
+                fromPeriod, toPeriod, amountFrom, amountTo, BigDecimal.valueOf(annualInterestRate), "USD"));
+        final Set<DepositAccountInterestIncentives> slabIncentives = new LinkedHashSet<>();
+        for (final InterestIncentivesFields incentive : incentives) {
+            slabIncentives.add(DepositAccountInterestIncentives.from(chartSlab, incentive));
+        }
+        ReflectionTestUtils.setField(chartSlab, "interestIncentives", slabIncentives);
+        return chartSlab;
+    }
+
+    // incentives on different attributes interleaved, with a fixed rate between additions so that their order matters
+    private static List<InterestIncentivesFields> allIncentives() {
+        return Arrays.asList(
+                incentive(InterestIncentiveAttributeName.GENDER, ConditionType.EQUAL, "10", InterestIncentiveType.INCENTIVE, "0.5"),
+                incentive(InterestIncentiveAttributeName.CLIENT_TYPE, ConditionType.EQUAL, "20", InterestIncentiveType.FIXED, "9"),
+                incentive(InterestIncentiveAttributeName.AGE, ConditionType.GRETERTHAN, "60", InterestIncentiveType.INCENTIVE, "1"),
+                incentive(InterestIncentiveAttributeName.CLIENT_CLASSIFICATION, ConditionType.NOT_EQUAL, "30",
+                        InterestIncentiveType.INCENTIVE, "0.25"),
+                incentive(InterestIncentiveAttributeName.GENDER, ConditionType.NOT_EQUAL, "10", InterestIncentiveType.FIXED, "3"));
+    }
+
+    private static List<InterestIncentivesFields> ageAndGenderIncentives() {
+        return Arrays.asList(incentive(InterestIncentiveAttributeName.AGE, ConditionType.LESSTHAN, "35", InterestIncentiveType.FIXED, "2"),
+                incentive(InterestIncentiveAttributeName.GENDER, ConditionType.EQUAL, "10", InterestIncentiveType.INCENTIVE, "0.75"));
+    }
+
+    private static List<InterestIncentivesFields> typeAndClassificationIncentives() {
+        return Arrays.asList(
+                incentive(InterestIncentiveAttributeName.CLIENT_CLASSIFICATION, ConditionType.EQUAL, "30", InterestIncentiveType.INCENTIVE,
+                        "1.5"),
+                incentive(InterestIncentiveAttributeName.CLIENT_TYPE, ConditionType.NOT_EQUAL, "20", InterestIncentiveType.FIXED, "6"));
+    }
+
+    private static InterestIncentivesFields incentive(final InterestIncentiveAttributeName attributeName, final ConditionType conditionType,
+            final String attributeValue, final InterestIncentiveType incentiveType, final String amount) {
+        return InterestIncentivesFields.createNew(InterestIncentiveEntityType.CUSTOMER.getValue(), attributeName.getValue(),
+                conditionType.getValue(), attributeValue, incentiveType.getValue(), new BigDecimal(amount),
+                new DataValidatorBuilder(new ArrayList<>()));
+    }
+
+    private static Client client(final Long genderId, final Integer age, final Long clientTypeId, final Long clientClassificationId) {
+        final Client client = mock(Client.class);
+        when(client.genderId()).thenReturn(genderId);
+        when(client.clientTypeId()).thenReturn(clientTypeId);
+        when(client.clientClassificationId()).thenReturn(clientClassificationId);
+        if (age != null) {
+            final ZoneId tenantZone = ZoneId.of("Asia/Kolkata");
+            when(client.dateOfBirth()).thenReturn(Date.from(LocalDate.now(tenantZone).minusYears(age).minusDays(1)
+                    .atStartOfDay(tenantZone).toInstant()));
+        }
+        return client;
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import static org.apache.fineract.portfolio.savings.domain.SavingsAccountTestHelper.CURRENCY;
+import static org.apache.fineract.portfolio.savings.domain.SavingsAccountTestHelper.activeSavingsAccount;
+import static org.apache.fineract.portfolio.savings.domain.SavingsAccountTestHelper.deposit;
+import static org.apache.fineract.portfolio.savings.domain.SavingsAccountTestHelper.save;
+import static org.apache.fineract.portfolio.savings.domain.SavingsAccountTestHelper.withdrawal;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDate;
+import java.util.List;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class SavingsAccountAppendedTransactionTest {
+
+    private static final MathContext MC = MathContext.DECIMAL64;
+    private static final LocalDate ACTIVATION = LocalDate.of(2020, 1, 1);
+    private static final LocalDate POSTED_UP_TO = LocalDate.of(2020, 4, 10);
+    private static final LocalDate APPENDED_ON = LocalDate.of(2020, 5, 2);
+    private static final LocalDate CALCULATED_UP_TO = LocalDate.of(2020, 5, 20);
+
+    @BeforeEach
+    void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void appendedDepositMatchesFullRecalculation() {
+        final SavingsAccount appended = accountWithHistory();
+        final SavingsAccount full = accountWithHistory();
+
+        final SavingsAccountTransaction deposit = deposit(appended, APPENDED_ON, 300);
+        appended.getSummary().updateForAppendedTransaction(CURRENCY, deposit);
+        assertTrue(appended.appendToDailyBalances(deposit, CALCULATED_UP_TO));
+        appended.calculateInterestOnDerivedBalances(MC, CALCULATED_UP_TO, false, false, 1, null);
+
+        deposit(full, APPENDED_ON, 300);
+        recalculateInFull(full);
+
+        assertSameBalances(full, appended);
+    }
+
+    @Test
+    void appendedWithdrawalMatchesFullRecalculation() {
+        final SavingsAccount appended = accountWithHistory();
+        final SavingsAccount full = accountWithHistory();
+
+        final SavingsAccountTransaction withdrawal = withdrawal(appended, APPENDED_ON, 100);
+        appended.getSummary().updateForAppendedTransaction(CURRENCY, withdrawal);
+        assertTrue(appended.appendToDailyBalances(withdrawal, CALCULATED_UP_TO));
+        appended.calculateInterestOnDerivedBalances(MC, CALCULATED_UP_TO, false, false, 1, null);
+
+        withdrawal(full, APPENDED_ON, 100);
+        recalculateInFull(full);
+
+        assertSameBalances(full, appended);
+    }
+
+    @Test
+    void backdatedTransactionIsNotAppended() {
+        final SavingsAccount account = accountWithHistory();
+
+        final SavingsAccountTransaction deposit = deposit(account, LocalDate.of(2020, 3, 20), 300);
+
+        assertFalse(account.appendToDailyBalances(deposit, CALCULATED_UP_TO));
+        assertFalse(deposit.hasRunningBalance());
+    }
+
+    /**
+     * An account with a withdrawal added after the later deposit it sorts before and interest posted up to
+     * {@link #POSTED_UP_TO}, so that its balances are derived and it has an interest checkpoint.
+     */
+    private static SavingsAccount accountWithHistory() {
+        final SavingsAccount account = activeSavingsAccount(ACTIVATION);
+        deposit(account, ACTIVATION, 1000);
+        deposit(account, LocalDate.of(2020, 3, 15), 500);
+        withdrawal(account, LocalDate.of(2020, 2, 10), 200);
+        save(account);
+        account.postInterest(MC, POSTED_UP_TO, false, false, 1, null);
+        save(account);
+        return account;
+    }
+
+    private static void recalculateInFull(final SavingsAccount account) {
+        ReflectionTestUtils.setField(account, "interestCheckpoint", null);
+        account.calculateInterestUsing(MC, CALCULATED_UP_TO, false, false, 1, null);
+    }
+
+    private static void assertSameBalances(final SavingsAccount expected, final SavingsAccount actual) {
+        final List<SavingsAccountTransaction> expectedTransactions = expected.retreiveListOfTransactions();
+        final List<SavingsAccountTransaction> actualTransactions = actual.retreiveListOfTransactions();
+        assertEquals(expectedTransactions.size(), actualTransactions.size());
+        for (int i = 0; i < expectedTransactions.size(); i++) {
+            final SavingsAccountTransaction expectedTransaction = expectedTransactions.get(i);
+            final SavingsAccountTransaction actualTransaction = actualTransactions.get(i);
+            assertEquals(expectedTransaction.transactionLocalDate(), actualTransaction.transactionLocalDate());
+            assertSameAmount(expectedTransaction.getRunningBalance(CURRENCY).getAmount(),
+                    actualTransaction.getRunningBalance(CURRENCY).getAmount());
+            assertSameAmount(field(expectedTransaction, "cumulativeBalance"), field(actualTransaction, "cumulativeBalance"));
+            assertEquals(expectedTransaction.getEndOfBalanceLocalDate(), actualTransaction.getEndOfBalanceLocalDate());
+            assertEquals(ReflectionTestUtils.getField(expectedTransaction, "balanceNumberOfDays"),
+                    ReflectionTestUtils.getField(actualTransaction, "balanceNumberOfDays"));
+        }
+        for (final String total : new String[] { "accountBalance", "totalDeposits", "totalWithdrawals", "totalInterestEarned" }) {
+            assertSameAmount(field(expected.getSummary(), total), field(actual.getSummary(), total));
+        }
+    }
+
+    private static BigDecimal field(final Object target, final String name) {
+        return (BigDecimal) ReflectionTestUtils.getField(target, name);
+    }
+
+    private static void assertSameAmount(final BigDecimal expected, final BigDecimal actual) {
+        if (expected == null || actual == null) {
+            assertEquals(expected, actual);
+        } else {
+            assertEquals(0, expected.compareTo(actual));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import static org.apache.fineract.portfolio.savings.domain.SavingsAccountTestHelper.CURRENCY;
+import static org.apache.fineract.portfolio.savings.domain.SavingsAccountTestHelper.activeSavingsAccount;
+import static org.apache.fineract.portfolio.savings.domain.SavingsAccountTestHelper.deposit;
+import static org.apache.fineract.portfolio.savings.domain.SavingsAccountTestHelper.save;
+import static org.apache.fineract.portfolio.savings.domain.SavingsAccountTestHelper.withdrawal;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.portfolio.savings.SavingsAccountTransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class SavingsAccountSortedTransactionsTest {
+
+    private static final LocalDate ACTIVATION = LocalDate.of(2020, 1, 1);
+
+    @BeforeEach
+    void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void backdatedTransactionsAreSortedIntoPlace() {
+        final SavingsAccount account = activeSavingsAccount(ACTIVATION);
+        deposit(account, LocalDate.of(2020, 3, 1), 500);
+        deposit(account, LocalDate.of(2020, 1, 10), 200);
+        assertSorted(account);
+
+        withdrawal(account, LocalDate.of(2020, 2, 1), 50);
+        deposit(account, LocalDate.of(2020, 1, 5), 100);
+        deposit(account, LocalDate.of(2020, 3, 1), 25);
+        save(account);
+
+        assertSorted(account);
+        assertEquals(LocalDate.of(2020, 1, 5), account.retreiveListOfTransactions().get(0).transactionLocalDate());
+    }
+
+    @Test
+    void escheatTransactionIsSortedLast() {
+        final SavingsAccount account = activeSavingsAccount(ACTIVATION);
+        deposit(account, LocalDate.of(2020, 2, 1), 500);
+        deposit(account, LocalDate.of(2020, 1, 10), 200);
+        save(account);
+        account.getSummary().updateSummary(CURRENCY, new SavingsAccountTransactionSummaryWrapper(), account.getTransactions());
+        assertSorted(account);
+
+        account.escheat(null);
+
+        final List<SavingsAccountTransaction> sorted = account.retreiveListOfTransactions();
+        assertEquals(3, sorted.size());
+        assertEquals(SavingsAccountTransactionType.ESCHEAT.getValue(), sorted.get(2).getTypeOf());
+        assertSorted(account);
+    }
+
+    @Test
+    void transactionsReplacedByAsManyOthersAreSortedAgain() {
+        final SavingsAccount account = activeSavingsAccount(ACTIVATION);
+        deposit(account, LocalDate.of(2020, 2, 1), 500);
+        deposit(account, LocalDate.of(2020, 1, 10), 200);
+        save(account);
+        assertSorted(account);
+        final SavingsAccount other = activeSavingsAccount(ACTIVATION);
+        deposit(other, LocalDate.of(2020, 1, 20), 300);
+        deposit(other, LocalDate.of(2020, 1, 5), 100);
+
+        // as the persistence layer does when it loads the transactions again
+        ReflectionTestUtils.setField(account, "transactions", new ArrayList<>(other.getTransactions()));
+
+        assertSorted(account);
+        assertEquals(LocalDate.of(2020, 1, 5), account.retreiveListOfTransactions().get(0).transactionLocalDate());
+    }
+
+    @Test
+    void transactionsChangedInPlaceAreSortedAgainOnceLoaded() {
+        final SavingsAccount account = activeSavingsAccount(ACTIVATION);
+        deposit(account, LocalDate.of(2020, 2, 1), 500);
+        deposit(account, LocalDate.of(2020, 1, 10), 200);
+        save(account);
+        assertSorted(account);
+        final SavingsAccount other = activeSavingsAccount(ACTIVATION);
+        final SavingsAccountTransaction replacement = deposit(other, LocalDate.of(2020, 3, 1), 300);
+
+        account.getTransactions().set(1, replacement);
+        account.clearTransactionsSorted();
+
+        assertSorted(account);
+        assertSame(replacement, account.retreiveListOfTransactions().get(1));
+    }
+
+    private static void assertSorted(final SavingsAccount account) {
+        final List<SavingsAccountTransaction> expected = new ArrayList<>(account.getTransactions());
+        Collections.sort(expected, new SavingsAccountTransactionComparator());
+        final List<SavingsAccountTransaction> sorted = account.retreiveListOfTransactions();
+        assertEquals(expected.size(), sorted.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), sorted.get(i));
+        }
+    }
+}
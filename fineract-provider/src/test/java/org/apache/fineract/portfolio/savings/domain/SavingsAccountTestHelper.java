@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.portfolio.account.service.AccountTransfersReadPlatformService;
+import org.apache.fineract.portfolio.accountdetails.domain.AccountType;
+import org.apache.fineract.portfolio.savings.DepositAccountType;
+import org.apache.fineract.portfolio.savings.SavingsCompoundingInterestPeriodType;
+import org.apache.fineract.portfolio.savings.SavingsInterestCalculationDaysInYearType;
+import org.apache.fineract.portfolio.savings.SavingsInterestCalculationType;
+import org.apache.fineract.portfolio.savings.SavingsPostingInterestPeriodType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Builds active savings deposit accounts with monthly posted, daily compounded interest and their transactions, without a
+ * database. Transactions get an id once {@link #save(SavingsAccount)} is called, as they would when the account is
+ * saved.
+ */
+final class SavingsAccountTestHelper {
+
+    static final MonetaryCurrency CURRENCY = new MonetaryCurrency("USD", 2, null);
+
+    private SavingsAccountTestHelper() {}
+
+    static SavingsAccount activeSavingsAccount(final LocalDate activatedOn) {
+        final SavingsProduct product = mock(SavingsProduct.class);
+        when(product.currency()).thenReturn(CURRENCY);
+        final SavingsAccount account = SavingsAccount.createNewApplicationForSubmittal(null, null, product, null, "000000001", null,
+                AccountType.INDIVIDUAL, activatedOn, null, BigDecimal.valueOf(10), SavingsCompoundingInterestPeriodType.DAILY,
+                SavingsPostingInterestPeriodType.MONTHLY, SavingsInterestCalculationType.DAILY_BALANCE,
+                SavingsInterestCalculationDaysInYearType.DAYS_365, null, null, null, false, null, false, null, false, null, null, null,
+                false);
+        ReflectionTestUtils.setField(account, "depositType", DepositAccountType.SAVINGS_DEPOSIT.getValue());
+        ReflectionTestUtils.setField(account, "activatedOnDate", toDate(activatedOn));
+        account.setHelpers(new SavingsAccountTransactionSummaryWrapper(),
+                new SavingsHelper(mock(AccountTransfersReadPlatformService.class)));
+        return account;
+    }
+
+    static SavingsAccountTransaction deposit(final SavingsAccount account, final LocalDate date, final long amount) {
+        final SavingsAccountTransaction transaction = SavingsAccountTransaction.deposit(account, null, null, date,
+                Money.of(CURRENCY, BigDecimal.valueOf(amount)), toDate(date), null);
+        account.addTransaction(transaction);
+        return transaction;
+    }
+
+    static SavingsAccountTransaction withdrawal(final SavingsAccount account, final LocalDate date, final long amount) {
+        final SavingsAccountTransaction transaction = SavingsAccountTransaction.withdrawal(account, null, null, date,
+                Money.of(CURRENCY, BigDecimal.valueOf(amount)), toDate(date), null);
+        account.addTransaction(transaction);
+        return transaction;
+    }
+
+    /**
+     * Gives the transactions added since the last save an id.
+     */
+    static void save(final SavingsAccount account) {
+        long lastId = 0;
+        for (final SavingsAccountTransaction transaction : account.getTransactions()) {
+            if (transaction.getId() != null) {
+                lastId = Math.max(lastId, transaction.getId());
+            }
+        }
+        for (final SavingsAccountTransaction transaction : account.getTransactions()) {
+            if (transaction.getId() == null) {
+                ReflectionTestUtils.setField(transaction, "id", ++lastId);
+            }
+        }
+    }
+
+    private static Date toDate(final LocalDate date) {
+        return Date.from(date.atStartOfDay(DateUtils.getDateTimeZoneOfTenant()).toInstant());
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import static org.apache.fineract.portfolio.savings.domain.SavingsAccountTestHelper.activeSavingsAccount;
+import static org.apache.fineract.portfolio.savings.domain.SavingsAccountTestHelper.deposit;
+import static org.apache.fineract.portfolio.savings.domain.SavingsAccountTestHelper.save;
+import static org.apache.fineract.portfolio.savings.domain.SavingsAccountTestHelper.withdrawal;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDate;
+import java.util.List;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriod;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class SavingsInterestCheckpointTest {
+
+    private static final MathContext MC = MathContext.DECIMAL64;
+    private static final LocalDate ACTIVATION = LocalDate.of(2020, 1, 1);
+    private static final LocalDate POSTED_UP_TO = LocalDate.of(2020, 4, 10);
+    private static final LocalDate CHECKPOINT = LocalDate.of(2020, 3, 31);
+    private static final LocalDate CALCULATED_UP_TO = LocalDate.of(2020, 6, 15);
+
+    @BeforeEach
+    void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void resumedCalculationMatchesFullCalculation() {
+        final SavingsAccount checkpointed = accountWithPostedInterest();
+        final SavingsAccount full = withoutCheckpoint(accountWithPostedInterest());
+        for (final SavingsAccount account : new SavingsAccount[] { checkpointed, full }) {
+            deposit(account, LocalDate.of(2020, 4, 20), 300);
+            save(account);
+        }
+
+        final List<PostingPeriod> resumedPeriods = calculate(checkpointed);
+        final List<PostingPeriod> allPeriods = calculate(full);
+
+        assertEquals(CHECKPOINT.plusDays(1), resumedPeriods.get(0).getPeriodInterval().startDate());
+        assertSamePeriodsAfterCheckpoint(allPeriods, resumedPeriods);
+        assertSameInterestEarned(full, checkpointed);
+    }
+
+    @Test
+    void backdatedTransactionInvalidatesTheCheckpoint() {
+        final SavingsAccount checkpointed = accountWithPostedInterest();
+        final SavingsAccount full = withoutCheckpoint(accountWithPostedInterest());
+        for (final SavingsAccount account : new SavingsAccount[] { checkpointed, full }) {
+            deposit(account, LocalDate.of(2020, 3, 10), 400);
+            save(account);
+        }
+
+        final List<PostingPeriod> periods = calculate(checkpointed);
+
+        assertEquals(ACTIVATION, periods.get(0).getPeriodInterval().startDate());
+        assertSamePeriods(calculate(full), periods);
+        assertSameInterestEarned(full, checkpointed);
+    }
+
+    @Test
+    void reversalBeforeTheCheckpointInvalidatesIt() {
+        final SavingsAccount checkpointed = accountWithPostedInterest();
+        final SavingsAccount full = withoutCheckpoint(accountWithPostedInterest());
+        for (final SavingsAccount account : new SavingsAccount[] { checkpointed, full }) {
+            for (final SavingsAccountTransaction transaction : account.getTransactions()) {
+                if (transaction.isWithdrawal()) {
+                    transaction.reverse();
+                }
+            }
+        }
+
+        final List<PostingPeriod> periods = calculate(checkpointed);
+
+        assertEquals(ACTIVATION, periods.get(0).getPeriodInterval().startDate());
+        assertSamePeriods(calculate(full), periods);
+        assertSameInterestEarned(full, checkpointed);
+    }
+
+    @Test
+    void checkpointTakenBeforeTheTransactionsHaveIdsHoldsOnceTheyAreSaved() {
+        final SavingsAccount account = activeSavingsAccount(ACTIVATION);
+        deposit(account, ACTIVATION, 1000);
+        withdrawal(account, LocalDate.of(2020, 2, 10), 200);
+        deposit(account, LocalDate.of(2020, 3, 15), 500);
+        account.postInterest(MC, POSTED_UP_TO, false, false, 1, null);
+        save(account);
+
+        final List<PostingPeriod> periods = calculate(account);
+
+        assertEquals(CHECKPOINT.plusDays(1), periods.get(0).getPeriodInterval().startDate());
+        assertSamePeriodsAfterCheckpoint(calculate(withoutCheckpoint(accountWithPostedInterest())), periods);
+    }
+
+    /**
+     * An account with interest posted up to {@link #POSTED_UP_TO}, which leaves a checkpoint at the end of March.
+     */
+    private static SavingsAccount accountWithPostedInterest() {
+        final SavingsAccount account = activeSavingsAccount(ACTIVATION);
+        deposit(account, ACTIVATION, 1000);
+        withdrawal(account, LocalDate.of(2020, 2, 10), 200);
+        deposit(account, LocalDate.of(2020, 3, 15), 500);
+        save(account);
+        account.postInterest(MC, POSTED_UP_TO, false, false, 1, null);
+        save(account);
+        final SavingsInterestCheckpoint checkpoint = (SavingsInterestCheckpoint) ReflectionTestUtils.getField(account,
+                "interestCheckpoint");
+        assertNotNull(checkpoint);
+        assertEquals(CHECKPOINT, checkpoint.getCheckpointDate());
+        return account;
+    }
+
+    private static SavingsAccount withoutCheckpoint(final SavingsAccount account) {
+        ReflectionTestUtils.setField(account, "interestCheckpoint", null);
+        return account;
+    }
+
+    private static List<PostingPeriod> calculate(final SavingsAccount account) {
+        return account.calculateInterestUsing(MC, CALCULATED_UP_TO, false, false, 1, null);
+    }
+
+    private static void assertSamePeriodsAfterCheckpoint(final List<PostingPeriod> allPeriods, final List<PostingPeriod> resumedPeriods) {
+        int first = 0;
+        while (!allPeriods.get(first).getPeriodInterval().startDate().isAfter(CHECKPOINT)) {
+            first++;
+        }
+        assertSamePeriods(allPeriods.subList(first, allPeriods.size()), resumedPeriods);
+    }
+
+    private static void assertSamePeriods(final List<PostingPeriod> expected, final List<PostingPeriod> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getPeriodInterval().startDate(), actual.get(i).getPeriodInterval().startDate());
+            assertEquals(expected.get(i).getPeriodInterval().endDate(), actual.get(i).getPeriodInterval().endDate());
+            assertEquals(0, expected.get(i).getInterestEarned().getAmount().compareTo(actual.get(i).getInterestEarned().getAmount()));
+            assertEquals(0, expected.get(i).closingBalance().getAmount().compareTo(actual.get(i).closingBalance().getAmount()));
+        }
+    }
+
+    private static void assertSameInterestEarned(final SavingsAccount expected, final SavingsAccount actual) {
+        final BigDecimal expectedInterest = (BigDecimal) ReflectionTestUtils.getField(expected.getSummary(), "totalInterestEarned");
+        final BigDecimal actualInterest = (BigDecimal) ReflectionTestUtils.getField(actual.getSummary(), "totalInterestEarned");
+        assertEquals(0, expectedInterest.compareTo(actualInterest));
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.apache.fineract.infrastructure.hooks.event.HookEvent;
+import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
+import org.apache.fineract.portfolio.common.service.BusinessEventNotifierService;
+import org.apache.fineract.portfolio.search.SearchConstants.SearchIndexEntityType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SearchIndexEventListenerTest {
+
+    // not JSON, so any attempt to parse it fails the test
+    private static final String UNPARSEABLE = "unparseable";
+
+    private SearchIndexService searchIndexService;
+    private SearchIndexEventListener listener;
+
+    @BeforeEach
+    void setUp() {
+        this.searchIndexService = mock(SearchIndexService.class);
+        when(this.searchIndexService.isEnabled()).thenReturn(true);
+        this.listener = new SearchIndexEventListener(mock(BusinessEventNotifierService.class), this.searchIndexService);
+    }
+
+    @Test
+    void clientUpdateIsReindexed() {
+        this.listener.onApplicationEvent(event("CLIENT", "UPDATE", "{\"response\":{\"resourceId\":5,\"clientId\":5}}", false));
+
+        verify(this.searchIndexService).reindex(SearchIndexEntityType.CLIENT, 5L);
+    }
+
+    @Test
+    void eventsOfEntitiesNotIndexedAreNotParsed() {
+        this.listener.onApplicationEvent(event("LOANCHARGE", "UPDATE", UNPARSEABLE, false));
+        this.listener.onApplicationEvent(event("CLIENT", "ACTIVATE", UNPARSEABLE, false));
+
+        verifyNoInteractions(this.searchIndexService);
+    }
+
+    @Test
+    void failedCommandsAreNotParsed() {
+        this.listener.onApplicationEvent(event("CLIENT", "UPDATE", UNPARSEABLE, true));
+
+        verifyNoInteractions(this.searchIndexService);
+    }
+
+    @Test
+    void eventsAreNotParsedWhileTheIndexIsDisabled() {
+        when(this.searchIndexService.isEnabled()).thenReturn(false);
+
+        this.listener.onApplicationEvent(event("CLIENT", "UPDATE", UNPARSEABLE, false));
+
+        verify(this.searchIndexService, never()).reindex(SearchIndexEntityType.CLIENT, 5L);
+    }
+
+    private static HookEvent event(final String entityName, final String actionName, final String payload, final boolean failure) {
+        return new HookEvent(new HookEventSource(entityName, actionName), payload, "default", null, null, failure);
+    }
+}
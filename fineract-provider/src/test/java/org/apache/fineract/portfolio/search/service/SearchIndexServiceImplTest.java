@@ -0,0 +1,176 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.portfolio.search.SearchConstants.SearchIndexEntityType;
+import org.apache.fineract.portfolio.search.data.SearchConditions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class SearchIndexServiceImplTest {
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private SearchIndexServiceImpl searchIndexService;
+
+    private final List<String> executedQueries = new ArrayList<>();
+    private final Map<String, List<Object[]>> rowsByCondition = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        this.jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        this.transactionTemplate = mock(TransactionTemplate.class);
+        this.searchIndexService = new SearchIndexServiceImpl(this.jdbcTemplate, this.transactionTemplate,
+                mock(ConfigurationDomainService.class));
+
+        doAnswer(invocation -> {
+            final String sql = invocation.getArgument(0);
+            final RowCallbackHandler handler = invocation.getArgument(2);
+            this.executedQueries.add(sql);
+            for (final Map.Entry<String, List<Object[]>> entry : this.rowsByCondition.entrySet()) {
+                if (sql.contains(entry.getKey())) {
+                    for (final Object[] row : entry.getValue()) {
+                        handler.processRow(row(row));
+                    }
+                }
+            }
+            return null;
+        }).when(this.jdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    void runsMatchKindsInPriorityOrderAgainstTheLiveOfficeHierarchy() {
+        givenRows(SearchIndexServiceImpl.MatchKind.PREFIX, new Object[] { "CLIENT", 2L, "johnson" });
+        givenRows(SearchIndexServiceImpl.MatchKind.EXACT, new Object[] { "CLIENT", 1L, "johns" });
+        givenRows(SearchIndexServiceImpl.MatchKind.PHONETIC, new Object[] { "CLIENT", 3L, "jones" });
+        givenRows(SearchIndexServiceImpl.MatchKind.FUZZY, new Object[] { "CLIENT", 4L, "johms" }, new Object[] { "CLIENT", 5L, "jokers" });
+
+        final Map<SearchIndexEntityType, Set<Long>> matches = this.searchIndexService
+                .findMatches(new SearchConditions("Johns", null, false), ".1.");
+
+        assertEquals(4, this.executedQueries.size());
+        assertTrue(this.executedQueries.get(0).contains(SearchIndexServiceImpl.MatchKind.EXACT.getCondition()));
+        assertTrue(this.executedQueries.get(1).contains(SearchIndexServiceImpl.MatchKind.PREFIX.getCondition()));
+        assertTrue(this.executedQueries.get(2).contains(SearchIndexServiceImpl.MatchKind.PHONETIC.getCondition()));
+        assertTrue(this.executedQueries.get(3).contains(SearchIndexServiceImpl.MatchKind.FUZZY.getCondition()));
+        for (final String sql : this.executedQueries) {
+            assertTrue(sql.contains("join m_office o on o.id = si.office_id"));
+            assertTrue(sql.contains("o.hierarchy like :hierarchy"));
+            assertTrue(sql.contains(" order by si.term"));
+        }
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L), new ArrayList<>(matches.get(SearchIndexEntityType.CLIENT)));
+    }
+
+    @Test
+    void exactMatchRunsOnlyTheExactQuery() {
+        givenRows(SearchIndexServiceImpl.MatchKind.EXACT, new Object[] { "LOAN", 7L, "000000007" });
+
+        final Map<SearchIndexEntityType, Set<Long>> matches = this.searchIndexService
+                .findMatches(new SearchConditions("000000007", null, true), ".");
+
+        assertEquals(1, this.executedQueries.size());
+        assertEquals(Arrays.asList(7L), new ArrayList<>(matches.get(SearchIndexEntityType.LOAN)));
+    }
+
+    @Test
+    void strongMatchesExhaustingTheBudgetSkipWeakerKinds() {
+        final Object[][] prefixRows = new Object[1000][];
+        for (int i = 0; i < prefixRows.length; i++) {
+            prefixRows[i] = new Object[] { "CLIENT", (long) i + 10, "smithson" + i };
+        }
+        givenRows(SearchIndexServiceImpl.MatchKind.EXACT, new Object[] { "CLIENT", 1L, "smith" });
+        givenRows(SearchIndexServiceImpl.MatchKind.PREFIX, prefixRows);
+
+        final Map<SearchIndexEntityType, Set<Long>> matches = this.searchIndexService
+                .findMatches(new SearchConditions("smith", null, false), ".");
+
+        assertEquals(2, this.executedQueries.size());
+        assertTrue(this.executedQueries.get(1).endsWith("limit 999"));
+        final Set<Long> clients = matches.get(SearchIndexEntityType.CLIENT);
+        assertEquals(1000, clients.size());
+        assertEquals(Long.valueOf(1L), clients.iterator().next());
+    }
+
+    @Test
+    void rebuildReplacesEachEntityTypeInChunkedTransactions() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        final Map<String, Object> idRange = new HashMap<>();
+        idRange.put("minId", 1L);
+        idRange.put("maxId", 12000L);
+        when(this.jdbcTemplate.queryForMap(anyString(), any(SqlParameterSource.class))).thenReturn(idRange);
+        when(this.transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            final TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+
+        this.searchIndexService.rebuildIndex();
+
+        final int entityTypes = SearchIndexEntityType.values().length;
+        verify(this.transactionTemplate, times(3 * entityTypes)).execute(any());
+        verify(this.jdbcTemplate, times(entityTypes)).update(
+                contains("(entity_id < :minId or entity_id > :maxId)"), any(SqlParameterSource.class));
+        verify(this.jdbcTemplate, times(3 * entityTypes))
+                .update(contains("entity_id between :fromId and :toId"), any(SqlParameterSource.class));
+    }
+
+    private void givenRows(final SearchIndexServiceImpl.MatchKind kind, final Object[]... rows) {
+        this.rowsByCondition.put(kind.getCondition(), Arrays.asList(rows));
+    }
+
+    private static ResultSet row(final Object[] values) throws SQLException {
+        final ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString("entityType")).thenReturn((String) values[0]);
+        when(resultSet.getLong("entityId")).thenReturn((Long) values[1]);
+        when(resultSet.getString("term")).thenReturn((String) values[2]);
+        return resultSet;
+    }
+}
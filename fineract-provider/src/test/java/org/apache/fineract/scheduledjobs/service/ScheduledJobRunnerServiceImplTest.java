@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.scheduledjobs.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSourceService;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSourceServiceFactory;
+import org.apache.fineract.infrastructure.jobs.service.PerEntityJob;
+import org.apache.fineract.infrastructure.jobs.service.PerEntityJobRunner;
+import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
+import org.apache.fineract.portfolio.savings.DepositAccountType;
+import org.apache.fineract.portfolio.savings.data.DepositAccountMaturityData;
+import org.apache.fineract.portfolio.savings.data.RecurringDepositScheduleTailData;
+import org.apache.fineract.portfolio.savings.service.DepositAccountReadPlatformService;
+import org.apache.fineract.portfolio.savings.service.DepositAccountWritePlatformService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ScheduledJobRunnerServiceImplTest {
+
+    private DepositAccountReadPlatformService depositAccountReadPlatformService;
+    private DepositAccountWritePlatformService depositAccountWritePlatformService;
+    private PerEntityJobRunner perEntityJobRunner;
+    private ScheduledJobRunnerServiceImpl service;
+    private List<Long> processed;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.depositAccountReadPlatformService = mock(DepositAccountReadPlatformService.class);
+        this.depositAccountWritePlatformService = mock(DepositAccountWritePlatformService.class);
+        this.perEntityJobRunner = mock(PerEntityJobRunner.class);
+        final ConfigurationDomainService configurationDomainService = mock(ConfigurationDomainService.class);
+        when(configurationDomainService.isSavingsInterestPostingAtCurrentPeriodEnd()).thenReturn(true);
+        when(configurationDomainService.retrieveFinancialYearBeginningMonth()).thenReturn(4);
+        final RoutingDataSourceService dataSourceService = mock(RoutingDataSourceService.class);
+        when(dataSourceService.retrieveDataSource()).thenReturn(mock(DataSource.class));
+        final RoutingDataSourceServiceFactory dataSourceServiceFactory = mock(RoutingDataSourceServiceFactory.class);
+        when(dataSourceServiceFactory.determineDataSourceService()).thenReturn(dataSourceService);
+        this.service = new ScheduledJobRunnerServiceImpl(dataSourceServiceFactory, null, null, this.depositAccountReadPlatformService,
+                this.depositAccountWritePlatformService, null, null, null, this.perEntityJobRunner, configurationDomainService);
+
+        this.processed = new ArrayList<>();
+        doAnswer(invocation -> {
+            final PerEntityJob<DepositAccountMaturityData, ?> job = invocation.getArgument(0);
+            for (final DepositAccountMaturityData depositAccount : job.read()) {
+                job.process(depositAccount);
+                this.processed.add(job.entityId(depositAccount));
+            }
+            return null;
+        }).when(this.perEntityJobRunner).run(any());
+    }
+
+    @Test
+    void allDueAccountsAreProcessedInOneRunWithTheConfigurationReadOnce() throws Exception {
+        when(this.depositAccountReadPlatformService.retrieveForMaturityUpdate())
+                .thenReturn(List.of(fixed(1L), fixed(2L), recurring(3L), fixed(4L)));
+
+        this.service.updateMaturityDetailsOfDepositAccounts();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), this.processed);
+        verify(this.perEntityJobRunner, times(1)).run(any());
+        verify(this.perEntityJobRunner, never()).run(any(), anyString());
+        verify(this.depositAccountWritePlatformService).updateMaturityDetails(2L, DepositAccountType.FIXED_DEPOSIT, true, 4);
+        verify(this.depositAccountWritePlatformService).updateMaturityDetails(3L, DepositAccountType.RECURRING_DEPOSIT, true, 4);
+    }
+
+    @Test
+    void fullyPastDueScheduleIsExtendedFromTodayWithoutOverdueInstallments() throws Exception {
+        final LocalDate today = DateUtils.getLocalDateOfTenant();
+        final List<Object[]> installments = generateRDSchedule(tail(today.minusWeeks(3), 12, 0));
+
+        assertEquals(5, installments.size());
+        for (int i = 0; i < installments.size(); i++) {
+            assertEquals(today.plusWeeks(i + 1L).format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), installments.get(i)[1]);
+            assertEquals(13 + i, installments.get(i)[2]);
+        }
+    }
+
+    @Test
+    void scheduleWithFutureInstallmentsIsExtendedFromItsLastInstallment() throws Exception {
+        final LocalDate today = DateUtils.getLocalDateOfTenant();
+        final List<Object[]> installments = generateRDSchedule(tail(today.plusWeeks(2), 12, 3));
+
+        assertEquals(2, installments.size());
+        assertEquals(today.plusWeeks(3).format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), installments.get(0)[1]);
+        assertEquals(13, installments.get(0)[2]);
+        assertEquals(today.plusWeeks(4).format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), installments.get(1)[1]);
+        assertEquals(14, installments.get(1)[2]);
+    }
+
+    private List<Object[]> generateRDSchedule(final RecurringDepositScheduleTailData tail) throws Exception {
+        when(this.depositAccountReadPlatformService.retrieveScheduleTailsToExtend(anyInt())).thenReturn(List.of(tail));
+        final List<Object[]> installments = new ArrayList<>();
+        doAnswer(invocation -> {
+            final PerEntityJob<RecurringDepositScheduleTailData, List<Object[]>> job = invocation.getArgument(0);
+            for (final RecurringDepositScheduleTailData read : job.read()) {
+                installments.addAll(job.process(read));
+            }
+            return null;
+        }).when(this.perEntityJobRunner).run(any());
+
+        this.service.generateRDSchedule();
+        return installments;
+    }
+
+    private static RecurringDepositScheduleTailData tail(final LocalDate lastDueDate, final int lastInstallment,
+            final int futureInstallments) {
+        return RecurringDepositScheduleTailData.instance(1L, BigDecimal.TEN, PeriodFrequencyType.WEEKS, 1, lastDueDate, lastInstallment,
+                futureInstallments);
+    }
+
+    private static DepositAccountMaturityData fixed(final Long id) {
+        return DepositAccountMaturityData.instance(id, "FD" + id, DepositAccountType.FIXED_DEPOSIT);
+    }
+
+    private static DepositAccountMaturityData recurring(final Long id) {
+        return DepositAccountMaturityData.instance(id, "RD" + id, DepositAccountType.RECURRING_DEPOSIT);
+    }
+}
@@ -88,9 +88,9 @@ public class GlobalConfigurationHelper {
         ArrayList<HashMap> expectedGlobalConfigurations = getAllDefaultGlobalConfigurations();
         ArrayList<HashMap> actualGlobalConfigurations = getAllGlobalConfigurations(requestSpec, responseSpec);
 
-        // There are currently 30 global configurations.
-        Assertions.assertEquals(30, expectedGlobalConfigurations.size());
-        Assertions.assertEquals(30, actualGlobalConfigurations.size());
+        // There are currently 32 global configurations.
+        Assertions.assertEquals(32, expectedGlobalConfigurations.size());
+        Assertions.assertEquals(32, actualGlobalConfigurations.size());
 
         for (int i = 0; i < expectedGlobalConfigurations.size(); i++) {
 
@@ -362,6 +362,22 @@ public class GlobalConfigurationHelper {
         isInterestAppropriationEnabled.put("trapDoor", false);
         defaults.add(isInterestAppropriationEnabled);
 
+        HashMap<String, Object> isSearchIndexEnabled = new HashMap<>();
+        isSearchIndexEnabled.put("id", 35);
+        isSearchIndexEnabled.put("name", "enable-search-index");
+        isSearchIndexEnabled.put("value", 0);
+        isSearchIndexEnabled.put("enabled", false);
+        isSearchIndexEnabled.put("trapDoor", false);
+        defaults.add(isSearchIndexEnabled);
+
+        HashMap<String, Object> isCollectionSheetSnapshotEnabled = new HashMap<>();
+        isCollectionSheetSnapshotEnabled.put("id", 36);
+        isCollectionSheetSnapshotEnabled.put("name", "enable-collection-sheet-snapshot");
+        isCollectionSheetSnapshotEnabled.put("value", 0);
+        isCollectionSheetSnapshotEnabled.put("enabled", false);
+        isCollectionSheetSnapshotEnabled.put("trapDoor", false);
+        defaults.add(isCollectionSheetSnapshotEnabled);
+
         return defaults;
     }
 